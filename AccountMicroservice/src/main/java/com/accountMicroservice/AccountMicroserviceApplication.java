@@ -4,14 +4,20 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.accountMicroservice.config.PeakEwmaLoadBalancerConfiguration;
 
 @SpringBootApplication
 @EnableFeignClients(basePackages = "com.accountMicroservice.proxyService") // IMPORTANT: Specifies the package where your Feign client interfaces are
 @EntityScan("com.accountMicroservice.model") // Scans for JPA entities
 @EnableJpaRepositories("com.accountMicroservice.dao") // IMPORTANT: Scans for your NotificationRepository
 @EnableDiscoveryClient // Enables service registration and discovery with Eureka
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class) // Feign calls go to the least loaded, fastest instances
+@EnableScheduling // Runs the striped balance compaction job and the applied posting purge
 public class AccountMicroserviceApplication {
 
 	public static void main(String[] args) {
@@ -6,6 +6,7 @@ import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize; // For method-level security
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,11 +14,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.accountMicroservice.dto.AccountCreationRequest;
+import com.accountMicroservice.dto.AccountBatchGetRequest;
 import com.accountMicroservice.dto.AccountResponse;
+import com.accountMicroservice.dto.AccountSummaryResponse;
 import com.accountMicroservice.dto.AccountUpdateRequest;
+import com.accountMicroservice.dto.BatchPostingRequest;
+import com.accountMicroservice.dto.BatchPostingResult;
 import com.accountMicroservice.dto.DepositRequest;
 import com.accountMicroservice.dto.WithdrawRequest;
 import com.accountMicroservice.exception.AccountCreationException;
@@ -86,6 +92,35 @@ public class AccountController {
                       .orElseThrow(() -> new AccountNotFoundException("Account not found with ID: " + accountId));
     }
 
+    /**
+     * Handles POST /accounts/batch-get requests.
+     * Retrieves several accounts in one call (one database query), e.g. for dashboards and the Transaction Service.
+     * Unknown IDs are left out of the result.
+     *
+     * @param request The AccountBatchGetRequest DTO with the account IDs.
+     * @return ResponseEntity with the AccountResponse DTOs (in request order) and HTTP status 200 (OK).
+     * @throws AccountProcessingException if too many IDs are requested.
+     */
+    @PostMapping("/batch-get")
+    public ResponseEntity<List<AccountResponse>> getAccountsByIds(@Valid @RequestBody AccountBatchGetRequest request) {
+        List<AccountResponse> accounts = accountService.getAccountsByIds(request.getAccountIds());
+        return new ResponseEntity<>(accounts, HttpStatus.OK);
+    }
+
+    /**
+     * Handles POST /accounts/batch-get?view=summary requests.
+     * Same as above, but returns only the ID, balance and status of each account.
+     *
+     * @param request The AccountBatchGetRequest DTO with the account IDs.
+     * @return ResponseEntity with the AccountSummaryResponse DTOs (in request order) and HTTP status 200 (OK).
+     * @throws AccountProcessingException if too many IDs are requested.
+     */
+    @PostMapping(value = "/batch-get", params = "view=summary")
+    public ResponseEntity<List<AccountSummaryResponse>> getAccountSummariesByIds(@Valid @RequestBody AccountBatchGetRequest request) {
+        List<AccountSummaryResponse> summaries = accountService.getAccountSummariesByIds(request.getAccountIds());
+        return new ResponseEntity<>(summaries, HttpStatus.OK);
+    }
+
     /**
      * Handles PUT /accounts/{accountId} requests (for updating status).
      * Updates the status of an account.
@@ -103,6 +138,25 @@ public class AccountController {
         return new ResponseEntity<>(updatedAccount, HttpStatus.OK);
     }
 
+    /**
+     * Handles PUT /accounts/{accountId}/striping requests.
+     * Turns striped balance mode on or off for a high-volume account (e.g. a merchant collection account).
+     * An operator setting: changing it locks the account, compacts and recreates its slots, so only ADMINs may call it.
+     *
+     * @param accountId The ID of the account.
+     * @param stripes The number of sub-balance slots deposits are spread over (0 turns striping off).
+     * @return ResponseEntity with the updated AccountResponse DTO and HTTP status 200 (OK).
+     * @throws AccountNotFoundException if the account is not found.
+     * @throws AccountProcessingException if the number of stripes is out of range.
+     */
+    @PutMapping("/{accountId}/striping")
+    @PreAuthorize("hasRole('ADMIN')") // Only ADMINs can change how an account's balance is stored
+    public ResponseEntity<AccountResponse> configureBalanceStriping(@PathVariable String accountId,
+                                                                    @RequestParam int stripes) {
+        AccountResponse updatedAccount = accountService.configureBalanceStriping(accountId, stripes);
+        return new ResponseEntity<>(updatedAccount, HttpStatus.OK);
+    }
+
     /**
      * Handles DELETE /accounts/{accountId} requests.
      * Deletes or closes an account.
@@ -145,7 +199,7 @@ public class AccountController {
      * @param request The WithdrawRequest DTO from the calling service.
      * @return ResponseEntity with the updated AccountResponse DTO and HTTP status 200 (OK).
      * @throws AccountNotFoundException if the account is not found.
-     * @throws InsufficientFundsException if the account has insufficient funds.
+     * @throws InsufficientFundsException if the account has insufficient funds (HTTP 422).
      * @throws AccountProcessingException if the withdrawal fails.
      */
     @PostMapping("/{accountId}/withdraw")
@@ -154,4 +208,22 @@ public class AccountController {
         AccountResponse updatedAccount = accountService.withdrawFunds(accountId, request);
         return new ResponseEntity<>(updatedAccount, HttpStatus.OK);
     }
+
+    /**
+     * Handles POST /accounts/batch requests.
+     * This endpoint is specifically designed for inter-service communication (e.g., bulk transfers from Transaction Service).
+     * Applies many debits, credits and transfers in one database transaction.
+     * Moves money between any accounts, so only other services may call it: the caller needs the SERVICE realm role,
+     * which is assigned to the service accounts of the confidential clients (e.g. transaction-service), not to users.
+     *
+     * @param request The BatchPostingRequest DTO from the calling service.
+     * @return ResponseEntity with one BatchPostingResult per posting (in request order) and HTTP status 200 (OK).
+     * @throws AccountProcessingException if the batch is too large.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('SERVICE')") // Service accounts only; users get 403 (also through the gateway)
+    public ResponseEntity<List<BatchPostingResult>> applyBatch(@Valid @RequestBody BatchPostingRequest request) {
+        List<BatchPostingResult> results = accountService.applyBatch(request);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
 }
@@ -0,0 +1,84 @@
+package com.accountMicroservice.dao;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.accountMicroservice.model.AccountBalanceSlot;
+import com.accountMicroservice.model.Money;
+
+import jakarta.persistence.LockModeType;
+
+@Repository // Marks this interface as a Spring Data JPA repository component
+public interface AccountBalanceSlotRepository extends JpaRepository<AccountBalanceSlot, String> {
+
+    /**
+     * Finds all balance slots of an account.
+     * @param accountId The ID of the account.
+     * @return The account's slots (empty if the account is not striped).
+     */
+    List<AccountBalanceSlot> findByAccountId(String accountId);
+
+    /**
+     * Locks all balance slots of an account (SELECT ... FOR UPDATE) until the current transaction ends,
+     * so no deposit can credit a slot while the slots are being replaced.
+     * @param accountId The ID of the account.
+     * @return The account's locked slots.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from AccountBalanceSlot s where s.accountId = :accountId")
+    List<AccountBalanceSlot> lockByAccountId(@Param("accountId") String accountId);
+
+    /**
+     * Sums the amounts held in an account's slots.
+     * @param accountId The ID of the account.
+     * @return The sum in major units (aggregates are not run through MoneyConverter), or 0 if the account has no slots.
+     */
+    @Query("select coalesce(sum(s.amount), 0) from AccountBalanceSlot s where s.accountId = :accountId")
+    BigDecimal sumByAccountId(@Param("accountId") String accountId);
+
+    /**
+     * Sums the slots of several accounts in one grouped query.
+     * @param accountIds The IDs of the accounts.
+     * @return One [accountId, sum in major units as BigDecimal] row per account that has slots.
+     */
+    @Query("select s.accountId, sum(s.amount) from AccountBalanceSlot s where s.accountId in :accountIds group by s.accountId")
+    List<Object[]> sumByAccountIds(@Param("accountIds") Collection<String> accountIds);
+
+    /**
+     * Atomically adds an amount to one slot.
+     * @param slotKey The slot's key (see AccountBalanceSlot.keyOf).
+     * @param amount The (positive) amount to add.
+     * @return The number of updated rows: 1, or 0 if the slot does not exist.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update AccountBalanceSlot s set s.amount = s.amount + :amount where s.slotKey = :slotKey")
+    int creditSlot(@Param("slotKey") String slotKey, @Param("amount") Money amount);
+
+    /**
+     * Atomically takes an amount out of one slot if the slot still holds at least that much.
+     * Used by compaction, which moves what it took into the main balance in the same transaction.
+     * @param slotKey The slot's key.
+     * @param amount The amount previously read from the slot.
+     * @return 1 if the amount was taken, 0 otherwise (e.g. a concurrent compaction took it first).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update AccountBalanceSlot s set s.amount = s.amount - :amount where s.slotKey = :slotKey and s.amount >= :amount")
+    int drainSlot(@Param("slotKey") String slotKey, @Param("amount") Money amount);
+
+    /**
+     * Removes all slots of an account in a single bulk statement.
+     * @param accountId The ID of the account.
+     * @return The number of deleted slots.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from AccountBalanceSlot s where s.accountId = :accountId")
+    int deleteByAccountId(@Param("accountId") String accountId);
+}
@@ -1,13 +1,21 @@
 package com.accountMicroservice.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.LockModeType;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.accountMicroservice.model.Account;
 import com.accountMicroservice.model.AccountStatus;
+import com.accountMicroservice.model.Money;
 
 @Repository // Marks this interface as a Spring Data JPA repository component
 public interface AccountRepository extends JpaRepository<Account, String> {
@@ -43,5 +51,69 @@ public interface AccountRepository extends JpaRepository<Account, String> {
      */
     List<Account> findByStatus(AccountStatus status);
 
+    /**
+     * Atomically adds an amount to an account's balance in a single UPDATE statement.
+     * Concurrent credits are applied by the database one after another, so none is lost,
+     * and no row is locked for longer than the statement itself.
+     * Must run inside a transaction. The persistence context is cleared afterwards, so re-read the
+     * account to see the new balance.
+     * @param accountId The ID of the account to credit.
+     * @param amount The (positive) amount to add.
+     * @return The number of updated rows: 1, or 0 if the account does not exist.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance + :amount where a.accountId = :accountId")
+    int creditBalance(@Param("accountId") String accountId, @Param("amount") Money amount);
+
+    /**
+     * Atomically subtracts an amount from an account's balance if, and only if, the balance covers it.
+     * The funds check and the debit happen in one UPDATE statement, so two concurrent withdrawals can
+     * never both pass the check and overdraw the account.
+     * Must run inside a transaction. The persistence context is cleared afterwards, so re-read the
+     * account to see the new balance.
+     * @param accountId The ID of the account to debit.
+     * @param amount The (positive) amount to subtract.
+     * @return 1 if the account was debited, 0 if it does not exist or has insufficient funds.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance - :amount where a.accountId = :accountId and a.balance >= :amount")
+    int debitBalance(@Param("accountId") String accountId, @Param("amount") Money amount);
+
+    /**
+     * Reads only the ID, balance, status and striping of the given accounts (no full entities are loaded).
+     * @param accountIds The IDs of the accounts.
+     * @return A BalanceView per account that exists, in no particular order.
+     */
+    @Query("select a.accountId as accountId, a.balance as balance, a.status as status, a.balanceStripes as balanceStripes "
+            + "from Account a where a.accountId in :accountIds")
+    List<BalanceView> findBalanceViewsByIdIn(@Param("accountIds") Collection<String> accountIds);
+
+    /**
+     * Loads and locks (SELECT ... FOR UPDATE) the given accounts until the current transaction ends.
+     * Rows are locked in account ID order, so two batches touching the same accounts can't deadlock.
+     * @param accountIds The IDs of the accounts.
+     * @return The accounts that exist, ordered by ID.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.accountId in :accountIds order by a.accountId")
+    List<Account> lockAllByIdIn(@Param("accountIds") Collection<String> accountIds);
+
+    /**
+     * Finds the IDs of all accounts in striped balance mode (for slot compaction).
+     * @return The IDs of accounts with balanceStripes > 0.
+     */
+    @Query("select a.accountId from Account a where a.balanceStripes > 0")
+    List<String> findStripedAccountIds();
+
     // You can add more custom query methods as needed for your business logic.
+
+    /**
+     * Projection for findBalanceViewsByIdIn.
+     */
+    interface BalanceView {
+        String getAccountId();
+        Money getBalance();
+        AccountStatus getStatus();
+        Integer getBalanceStripes(); // Null unless the account is in striped balance mode
+    }
 }
@@ -0,0 +1,27 @@
+package com.accountMicroservice.dao;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.accountMicroservice.model.AppliedPosting;
+
+@Repository // Marks this interface as a Spring Data JPA repository component
+public interface AppliedPostingRepository extends JpaRepository<AppliedPosting, String> {
+    // Lookups are by primary key (posting key), so findById/existsById are all that is needed.
+
+    /**
+     * Removes postings applied before the given cut-off in a single bulk statement (range scan on idx_applied_posting_at).
+     * @param cutoff Postings applied before this instant are deleted.
+     * @return The number of deleted postings.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from AppliedPosting p where p.appliedAt < :cutoff")
+    int deleteAppliedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,20 @@
+package com.accountMicroservice.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for POST /accounts/batch-get: the IDs of the accounts to fetch in one call.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBatchGetRequest {
+    @NotEmpty(message = "At least one account ID is required")
+    private List<@NotBlank(message = "Account ID cannot be empty") String> accountIds;
+}
@@ -1,10 +1,10 @@
 package com.accountMicroservice.dto;
 
 import com.accountMicroservice.model.AccountType;
+import com.accountMicroservice.model.Money;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -24,6 +24,5 @@ public class AccountCreationRequest {
     private AccountType accountType; // SAVINGS, CURRENT
 
     @NotNull(message = "Initial balance cannot be null")
-    @PositiveOrZero(message = "Initial balance must be zero or positive")
-    private Double initialBalance;
+    private Money initialBalance; // Must be zero or positive (checked by the service)
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 
 import com.accountMicroservice.model.AccountStatus;
 import com.accountMicroservice.model.AccountType;
+import com.accountMicroservice.model.Money;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -21,7 +22,7 @@ public class AccountResponse {
     private String userId;
     private String accountNumber;
     private AccountType accountType;
-    private Double balance;
+    private Money balance;
     private AccountStatus status;
     private LocalDateTime createdAt;
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.accountMicroservice.dto;
+
+import java.time.LocalDateTime;
+
+import com.accountMicroservice.model.AccountStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Event published on the account-status-events topic (keyed by accountId) when an account's
+ * status changes or the account is deleted. Consumers use it to invalidate cached account details.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountStatusEvent {
+
+    public enum EventType {
+        STATUS_CHANGED,
+        DELETED
+    }
+
+    private String accountId;
+    private EventType eventType;
+    private AccountStatus status; // New status; null for DELETED
+    private LocalDateTime occurredAt;
+}
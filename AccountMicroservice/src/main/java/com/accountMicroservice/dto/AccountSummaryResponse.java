@@ -0,0 +1,21 @@
+package com.accountMicroservice.dto;
+
+import com.accountMicroservice.model.AccountStatus;
+import com.accountMicroservice.model.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the summary view of an account (POST /accounts/batch-get?view=summary):
+ * only what balance checks and dashboards need, instead of the full AccountResponse.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSummaryResponse {
+    private String accountId;
+    private Money balance; // Main balance plus any not yet compacted slots
+    private AccountStatus status;
+}
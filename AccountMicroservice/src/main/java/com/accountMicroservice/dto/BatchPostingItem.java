@@ -0,0 +1,28 @@
+package com.accountMicroservice.dto;
+
+import com.accountMicroservice.model.Money;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One posting of a POST /accounts/batch request: a transfer (both accounts), a debit (fromAccountId only)
+ * or a credit (toAccountId only). Debit and credit of a transfer are applied together or not at all.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPostingItem {
+    @NotBlank(message = "Transaction ID cannot be empty")
+    private String transactionId; // Reference to the transaction that requested this posting
+
+    private String fromAccountId; // Account to debit, or null for a plain credit
+
+    private String toAccountId;   // Account to credit, or null for a plain debit
+
+    @NotNull(message = "Amount cannot be null")
+    private Money amount;         // Must be positive (checked by the service)
+}
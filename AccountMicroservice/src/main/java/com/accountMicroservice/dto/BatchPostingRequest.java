@@ -0,0 +1,21 @@
+package com.accountMicroservice.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for POST /accounts/batch: many postings applied in one database transaction
+ * (e.g. a chunk of a payroll file sent by the Transaction Service).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPostingRequest {
+    @NotEmpty(message = "A batch needs at least one posting")
+    private List<@Valid BatchPostingItem> items;
+}
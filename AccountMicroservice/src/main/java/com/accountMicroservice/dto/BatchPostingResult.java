@@ -0,0 +1,23 @@
+package com.accountMicroservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one posting of a POST /accounts/batch request, in the order of the request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPostingResult {
+    private String transactionId;
+    private Status status;
+    private String message; // Why the posting was rejected, null otherwise
+
+    public enum Status {
+        APPLIED,         // Balances changed by this request
+        ALREADY_APPLIED, // Applied by an earlier request with the same transactionId (retry)
+        REJECTED         // Not applied, see message
+    }
+}
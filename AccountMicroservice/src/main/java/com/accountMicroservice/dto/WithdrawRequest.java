@@ -1,8 +1,9 @@
 package com.accountMicroservice.dto;
 
+import com.accountMicroservice.model.Money;
+
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,6 +20,5 @@ public class WithdrawRequest {
     private String transactionId; // Reference to the transaction that initiated this withdrawal
 
     @NotNull(message = "Amount cannot be null")
-    @Positive(message = "Amount must be positive")
-    private Double amount;        // The amount to be withdrawn
+    private Money amount;         // The amount to be withdrawn; must be positive (checked by the service)
 }
\ No newline at end of file
@@ -5,9 +5,10 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 
 /**
  * Custom exception for when an account has insufficient funds for a withdrawal.
- * Maps to HTTP 400 Bad Request.
+ * Maps to HTTP 422 Unprocessable Entity: the request is valid but the balance cannot cover it, which callers
+ * (the Transaction Service) tell apart from a malformed request (400) by the status alone.
  */
-@ResponseStatus(HttpStatus.BAD_REQUEST)
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
 public class InsufficientFundsException extends RuntimeException {
     /**
 	 * 
@@ -9,14 +9,19 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
 @Entity // Marks this class as a JPA entity, mapping it to a database table named 'Account' by default
 @Data // Lombok: Generates getters, setters, equals, hashCode, and toString methods
 @NoArgsConstructor // Lombok: Generates a no-argument constructor (required by JPA)
 @AllArgsConstructor // Lombok: Generates a constructor with all fields
+@DynamicUpdate // Entity updates (e.g. status changes) write only the changed columns, never a stale balance
 public class Account {
 
     @Id // Designates 'accountId' as the primary key
@@ -28,14 +33,16 @@ public class Account {
     private String userId; // Foreign key referencing the User Service's User ID
 
     @Column(name = "account_number", unique = true, nullable = false)
-    private String accountNumber; // Unique identifier for the account (e.g., 1234567890)
+    private String accountNumber; // Unique identifier for the account (e.g., 000000012344; see AccountNumberAllocator)
 
     @Enumerated(EnumType.STRING) // Stores the enum as a string in the database
     @Column(name = "account_type", nullable = false)
     private AccountType accountType; // Possible values: SAVINGS, CURRENT
 
-    @Column(name = "balance", nullable = false)
-    private Double balance; // Current balance of the account
+    // Changed through the atomic UPDATEs in AccountRepository (creditBalance/debitBalance), or by
+    // AccountServiceImpl.applyBatch on rows it holds locked (lockAllByIdIn), written at commit by dirty checking
+    @Column(name = "balance", nullable = false, precision = 19, scale = 2)
+    private Money balance; // Current balance of the account
 
     @Enumerated(EnumType.STRING) // Stores the enum as a string in the database
     @Column(name = "status", nullable = false)
@@ -44,4 +51,14 @@ public class Account {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt; // Timestamp when the account was created
 
+    // Striped balance mode for hot accounts: number of AccountBalanceSlot rows deposits are spread over.
+    // Null or 0 means deposits go straight to 'balance'. The total balance is 'balance' plus the slots.
+    @Column(name = "balance_stripes")
+    private Integer balanceStripes;
+
+    @Version // Optimistic locking for read-modify-write updates such as status changes
+    @ColumnDefault("0") // Lets schema update add the column to existing rows
+    @Column(name = "version", nullable = false)
+    private Long version;
+
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.accountMicroservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One sub-balance of an account in striped balance mode.
+ * Deposits into a striped account are spread over its slots instead of all updating the Account row,
+ * so they do not queue up on a single row lock. The account's balance is the main balance plus the
+ * sum of its slots; the slots are periodically folded back into the main balance.
+ * A slot's amount is never negative.
+ */
+@Entity // Marks this class as a JPA entity
+@Table(name = "account_balance_slot", indexes = @Index(name = "idx_balance_slot_account", columnList = "account_id"))
+@Data // Lombok: Generates getters, setters, equals, hashCode, and toString methods
+@NoArgsConstructor // Lombok: Generates a no-argument constructor (required by JPA)
+@AllArgsConstructor // Lombok: Generates a constructor with all fields
+public class AccountBalanceSlot {
+
+    @Id // accountId:slot, e.g. acc-1:3
+    @Column(name = "slot_key", updatable = false, nullable = false)
+    private String slotKey;
+
+    @Column(name = "account_id", nullable = false)
+    private String accountId;
+
+    @Column(name = "slot", nullable = false)
+    private Integer slot; // 0 .. balanceStripes - 1
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2)
+    private Money amount; // Credits not yet folded into the main balance
+
+    public static String keyOf(String accountId, int slot) {
+        return accountId + ":" + slot;
+    }
+}
@@ -0,0 +1,95 @@
+package com.accountMicroservice.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Records that a deposit or withdrawal for a given transaction has already been applied to an account.
+ * The posting key is unique, so a retried call from the Transaction Service can never move money twice:
+ * the duplicate is detected up front, and a concurrent duplicate fails on the primary key and rolls back.
+ * Implements Persistable so that saving a freshly created posting is a plain INSERT (JDBC-batchable)
+ * instead of a SELECT by key followed by an INSERT, as Spring Data does for entities with assigned IDs.
+ * Postings are kept for account.applied-posting.retention and then purged (AccountServiceImpl.purgeExpiredPostings).
+ */
+@Entity // Marks this class as a JPA entity
+@Table(name = "applied_posting", indexes = @Index(name = "idx_applied_posting_at", columnList = "applied_at"))
+@Data // Lombok: Generates getters, setters, equals, hashCode, and toString methods
+@NoArgsConstructor // Lombok: Generates a no-argument constructor (required by JPA)
+public class AppliedPosting implements Persistable<String> {
+
+    public static final String DEPOSIT = "DEPOSIT";
+    public static final String WITHDRAW = "WITHDRAW";
+
+    @Id // operation:accountId:transactionId, e.g. DEPOSIT:acc-1:txn-1
+    @Column(name = "posting_key", updatable = false, nullable = false)
+    private String postingKey;
+
+    @Column(name = "transaction_id", nullable = false)
+    private String transactionId; // Transaction Service's transaction that requested this posting
+
+    @Column(name = "account_id", nullable = false)
+    private String accountId;
+
+    @Column(name = "operation", nullable = false)
+    private String operation; // DEPOSIT or WITHDRAW
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2)
+    private Money amount;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+
+    @Transient // True for a posting created here; false once it is inserted or when it was loaded from the database
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean isNew;
+
+    public AppliedPosting(String postingKey, String transactionId, String accountId, String operation,
+                          Money amount, LocalDateTime appliedAt) {
+        this.postingKey = postingKey;
+        this.transactionId = transactionId;
+        this.accountId = accountId;
+        this.operation = operation;
+        this.amount = amount;
+        this.appliedAt = appliedAt;
+        this.isNew = true;
+    }
+
+    @Override
+    public String getId() {
+        return postingKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    /**
+     * Builds the posting key. The account is part of the key because a transfer uses the same
+     * transactionId for the withdrawal from the source and the deposit into the target account.
+     */
+    public static String keyOf(String operation, String accountId, String transactionId) {
+        return operation + ":" + accountId + ":" + transactionId;
+    }
+}
@@ -5,6 +5,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 
 import com.accountMicroservice.dto.UserDto;
+import com.accountMicroservice.exception.AccountProcessingException;
+
+import feign.FeignException;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
@@ -17,6 +20,7 @@ public interface UserServiceClient {
      * Corresponds to GET /auth/user/{id}
      * @param userId The ID of the user to retrieve.
      * @return A UserDto object containing the user details, or null if not found.
+     * Callers should go through UserValidationCache rather than calling this directly.
      */
     @GetMapping("/user/{userId}")
     @CircuitBreaker(name = "userService", fallbackMethod = "getUserByIdFallback")
@@ -25,12 +29,15 @@ public interface UserServiceClient {
 
     /**
      * Fallback method for getUserById.
-     * Returns null or throws a specific exception when User Service is unavailable.
+     * Returns null only when the User Service answered 404 (the user does not exist).
+     * Any other failure means the user could not be validated, so it is reported instead of being
+     * mistaken for an unknown (or a valid) user.
      */
     default UserDto getUserByIdFallback(String userId, Throwable t) {
         System.err.println("Fallback triggered for getUserById for user " + userId + ": " + t.getMessage());
-        // For user validation, returning null implies user not found or service unavailable.
-        // You might want to throw an exception here if user validation is critical.
-        return null;
+        if (t instanceof FeignException.NotFound) {
+            return null;
+        }
+        throw new AccountProcessingException("User Service unavailable; cannot validate user " + userId + ".", t);
     }
-}
\ No newline at end of file
+}
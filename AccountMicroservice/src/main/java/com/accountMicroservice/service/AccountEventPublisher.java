@@ -0,0 +1,75 @@
+package com.accountMicroservice.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.accountMicroservice.dto.AccountStatusEvent;
+import com.accountMicroservice.model.AccountStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Publishes account status changes and deletions to the account-status-events topic.
+ * Events are sent only after the database transaction commits, so consumers never evict
+ * (and then reload) a change that was rolled back. Publishing is best effort: consumers
+ * also expire their cached copies after a short TTL.
+ */
+@Component
+public class AccountEventPublisher {
+
+    public static final String ACCOUNT_STATUS_TOPIC = "account-status-events";
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public AccountEventPublisher(KafkaTemplate<String, String> kafkaTemplate, ObjectMapper objectMapper) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public void publishStatusChanged(String accountId, AccountStatus status) {
+        publishAfterCommit(new AccountStatusEvent(accountId, AccountStatusEvent.EventType.STATUS_CHANGED, status,
+                LocalDateTime.now()));
+    }
+
+    public void publishDeleted(String accountId) {
+        publishAfterCommit(new AccountStatusEvent(accountId, AccountStatusEvent.EventType.DELETED, null,
+                LocalDateTime.now()));
+    }
+
+    private void publishAfterCommit(AccountStatusEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+
+    private void send(AccountStatusEvent event) {
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            kafkaTemplate.send(ACCOUNT_STATUS_TOPIC, event.getAccountId(), payload)
+                    .whenComplete((result, e) -> {
+                        if (e != null) {
+                            System.err.println("Failed to publish " + event.getEventType() + " event for account "
+                                    + event.getAccountId() + ": " + e.getMessage());
+                        }
+                    });
+        } catch (JsonProcessingException | RuntimeException e) {
+            // Never fail the account update because the event could not be sent
+            System.err.println("Failed to publish " + event.getEventType() + " event for account "
+                    + event.getAccountId() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.accountMicroservice.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.accountMicroservice.exception.AccountCreationException;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Hands out account numbers without ever probing the accounts table.
+ * Numbers are allocated hi/lo: each call to the database sequence account_number_block_seq reserves a block
+ * of account.number.block-size consecutive numbers for this instance, which are then handed out from memory with a
+ * single atomic increment. Only the thread that finds the block used up goes back to the sequence.
+ * The sequence never returns a value twice, so numbers are unique across instances and restarts (numbers left in the
+ * block of a stopped instance are simply never used).
+ * An account number is the 11-digit block number + offset followed by a Luhn check digit (12 digits), so typing
+ * errors are caught and new numbers can never clash with the 10-digit random numbers of older accounts.
+ * The sequence is created at start-up if it does not exist yet (schema update only creates mapped tables).
+ */
+@Component
+public class AccountNumberAllocator {
+
+    static final String BLOCK_SEQUENCE = "account_number_block_seq";
+    static final int BASE_DIGITS = 11;
+    private static final long BASE_LIMIT = 100_000_000_000L; // 10^BASE_DIGITS
+
+    private final EntityManager entityManager;
+    private final String nextBlockSql;
+    private final int blockSize;
+    private volatile Block current = new Block(0, 0); // Empty: the first call reserves a block
+
+    @Autowired
+    public AccountNumberAllocator(EntityManager entityManager, EntityManagerFactory entityManagerFactory,
+            DataSource dataSource, @Value("${account.number.block-size:100}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("account.number.block-size must be positive");
+        }
+        this.entityManager = entityManager;
+        this.blockSize = blockSize;
+        JdbcServices jdbcServices = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices();
+        Dialect dialect = jdbcServices.getDialect();
+        this.nextBlockSql = dialect.getSequenceSupport().getSequenceNextValString(BLOCK_SEQUENCE);
+        createSequenceIfMissing(jdbcServices, dataSource);
+    }
+
+    /**
+     * Creates the block sequence (start 1, increment 1) unless the database already has it.
+     */
+    private static void createSequenceIfMissing(JdbcServices jdbcServices, DataSource dataSource) {
+        boolean exists = jdbcServices.getExtractedMetaDataSupport().getSequenceInformationList().stream()
+                .anyMatch(sequence -> BLOCK_SEQUENCE.equalsIgnoreCase(sequence.getSequenceName().getSequenceName().getText()));
+        if (exists) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (String sql : jdbcServices.getDialect().getSequenceSupport().getCreateSequenceStrings(BLOCK_SEQUENCE, 1, 1)) {
+                statement.execute(sql);
+            }
+            System.out.println("Created sequence " + BLOCK_SEQUENCE + " for account number blocks.");
+        } catch (SQLException e) {
+            // Usually another instance starting at the same time created it first; if not, the first allocation fails loudly
+            System.err.println("Could not create sequence " + BLOCK_SEQUENCE + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns a new, never used account number.
+     * @return A 12-digit account number whose last digit is a Luhn check digit.
+     * @throws AccountCreationException if the number space is exhausted.
+     */
+    public String nextAccountNumber() {
+        while (true) {
+            Block block = current;
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return withCheckDigit(value);
+            }
+            reserveBlock(block);
+        }
+    }
+
+    /**
+     * Replaces the used up block with a fresh one from the sequence. Threads that arrive while another thread is
+     * reserving wait for it, then find the new block and return without touching the sequence.
+     */
+    private synchronized void reserveBlock(Block exhausted) {
+        if (current != exhausted) {
+            return;
+        }
+        long blockNumber = ((Number) entityManager.createNativeQuery(nextBlockSql).getSingleResult()).longValue();
+        long start = Math.multiplyExact(blockNumber, (long) blockSize);
+        if (start + blockSize > BASE_LIMIT) {
+            throw new AccountCreationException("Account number space exhausted.");
+        }
+        current = new Block(start, start + blockSize);
+    }
+
+    /**
+     * Formats the number with BASE_DIGITS digits and appends its Luhn check digit.
+     */
+    static String withCheckDigit(long value) {
+        String base = String.format("%0" + BASE_DIGITS + "d", value);
+        return base + luhnCheckDigit(base);
+    }
+
+    /**
+     * Computes the Luhn (mod 10) check digit of a string of digits.
+     */
+    static int luhnCheckDigit(String digits) {
+        int sum = 0;
+        boolean doubleIt = true; // The rightmost digit of the payload is doubled, as the check digit will follow it
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubleIt) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubleIt = !doubleIt;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    /**
+     * Checks the Luhn check digit of a full account number (e.g. to validate user input).
+     */
+    public static boolean isValid(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() != BASE_DIGITS + 1 || !accountNumber.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        return luhnCheckDigit(accountNumber.substring(0, BASE_DIGITS)) == accountNumber.charAt(BASE_DIGITS) - '0';
+    }
+
+    /**
+     * A reserved range [start, end) and the next unused value in it.
+     */
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
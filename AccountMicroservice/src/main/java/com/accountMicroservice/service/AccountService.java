@@ -5,7 +5,10 @@ import java.util.Optional;
 
 import com.accountMicroservice.dto.AccountCreationRequest;
 import com.accountMicroservice.dto.AccountResponse;
+import com.accountMicroservice.dto.AccountSummaryResponse;
 import com.accountMicroservice.dto.AccountUpdateRequest;
+import com.accountMicroservice.dto.BatchPostingRequest;
+import com.accountMicroservice.dto.BatchPostingResult;
 import com.accountMicroservice.dto.DepositRequest;
 import com.accountMicroservice.dto.WithdrawRequest;
 import com.accountMicroservice.exception.AccountCreationException;
@@ -34,6 +37,22 @@ public interface AccountService {
      */
     Optional<AccountResponse> getAccountById(String accountId);
 
+    /**
+     * Retrieves several accounts with a single query.
+     * @param accountIds The IDs of the accounts (duplicates are ignored).
+     * @return The AccountResponse DTOs of the accounts that exist, in request order.
+     * @throws AccountProcessingException if more than account.batch-get.max-ids IDs are requested.
+     */
+    List<AccountResponse> getAccountsByIds(List<String> accountIds); // Corresponds to POST /accounts/batch-get
+
+    /**
+     * Retrieves the ID, balance and status of several accounts with a single query, without loading full accounts.
+     * @param accountIds The IDs of the accounts (duplicates are ignored).
+     * @return The AccountSummaryResponse DTOs of the accounts that exist, in request order.
+     * @throws AccountProcessingException if more than account.batch-get.max-ids IDs are requested.
+     */
+    List<AccountSummaryResponse> getAccountSummariesByIds(List<String> accountIds); // Corresponds to POST /accounts/batch-get?view=summary
+
     /**
      * Retrieves all accounts associated with a specific user ID.
      * @param userId The ID of the user.
@@ -81,4 +100,25 @@ public interface AccountService {
      * @throws AccountProcessingException if the deletion fails.
      */
     void deleteAccount(String accountId); // Corresponds to DELETE /accounts/{accountId}
+
+    /**
+     * Turns striped balance mode on or off for a hot account, or changes its number of slots.
+     * In striped mode, deposits are spread over sub-balance slots that are periodically folded into the main balance.
+     * @param accountId The ID of the account.
+     * @param stripes The number of slots (0 turns striping off).
+     * @return The updated AccountResponse DTO.
+     * @throws AccountNotFoundException if the account is not found.
+     * @throws AccountProcessingException if the number of stripes is out of range.
+     */
+    AccountResponse configureBalanceStriping(String accountId, int stripes); // Corresponds to PUT /accounts/{accountId}/striping
+
+    /**
+     * Applies many debits, credits and transfers (e.g. a chunk of a payroll file) in one database transaction.
+     * Each posting succeeds or is rejected on its own; a rejected posting does not roll back the others.
+     * Idempotent per transactionId, like depositFunds and withdrawFunds.
+     * @param request The BatchPostingRequest DTO.
+     * @return One BatchPostingResult per posting, in request order.
+     * @throws AccountProcessingException if the batch is larger than account.batch.max-items.
+     */
+    List<BatchPostingResult> applyBatch(BatchPostingRequest request); // Corresponds to POST /accounts/batch
 }
\ No newline at end of file
@@ -1,21 +1,34 @@
 package com.accountMicroservice.service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException; // For unique constraint violations
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.HttpClientErrorException;
 
 import com.accountMicroservice.dao.AccountRepository;
+import com.accountMicroservice.dao.AppliedPostingRepository;
 import com.accountMicroservice.dto.AccountCreationRequest;
 import com.accountMicroservice.dto.AccountResponse;
+import com.accountMicroservice.dto.AccountSummaryResponse;
 import com.accountMicroservice.dto.AccountUpdateRequest;
+import com.accountMicroservice.dto.BatchPostingItem;
+import com.accountMicroservice.dto.BatchPostingRequest;
+import com.accountMicroservice.dto.BatchPostingResult;
 import com.accountMicroservice.dto.DepositRequest;
 import com.accountMicroservice.dto.UserDto;
 import com.accountMicroservice.dto.WithdrawRequest;
@@ -25,44 +38,65 @@ import com.accountMicroservice.exception.AccountProcessingException;
 import com.accountMicroservice.exception.InsufficientFundsException;
 import com.accountMicroservice.model.Account;
 import com.accountMicroservice.model.AccountStatus;
-import com.accountMicroservice.proxyService.UserServiceClient;
+import com.accountMicroservice.model.AppliedPosting;
+import com.accountMicroservice.model.Money;
 
 @Service
 public class AccountServiceImpl implements AccountService {
 
     private final AccountRepository accountRepository;
-    private final UserServiceClient userServiceClient; // Inject UserServiceClient
+    private final UserValidationCache userValidationCache; // Cached user existence checks against the User Service
+    private final AppliedPostingRepository appliedPostingRepository; // Dedupes retried deposits/withdrawals
+    private final AccountEventPublisher accountEventPublisher; // Announces status changes to cache holders
+    private final StripedBalanceManager stripedBalanceManager; // Sub-balance slots of hot accounts
+    private final AccountNumberAllocator accountNumberAllocator; // Hands out new account numbers
+    private final int maxBatchItems; // Upper bound on postings per POST /accounts/batch call
+    private final int maxBatchGetIds; // Upper bound on account IDs per POST /accounts/batch-get call
+    private final Duration postingRetention; // How long applied postings are kept to recognise retries
 
     @Autowired
     public AccountServiceImpl(AccountRepository accountRepository,
-                              UserServiceClient userServiceClient) {
+                              UserValidationCache userValidationCache,
+                              AppliedPostingRepository appliedPostingRepository,
+                              AccountEventPublisher accountEventPublisher,
+                              StripedBalanceManager stripedBalanceManager,
+                              AccountNumberAllocator accountNumberAllocator,
+                              @Value("${account.batch.max-items:2000}") int maxBatchItems,
+                              @Value("${account.batch-get.max-ids:1000}") int maxBatchGetIds,
+                              @Value("${account.applied-posting.retention:PT24H}") Duration postingRetention) {
         this.accountRepository = accountRepository;
-        this.userServiceClient = userServiceClient;
+        this.userValidationCache = userValidationCache;
+        this.appliedPostingRepository = appliedPostingRepository;
+        this.accountEventPublisher = accountEventPublisher;
+        this.stripedBalanceManager = stripedBalanceManager;
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.maxBatchItems = maxBatchItems;
+        this.maxBatchGetIds = maxBatchGetIds;
+        this.postingRetention = postingRetention;
     }
 
     /**
      * Creates a new bank account for a user.
-     * Validates user existence via User Service.
+     * Validates user existence via User Service (cached, so repeated openings for one user cost one call).
      * @param request The AccountCreationRequest DTO.
      * @return The created AccountResponse DTO.
      * @throws AccountCreationException if account creation fails (e.g., user not found, duplicate account number).
+     * @throws AccountProcessingException if the User Service is unavailable.
      */
     @Override
     @Transactional
     public AccountResponse createAccount(AccountCreationRequest request) {
+        if (request.getInitialBalance().isNegative()) {
+            throw new AccountCreationException("Initial balance must be zero or positive.");
+        }
         try {
-            // 1. Validate User existence via User Service
-            UserDto user = userServiceClient.getUserById(request.getUserId());
-            if (user == null) {
-                throw new AccountCreationException("User not found with ID: " + request.getUserId());
-            }
+            // 1. Validate User existence via User Service (an outage fails the request rather than passing the check)
+            UserDto user = userValidationCache.findUser(request.getUserId())
+                    .orElseThrow(() -> new AccountCreationException("User not found with ID: " + request.getUserId()));
             // Optional: Check if user role is CUSTOMER, etc.
 
-            // 2. Generate a unique account number (simple example, real banks have complex logic)
-            String newAccountNumber = generateUniqueAccountNumber();
-            while (accountRepository.findByAccountNumber(newAccountNumber).isPresent()) {
-                newAccountNumber = generateUniqueAccountNumber(); // Regenerate if already exists
-            }
+            // 2. Allocate an account number: unique by construction (hi/lo from a sequence), so no lookup is needed
+            String newAccountNumber = accountNumberAllocator.nextAccountNumber();
 
             Account account = new Account();
             account.setUserId(request.getUserId());
@@ -81,6 +115,8 @@ public class AccountServiceImpl implements AccountService {
         } catch (HttpClientErrorException e) {
             // Catch errors from Feign client (e.g., User Service unavailable)
             throw new AccountProcessingException("Failed to validate user due to User Service error: " + e.getResponseBodyAsString(), e);
+        } catch (AccountCreationException | AccountProcessingException e) {
+            throw e;
         } catch (Exception e) {
             throw new AccountCreationException("Failed to create account: " + e.getMessage(), e);
         }
@@ -88,6 +124,7 @@ public class AccountServiceImpl implements AccountService {
 
     /**
      * Retrieves account details by account ID.
+     * For an account in striped balance mode, the balance is the main balance plus its slots.
      * @param accountId The ID of the account.
      * @return An Optional containing the AccountResponse DTO if found, or empty otherwise.
      */
@@ -97,6 +134,77 @@ public class AccountServiceImpl implements AccountService {
                                 .map(this::mapToAccountResponse);
     }
 
+    /**
+     * Retrieves several accounts with a single query (findAllById) instead of one GET per account.
+     * The slots of striped accounts among them are summed with one more grouped query.
+     * @param accountIds The IDs of the accounts (duplicates are ignored).
+     * @return The AccountResponse DTOs of the accounts that exist, in request order.
+     * @throws AccountProcessingException if more than account.batch-get.max-ids IDs are requested.
+     */
+    @Override
+    public List<AccountResponse> getAccountsByIds(List<String> accountIds) {
+        LinkedHashSet<String> ids = distinctIds(accountIds);
+        Map<String, Account> accounts = new HashMap<>();
+        for (Account account : accountRepository.findAllById(ids)) {
+            accounts.put(account.getAccountId(), account);
+        }
+        Map<String, Money> slotTotals = stripedBalanceManager.slotTotals(accounts.values().stream()
+                .filter(stripedBalanceManager::isStriped)
+                .map(Account::getAccountId)
+                .collect(Collectors.toList()));
+
+        List<AccountResponse> responses = new ArrayList<>(accounts.size());
+        for (String id : ids) {
+            Account account = accounts.get(id);
+            if (account != null) {
+                Money balance = account.getBalance().plus(slotTotals.getOrDefault(id, Money.ZERO));
+                responses.add(mapToAccountResponse(account, balance));
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Retrieves the ID, balance and status of several accounts with a single projection query,
+     * so neither full entities nor full AccountResponse DTOs are built.
+     * @param accountIds The IDs of the accounts (duplicates are ignored).
+     * @return The AccountSummaryResponse DTOs of the accounts that exist, in request order.
+     * @throws AccountProcessingException if more than account.batch-get.max-ids IDs are requested.
+     */
+    @Override
+    public List<AccountSummaryResponse> getAccountSummariesByIds(List<String> accountIds) {
+        LinkedHashSet<String> ids = distinctIds(accountIds);
+        Map<String, AccountRepository.BalanceView> views = new HashMap<>();
+        for (AccountRepository.BalanceView view : accountRepository.findBalanceViewsByIdIn(ids)) {
+            views.put(view.getAccountId(), view);
+        }
+        Map<String, Money> slotTotals = stripedBalanceManager.slotTotals(views.values().stream()
+                .filter(view -> view.getBalanceStripes() != null && view.getBalanceStripes() > 0)
+                .map(AccountRepository.BalanceView::getAccountId)
+                .collect(Collectors.toList()));
+
+        List<AccountSummaryResponse> summaries = new ArrayList<>(views.size());
+        for (String id : ids) {
+            AccountRepository.BalanceView view = views.get(id);
+            if (view != null) {
+                Money balance = view.getBalance().plus(slotTotals.getOrDefault(id, Money.ZERO));
+                summaries.add(new AccountSummaryResponse(id, balance, view.getStatus()));
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Helper method to de-duplicate the IDs of a multi-account read (keeping request order) and enforce its size limit.
+     */
+    private LinkedHashSet<String> distinctIds(List<String> accountIds) {
+        LinkedHashSet<String> ids = new LinkedHashSet<>(accountIds);
+        if (ids.size() > maxBatchGetIds) {
+            throw new AccountProcessingException("At most " + maxBatchGetIds + " accounts can be fetched at once.");
+        }
+        return ids;
+    }
+
     /**
      * Retrieves all accounts associated with a specific user ID.
      * @param userId The ID of the user.
@@ -112,6 +220,7 @@ public class AccountServiceImpl implements AccountService {
 
     /**
      * Updates the status of an account (e.g., ACTIVE to CLOSED).
+     * Publishes a STATUS_CHANGED event on account-status-events once the change is committed.
      * @param accountId The ID of the account to update.
      * @param request The AccountUpdateRequest DTO containing the new status.
      * @return The updated AccountResponse DTO.
@@ -127,6 +236,7 @@ public class AccountServiceImpl implements AccountService {
         account.setStatus(request.getStatus());
         try {
             account = accountRepository.save(account);
+            accountEventPublisher.publishStatusChanged(accountId, account.getStatus()); // Sent after commit
             return mapToAccountResponse(account);
         } catch (Exception e) {
             throw new AccountProcessingException("Failed to update account status for ID: " + accountId, e);
@@ -136,6 +246,8 @@ public class AccountServiceImpl implements AccountService {
     /**
      * Deposits funds into a specified account.
      * This method is called by other services (e.g., Transaction Service).
+     * Idempotent per transactionId: a retried call for an already applied deposit returns the current
+     * account state without crediting the account again.
      * @param accountId The ID of the account to deposit into.
      * @param request The DepositRequest DTO.
      * @return The updated AccountResponse DTO.
@@ -149,13 +261,25 @@ public class AccountServiceImpl implements AccountService {
                 .orElseThrow(() -> new AccountNotFoundException("Account not found with ID: " + accountId));
 
         // Basic validation (more complex validation might be needed)
-        if (request.getAmount() <= 0) {
+        if (!request.getAmount().isPositive()) {
             throw new AccountProcessingException("Deposit amount must be positive.");
         }
 
-        account.setBalance(account.getBalance() + request.getAmount());
+        if (isAlreadyApplied(AppliedPosting.DEPOSIT, accountId, request.getTransactionId(), request.getAmount())) {
+            System.out.println("Deposit for transaction " + request.getTransactionId() + " already applied to account " + accountId + ", skipping.");
+            return mapToAccountResponse(account);
+        }
+
         try {
-            account = accountRepository.save(account);
+            if (stripedBalanceManager.isStriped(account)) {
+                // Hot account: credit one of its slots, so concurrent deposits don't all wait on the Account row
+                stripedBalanceManager.creditSlot(account, request.getTransactionId(), request.getAmount());
+            } else {
+                // Single atomic UPDATE instead of read-modify-write, so concurrent deposits are never lost
+                accountRepository.creditBalance(accountId, request.getAmount());
+            }
+            recordPosting(AppliedPosting.DEPOSIT, accountId, request.getTransactionId(), request.getAmount());
+            account = reload(accountId);
             // Log the transaction for auditing purposes (optional, as Transaction Service also logs)
             System.out.println("Deposit of " + request.getAmount() + " to account " + accountId + " for transaction " + request.getTransactionId() + " successful.");
             return mapToAccountResponse(account);
@@ -167,6 +291,8 @@ public class AccountServiceImpl implements AccountService {
     /**
      * Withdraws funds from a specified account.
      * This method is called by other services (e.g., Transaction Service).
+     * Idempotent per transactionId: a retried call for an already applied withdrawal returns the current
+     * account state without debiting the account again.
      * @param accountId The ID of the account to withdraw from.
      * @param request The WithdrawRequest DTO.
      * @return The updated AccountResponse DTO.
@@ -181,16 +307,29 @@ public class AccountServiceImpl implements AccountService {
                 .orElseThrow(() -> new AccountNotFoundException("Account not found with ID: " + accountId));
 
         // Basic validation
-        if (request.getAmount() <= 0) {
+        if (!request.getAmount().isPositive()) {
             throw new AccountProcessingException("Withdrawal amount must be positive.");
         }
-        if (account.getBalance() < request.getAmount()) {
+        // Checked before the balance so a retry of a withdrawal that emptied the account still succeeds
+        if (isAlreadyApplied(AppliedPosting.WITHDRAW, accountId, request.getTransactionId(), request.getAmount())) {
+            System.out.println("Withdrawal for transaction " + request.getTransactionId() + " already applied to account " + accountId + ", skipping.");
+            return mapToAccountResponse(account);
+        }
+        // The funds check is part of the UPDATE itself (WHERE balance >= amount), so it holds under concurrency
+        boolean debited = accountRepository.debitBalance(accountId, request.getAmount()) == 1;
+        if (!debited && stripedBalanceManager.isStriped(account)) {
+            // Part of the money may still sit in the slots: fold them into the main balance and try again.
+            // Slots are never negative, so checking the main balance alone keeps the total non-negative.
+            stripedBalanceManager.compact(accountId);
+            debited = accountRepository.debitBalance(accountId, request.getAmount()) == 1;
+        }
+        if (!debited) {
             throw new InsufficientFundsException("Insufficient funds in account ID: " + accountId);
         }
 
-        account.setBalance(account.getBalance() - request.getAmount());
         try {
-            account = accountRepository.save(account);
+            recordPosting(AppliedPosting.WITHDRAW, accountId, request.getTransactionId(), request.getAmount());
+            account = reload(accountId);
             // Log the transaction for auditing purposes
             System.out.println("Withdrawal of " + request.getAmount() + " from account " + accountId + " for transaction " + request.getTransactionId() + " successful.");
             return mapToAccountResponse(account);
@@ -201,6 +340,7 @@ public class AccountServiceImpl implements AccountService {
 
     /**
      * Deletes or closes an account.
+     * Publishes a DELETED event on account-status-events once the deletion is committed.
      * @param accountId The ID of the account to delete.
      * @throws AccountNotFoundException if the account is not found.
      * @throws AccountProcessingException if the deletion fails.
@@ -211,38 +351,245 @@ public class AccountServiceImpl implements AccountService {
         Account account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new AccountNotFoundException("Account not found with ID: " + accountId));
         try {
+            stripedBalanceManager.removeSlots(accountId);
             accountRepository.delete(account);
+            accountEventPublisher.publishDeleted(accountId); // Sent after commit
             System.out.println("Account with ID: " + accountId + " deleted successfully.");
         } catch (Exception e) {
             throw new AccountProcessingException("Failed to delete account with ID: " + accountId, e);
         }
     }
 
+    /**
+     * Turns striped balance mode on or off for an account, or changes its number of slots.
+     * @param accountId The ID of the account.
+     * @param stripes The number of slots deposits are spread over (0 turns striping off).
+     * @return The updated AccountResponse DTO.
+     * @throws AccountNotFoundException if the account is not found.
+     * @throws AccountProcessingException if the number of stripes is out of range.
+     */
+    @Override
+    @Transactional
+    public AccountResponse configureBalanceStriping(String accountId, int stripes) {
+        Account account = stripedBalanceManager.configure(accountId, stripes);
+        System.out.println("Balance striping for account " + accountId + " set to " + stripes + " slots.");
+        return mapToAccountResponse(account);
+    }
+
+    /**
+     * Applies many debits, credits and transfers in one database transaction.
+     * Instead of one atomic UPDATE (plus a posting lookup and insert) per call, every account of the batch
+     * is locked and loaded with one SELECT ... FOR UPDATE, all known postings with one SELECT, the balances are
+     * changed in memory, and the new balances and postings are written at commit as JDBC batches
+     * (hibernate.jdbc.batch_size). Funds checks run against the locked in-memory balances, in request order.
+     * Each leg of a posting is idempotent on its own, exactly like depositFunds/withdrawFunds, so a retried
+     * batch (or a transfer whose debit was already applied on the single-call path) never moves money twice.
+     * @param request The BatchPostingRequest DTO.
+     * @return One BatchPostingResult per posting, in request order.
+     * @throws AccountProcessingException if the batch is larger than account.batch.max-items.
+     */
+    @Override
+    @Transactional
+    public List<BatchPostingResult> applyBatch(BatchPostingRequest request) {
+        List<BatchPostingItem> items = request.getItems();
+        if (items.size() > maxBatchItems) {
+            throw new AccountProcessingException("A batch can contain at most " + maxBatchItems + " postings.");
+        }
+
+        // 1. Lock every account of the batch, in account ID order so that concurrent batches can't deadlock
+        TreeSet<String> accountIds = new TreeSet<>();
+        List<String> postingKeys = new ArrayList<>();
+        for (BatchPostingItem item : items) {
+            if (item.getFromAccountId() != null) {
+                accountIds.add(item.getFromAccountId());
+                postingKeys.add(AppliedPosting.keyOf(AppliedPosting.WITHDRAW, item.getFromAccountId(), item.getTransactionId()));
+            }
+            if (item.getToAccountId() != null) {
+                accountIds.add(item.getToAccountId());
+                postingKeys.add(AppliedPosting.keyOf(AppliedPosting.DEPOSIT, item.getToAccountId(), item.getTransactionId()));
+            }
+        }
+        Map<String, Account> accounts = lockAccounts(accountIds);
+        // Striped accounts: fold the slots into the main balance, so debits can be checked against the whole balance.
+        // Compaction locks the account before its slots, the order used here, so it can't deadlock with a batch.
+        // Compaction clears the persistence context, so the (still locked) accounts are read again afterwards.
+        // Credits to a striped account go straight to its main balance: the row is locked anyway.
+        List<String> stripedIds = accounts.values().stream()
+                .filter(stripedBalanceManager::isStriped)
+                .map(Account::getAccountId)
+                .collect(Collectors.toList());
+        if (!stripedIds.isEmpty()) {
+            stripedIds.forEach(stripedBalanceManager::compact);
+            accounts = lockAccounts(accountIds);
+        }
+
+        // 2. Load the postings that are already applied (retries), in one query
+        Map<String, AppliedPosting> postings = appliedPostingRepository.findAllById(postingKeys).stream()
+                .collect(Collectors.toMap(AppliedPosting::getPostingKey, Function.identity()));
+
+        // 3. Apply the postings in request order against the in-memory balances
+        List<BatchPostingResult> results = new ArrayList<>(items.size());
+        List<AppliedPosting> newPostings = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (BatchPostingItem item : items) {
+            results.add(applyBatchItem(item, accounts, postings, newPostings, now));
+        }
+
+        // 4. Balances are flushed by dirty checking at commit; both statements are sent as JDBC batches
+        appliedPostingRepository.saveAll(newPostings);
+        System.out.println("Batch of " + items.size() + " postings over " + accountIds.size() + " accounts applied ("
+                + results.stream().filter(r -> r.getStatus() == BatchPostingResult.Status.REJECTED).count() + " rejected).");
+        return results;
+    }
+
+    /**
+     * Helper method to apply one posting of a batch to the locked accounts.
+     * A rejected posting changes nothing; a transfer's debit and credit are applied together.
+     */
+    private BatchPostingResult applyBatchItem(BatchPostingItem item, Map<String, Account> accounts,
+                                              Map<String, AppliedPosting> postings, List<AppliedPosting> newPostings,
+                                              LocalDateTime now) {
+        String transactionId = item.getTransactionId();
+        String fromId = item.getFromAccountId();
+        String toId = item.getToAccountId();
+        Money amount = item.getAmount();
+
+        if (!amount.isPositive()) {
+            return rejected(transactionId, "Amount must be positive.");
+        }
+        if (fromId == null && toId == null) {
+            return rejected(transactionId, "A posting needs a source or a target account.");
+        }
+        if (fromId != null && fromId.equals(toId)) {
+            return rejected(transactionId, "Source and target account must be different.");
+        }
+        Account source = fromId == null ? null : accounts.get(fromId);
+        Account target = toId == null ? null : accounts.get(toId);
+        if (fromId != null && source == null) {
+            return rejected(transactionId, "Account not found with ID: " + fromId);
+        }
+        if (toId != null && target == null) {
+            return rejected(transactionId, "Account not found with ID: " + toId);
+        }
+
+        // Legs already applied by an earlier call are skipped; a different amount under the same transactionId is refused
+        String debitKey = fromId == null ? null : AppliedPosting.keyOf(AppliedPosting.WITHDRAW, fromId, transactionId);
+        String creditKey = toId == null ? null : AppliedPosting.keyOf(AppliedPosting.DEPOSIT, toId, transactionId);
+        AppliedPosting appliedDebit = debitKey == null ? null : postings.get(debitKey);
+        AppliedPosting appliedCredit = creditKey == null ? null : postings.get(creditKey);
+        if ((appliedDebit != null && !appliedDebit.getAmount().equals(amount))
+                || (appliedCredit != null && !appliedCredit.getAmount().equals(amount))) {
+            return rejected(transactionId, "Transaction " + transactionId + " was already applied with a different amount.");
+        }
+        boolean debit = source != null && appliedDebit == null;
+        boolean credit = target != null && appliedCredit == null;
+        if (!debit && !credit) {
+            return new BatchPostingResult(transactionId, BatchPostingResult.Status.ALREADY_APPLIED, null);
+        }
+        if (debit && source.getBalance().isLessThan(amount)) {
+            return rejected(transactionId, "Insufficient funds in account ID: " + fromId);
+        }
+
+        if (debit) {
+            source.setBalance(source.getBalance().minus(amount));
+            AppliedPosting posting = new AppliedPosting(debitKey, transactionId, fromId, AppliedPosting.WITHDRAW, amount, now);
+            postings.put(debitKey, posting); // A duplicate later in the same batch is then seen as applied
+            newPostings.add(posting);
+        }
+        if (credit) {
+            target.setBalance(target.getBalance().plus(amount));
+            AppliedPosting posting = new AppliedPosting(creditKey, transactionId, toId, AppliedPosting.DEPOSIT, amount, now);
+            postings.put(creditKey, posting);
+            newPostings.add(posting);
+        }
+        return new BatchPostingResult(transactionId, BatchPostingResult.Status.APPLIED, null);
+    }
+
+    /**
+     * Helper method to lock and load accounts (SELECT ... FOR UPDATE), keyed by account ID.
+     */
+    private Map<String, Account> lockAccounts(TreeSet<String> accountIds) {
+        Map<String, Account> accounts = new HashMap<>();
+        for (Account account : accountRepository.lockAllByIdIn(accountIds)) {
+            accounts.put(account.getAccountId(), account);
+        }
+        return accounts;
+    }
+
+    private static BatchPostingResult rejected(String transactionId, String message) {
+        return new BatchPostingResult(transactionId, BatchPostingResult.Status.REJECTED, message);
+    }
+
+    /**
+     * Helper method to re-read an account after an atomic balance update (which clears the persistence context).
+     */
+    private Account reload(String accountId) {
+        return accountRepository.findById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with ID: " + accountId));
+    }
+
+    /**
+     * Helper method to check whether a posting for this transaction was already applied to the account.
+     * @throws AccountProcessingException if the transaction ID was already used with a different amount.
+     */
+    private boolean isAlreadyApplied(String operation, String accountId, String transactionId, Money amount) {
+        return appliedPostingRepository.findById(AppliedPosting.keyOf(operation, accountId, transactionId))
+                .map(posting -> {
+                    if (!posting.getAmount().equals(amount)) {
+                        throw new AccountProcessingException("Transaction " + transactionId
+                                + " was already applied to account " + accountId + " with a different amount.");
+                    }
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /**
+     * Periodically removes applied postings that are past the retention window.
+     * A retry arriving after its posting was purged would be applied again, so the retention must outlast the
+     * Transaction Service's own retries (its Idempotency-Key records live for transaction.idempotency.ttl).
+     */
+    @Scheduled(fixedDelayString = "${account.applied-posting.purge-interval:PT1H}")
+    public void purgeExpiredPostings() {
+        int deleted = appliedPostingRepository.deleteAppliedBefore(LocalDateTime.now().minus(postingRetention));
+        if (deleted > 0) {
+            System.out.println("Purged " + deleted + " expired applied postings.");
+        }
+    }
+
+    /**
+     * Helper method to record an applied posting in the same database transaction as the balance change.
+     */
+    private void recordPosting(String operation, String accountId, String transactionId, Money amount) {
+        appliedPostingRepository.save(new AppliedPosting(AppliedPosting.keyOf(operation, accountId, transactionId),
+                transactionId, accountId, operation, amount, LocalDateTime.now()));
+    }
+
     /**
      * Helper method to map Account entity to AccountResponse DTO.
      * @param account The Account entity.
      * @return The AccountResponse DTO.
      */
     private AccountResponse mapToAccountResponse(Account account) {
+        // Main balance plus any not yet compacted slots
+        return mapToAccountResponse(account, stripedBalanceManager.totalBalance(account));
+    }
+
+    /**
+     * Helper method to map Account entity to AccountResponse DTO with an already computed total balance.
+     * @param account The Account entity.
+     * @param balance The account's total balance.
+     * @return The AccountResponse DTO.
+     */
+    private AccountResponse mapToAccountResponse(Account account, Money balance) {
         return new AccountResponse(
                 account.getAccountId(),
                 account.getUserId(),
                 account.getAccountNumber(),
                 account.getAccountType(),
-                account.getBalance(),
+                balance,
                 account.getStatus(),
                 account.getCreatedAt()
         );
     }
-
-    /**
-     * Helper method to generate a simple unique account number.
-     * In a real system, this would be more robust (e.g., sequence, check digit).
-     * @return A unique 10-digit string.
-     */
-    private String generateUniqueAccountNumber() {
-        // Simple 10-digit number for demonstration.
-        // In production, consider a dedicated service or more robust generation.
-        return String.format("%010d", UUID.randomUUID().getMostSignificantBits() % 10_000_000_000L);
-    }
 }
\ No newline at end of file
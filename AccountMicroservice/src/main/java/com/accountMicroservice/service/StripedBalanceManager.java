@@ -0,0 +1,181 @@
+package com.accountMicroservice.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.accountMicroservice.dao.AccountBalanceSlotRepository;
+import com.accountMicroservice.dao.AccountRepository;
+import com.accountMicroservice.exception.AccountNotFoundException;
+import com.accountMicroservice.exception.AccountProcessingException;
+import com.accountMicroservice.model.Account;
+import com.accountMicroservice.model.AccountBalanceSlot;
+import com.accountMicroservice.model.Money;
+
+/**
+ * Striped balance mode for hot accounts (e.g. merchant collection accounts receiving thousands of deposits per second).
+ * Deposits into a striped account credit one of its AccountBalanceSlot rows, picked by hash of the transactionId,
+ * so concurrent deposits are spread over several rows instead of all waiting on the Account row.
+ * The total balance is the main balance plus the slots. A periodic job (and a withdrawal that the main balance
+ * alone cannot cover) folds the slots back into the main balance.
+ * Invariant: the main balance and every slot are non-negative, so the total can never go negative.
+ * Lock order: whatever locks both an Account row and its slots locks the Account row first (withdrawals, batches,
+ * compaction, configuration), so they can't deadlock each other. Deposits into slots never lock the Account row.
+ */
+@Component
+public class StripedBalanceManager {
+
+    private final AccountRepository accountRepository;
+    private final AccountBalanceSlotRepository slotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxStripes;
+
+    @Autowired
+    public StripedBalanceManager(AccountRepository accountRepository, AccountBalanceSlotRepository slotRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${account.striping.max-stripes:64}") int maxStripes) {
+        this.accountRepository = accountRepository;
+        this.slotRepository = slotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxStripes = maxStripes;
+    }
+
+    public boolean isStriped(Account account) {
+        return account.getBalanceStripes() != null && account.getBalanceStripes() > 0;
+    }
+
+    /**
+     * Credits a deposit to one of a striped account's slots. Must run inside the deposit's transaction.
+     * @param account The (striped) account.
+     * @param transactionId The deposit's transaction ID; its hash picks the slot.
+     * @param amount The amount to credit.
+     */
+    public void creditSlot(Account account, String transactionId, Money amount) {
+        int slot = Math.floorMod(transactionId.hashCode(), account.getBalanceStripes());
+        if (slotRepository.creditSlot(AccountBalanceSlot.keyOf(account.getAccountId(), slot), amount) == 0) {
+            // Striping was just reconfigured and the slot is gone: fall back to the main balance
+            accountRepository.creditBalance(account.getAccountId(), amount);
+        }
+    }
+
+    /**
+     * Returns an account's total balance: the main balance plus, for a striped account, its slots.
+     * @param account The account.
+     * @return The total balance.
+     */
+    public Money totalBalance(Account account) {
+        if (!isStriped(account)) {
+            return account.getBalance();
+        }
+        return account.getBalance().plus(Money.of(slotRepository.sumByAccountId(account.getAccountId())));
+    }
+
+    /**
+     * Returns the slot totals of several accounts with one query (for multi-account reads).
+     * @param accountIds The IDs of the striped accounts.
+     * @return The slot total per account ID; accounts without slots are absent.
+     */
+    public Map<String, Money> slotTotals(Collection<String> accountIds) {
+        Map<String, Money> totals = new HashMap<>();
+        if (accountIds.isEmpty()) {
+            return totals;
+        }
+        for (Object[] row : slotRepository.sumByAccountIds(accountIds)) {
+            totals.put((String) row[0], Money.of((BigDecimal) row[1]));
+        }
+        return totals;
+    }
+
+    /**
+     * Folds an account's slots into its main balance. Each slot is drained with a conditional UPDATE
+     * of exactly the amount that was read, so deposits landing in the slot meanwhile are kept, and two
+     * concurrent compactions can never move the same money twice.
+     * The Account row is locked before any slot (a no-op if the caller already holds it).
+     * @param accountId The ID of the account.
+     * @return The amount moved into the main balance.
+     */
+    @Transactional
+    public Money compact(String accountId) {
+        accountRepository.lockAllByIdIn(List.of(accountId));
+        long movedMinorUnits = 0; // Summed as a long: one Money for the total, not one per slot
+        for (AccountBalanceSlot slot : slotRepository.findByAccountId(accountId)) {
+            Money amount = slot.getAmount();
+            if (amount.isPositive() && slotRepository.drainSlot(slot.getSlotKey(), amount) == 1) {
+                movedMinorUnits = Math.addExact(movedMinorUnits, amount.getMinorUnits());
+            }
+        }
+        Money moved = Money.ofMinor(movedMinorUnits);
+        if (moved.isPositive()) {
+            accountRepository.creditBalance(accountId, moved);
+        }
+        return moved;
+    }
+
+    /**
+     * Turns striped balance mode on (stripes > 0), changes the number of slots, or turns it off (stripes = 0).
+     * Existing slots are folded into the main balance first, so no money is lost when slots are removed.
+     * @param accountId The ID of the account.
+     * @param stripes The new number of slots (0 to account.striping.max-stripes).
+     * @return The updated account.
+     * @throws AccountProcessingException if the number of stripes is out of range.
+     */
+    @Transactional
+    public Account configure(String accountId, int stripes) {
+        if (stripes < 0 || stripes > maxStripes) {
+            throw new AccountProcessingException("Balance stripes must be between 0 and " + maxStripes + ".");
+        }
+        // Hold the slot locks until commit: a deposit racing with this waits, then finds its slot gone
+        // (or re-created empty) and falls back to the main balance instead of crediting a deleted slot.
+        // The Account row is locked first, as in compact.
+        accountRepository.lockAllByIdIn(List.of(accountId));
+        slotRepository.lockByAccountId(accountId);
+        compact(accountId);
+        slotRepository.deleteByAccountId(accountId);
+
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with ID: " + accountId));
+        account.setBalanceStripes(stripes == 0 ? null : stripes);
+        account = accountRepository.save(account);
+
+        List<AccountBalanceSlot> slots = new ArrayList<>(stripes);
+        for (int slot = 0; slot < stripes; slot++) {
+            slots.add(new AccountBalanceSlot(AccountBalanceSlot.keyOf(accountId, slot), accountId, slot, Money.ZERO));
+        }
+        slotRepository.saveAll(slots);
+        return account;
+    }
+
+    /**
+     * Removes an account's slots (used when the account is deleted).
+     * @param accountId The ID of the account.
+     */
+    public void removeSlots(String accountId) {
+        slotRepository.deleteByAccountId(accountId);
+    }
+
+    /**
+     * Periodically folds the slots of every striped account into its main balance,
+     * one account per transaction, so slot totals stay small and balance reads stay cheap.
+     */
+    @Scheduled(fixedDelayString = "${account.striping.compaction-interval:PT10S}")
+    public void compactAll() {
+        for (String accountId : accountRepository.findStripedAccountIds()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> compact(accountId));
+            } catch (Exception e) {
+                System.err.println("Failed to compact balance slots of account " + accountId + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.accountMicroservice.config;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+/**
+ * Per-request cost of turning a validated Keycloak token into an Authentication, as the resource servers do.
+ * before: the old JwtGrantedAuthoritiesConverter setup (which also finds no roles, since it cannot read the nested claim).
+ * realmRoles: KeycloakRealmRoleConverter, which reads the four realm roles on every request.
+ * A per-token cache of the authorities was tried and dropped: with the same token on every request it ran at about
+ * 178 ns/op against 194 ns/op for reading the roles again, too little for the memory and expiry it needs.
+ * Not run by the test suite; run main() from the IDE, or build the test classpath and invoke it directly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private Jwt jwt;
+    private JwtAuthenticationConverter before;
+    private JwtAuthenticationConverter realmRoles;
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        jwt = Jwt.withTokenValue("header.payload.signature")
+                .header("alg", "RS256")
+                .issuer("http://localhost:8080/realms/banking")
+                .jti(UUID.randomUUID().toString())
+                .subject(UUID.randomUUID().toString())
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(3600))
+                .claim("preferred_username", "alice")
+                .claim("realm_access", Map.of("roles",
+                        List.of("CUSTOMER", "offline_access", "uma_authorization", "default-roles-banking")))
+                .build();
+
+        JwtGrantedAuthoritiesConverter oldConverter = new JwtGrantedAuthoritiesConverter();
+        oldConverter.setAuthoritiesClaimName("realm_access.roles");
+        oldConverter.setAuthorityPrefix("ROLE_");
+        before = new JwtAuthenticationConverter();
+        before.setJwtGrantedAuthoritiesConverter(oldConverter);
+
+        realmRoles = new JwtAuthenticationConverter();
+        realmRoles.setJwtGrantedAuthoritiesConverter(new KeycloakRealmRoleConverter());
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken before() {
+        return before.convert(jwt);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken realmRoles() {
+        return realmRoles.convert(jwt);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,45 @@
+package com.accountMicroservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Checks that realm roles are read from the nested Keycloak claim.
+ */
+class KeycloakRealmRoleConverterTest {
+
+    private final KeycloakRealmRoleConverter converter = new KeycloakRealmRoleConverter();
+
+    @Test
+    void readsNestedRealmRoles() {
+        Collection<GrantedAuthority> authorities = converter.convert(token("jti-1", Arrays.asList("CUSTOMER", null, "ADMIN")));
+
+        assertEquals(List.of("ROLE_CUSTOMER", "ROLE_ADMIN"),
+                authorities.stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    @Test
+    void tokenWithoutRealmAccessHasNoRoles() {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "RS256").subject("user-1")
+                .expiresAt(Instant.now().plusSeconds(60)).build();
+
+        assertEquals(List.of(), converter.convert(jwt));
+    }
+
+    private static Jwt token(String jti, List<?> roles) {
+        return Jwt.withTokenValue("token-" + jti).header("alg", "RS256")
+                .issuer("http://localhost:8080/realms/banking").jti(jti).subject("user-1")
+                .issuedAt(Instant.now()).expiresAt(Instant.now().plusSeconds(60))
+                .claim("realm_access", Map.of("roles", roles))
+                .build();
+    }
+}
@@ -0,0 +1,211 @@
+package com.accountMicroservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Simulation against local stub instances of a service, two fast and one deliberately slow: round robin sends
+ * a third of the calls to the slow one, PeakEwmaLoadBalancer learns to avoid it.
+ * Also checks that an instance failing fast is avoided rather than preferred, and that the figures of instances
+ * leaving the discovery list are dropped.
+ */
+class PeakEwmaLoadBalancerTest {
+
+    private static final String SERVICE_ID = "user-service";
+    private static final int CLIENT_THREADS = 4;
+    private static final int CALLS_PER_THREAD = 30;
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final List<ServiceInstance> instances = new ArrayList<>();
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        startInstance("fast-1", 5);
+        startInstance("fast-2", 5);
+        startInstance("slow", 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        servers.forEach(server -> server.stop(0));
+    }
+
+    @Test
+    void avoidsTheSlowInstanceThatRoundRobinKeepsUsing() throws Exception {
+        Simulation roundRobin = simulate(new RoundRobinLoadBalancer(ServiceInstanceListSuppliers.toProvider(SERVICE_ID,
+                instances.toArray(new ServiceInstance[0])), SERVICE_ID), null);
+        PeakEwmaLoadBalancer peakEwma = new PeakEwmaLoadBalancer(ServiceInstanceListSuppliers.toProvider(SERVICE_ID,
+                instances.toArray(new ServiceInstance[0])), SERVICE_ID, TimeUnit.SECONDS.toNanos(10), TimeUnit.SECONDS.toNanos(1));
+        Simulation latencyAware = simulate(peakEwma, peakEwma);
+
+        System.out.println("Round robin: " + roundRobin + "; peak EWMA: " + latencyAware);
+        assertTrue(roundRobin.share("slow") > 0.25, roundRobin.toString());
+        assertTrue(latencyAware.share("slow") < 0.10, latencyAware.toString());
+        assertTrue(latencyAware.meanMillis() * 2 < roundRobin.meanMillis(), latencyAware + " vs " + roundRobin);
+    }
+
+    @Test
+    void anInstanceFailingFastIsNotPreferred() {
+        ServiceInstance healthy = instances.get(0);
+        ServiceInstance failing = instances.get(1);
+        PeakEwmaLoadBalancer balancer = new PeakEwmaLoadBalancer(ServiceInstanceListSuppliers.toProvider(SERVICE_ID,
+                healthy, failing), SERVICE_ID, TimeUnit.SECONDS.toNanos(10), TimeUnit.SECONDS.toNanos(1));
+        complete(balancer, healthy, TimeUnit.MILLISECONDS.toNanos(20), CompletionContext.Status.SUCCESS);
+        complete(balancer, failing, TimeUnit.MILLISECONDS.toNanos(1), CompletionContext.Status.FAILED); // Counts as 1s
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(healthy, balancer.choose(List.of(healthy, failing)).getServer());
+        }
+    }
+
+    @Test
+    void statsOfInstancesThatLeftTheListAreDropped() {
+        ServiceInstance staying = instances.get(0);
+        ServiceInstance leaving = instances.get(1);
+        PeakEwmaLoadBalancer balancer = new PeakEwmaLoadBalancer(ServiceInstanceListSuppliers.toProvider(SERVICE_ID,
+                staying, leaving), SERVICE_ID, TimeUnit.SECONDS.toNanos(10), TimeUnit.SECONDS.toNanos(1));
+        complete(balancer, staying, TimeUnit.MILLISECONDS.toNanos(20), CompletionContext.Status.SUCCESS);
+        complete(balancer, leaving, TimeUnit.MILLISECONDS.toNanos(20), CompletionContext.Status.SUCCESS);
+        RequestDataContext inFlightContext = new RequestDataContext();
+        Request<Object> inFlight = new DefaultRequest<>(inFlightContext);
+        balancer.onStartRequest(inFlight, new DefaultResponse(leaving)); // Still running when the instance leaves
+        assertEquals(Set.of("fast-1", "fast-2"), balancer.trackedInstances());
+
+        ServiceInstance replacement = instances.get(2);
+        balancer.choose(List.of(staying, replacement));
+        assertEquals(Set.of("fast-1", "slow"), balancer.trackedInstances());
+
+        balancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, inFlight, new DefaultResponse(leaving)));
+        balancer.choose(List.of()); // No instances at all: most likely a discovery hiccup, so nothing is forgotten
+        assertEquals(Set.of("fast-1", "slow"), balancer.trackedInstances());
+    }
+
+    /**
+     * CLIENT_THREADS callers each making CALLS_PER_THREAD calls through the balancer, like concurrent Feign calls.
+     */
+    private Simulation simulate(ReactorServiceInstanceLoadBalancer balancer, PeakEwmaLoadBalancer lifecycle) throws Exception {
+        Simulation simulation = new Simulation();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENT_THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < CLIENT_THREADS; t++) {
+            workers.add(clients.submit(() -> {
+                for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                    Request<Object> request = new DefaultRequest<>(new RequestDataContext());
+                    Response<ServiceInstance> chosen = balancer.choose(request).block();
+                    if (lifecycle != null) {
+                        lifecycle.onStartRequest(request, chosen);
+                    }
+                    long start = System.nanoTime();
+                    httpClient.send(HttpRequest.newBuilder(chosen.getServer().getUri().resolve("/users")).build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    simulation.record(chosen.getServer().getInstanceId(), System.nanoTime() - start);
+                    if (lifecycle != null) {
+                        lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, chosen));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(1, TimeUnit.MINUTES);
+        }
+        clients.shutdown();
+        return simulation;
+    }
+
+    private static void complete(PeakEwmaLoadBalancer balancer, ServiceInstance instance, long responseTimeNanos,
+            CompletionContext.Status status) {
+        RequestDataContext context = new RequestDataContext();
+        Request<Object> request = new DefaultRequest<>(context);
+        Response<ServiceInstance> chosen = new DefaultResponse(instance);
+        balancer.onStartRequest(request, chosen);
+        context.setRequestStartTime(System.nanoTime() - responseTimeNanos);
+        balancer.onComplete(new CompletionContext<>(status, request, chosen));
+    }
+
+    private void startInstance(String instanceId, long delayMillis) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users", exchange -> {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // New connection per call, so the client never reuses one the server is about to close
+            exchange.getResponseHeaders().set("Connection", "close");
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newFixedThreadPool(CLIENT_THREADS));
+        server.start();
+        servers.add(server);
+        instances.add(new DefaultServiceInstance(instanceId, SERVICE_ID, "localhost", server.getAddress().getPort(), false));
+    }
+
+    /**
+     * Calls per instance and their response times.
+     */
+    private static final class Simulation {
+
+        private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        private final List<Long> responseTimes = Collections.synchronizedList(new ArrayList<>());
+
+        void record(String instanceId, long responseTimeNanos) {
+            calls.computeIfAbsent(instanceId, id -> new AtomicInteger()).incrementAndGet();
+            responseTimes.add(responseTimeNanos);
+        }
+
+        double share(String instanceId) {
+            return calls.getOrDefault(instanceId, new AtomicInteger()).get() / (double) responseTimes.size();
+        }
+
+        double meanMillis() {
+            return responseTimes.stream().mapToLong(Long::longValue).average().orElse(0) / 1_000_000;
+        }
+
+        long p99Millis() {
+            List<Long> sorted = new ArrayList<>(responseTimes);
+            Collections.sort(sorted);
+            return TimeUnit.NANOSECONDS.toMillis(sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1));
+        }
+
+        @Override
+        public String toString() {
+            return "calls " + calls + ", mean " + Math.round(meanMillis()) + " ms, p99 " + p99Millis() + " ms";
+        }
+    }
+}
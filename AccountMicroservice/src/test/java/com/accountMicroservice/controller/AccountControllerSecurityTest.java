@@ -0,0 +1,85 @@
+package com.accountMicroservice.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.accountMicroservice.dto.BatchPostingItem;
+import com.accountMicroservice.dto.BatchPostingRequest;
+import com.accountMicroservice.model.Money;
+import com.accountMicroservice.service.AccountService;
+
+/**
+ * Checks the roles required by the endpoints that are not meant for customers.
+ * The realm roles arrive as ROLE_ authorities (see KeycloakRealmRoleConverter).
+ */
+@SpringJUnitConfig({ AccountController.class, AccountControllerSecurityTest.MethodSecurity.class })
+class AccountControllerSecurityTest {
+
+    @Autowired
+    private AccountController accountController;
+
+    @MockitoBean
+    private AccountService accountService;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void batchPostingsAreForServiceAccountsOnly() {
+        BatchPostingRequest request = new BatchPostingRequest(List.of(
+                new BatchPostingItem("txn-1", "acc-1", "acc-2", Money.of(10.0))));
+        when(accountService.applyBatch(any())).thenReturn(List.of());
+
+        authenticateAs("ROLE_CUSTOMER");
+        assertThrows(AccessDeniedException.class, () -> accountController.applyBatch(request));
+        authenticateAs("ROLE_ADMIN");
+        assertThrows(AccessDeniedException.class, () -> accountController.applyBatch(request));
+        verify(accountService, never()).applyBatch(any());
+
+        authenticateAs("ROLE_SERVICE");
+        assertEquals(HttpStatus.OK, accountController.applyBatch(request).getStatusCode());
+    }
+
+    @Test
+    void balanceStripingIsForAdminsOnly() {
+        authenticateAs("ROLE_CUSTOMER");
+        assertThrows(AccessDeniedException.class, () -> accountController.configureBalanceStriping("acc-1", 8));
+        authenticateAs("ROLE_SERVICE");
+        assertThrows(AccessDeniedException.class, () -> accountController.configureBalanceStriping("acc-1", 8));
+        verify(accountService, never()).configureBalanceStriping(any(), anyInt());
+
+        authenticateAs("ROLE_ADMIN");
+        assertEquals(HttpStatus.OK, accountController.configureBalanceStriping("acc-1", 8).getStatusCode());
+        verify(accountService).configureBalanceStriping("acc-1", 8);
+    }
+
+    private static void authenticateAs(String... authorities) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("caller", null, authorities));
+    }
+
+    @Configuration
+    @EnableMethodSecurity(prePostEnabled = true)
+    static class MethodSecurity {
+    }
+}
@@ -0,0 +1,219 @@
+package com.accountMicroservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.accountMicroservice.dao.AccountBalanceSlotRepository;
+import com.accountMicroservice.dao.AccountRepository;
+import com.accountMicroservice.dao.AppliedPostingRepository;
+import com.accountMicroservice.dto.BatchPostingItem;
+import com.accountMicroservice.dto.BatchPostingRequest;
+import com.accountMicroservice.dto.DepositRequest;
+import com.accountMicroservice.dto.WithdrawRequest;
+import com.accountMicroservice.exception.InsufficientFundsException;
+import com.accountMicroservice.model.Account;
+import com.accountMicroservice.model.AccountStatus;
+import com.accountMicroservice.model.AccountType;
+import com.accountMicroservice.model.Money;
+import com.accountMicroservice.proxyService.UserServiceClient;
+
+/**
+ * Hammers a single "hot" account from many threads on an embedded H2 database and checks that
+ * the atomic balance updates (plain and striped) neither lose deposits nor let withdrawals overdraw the account.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:contention;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "account.striping.compaction-interval=PT1H", // Compaction is triggered explicitly below
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ AccountServiceImpl.class, StripedBalanceManager.class, AccountNumberAllocator.class, UserValidationCache.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Every service call commits on its own, as in production
+class AccountBalanceContentionTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 200;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AppliedPostingRepository appliedPostingRepository;
+
+    @Autowired
+    private AccountBalanceSlotRepository slotRepository;
+
+    @Autowired
+    private StripedBalanceManager stripedBalanceManager;
+
+    @MockitoBean
+    private UserServiceClient userServiceClient;
+
+    @MockitoBean
+    private AccountEventPublisher accountEventPublisher;
+
+    @AfterEach
+    void cleanUp() {
+        appliedPostingRepository.deleteAllInBatch();
+        slotRepository.deleteAllInBatch();
+        accountRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentDepositsOnHotAccountAreNotLost() throws Exception {
+        String accountId = createAccount(0.0);
+
+        AtomicInteger failures = runConcurrently(() ->
+                accountService.depositFunds(accountId, new DepositRequest(UUID.randomUUID().toString(), Money.of(1.0))));
+
+        int operations = THREADS * OPERATIONS_PER_THREAD;
+        assertEquals(0, failures.get());
+        assertEquals(Money.of(operations), accountRepository.findById(accountId).orElseThrow().getBalance());
+        assertEquals(operations, appliedPostingRepository.count());
+    }
+
+    @Test
+    void concurrentWithdrawalsNeverOverdraw() throws Exception {
+        // Enough for exactly half of the requested withdrawals
+        int operations = THREADS * OPERATIONS_PER_THREAD;
+        String accountId = createAccount(operations / 2 * 5.0);
+
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failures = runConcurrently(() -> {
+            try {
+                accountService.withdrawFunds(accountId, new WithdrawRequest(UUID.randomUUID().toString(), Money.of(5.0)));
+            } catch (InsufficientFundsException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(0, failures.get());
+        assertEquals(operations / 2, rejected.get());
+        assertEquals(Money.ZERO, accountRepository.findById(accountId).orElseThrow().getBalance());
+        assertEquals(operations / 2, appliedPostingRepository.count());
+    }
+
+    @Test
+    void stripedAccountKeepsEveryDepositAndNeverOverdraws() throws Exception {
+        String accountId = createAccount(0.0);
+        accountService.configureBalanceStriping(accountId, 8);
+
+        AtomicInteger failures = runConcurrently(() ->
+                accountService.depositFunds(accountId, new DepositRequest(UUID.randomUUID().toString(), Money.of(1.0))));
+
+        int operations = THREADS * OPERATIONS_PER_THREAD;
+        assertEquals(0, failures.get());
+        // Deposits landed in the slots, and reads see main balance + slots
+        assertEquals(Money.ZERO, accountRepository.findById(accountId).orElseThrow().getBalance());
+        assertEquals(Money.of(operations), accountService.getAccountById(accountId).orElseThrow().getBalance());
+
+        // A withdrawal larger than the main balance compacts the slots first; the total can't go below zero
+        accountService.withdrawFunds(accountId, new WithdrawRequest(UUID.randomUUID().toString(), Money.of(operations - 1.0)));
+        assertThrows(InsufficientFundsException.class, () ->
+                accountService.withdrawFunds(accountId, new WithdrawRequest(UUID.randomUUID().toString(), Money.of(2.0))));
+        assertEquals(Money.of(1.0), accountService.getAccountById(accountId).orElseThrow().getBalance());
+
+        // Compaction moves what is left in the slots into the main balance without changing the total
+        accountService.depositFunds(accountId, new DepositRequest(UUID.randomUUID().toString(), Money.of(4.0)));
+        stripedBalanceManager.compactAll();
+        assertEquals(Money.of(5.0), accountRepository.findById(accountId).orElseThrow().getBalance());
+        assertEquals(Money.ZERO, Money.of(slotRepository.sumByAccountId(accountId)));
+    }
+
+    @Test
+    void batchesAndCompactionOnAStripedAccountDoNotDeadlock() throws Exception {
+        // Batches lock the account and then compact its slots; compaction must take the locks in the same order
+        int operations = THREADS * OPERATIONS_PER_THREAD;
+        String hot = createAccount(operations);
+        String other = createAccount(0.0);
+        accountService.configureBalanceStriping(hot, 4);
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = runConcurrently(() -> {
+            switch (next.getAndIncrement() % 3) {
+                case 0 -> accountService.depositFunds(hot, new DepositRequest(UUID.randomUUID().toString(), Money.of(1.0)));
+                case 1 -> accountService.applyBatch(new BatchPostingRequest(List.of(
+                        new BatchPostingItem(UUID.randomUUID().toString(), hot, other, Money.of(1.0)))));
+                default -> stripedBalanceManager.compactAll();
+            }
+        });
+
+        assertEquals(0, failures.get());
+        int deposits = (operations + 2) / 3;
+        int transfers = (operations + 1) / 3;
+        assertEquals(Money.of(operations + deposits - transfers), accountService.getAccountById(hot).orElseThrow().getBalance());
+        assertEquals(Money.of(transfers), accountService.getAccountById(other).orElseThrow().getBalance());
+    }
+
+    private String createAccount(double balance) {
+        Account account = new Account();
+        account.setUserId("user-1");
+        account.setAccountNumber(String.valueOf(System.nanoTime()));
+        account.setAccountType(AccountType.CURRENT);
+        account.setBalance(Money.of(balance));
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setCreatedAt(LocalDateTime.now());
+        return accountRepository.save(account).getAccountId();
+    }
+
+    /**
+     * Runs the operation OPERATIONS_PER_THREAD times on each of THREADS threads, all released at once.
+     * @return The number of operations that threw an unexpected exception.
+     */
+    private AtomicInteger runConcurrently(Runnable operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(executor.submit(() -> {
+                startSignal.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    try {
+                        operation.run();
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                        System.err.println("Unexpected failure: " + e);
+                    }
+                }
+                return null;
+            }));
+        }
+        startSignal.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        return failures;
+    }
+}
@@ -0,0 +1,148 @@
+package com.accountMicroservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.accountMicroservice.dao.AccountBalanceSlotRepository;
+import com.accountMicroservice.dao.AccountRepository;
+import com.accountMicroservice.dao.AppliedPostingRepository;
+import com.accountMicroservice.dto.AccountResponse;
+import com.accountMicroservice.dto.AccountSummaryResponse;
+import com.accountMicroservice.dto.BatchPostingItem;
+import com.accountMicroservice.dto.BatchPostingRequest;
+import com.accountMicroservice.dto.BatchPostingResult;
+import com.accountMicroservice.dto.DepositRequest;
+import com.accountMicroservice.model.Account;
+import com.accountMicroservice.model.AccountStatus;
+import com.accountMicroservice.model.AccountType;
+import com.accountMicroservice.model.Money;
+import com.accountMicroservice.proxyService.UserServiceClient;
+
+/**
+ * Checks POST /accounts/batch semantics on an embedded H2 database (its throughput against the
+ * single-call withdraw/deposit path is measured by AccountBatchPostingBenchmark). Also covers the multi-account reads of POST /accounts/batch-get (full and summary view).
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:batch;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=100",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true",
+        "account.striping.compaction-interval=PT1H",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ AccountServiceImpl.class, StripedBalanceManager.class, AccountNumberAllocator.class, UserValidationCache.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Every service call commits on its own, as in production
+class AccountBatchPostingTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AppliedPostingRepository appliedPostingRepository;
+
+    @Autowired
+    private AccountBalanceSlotRepository slotRepository;
+
+    @MockitoBean
+    private UserServiceClient userServiceClient;
+
+    @MockitoBean
+    private AccountEventPublisher accountEventPublisher;
+
+    @AfterEach
+    void cleanUp() {
+        appliedPostingRepository.deleteAllInBatch();
+        slotRepository.deleteAllInBatch();
+        accountRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void batchAppliesValidPostingsRejectsOthersAndIsIdempotent() {
+        String employer = createAccount(100.0);
+        String alice = createAccount(0.0);
+        String bob = createAccount(0.0);
+        accountService.configureBalanceStriping(bob, 4);
+
+        List<BatchPostingItem> items = List.of(
+                new BatchPostingItem("t1", employer, alice, Money.of(60.0)),
+                new BatchPostingItem("t2", employer, bob, Money.of(50.0)),  // Only 40.00 left
+                new BatchPostingItem("t3", employer, "no-such-account", Money.of(1.0)),
+                new BatchPostingItem("t4", null, bob, Money.of(25.0)),      // Plain credit into a striped account
+                new BatchPostingItem("t5", employer, employer, Money.of(1.0)),
+                new BatchPostingItem("t6", employer, bob, Money.of(40.0)));
+        List<BatchPostingResult> results = accountService.applyBatch(new BatchPostingRequest(items));
+
+        assertEquals(List.of(BatchPostingResult.Status.APPLIED, BatchPostingResult.Status.REJECTED,
+                BatchPostingResult.Status.REJECTED, BatchPostingResult.Status.APPLIED,
+                BatchPostingResult.Status.REJECTED, BatchPostingResult.Status.APPLIED),
+                results.stream().map(BatchPostingResult::getStatus).toList());
+        assertEquals("Insufficient funds in account ID: " + employer, results.get(1).getMessage());
+        assertEquals(Money.ZERO, balanceOf(employer));
+        assertEquals(Money.of(60.0), balanceOf(alice));
+        assertEquals(Money.of(65.0), balanceOf(bob));
+        assertEquals(5, appliedPostingRepository.count());
+
+        // A retried batch moves nothing; reusing a transaction ID with another amount is refused
+        List<BatchPostingResult> retry = accountService.applyBatch(new BatchPostingRequest(List.of(
+                new BatchPostingItem("t1", employer, alice, Money.of(60.0)),
+                new BatchPostingItem("t4", null, bob, Money.of(99.0)))));
+        assertEquals(BatchPostingResult.Status.ALREADY_APPLIED, retry.get(0).getStatus());
+        assertEquals(BatchPostingResult.Status.REJECTED, retry.get(1).getStatus());
+        assertEquals(Money.of(60.0), balanceOf(alice));
+        assertEquals(Money.of(65.0), balanceOf(bob));
+    }
+
+    @Test
+    void batchGetReturnsExistingAccountsInRequestOrderWithSlotTotals() {
+        String first = createAccount(10.0);
+        String second = createAccount(20.0);
+        accountService.configureBalanceStriping(second, 2);
+        accountService.depositFunds(second, new DepositRequest(UUID.randomUUID().toString(), Money.of(5.0))); // Lands in a slot
+
+        List<String> ids = List.of(second, "no-such-account", first, second);
+        List<AccountResponse> accounts = accountService.getAccountsByIds(ids);
+        assertEquals(List.of(second, first), accounts.stream().map(AccountResponse::getAccountId).toList());
+        assertEquals(Money.of(25.0), accounts.get(0).getBalance());
+
+        List<AccountSummaryResponse> summaries = accountService.getAccountSummariesByIds(ids);
+        assertEquals(List.of(new AccountSummaryResponse(second, Money.of(25.0), AccountStatus.ACTIVE),
+                new AccountSummaryResponse(first, Money.of(10.0), AccountStatus.ACTIVE)), summaries);
+    }
+
+    private Money balanceOf(String accountId) {
+        return accountService.getAccountById(accountId).orElseThrow().getBalance();
+    }
+
+    private String createAccount(double balance) {
+        Account account = new Account();
+        account.setUserId("user-1");
+        account.setAccountNumber(String.valueOf(System.nanoTime()));
+        account.setAccountType(AccountType.SAVINGS);
+        account.setBalance(Money.of(balance));
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setCreatedAt(LocalDateTime.now());
+        return accountRepository.save(account).getAccountId();
+    }
+}
@@ -0,0 +1,117 @@
+package com.accountMicroservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.accountMicroservice.dao.AccountRepository;
+import com.accountMicroservice.dto.AccountCreationRequest;
+import com.accountMicroservice.dto.UserDto;
+import com.accountMicroservice.model.AccountType;
+import com.accountMicroservice.model.Money;
+import com.accountMicroservice.proxyService.UserServiceClient;
+
+/**
+ * Creates accounts from many threads at once and checks that every account gets a distinct, check-digit-valid
+ * number. The small block size makes the threads run through many block reservations while they compete.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:numbers;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "account.number.block-size=7",
+        "account.striping.compaction-interval=PT1H",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ AccountServiceImpl.class, StripedBalanceManager.class, AccountNumberAllocator.class, UserValidationCache.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Every account is created in its own transaction, as in production
+class AccountNumberAllocatorTest {
+
+    private static final int THREADS = 16;
+    private static final int ACCOUNTS_PER_THREAD = 50;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @MockitoBean
+    private UserServiceClient userServiceClient;
+
+    @MockitoBean
+    private AccountEventPublisher accountEventPublisher;
+
+    @AfterEach
+    void cleanUp() {
+        accountRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentCreatorsGetDistinctValidAccountNumbers() throws Exception {
+        when(userServiceClient.getUserById(anyString()))
+                .thenReturn(new UserDto("user-1", "alice", "alice@example.com", "CUSTOMER", LocalDateTime.now()));
+
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<?>> creators = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            creators.add(executor.submit(() -> {
+                startSignal.await();
+                for (int i = 0; i < ACCOUNTS_PER_THREAD; i++) {
+                    numbers.add(accountService.createAccount(
+                            new AccountCreationRequest("user-1", AccountType.SAVINGS, Money.ZERO)).getAccountNumber());
+                }
+                return null;
+            }));
+        }
+        startSignal.countDown();
+        for (Future<?> creator : creators) {
+            creator.get(2, TimeUnit.MINUTES); // Rethrows any failed creation
+        }
+        executor.shutdown();
+
+        int accounts = THREADS * ACCOUNTS_PER_THREAD;
+        assertEquals(accounts, numbers.size());
+        assertEquals(accounts, accountRepository.count());
+        assertTrue(numbers.stream().allMatch(AccountNumberAllocator::isValid));
+    }
+
+    @Test
+    void checkDigitFollowsLuhn() {
+        assertEquals(3, AccountNumberAllocator.luhnCheckDigit("7992739871")); // Textbook example
+        assertEquals("000000012344", AccountNumberAllocator.withCheckDigit(1234));
+        assertTrue(AccountNumberAllocator.isValid("000000012344"));
+        assertFalse(AccountNumberAllocator.isValid("000000012345")); // Wrong check digit
+        assertFalse(AccountNumberAllocator.isValid("000000021344")); // Swapped digits
+    }
+}
@@ -0,0 +1,131 @@
+package com.accountMicroservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.accountMicroservice.dao.AccountBalanceSlotRepository;
+import com.accountMicroservice.dao.AccountRepository;
+import com.accountMicroservice.dao.AppliedPostingRepository;
+import com.accountMicroservice.dto.DepositRequest;
+import com.accountMicroservice.dto.WithdrawRequest;
+import com.accountMicroservice.exception.AccountProcessingException;
+import com.accountMicroservice.model.Account;
+import com.accountMicroservice.model.AccountStatus;
+import com.accountMicroservice.model.AccountType;
+import com.accountMicroservice.model.AppliedPosting;
+import com.accountMicroservice.model.Money;
+import com.accountMicroservice.proxyService.UserServiceClient;
+
+/**
+ * Checks that a retried deposit or withdrawal is applied once, that reusing its transaction ID for another amount
+ * is refused, and that postings are purged only once they are past account.applied-posting.retention.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:postings;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "account.striping.compaction-interval=PT1H",
+        "account.applied-posting.retention=PT24H",
+        "account.applied-posting.purge-interval=PT1H", // The test runs the purge itself
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ AccountServiceImpl.class, StripedBalanceManager.class, AccountNumberAllocator.class, UserValidationCache.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Every service call commits on its own, as in production
+class AppliedPostingTest {
+
+    @Autowired
+    private AccountServiceImpl accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AppliedPostingRepository appliedPostingRepository;
+
+    @Autowired
+    private AccountBalanceSlotRepository slotRepository;
+
+    @MockitoBean
+    private UserServiceClient userServiceClient;
+
+    @MockitoBean
+    private AccountEventPublisher accountEventPublisher;
+
+    @AfterEach
+    void cleanUp() {
+        appliedPostingRepository.deleteAllInBatch();
+        slotRepository.deleteAllInBatch();
+        accountRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void retriedPostingsAreAppliedOnce() {
+        String accountId = createAccount(100.0);
+
+        accountService.depositFunds(accountId, new DepositRequest("txn-1", Money.of(50.0)));
+        accountService.depositFunds(accountId, new DepositRequest("txn-1", Money.of(50.0))); // Retry after a timeout
+        accountService.withdrawFunds(accountId, new WithdrawRequest("txn-2", Money.of(30.0)));
+        accountService.withdrawFunds(accountId, new WithdrawRequest("txn-2", Money.of(30.0)));
+
+        assertEquals(Money.of(120.0), balanceOf(accountId));
+        assertEquals(2, appliedPostingRepository.count());
+    }
+
+    @Test
+    void transactionIdReusedForAnotherAmountIsRefused() {
+        String accountId = createAccount(100.0);
+        accountService.depositFunds(accountId, new DepositRequest("txn-1", Money.of(50.0)));
+
+        assertThrows(AccountProcessingException.class,
+                () -> accountService.depositFunds(accountId, new DepositRequest("txn-1", Money.of(60.0))));
+        assertEquals(Money.of(150.0), balanceOf(accountId));
+    }
+
+    @Test
+    void onlyPostingsPastTheRetentionArePurged() {
+        String accountId = createAccount(100.0);
+        appliedPostingRepository.save(new AppliedPosting(AppliedPosting.keyOf(AppliedPosting.DEPOSIT, accountId, "txn-old"),
+                "txn-old", accountId, AppliedPosting.DEPOSIT, Money.of(10.0), LocalDateTime.now().minusHours(25)));
+        accountService.depositFunds(accountId, new DepositRequest("txn-new", Money.of(10.0)));
+
+        accountService.purgeExpiredPostings();
+
+        assertFalse(appliedPostingRepository.existsById(AppliedPosting.keyOf(AppliedPosting.DEPOSIT, accountId, "txn-old")));
+        assertTrue(appliedPostingRepository.existsById(AppliedPosting.keyOf(AppliedPosting.DEPOSIT, accountId, "txn-new")));
+        accountService.depositFunds(accountId, new DepositRequest("txn-new", Money.of(10.0))); // Still recognised
+        assertEquals(Money.of(110.0), balanceOf(accountId));
+    }
+
+    private Money balanceOf(String accountId) {
+        return accountService.getAccountById(accountId).orElseThrow().getBalance();
+    }
+
+    private String createAccount(double balance) {
+        Account account = new Account();
+        account.setUserId("user-1");
+        account.setAccountNumber(String.valueOf(System.nanoTime()));
+        account.setAccountType(AccountType.SAVINGS);
+        account.setBalance(Money.of(balance));
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setCreatedAt(LocalDateTime.now());
+        return accountRepository.save(account).getAccountId();
+    }
+}
@@ -0,0 +1,100 @@
+package com.accountMicroservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.accountMicroservice.dto.UserDto;
+import com.accountMicroservice.exception.AccountProcessingException;
+import com.accountMicroservice.proxyService.UserServiceClient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Checks that bulk onboarding costs one User Service call per user, that unknown users are cached
+ * negatively, and that an outage is reported rather than cached.
+ */
+class UserValidationCacheTest {
+
+    private UserServiceClient userServiceClient;
+    private MeterRegistry meterRegistry;
+    private UserValidationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userServiceClient = mock(UserServiceClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("meterRegistry", meterRegistry);
+        cache = new UserValidationCache(userServiceClient, beans.getBeanProvider(MeterRegistry.class),
+                1000, Duration.ofMinutes(10), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void concurrentAccountOpeningsForOneUserMakeOneCall() throws Exception {
+        when(userServiceClient.getUserById(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(50); // Keeps the first call in flight while the others arrive
+            return new UserDto(invocation.getArgument(0), "alice", "alice@example.com", "CUSTOMER", LocalDateTime.now());
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Boolean>> lookups = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String userId = "user-" + (i % 4);
+            lookups.add(executor.submit(() -> {
+                startSignal.await();
+                return cache.findUser(userId).isPresent();
+            }));
+        }
+        startSignal.countDown();
+        for (Future<Boolean> lookup : lookups) {
+            assertTrue(lookup.get(1, TimeUnit.MINUTES));
+        }
+        executor.shutdown();
+
+        verify(userServiceClient, times(4)).getUserById(anyString());
+        assertEquals(196.0, meterRegistry.get("cache.gets").tag("cache", "user-validation").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void unknownUserIsCachedNegatively() {
+        when(userServiceClient.getUserById("ghost")).thenReturn(null); // The fallback's answer to a 404
+
+        assertTrue(cache.findUser("ghost").isEmpty());
+        assertTrue(cache.findUser("ghost").isEmpty());
+        verify(userServiceClient, times(1)).getUserById("ghost");
+    }
+
+    @Test
+    void outageIsReportedAndNotCached() {
+        when(userServiceClient.getUserById("user-1"))
+                .thenThrow(new AccountProcessingException("User Service unavailable; cannot validate user user-1."))
+                .thenReturn(new UserDto("user-1", "alice", "alice@example.com", "CUSTOMER", LocalDateTime.now()));
+
+        assertThrows(AccountProcessingException.class, () -> cache.findUser("user-1"));
+        assertTrue(cache.findUser("user-1").isPresent()); // Asked again once the User Service is back
+        verify(userServiceClient, times(2)).getUserById("user-1");
+    }
+}
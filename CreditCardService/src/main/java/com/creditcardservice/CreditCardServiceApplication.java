@@ -4,12 +4,16 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 //import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
+import com.creditcardservice.config.PeakEwmaLoadBalancerConfiguration;
+
 @SpringBootApplication
 @EnableFeignClients(basePackages = "com.creditcardservice.proxyservice")
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class) // Feign calls go to the least loaded, fastest instances
 @EntityScan("com.creditcardservice.model") // Scans for JPA entities
 @EnableJpaRepositories("com.creditcardservice.dao") // IMPORTANT: Scans for your NotificationRepository
 @EnableDiscoveryClient 
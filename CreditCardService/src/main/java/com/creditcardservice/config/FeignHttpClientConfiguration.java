@@ -0,0 +1,54 @@
+package com.creditcardservice.config;
+
+import java.time.Duration;
+
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration.HttpClientBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * Transport of the Feign clients: a pooled Apache HttpClient 5 instead of Feign's default HttpURLConnection,
+ * which keeps at most 5 idle connections per host and so opens new ones under concurrent load.
+ * Spring Cloud OpenFeign creates the client and its connection pool once feign-hc5 is on the classpath, sized by
+ * spring.cloud.openfeign.httpclient.* in application.yaml (connections in total and per service instance, how long
+ * to wait for a free one); timeouts per call come from spring.cloud.openfeign.client.config.
+ * This class adds what those properties do not cover:
+ * - Keep-alive: idle connections are reused for at most feign.pool.keep-alive (or less if the server says so),
+ *   staying below the server's own idle timeout, so a request is never sent on a connection the server just closed.
+ * - A background sweep that closes expired and idle connections instead of leaving them to the next request.
+ * - Pool metrics (httpcomponents.httpclient.pool.*, tagged httpclient=feign): connections leased and available,
+ *   and requests waiting for a connection (pending), which is the sign the pool is too small.
+ */
+@Configuration
+public class FeignHttpClientConfiguration {
+
+    @Bean
+    public HttpClientBuilderCustomizer feignKeepAliveCustomizer(
+            @Value("${feign.pool.keep-alive:PT15S}") Duration keepAlive) {
+        TimeValue maxKeepAlive = TimeValue.of(keepAlive);
+        return builder -> builder
+                .setKeepAliveStrategy((response, context) ->
+                        DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context).min(maxKeepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(maxKeepAlive);
+    }
+
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> feignConnectionManager) {
+        return registry -> {
+            // Absent when spring.cloud.openfeign.httpclient.hc5.enabled is false
+            if (feignConnectionManager.getIfAvailable() instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+            }
+        };
+    }
+}
@@ -3,12 +3,15 @@ package com.creditcardservice.controller;
 import com.creditcardservice.dto.CreditCardRequestDTO;
 import com.creditcardservice.dto.CreditCardResponseDTO;
 import com.creditcardservice.dto.TransactionDTO;
+import com.creditcardservice.model.Money;
 import com.creditcardservice.service.CreditCardService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -25,11 +28,13 @@ public class CreditCardController {
         return ResponseEntity.ok(response);
     }
 
-    // Get all cards for a user
+    // Get all cards for a user (polled by the frontend, so cacheable per caller for 30 seconds, e.g. by the gateway)
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<CreditCardResponseDTO>> getCardsByUser(@PathVariable String userId) {
         List<CreditCardResponseDTO> cards = creditCardService.getCardsByUserId(userId);
-        return ResponseEntity.ok(cards);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(30)).cachePrivate())
+                .body(cards);
     }
 
     // Get a card by ID
@@ -56,7 +61,7 @@ public class CreditCardController {
     // Update transaction limit
     @PutMapping("/{cardId}/limit")
     public ResponseEntity<CreditCardResponseDTO> updateLimit(@PathVariable String cardId,
-                                                             @RequestParam Double newLimit) {
+                                                             @RequestParam Money newLimit) {
         CreditCardResponseDTO updated = creditCardService.updateTransactionLimit(cardId, newLimit);
         return ResponseEntity.ok(updated);
     }
@@ -1,6 +1,7 @@
 package com.creditcardservice.dto;
 
 import com.creditcardservice.model.CardType;
+import com.creditcardservice.model.Money;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -19,7 +20,7 @@ public class CreditCardRequestDTO {
     private CardType cardType;
 
     @NotNull
-    private Double transactionLimit;
+    private Money transactionLimit;
 
     @NotNull
     private LocalDate issueDate;
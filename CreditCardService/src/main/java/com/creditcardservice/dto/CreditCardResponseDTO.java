@@ -2,6 +2,7 @@ package com.creditcardservice.dto;
 
 import com.creditcardservice.model.CardStatus;
 import com.creditcardservice.model.CardType;
+import com.creditcardservice.model.Money;
 import lombok.Data;
 
 import java.time.LocalDate;
@@ -17,6 +18,6 @@ public class CreditCardResponseDTO {
     private LocalDate issueDate;
     private LocalDate expiryDate;
     private CardStatus status;
-    private Double transactionLimit;
+    private Money transactionLimit;
     private LocalDateTime createdAt;
 }
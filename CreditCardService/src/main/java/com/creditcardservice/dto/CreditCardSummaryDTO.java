@@ -2,6 +2,7 @@ package com.creditcardservice.dto;
 
 import com.creditcardservice.model.CardStatus;
 import com.creditcardservice.model.CardType;
+import com.creditcardservice.model.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -11,5 +12,5 @@ public class CreditCardSummaryDTO {
     private String cardId;
     private CardType cardType;
     private CardStatus status;
-    private Double transactionLimit;
+    private Money transactionLimit;
 }
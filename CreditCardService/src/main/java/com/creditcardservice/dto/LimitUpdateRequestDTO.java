@@ -1,10 +1,12 @@
 package com.creditcardservice.dto;
 
+import com.creditcardservice.model.Money;
+
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 @Data
 public class LimitUpdateRequestDTO {
     @NotNull
-    private Double newLimit;
+    private Money newLimit;
 }
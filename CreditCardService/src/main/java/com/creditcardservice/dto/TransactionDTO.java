@@ -2,6 +2,8 @@ package com.creditcardservice.dto;
 
 import java.time.LocalDateTime;
 
+import com.creditcardservice.model.Money;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,7 +19,7 @@ public class TransactionDTO {
     private String transactionId;
     private String fromAccountId;
     private String toAccountId;
-    private Double amount;
+    private Money amount;
     private String type;    // Possible values: DEPOSIT, WITHDRAW, TRANSFER (as strings)
     private String status;  // Possible values: SUCCESS, FAILED, PENDING (as strings)
     private LocalDateTime transactionDate;
@@ -28,6 +28,7 @@ public class CreditCard {
 
     @Enumerated(EnumType.STRING)
     private CardStatus status; //Enum  // Possible values: ACTIVE, BLOCKED
-    private Double transactionLimit;
+    @Column(precision = 19, scale = 2)
+    private Money transactionLimit;
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,153 @@
+package com.creditcardservice.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Immutable monetary amount held as a whole number of minor units (e.g. paise) plus a currency.
+ * Arithmetic and comparisons are plain long operations: exact (no binary floating-point drift as
+ * with Double) and much cheaper than BigDecimal. Each plus/minus still returns a new object, so
+ * it is no faster than a boxed Double; a loop that folds many amounts should add getMinorUnits()
+ * in a long and create one Money at the end (see MoneyArithmeticBenchmark in the Account Service).
+ * In JSON and in the database a Money is a decimal number of major units (e.g. 1250.75), so API
+ * clients and existing columns see the same values as before. The bank operates in a single currency
+ * (INR), so the currency itself is not serialized or persisted.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("INR");
+    public static final Money ZERO = new Money(0, DEFAULT_CURRENCY);
+
+    private final long minorUnits;
+    private final Currency currency;
+
+    private Money(long minorUnits, Currency currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return ofMinor(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    /**
+     * Creates a Money from a decimal amount of major units, rounding half-even to the currency's minor unit.
+     * Also used by Jackson to read amounts from JSON numbers (or numeric strings).
+     */
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        return of(amount, DEFAULT_CURRENCY);
+    }
+
+    public static Money of(BigDecimal amount, Currency currency) {
+        BigDecimal minor = amount.setScale(currency.getDefaultFractionDigits(), RoundingMode.HALF_EVEN).movePointRight(currency.getDefaultFractionDigits());
+        return new Money(minor.longValueExact(), currency);
+    }
+
+    public static Money of(double amount) {
+        return of(BigDecimal.valueOf(amount));
+    }
+
+    /**
+     * Parses a decimal amount such as "1250.75". Spring uses this to bind request parameters to Money.
+     */
+    public static Money valueOf(String amount) {
+        return of(new BigDecimal(amount.trim()));
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    /**
+     * The amount in major units, e.g. 1250.75. This is what is written to JSON.
+     */
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        if (other.minorUnits == 0) {
+            return this; // No allocation, e.g. for the slot total of an account that is not striped
+        }
+        if (minorUnits == 0) {
+            return other;
+        }
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        if (other.minorUnits == 0) {
+            return this;
+        }
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    public boolean isGreaterThanOrEqualTo(Money other) {
+        return compareTo(other) >= 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return compareTo(other) < 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money other)) {
+            return false;
+        }
+        return minorUnits == other.minorUnits && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minorUnits) + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.creditcardservice.service;
 
 import com.creditcardservice.dto.*;
+import com.creditcardservice.model.Money;
 import java.util.List;
 
 public interface CreditCardService {
@@ -15,7 +16,7 @@ public interface CreditCardService {
 
     CreditCardResponseDTO unblockCard(String cardId);
 
-    CreditCardResponseDTO updateTransactionLimit(String cardId, Double newLimit);
+    CreditCardResponseDTO updateTransactionLimit(String cardId, Money newLimit);
 
     List<TransactionDTO> getTransactionsByCardId(String cardId);
 }
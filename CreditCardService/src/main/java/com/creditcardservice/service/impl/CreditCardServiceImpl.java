@@ -5,6 +5,7 @@ import com.creditcardservice.dto.*;
 import com.creditcardservice.exceptions.ResourceNotFoundException;
 import com.creditcardservice.model.CardStatus;
 import com.creditcardservice.model.CreditCard;
+import com.creditcardservice.model.Money;
 import com.creditcardservice.proxyservice.TransactionServiceProxy;
 import com.creditcardservice.service.CreditCardService;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -112,7 +113,7 @@ public class CreditCardServiceImpl implements CreditCardService {
     }
 
     @Override
-    public CreditCardResponseDTO updateTransactionLimit(String cardId, Double newLimit) {
+    public CreditCardResponseDTO updateTransactionLimit(String cardId, Money newLimit) {
         CreditCard card = creditCardRepository.findById(cardId)
                 .orElseThrow(() -> new ResourceNotFoundException("Card not found with ID: " + cardId));
         card.setTransactionLimit(newLimit);
@@ -231,7 +232,7 @@ public class CreditCardServiceImpl implements CreditCardService {
 //    }
 //
 //    @Override
-//    public CreditCardResponseDTO updateTransactionLimit(String cardId, Double newLimit) {
+//    public CreditCardResponseDTO updateTransactionLimit(String cardId, Money newLimit) {
 //        CreditCard card = getEntity(cardId);
 //        card.setTransactionLimit(newLimit);
 //        return mapToResponseDTO(creditCardRepository.save(card));
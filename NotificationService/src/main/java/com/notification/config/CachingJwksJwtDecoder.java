@@ -0,0 +1,114 @@
+package com.notification.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.jwk.source.OutageTolerantJWKSetSource;
+import com.nimbusds.jose.jwk.source.RefreshAheadCachingJWKSetSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+/**
+ * Validates JWTs against Keycloak's public keys (the JWKS at jwk-set-uri), keeping the keys in memory so that
+ * a slow or unavailable Keycloak does not stall request authentication:
+ * - the keys are fetched at startup and then refreshed in the background shortly before they expire (refresh-ahead),
+ *   so requests never wait for a fetch in normal operation;
+ * - if a fetch fails, the last keys are kept in use for up to outage-tolerance (stale-while-revalidate);
+ * - a token signed with an unknown key ID (Keycloak rotated its keys) triggers an immediate refetch,
+ *   at most once per min-refresh-interval so that forged key IDs cannot flood Keycloak.
+ * Signature and claim checks are the same as Spring's default decoder (RS256, exp/nbf).
+ * The other resource servers use a copy of this class.
+ */
+public class CachingJwksJwtDecoder implements JwtDecoder, AutoCloseable {
+
+    private final JWKSource<SecurityContext> jwkSource;
+    private final NimbusJwtDecoder delegate;
+
+    /**
+     * @param jwkSetUri Keycloak's JWKS endpoint.
+     * @param ttl How long fetched keys are considered fresh.
+     * @param refreshAhead How long before the end of ttl the background refresh starts.
+     * @param outageTolerance How long the last keys stay in use while the endpoint cannot be reached.
+     * @param minRefreshInterval The minimum time between two fetches.
+     * @param timeout The connect and read timeout of a fetch.
+     */
+    public CachingJwksJwtDecoder(String jwkSetUri, Duration ttl, Duration refreshAhead, Duration outageTolerance,
+            Duration minRefreshInterval, Duration timeout) {
+        DefaultResourceRetriever retriever = new DefaultResourceRetriever((int) timeout.toMillis(), (int) timeout.toMillis(),
+                JWKSourceBuilder.DEFAULT_HTTP_SIZE_LIMIT);
+        try {
+            this.jwkSource = JWKSourceBuilder.<SecurityContext>create(URI.create(jwkSetUri).toURL(), retriever)
+                    .cache(ttl.toMillis(), timeout.toMillis())
+                    .refreshAheadCache(refreshAhead.toMillis(), true, event -> {
+                        if (event instanceof RefreshAheadCachingJWKSetSource.ScheduledRefreshFailed<?> failed) {
+                            System.err.println("Background JWKS refresh from " + jwkSetUri + " failed: "
+                                    + failed.getException().getMessage());
+                        }
+                    })
+                    .outageTolerant(outageTolerance.toMillis(), event -> {
+                        if (event instanceof OutageTolerantJWKSetSource.OutageEvent<?> outage) {
+                            System.err.println("JWKS endpoint " + jwkSetUri + " unreachable (" + outage.getException().getMessage()
+                                    + "); using the cached keys for up to " + outage.getRemainingTime() + " ms more.");
+                        }
+                    })
+                    .rateLimited(minRefreshInterval.toMillis())
+                    .retrying(true)
+                    .build();
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid jwk-set-uri: " + jwkSetUri, e);
+        }
+
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+            // Claims (exp, nbf) are checked by the Spring validators of NimbusJwtDecoder
+        });
+        this.delegate = new NimbusJwtDecoder(jwtProcessor);
+
+        warmUp(jwkSetUri);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        return delegate.decode(token);
+    }
+
+    /**
+     * Stops the background refresh. Called by Spring when the context closes.
+     */
+    @Override
+    public void close() throws IOException {
+        if (jwkSource instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Fetches the keys now, so the first requests do not wait for Keycloak.
+     * A failure is not fatal: the service can start before Keycloak, and the keys are then fetched on the first request.
+     */
+    private void warmUp(String jwkSetUri) {
+        try {
+            int keys = jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null).size();
+            System.out.println("Loaded " + keys + " signing keys from " + jwkSetUri);
+        } catch (KeySourceException e) {
+            System.err.println("Could not load the signing keys from " + jwkSetUri + " at startup: " + e.getMessage());
+        }
+    }
+}
@@ -12,10 +12,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.notification.dto.BatchNotificationRequest;
 import com.notification.dto.NotificationRequest;
 import com.notification.dto.NotificationResponse;
 import com.notification.exceptions.NotificationProcessingException;
 import com.notification.model.Notification;
+import com.notification.model.NotificationStatus;
 import com.notification.model.NotificationType;
 import com.notification.service.NotificationService;
 
@@ -66,6 +68,22 @@ public class NotificationController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    /**
+     * Handles POST /notifications/batch requests.
+     * Sends several notifications (of any type) in one call, e.g. both notifications of a fund transfer.
+     *
+     * @param request The BatchNotificationRequest DTO containing the notifications to send.
+     * @return ResponseEntity with one NotificationResponse (status SENT or FAILED) per notification, in request order,
+     * and HTTP status 201 (Created) if all were sent, or 207 (Multi-Status) if some were rejected.
+     * @throws NotificationProcessingException if there's an issue persisting the batch.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<NotificationResponse>> sendBatchNotifications(@Valid @RequestBody BatchNotificationRequest request) {
+        List<NotificationResponse> responses = notificationService.sendNotifications(request.getNotifications());
+        boolean anyFailed = responses.stream().anyMatch(response -> response.getStatus() == NotificationStatus.FAILED);
+        return new ResponseEntity<>(responses, anyFailed ? HttpStatus.MULTI_STATUS : HttpStatus.CREATED);
+    }
+
     /**
      * Handles GET /notifications/user/{id} requests.
      * Retrieves all notifications for a specific user.
@@ -0,0 +1,24 @@
+package com.notification.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for sending several notifications in one call (e.g., both sides of a transfer,
+ * a batch drained from the Transaction Service's notification outbox, or a statement run).
+ * Items are validated one by one by the service, so one invalid item does not reject the whole batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchNotificationRequest {
+
+    @NotEmpty(message = "Notifications cannot be empty")
+    @Size(max = 5000, message = "A batch can contain at most 5000 notifications")
+    private List<NotificationRequest> notifications;
+}
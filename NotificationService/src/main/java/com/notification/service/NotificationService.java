@@ -25,6 +25,16 @@ public interface NotificationService {
      */
     NotificationResponse sendNotification(NotificationRequest request);
 
+    /**
+     * Sends several notifications in one call and persists them with batched inserts in a single database transaction.
+     * Invalid items do not fail the batch; they are returned with status FAILED and a message.
+     *
+     * @param requests The NotificationRequest DTOs to send.
+     * @return One NotificationResponse per request, in the same order as the requests.
+     * @throws NotificationProcessingException if the batch cannot be persisted.
+     */
+    List<NotificationResponse> sendNotifications(List<NotificationRequest> requests);
+
     /**
      * Retrieves a notification by its unique ID.
      *
@@ -1,10 +1,14 @@
 package com.notification.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,14 +20,26 @@ import com.notification.model.Notification;
 import com.notification.model.NotificationStatus;
 import com.notification.model.NotificationType;
 
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
 @Service // Marks this class as a Spring service component
 public class NotificationServiceImpl implements NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final EntityManager entityManager; // Used directly for batched inserts
+    private final Validator validator; // Validates batch items one by one
+    private final int jdbcBatchSize;
 
     @Autowired
-    public NotificationServiceImpl(NotificationRepository notificationRepository) {
+    public NotificationServiceImpl(NotificationRepository notificationRepository, EntityManager entityManager,
+                                   Validator validator,
+                                   @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int jdbcBatchSize) {
         this.notificationRepository = notificationRepository;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.jdbcBatchSize = jdbcBatchSize;
     }
 
     /**
@@ -80,6 +96,78 @@ public class NotificationServiceImpl implements NotificationService {
         return response;
     }
 
+    /**
+     * Sends several notifications in one call and persists them in a single database transaction.
+     * Inserts are sent to the database in JDBC batches (hibernate.jdbc.batch_size); the persistence
+     * context is flushed and cleared after every batch so large statement runs use constant memory.
+     * Invalid items are reported as FAILED without rejecting the rest of the batch.
+     *
+     * @param requests The NotificationRequest DTOs to send.
+     * @return One NotificationResponse per request, in the same order as the requests.
+     * @throws NotificationProcessingException if the batch cannot be persisted.
+     */
+    @Override
+    @Transactional // One transaction for the whole batch instead of one per notification
+    public List<NotificationResponse> sendNotifications(List<NotificationRequest> requests) {
+        List<NotificationResponse> responses = new ArrayList<>(requests.size());
+        int persisted = 0;
+        try {
+            for (NotificationRequest request : requests) {
+                String violations = validate(request);
+                if (violations != null) {
+                    responses.add(new NotificationResponse(null, request.getUserId(), request.getType(),
+                            request.getContent(), NotificationStatus.FAILED, null, "Invalid notification: " + violations));
+                    continue;
+                }
+
+                Notification notification = new Notification();
+                notification.setUserId(request.getUserId());
+                notification.setType(request.getType());
+                notification.setContent(request.getContent());
+                notification.setSentAt(LocalDateTime.now());
+                notification.setStatus(NotificationStatus.SENT);
+                // UUID ids are generated in memory on persist, so Hibernate can batch the INSERTs
+                // (an IDENTITY column would force one round trip per row).
+                entityManager.persist(notification);
+
+                responses.add(new NotificationResponse(notification.getNotificationId(), notification.getUserId(),
+                        notification.getType(), notification.getContent(), notification.getStatus(),
+                        notification.getSentAt(), "Notification sent successfully."));
+
+                if (++persisted % jdbcBatchSize == 0) {
+                    entityManager.flush(); // Sends the pending INSERTs as one JDBC batch
+                    entityManager.clear(); // Detaches them so the persistence context does not grow with the batch
+                }
+            }
+            entityManager.flush();
+        } catch (Exception e) {
+            throw new NotificationProcessingException("Failed to send batch of " + requests.size() + " notifications", e);
+        }
+
+        // Simulate sending the notifications (a real gateway would accept them in bulk as well)
+        System.out.println("Simulating sending " + persisted + " notifications in one batch ("
+                + (requests.size() - persisted) + " rejected).");
+        return responses;
+    }
+
+    /**
+     * Helper method to validate one item of a batch.
+     * @return The constraint violations as a single message, or null if the request is valid.
+     */
+    private String validate(NotificationRequest request) {
+        if (request == null) {
+            return "notification cannot be null";
+        }
+        Set<ConstraintViolation<NotificationRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
     /**
      * Retrieves a notification by its unique ID.
      *
@@ -0,0 +1,90 @@
+package com.notification.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.notification.dao.NotificationRepository;
+import com.notification.dto.NotificationRequest;
+import com.notification.dto.NotificationResponse;
+import com.notification.model.NotificationStatus;
+import com.notification.model.NotificationType;
+
+/**
+ * Checks POST /notifications/batch style persistence on an embedded H2 database: per-item statuses, and batches
+ * spanning several JDBC batches. Its throughput against one request per notification is measured by
+ * NotificationBatchBenchmark.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=100",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@Import(NotificationServiceImpl.class)
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Every service call commits on its own, as in production
+class NotificationBatchTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @BeforeEach
+    void cleanUp() {
+        notificationRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void batchReportsPerItemStatusesAndPersistsOnlyValidItems() {
+        List<NotificationRequest> requests = List.of(
+                new NotificationRequest("user-1", NotificationType.EMAIL, "Statement ready"),
+                new NotificationRequest("", NotificationType.EMAIL, "Missing user"),
+                new NotificationRequest("user-2", NotificationType.SMS, "Statement ready"));
+
+        List<NotificationResponse> responses = notificationService.sendNotifications(requests);
+
+        assertEquals(3, responses.size());
+        assertEquals(NotificationStatus.SENT, responses.get(0).getStatus());
+        assertNotNull(responses.get(0).getNotificationId());
+        assertEquals(NotificationStatus.FAILED, responses.get(1).getStatus());
+        assertNull(responses.get(1).getNotificationId());
+        assertEquals(NotificationStatus.SENT, responses.get(2).getStatus());
+        assertEquals(2, notificationRepository.count());
+    }
+
+    @Test
+    void batchLargerThanTheJdbcBatchIsPersistedInFull() {
+        List<NotificationResponse> responses = notificationService.sendNotifications(requests(250)); // JDBC batches of 100
+
+        assertEquals(250, responses.size());
+        assertTrue(responses.stream().allMatch(r -> r.getStatus() == NotificationStatus.SENT && r.getNotificationId() != null));
+        assertEquals(250, notificationRepository.count());
+    }
+
+    private static List<NotificationRequest> requests(int count) {
+        List<NotificationRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(new NotificationRequest("user-" + (i % 50), NotificationType.EMAIL,
+                    "Your monthly statement #" + i + " is ready."));
+        }
+        return requests;
+    }
+}
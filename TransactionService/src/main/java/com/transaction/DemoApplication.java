@@ -4,12 +4,18 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.cloud.openfeign.EnableFeignClients; // Correct annotation to enable Feign clients
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.transaction.config.PeakEwmaLoadBalancerConfiguration;
 
 @SpringBootApplication
 @EnableFeignClients(basePackages = "com.transaction.proxyService") // IMPORTANT: Specifies the package where your Feign client interfaces are
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class) // Feign calls go to the least loaded, fastest instances
 @EntityScan("com.transaction.model") // Scans for JPA entities
 @EnableDiscoveryClient // Enables service registration and discovery with Eureka
+@EnableScheduling // Enables background jobs such as the idempotency record purge
 public class DemoApplication {
 
 	public static void main(String[] args) {
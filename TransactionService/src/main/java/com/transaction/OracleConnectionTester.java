@@ -1,5 +1,6 @@
 package com.transaction;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
@@ -67,7 +68,7 @@ public class OracleConnectionTester {
                 String transactionId = rs.getString("TRANSACTION_ID");
                 String fromAccountId = rs.getString("FROM_ACCOUNT_ID");
                 String toAccountId = rs.getString("TO_ACCOUNT_ID");
-                double amount = rs.getDouble("AMOUNT");
+                BigDecimal amount = rs.getBigDecimal("AMOUNT");
                 String type = rs.getString("TRANSACTION_TYPE");
                 String status = rs.getString("TRANSACTION_STATUS");
                 LocalDateTime transactionDate = rs.getTimestamp("TRANSACTION_DATE").toLocalDateTime();
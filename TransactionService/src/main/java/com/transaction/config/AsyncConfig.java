@@ -0,0 +1,93 @@
+package com.transaction.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Dedicated executor for fanning out Account Service lookups (e.g. source and target account of a transfer).
+     * Kept separate from the servlet and scheduler pools so a slow Account Service cannot starve them.
+     * When the pool and queue are full the caller runs the lookup itself, which degrades to the old sequential behaviour.
+     *
+     * @return An Executor bean named "accountLookupExecutor".
+     */
+    @Bean(name = "accountLookupExecutor")
+    public Executor accountLookupExecutor(
+            @Value("${transaction.account-lookup.core-pool-size:16}") int corePoolSize,
+            @Value("${transaction.account-lookup.max-pool-size:64}") int maxPoolSize,
+            @Value("${transaction.account-lookup.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("account-lookup-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // Carry the incoming request (and its Authorization header) into the worker threads,
+        // so FeignClientConfiguration can forward the JWT from there as well.
+        executor.setTaskDecorator(requestContextTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Worker pool that drives transfer sagas (see TransferSagaOrchestrator).
+     * Deliberately without the request context decorator: a saga outlives the request that started it,
+     * so its Account Service calls authenticate with the service's own client-credentials token.
+     * When the pool and queue are full, new sagas are left to the resume sweep instead of blocking the caller.
+     *
+     * @return An Executor bean named "transferSagaExecutor".
+     */
+    @Bean(name = "transferSagaExecutor")
+    public Executor transferSagaExecutor(
+            @Value("${transaction.transfer-saga.worker-threads:8}") int workerThreads,
+            @Value("${transaction.transfer-saga.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workerThreads);
+        executor.setMaxPoolSize(workerThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("transfer-saga-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Copies the caller's RequestAttributes and SecurityContext onto the thread that runs the task
+     * and restores the previous values afterwards, since pool threads are reused across requests.
+     * The caller must wait for the task to finish while its request is still active.
+     *
+     * @return A TaskDecorator that propagates request and security context.
+     */
+    @Bean
+    public TaskDecorator requestContextTaskDecorator() {
+        return runnable -> {
+            RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+            SecurityContext securityContext = SecurityContextHolder.getContext();
+            return () -> {
+                // Restore whatever was there before: with CallerRunsPolicy this may be the request thread itself
+                RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+                SecurityContext previousSecurityContext = SecurityContextHolder.getContext();
+                try {
+                    RequestContextHolder.setRequestAttributes(requestAttributes);
+                    SecurityContextHolder.setContext(securityContext);
+                    runnable.run();
+                } finally {
+                    SecurityContextHolder.setContext(previousSecurityContext);
+                    RequestContextHolder.setRequestAttributes(previousAttributes);
+                }
+            };
+        };
+    }
+}
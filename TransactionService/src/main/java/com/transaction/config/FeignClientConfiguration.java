@@ -4,6 +4,13 @@ import java.util.Optional;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProviderBuilder;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
@@ -12,29 +19,65 @@ import feign.RequestInterceptor;
 @Configuration
 public class FeignClientConfiguration {
 
+    // Must match the registration under spring.security.oauth2.client.registration in application.yaml
+    private static final String SERVICE_CLIENT_REGISTRATION_ID = "transaction-service";
+
     /**
      * Creates a RequestInterceptor that adds the Authorization header to outgoing Feign requests.
      * This ensures that the JWT from the incoming request (from the API Gateway) is forwarded
      * to downstream microservices (like Account Service and Notification Service).
+     * Calls made outside of a user request (background jobs such as the notification outbox dispatcher)
+     * have no JWT to forward, so they use this service's own client-credentials token instead.
      *
+     * @param serviceAuthorizedClientManager Obtains (and caches until expiry) the service's own access token.
      * @return A RequestInterceptor bean.
      */
     @Bean
-    public RequestInterceptor requestInterceptor() {
+    public RequestInterceptor requestInterceptor(OAuth2AuthorizedClientManager serviceAuthorizedClientManager) {
         return requestTemplate -> {
             // Get current request attributes (if available, meaning it's an HTTP request context)
             ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
 
             // If attributes are present, it means there's an active HTTP request
-            Optional.ofNullable(attributes)
+            Optional<String> forwardedHeader = Optional.ofNullable(attributes)
                 .map(ServletRequestAttributes::getRequest)
                 .map(request -> request.getHeader("Authorization")) // Get the Authorization header from the incoming request
-                .filter(authHeader -> authHeader != null && authHeader.startsWith("Bearer ")) // Ensure it's a Bearer token
-                .ifPresent(authHeader -> {
-                    // Add the Authorization header to the outgoing Feign request
-                    requestTemplate.header("Authorization", authHeader);
-                    System.out.println("Forwarding Authorization header from Transaction Service: " + authHeader.substring(0, Math.min(authHeader.length(), 30)) + "..."); // Log for debugging
-                });
+                .filter(authHeader -> authHeader != null && authHeader.startsWith("Bearer ")); // Ensure it's a Bearer token
+
+            if (forwardedHeader.isPresent()) {
+                String authHeader = forwardedHeader.get();
+                // Add the Authorization header to the outgoing Feign request
+                requestTemplate.header("Authorization", authHeader);
+                System.out.println("Forwarding Authorization header from Transaction Service: " + authHeader.substring(0, Math.min(authHeader.length(), 30)) + "..."); // Log for debugging
+                return;
+            }
+
+            // No user request on this thread: authenticate as the Transaction Service itself
+            OAuth2AuthorizedClient serviceClient = serviceAuthorizedClientManager.authorize(
+                    OAuth2AuthorizeRequest.withClientRegistrationId(SERVICE_CLIENT_REGISTRATION_ID)
+                            .principal(SERVICE_CLIENT_REGISTRATION_ID)
+                            .build());
+            if (serviceClient != null) {
+                requestTemplate.header("Authorization", "Bearer " + serviceClient.getAccessToken().getTokenValue());
+            }
         };
     }
+
+    /**
+     * Client-credentials token manager for service-to-service calls without a user request.
+     * Unlike the default request-bound manager, this one works on background threads.
+     *
+     * @return An OAuth2AuthorizedClientManager for the client_credentials grant.
+     */
+    @Bean
+    public OAuth2AuthorizedClientManager serviceAuthorizedClientManager(
+            ClientRegistrationRepository clientRegistrationRepository,
+            OAuth2AuthorizedClientService authorizedClientService) {
+        AuthorizedClientServiceOAuth2AuthorizedClientManager manager =
+                new AuthorizedClientServiceOAuth2AuthorizedClientManager(clientRegistrationRepository, authorizedClientService);
+        manager.setAuthorizedClientProvider(OAuth2AuthorizedClientProviderBuilder.builder()
+                .clientCredentials()
+                .build());
+        return manager;
+    }
 }
@@ -0,0 +1,203 @@
+package com.transaction.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Latency-aware replacement for Spring Cloud LoadBalancer's round robin, used by the Feign clients.
+ * Picks two instances at random and sends the request to the cheaper one ("power of two choices"), where the cost
+ * of an instance is its peak-EWMA response time multiplied by its requests in flight + 1:
+ * - A slower response raises the average at once; faster ones lower it gradually (decay time), so a slow instance
+ *   is avoided immediately and only tried again once the average has decayed.
+ * - While no responses come, the average decays towards 0, so an instance that was slow is probed again eventually.
+ * - A failed call (exception or 5xx) counts as taking at least the failure penalty, so an instance that fails fast
+ *   does not attract all the traffic.
+ * - An instance without a response time yet gets one request at a time until it answers.
+ * Response times are measured through the LoadBalancerLifecycle callbacks, which the Feign client invokes around
+ * each call. One instance per service (it is created in the service's load balancer context). The figures of
+ * instances that leave the discovery list are dropped, so instances coming and going do not accumulate.
+ * The same class is copied into each service that calls others through Feign, like the rest of their configuration:
+ * the services are built and released on their own, with no shared module, and not all of them are on the same
+ * Spring Cloud release. Change the copies together.
+ */
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+        LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    /**
+     * Cost of an instance that has requests in flight but no response time yet.
+     */
+    private static final double UNKNOWN_COST = 1e18;
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final String serviceId;
+    private final long decayNanos;
+    private final long failurePenaltyNanos;
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    private volatile List<ServiceInstance> knownInstances = List.of(); // Last list the stats were pruned against
+
+    public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+            String serviceId, long decayNanos, long failurePenaltyNanos) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.decayNanos = decayNanos;
+        this.failurePenaltyNanos = failurePenaltyNanos;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            System.err.println("No servers available for service: " + serviceId);
+            return new EmptyResponse(); // Keep the stats: an empty list is usually a discovery hiccup
+        }
+        forgetRemovedInstances(instances);
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++; // Two different instances
+        }
+        long now = System.nanoTime();
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        return new DefaultResponse(statsOf(a).cost(now) <= statsOf(b).cost(now) ? a : b);
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+        // Nothing to do before an instance is chosen
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext timedContext) {
+            timedContext.setRequestStartTime(System.nanoTime());
+        }
+        statsOf(lbResponse.getServer()).inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()
+                || completionContext.status() == CompletionContext.Status.DISCARD) {
+            return; // No call was made
+        }
+        long now = System.nanoTime();
+        InstanceStats instanceStats = stats.get(keyOf(lbResponse.getServer()));
+        if (instanceStats == null) {
+            return; // The instance left the list while the call was in flight
+        }
+        instanceStats.inFlight.decrementAndGet();
+
+        Object context = completionContext.getLoadBalancerRequest() != null
+                ? completionContext.getLoadBalancerRequest().getContext() : null;
+        if (!(context instanceof TimedRequestContext timedContext) || timedContext.getRequestStartTime() == 0) {
+            return; // Start time unknown: nothing to learn from this call
+        }
+        long responseTime = now - timedContext.getRequestStartTime();
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                || (completionContext.getClientResponse() instanceof ResponseData responseData
+                        && responseData.getHttpStatus() != null && responseData.getHttpStatus().is5xxServerError());
+        instanceStats.observe(failed ? Math.max(responseTime, failurePenaltyNanos) : responseTime, now);
+    }
+
+    private InstanceStats statsOf(ServiceInstance instance) {
+        return stats.computeIfAbsent(keyOf(instance), k -> new InstanceStats(decayNanos));
+    }
+
+    /**
+     * Drops the stats of instances that are no longer in the supplier's list.
+     * The supplier hands out the same cached list until discovery changes, so this usually returns at once.
+     */
+    private void forgetRemovedInstances(List<ServiceInstance> instances) {
+        if (instances == knownInstances) {
+            return;
+        }
+        knownInstances = instances;
+        Set<String> current = instances.stream().map(PeakEwmaLoadBalancer::keyOf).collect(Collectors.toSet());
+        stats.keySet().retainAll(current);
+    }
+
+    /**
+     * Instances that currently have stats (for tests).
+     */
+    Set<String> trackedInstances() {
+        return Set.copyOf(stats.keySet());
+    }
+
+    private static String keyOf(ServiceInstance instance) {
+        return instance.getInstanceId() != null ? instance.getInstanceId() : instance.getHost() + ":" + instance.getPort();
+    }
+
+    /**
+     * Requests in flight and peak-EWMA response time of one instance.
+     */
+    static final class InstanceStats {
+
+        final AtomicInteger inFlight = new AtomicInteger();
+        private final long decayNanos;
+        private double averageNanos;
+        private long updatedAt = System.nanoTime();
+
+        InstanceStats(long decayNanos) {
+            this.decayNanos = decayNanos;
+        }
+
+        synchronized void observe(long responseTimeNanos, long now) {
+            if (responseTimeNanos > averageNanos) {
+                averageNanos = responseTimeNanos; // Peak: slower responses count in full at once
+            } else {
+                double weight = Math.exp(-Math.max(0, now - updatedAt) / (double) decayNanos);
+                averageNanos = averageNanos * weight + responseTimeNanos * (1 - weight);
+            }
+            updatedAt = Math.max(updatedAt, now);
+        }
+
+        synchronized double cost(long now) {
+            observe(0, now); // Decay while idle, so slow instances are tried again eventually
+            int pending = Math.max(0, inFlight.get());
+            if (averageNanos == 0 && pending > 0) {
+                return UNKNOWN_COST + pending;
+            }
+            return averageNanos * (pending + 1);
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package com.transaction.config;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
@@ -44,21 +47,31 @@ public class SecurityConfig {
 
     /**
      * Configures a custom JwtAuthenticationConverter to extract roles (authorities) from the JWT.
-     * Keycloak typically puts roles in a custom claim (e.g., "realm_access.roles" for realm roles).
+     * Keycloak puts realm roles in the nested claim realm_access.roles; KeycloakRealmRoleConverter reads it
+     * (JwtGrantedAuthoritiesConverter only reads top-level claims).
      * @return A configured JwtAuthenticationConverter.
      */
     @Bean
     public JwtAuthenticationConverter jwtAuthenticationConverter() {
-        JwtGrantedAuthoritiesConverter grantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
-        // Set the claim name where Keycloak stores the roles.
-        // For realm roles, it's commonly "realm_access.roles".
-        // For client roles, it might be "resource_access.<client-id>.roles".
-        grantedAuthoritiesConverter.setAuthoritiesClaimName("realm_access.roles"); // Or "resource_access.<client-id>.roles"
-        // Add a prefix to the extracted roles (e.g., "ADMIN" becomes "ROLE_ADMIN")
-        grantedAuthoritiesConverter.setAuthorityPrefix("ROLE_");
-
         JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
-        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(grantedAuthoritiesConverter);
+        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(new KeycloakRealmRoleConverter());
         return jwtAuthenticationConverter;
     }
-}
\ No newline at end of file
+
+    /**
+     * Validates incoming JWTs with Keycloak's public keys, kept in memory and refreshed in the background
+     * so that validation keeps working while Keycloak is slow or down (see CachingJwksJwtDecoder).
+     * Replaces the decoder Spring Boot would create from the same jwk-set-uri.
+     * @return The JwtDecoder used by the resource server.
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+            @Value("${security.jwt.jwks.ttl:PT5M}") Duration ttl,
+            @Value("${security.jwt.jwks.refresh-ahead:PT30S}") Duration refreshAhead,
+            @Value("${security.jwt.jwks.outage-tolerance:PT12H}") Duration outageTolerance,
+            @Value("${security.jwt.jwks.min-refresh-interval:PT10S}") Duration minRefreshInterval,
+            @Value("${security.jwt.jwks.timeout:PT2S}") Duration timeout) {
+        return new CachingJwksJwtDecoder(jwkSetUri, ttl, refreshAhead, outageTolerance, minRefreshInterval, timeout);
+    }
+}
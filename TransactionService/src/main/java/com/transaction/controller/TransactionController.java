@@ -1,26 +1,49 @@
 package com.transaction.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.transaction.dto.DepositRequest;
+import com.transaction.dto.TransactionPageResponse;
 import com.transaction.dto.TransferRequest;
 import com.transaction.dto.WithdrawRequest;
 import com.transaction.exceptions.AccountNotFoundException;
+import com.transaction.exceptions.IdempotencyKeyConflictException;
 import com.transaction.exceptions.InsufficientFundsException;
 import com.transaction.exceptions.InvalidTransactionException;
 import com.transaction.exceptions.TransactionProcessingException;
 import com.transaction.model.Transaction;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
+import com.transaction.service.BatchTransferService;
+import com.transaction.service.IdempotencyService;
+import com.transaction.service.StatementExportService;
 import com.transaction.service.TransactionService;
 
 import jakarta.validation.Valid; // For input validation
@@ -28,29 +51,42 @@ import jakarta.validation.Valid; // For input validation
 @RestController // Marks this class as a REST controller, handling incoming HTTP requests
 @RequestMapping("/transactions") // Base path for all endpoints in this controller
 public class TransactionController {
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 200; // Upper bound on ?limit= for the history endpoint
 	
 	@Autowired
     private final TransactionService transactionService;
+    private final IdempotencyService idempotencyService;
+    private final StatementExportService statementExportService;
+    private final BatchTransferService batchTransferService;
 
     @Autowired // Injects the TransactionService implementation
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, IdempotencyService idempotencyService,
+            StatementExportService statementExportService, BatchTransferService batchTransferService) {
         this.transactionService = transactionService;
+        this.idempotencyService = idempotencyService;
+        this.statementExportService = statementExportService;
+        this.batchTransferService = batchTransferService;
     }
 
     /**
      * Handles POST /transactions/deposit requests.
      * Facilitates depositing funds into an account.
      * @param request The DepositRequest DTO containing account ID and amount.
+     * @param idempotencyKey Optional Idempotency-Key header; a replay with the same key returns the original Transaction.
      * @return ResponseEntity with the created Transaction and HTTP status 201 (Created).
      * @throws AccountNotFoundException if the target account does not exist.
+     * @throws IdempotencyKeyConflictException if the key was already used for a different request.
      * @throws TransactionProcessingException if the deposit fails.
      * (Other exceptions are handled by GlobalExceptionHandler)
      */
     @PostMapping("/deposit")
-    public ResponseEntity<Transaction> deposit(@Valid @RequestBody DepositRequest request) {
+    public ResponseEntity<Transaction> deposit(@Valid @RequestBody DepositRequest request,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         // @Valid triggers validation defined in DepositRequest DTO
         // Exceptions are thrown by the service layer and caught by GlobalExceptionHandler
-        Transaction transaction = transactionService.deposit(request);
+        Transaction transaction = idempotencyService.execute(idempotencyKey, TransactionType.DEPOSIT, request,
+                () -> transactionService.deposit(request));
         return new ResponseEntity<>(transaction, HttpStatus.CREATED);
     }
 
@@ -58,14 +94,18 @@ public class TransactionController {
      * Handles POST /transactions/withdraw requests.
      * Facilitates withdrawing funds from an account.
      * @param request The WithdrawRequest DTO containing account ID and amount.
+     * @param idempotencyKey Optional Idempotency-Key header; a replay with the same key returns the original Transaction.
      * @return ResponseEntity with the created Transaction and HTTP status 201 (Created).
      * @throws AccountNotFoundException if the source account does not exist.
      * @throws InsufficientFundsException if the account has insufficient funds.
+     * @throws IdempotencyKeyConflictException if the key was already used for a different request.
      * @throws TransactionProcessingException if the withdrawal fails.
      */
     @PostMapping("/withdraw")
-    public ResponseEntity<Transaction> withdraw(@Valid @RequestBody WithdrawRequest request) {
-        Transaction transaction = transactionService.withdraw(request);
+    public ResponseEntity<Transaction> withdraw(@Valid @RequestBody WithdrawRequest request,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        Transaction transaction = idempotencyService.execute(idempotencyKey, TransactionType.WITHDRAW, request,
+                () -> transactionService.withdraw(request));
         return new ResponseEntity<>(transaction, HttpStatus.CREATED);
     }
 
@@ -73,21 +113,66 @@ public class TransactionController {
      * Handles POST /transactions/transfer requests.
      * Facilitates fund transfer between accounts.
      * @param request The TransferRequest DTO containing fromAccountId, toAccountId, and amount.
-     * @return ResponseEntity with the created Transaction and HTTP status 201 (Created).
-     * @throws AccountNotFoundException if source or target account does not exist.
-     * @throws InsufficientFundsException if the source account has insufficient funds.
+     * The money is moved in the background: poll GET /transactions/{id} (the Location header) until the status
+     * is SUCCESS, or FAILED (rejected, or credited back to the source).
+     * @param idempotencyKey Optional Idempotency-Key header; a replay with the same key returns the original Transaction.
+     * @return ResponseEntity with the PENDING Transaction and HTTP status 202 (Accepted).
      * @throws InvalidTransactionException if attempting to transfer to the same account.
-     * @throws TransactionProcessingException if the transfer fails.
+     * @throws IdempotencyKeyConflictException if the key was already used for a different request.
      */
     @PostMapping("/transfer")
-    public ResponseEntity<Transaction> transfer(@Valid @RequestBody TransferRequest request) {
-        Transaction transaction = transactionService.transfer(request);
-        return new ResponseEntity<>(transaction, HttpStatus.CREATED);
+    public ResponseEntity<Transaction> transfer(@Valid @RequestBody TransferRequest request,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        Transaction transaction = idempotencyService.execute(idempotencyKey, TransactionType.TRANSFER, request,
+                () -> transactionService.transfer(request));
+        return ResponseEntity.accepted()
+                .location(URI.create("/transactions/" + transaction.getTransactionId()))
+                .body(transaction);
+    }
+
+    /**
+     * Handles POST /transactions/batch requests with a JSON array of transfer instructions.
+     * Bulk transfers (e.g. payroll): the transfers are grouped by source account and applied in chunks,
+     * one Account Service call per chunk. The response is an NDJSON stream with one BatchTransferResult per
+     * instruction, written as each chunk completes (not in input order; see BatchTransferResult.line).
+     * @param instructions The transfer instructions (fromAccountId, toAccountId, amount).
+     * @return ResponseEntity with the streamed results and HTTP status 200 (OK).
+     * @throws InvalidTransactionException if the batch is empty or too large.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> batchTransfer(@RequestBody List<TransferRequest> instructions) {
+        // Instructions are validated one by one; an invalid one is reported in the stream instead of failing the batch
+        return streamBatchResults(instructions);
+    }
+
+    /**
+     * Handles POST /transactions/batch requests with a CSV file upload (multipart part "file").
+     * Same as the JSON variant; the file has the columns fromAccountId,toAccountId,amount and an optional header line.
+     * @param file The CSV file.
+     * @return ResponseEntity with the streamed results and HTTP status 200 (OK).
+     * @throws InvalidTransactionException if the file is malformed, empty or too large.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> batchTransferFile(@RequestPart("file") MultipartFile file) throws IOException {
+        List<TransferRequest> instructions;
+        try (InputStream in = file.getInputStream()) {
+            instructions = batchTransferService.parseCsv(in);
+        }
+        return streamBatchResults(instructions);
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamBatchResults(List<TransferRequest> instructions) {
+        batchTransferService.checkSize(instructions); // Rejected with 400 before anything is recorded
+        StreamingResponseBody body = outputStream -> batchTransferService.execute(instructions, outputStream);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/x-ndjson"));
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
 
     /**
      * Handles GET /transactions/account/{id} requests.
      * Retrieves all transactions for a specific account.
+     * Loads the whole history in one go; prefer GET /transactions/account/{id}/history for large accounts.
      * @param accountId The ID of the account.
      * @return ResponseEntity with a list of Transaction entities and HTTP status 200 (OK).
      */
@@ -103,6 +188,126 @@ public class TransactionController {
         return new ResponseEntity<>(transactions, HttpStatus.OK);
     }
 
+    /**
+     * Handles GET /transactions/account/{id}/history requests.
+     * Retrieves an account's transactions one page at a time, newest first.
+     * @param accountId The ID of the account.
+     * @param limit Page size (1 to 200, default 50).
+     * @param cursor The nextCursor from the previous page; omit for the first page.
+     * @param from Optional inclusive lower bound on the transaction date (ISO-8601, e.g. 2025-01-01T00:00:00).
+     * @param to Optional exclusive upper bound on the transaction date (ISO-8601).
+     * @param type Optional transaction type filter (DEPOSIT, WITHDRAW, TRANSFER).
+     * @param status Optional transaction status filter (SUCCESS, FAILED, PENDING).
+     * @return ResponseEntity with the page and the cursor for the next one, and HTTP status 200 (OK).
+     * @throws InvalidTransactionException if the limit, cursor or date range is invalid.
+     */
+    @GetMapping("/account/{accountId}/history")
+    public ResponseEntity<TransactionPageResponse> getTransactionHistory(@PathVariable String accountId,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) TransactionStatus status) {
+        if (limit < 1 || limit > MAX_HISTORY_PAGE_SIZE) {
+            throw new InvalidTransactionException("limit must be between 1 and " + MAX_HISTORY_PAGE_SIZE + ".");
+        }
+        TransactionPageResponse page = transactionService.getTransactionHistory(accountId, limit, cursor, from, to,
+                type, status);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    /**
+     * Handles GET /transactions/account/{id}/statement requests.
+     * Streams the account's full statement (oldest first) as CSV or NDJSON while it is read from the database,
+     * so the download can be arbitrarily large. The body is gzip-compressed on the fly when the client's
+     * Accept-Encoding accepts gzip (see acceptsGzip).
+     * @param accountId The ID of the account.
+     * @param format "csv" (default) or "ndjson".
+     * @param from Optional inclusive lower bound on the transaction date (ISO-8601).
+     * @param to Optional exclusive upper bound on the transaction date (ISO-8601).
+     * @param acceptEncoding The client's Accept-Encoding header.
+     * @return ResponseEntity with the streamed statement and HTTP status 200 (OK).
+     * @throws InvalidTransactionException if the format or date range is invalid.
+     */
+    @GetMapping("/account/{accountId}/statement")
+    public ResponseEntity<StreamingResponseBody> exportStatement(@PathVariable String accountId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        StatementExportService.Format statementFormat;
+        try {
+            statementFormat = StatementExportService.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTransactionException("Unsupported statement format: " + format + " (use csv or ndjson).");
+        }
+        LocalDateTime fromDate = from != null ? from : LocalDateTime.of(1970, 1, 1, 0, 0);
+        LocalDateTime toDate = to != null ? to : LocalDateTime.now().plusDays(1);
+        if (!fromDate.isBefore(toDate)) {
+            throw new InvalidTransactionException("'from' must be before 'to'.");
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream, 8192) : outputStream;
+            long written = statementExportService.writeStatement(accountId, fromDate, toDate, statementFormat, target);
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish(); // Write the gzip trailer; the container closes the underlying stream
+            }
+            System.out.println("Exported " + written + " transactions for account " + accountId + " as " + statementFormat);
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(statementFormat.getContentType()));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename("statement-" + accountId + "." + statementFormat.getFileExtension())
+                .build());
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Tells whether an Accept-Encoding header accepts gzip (RFC 9110, section 12.5.3): gzip (or x-gzip) is listed with
+     * a non-zero q-value, or it is not listed and "*" is, with a non-zero q-value. "gzip;q=0" refuses it.
+     * @param acceptEncoding The header value, or null if the client sent none.
+     * @return true if the response may be gzip-compressed.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0; // A malformed weight does not make gzip acceptable
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if (coding.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return anyQuality != null && anyQuality > 0;
+    }
+
     /**
      * Handles GET /transactions/{transactionId} requests.
      * Retrieves a single transaction by its ID.
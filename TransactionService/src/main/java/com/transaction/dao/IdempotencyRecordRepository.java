@@ -0,0 +1,26 @@
+package com.transaction.dao;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.transaction.model.IdempotencyRecord;
+
+@Repository // Marks this interface as a Spring Data JPA repository component
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Removes idempotency records older than the given cut-off in a single bulk statement.
+     * @param cutoff Records created before this instant are deleted.
+     * @return The number of deleted records.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,52 @@
+package com.transaction.dao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.transaction.model.NotificationOutbox;
+import com.transaction.model.OutboxStatus;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository // Marks this interface as a Spring Data JPA repository component
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, String> {
+
+    /**
+     * Claims the outbox rows in the given status that are due for delivery (past their retry backoff),
+     * longest waiting first.
+     * Rows are locked FOR UPDATE SKIP LOCKED (lock timeout -2), so several Transaction Service
+     * instances can drain the outbox concurrently without sending the same notification twice.
+     * Must be called inside a transaction; the locks are held until it commits.
+     * @param status The status to look for (normally PENDING).
+     * @param now The current time.
+     * @param pageable The batch size (use page 0).
+     * @return Up to pageable.getPageSize() locked rows.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from NotificationOutbox o where o.status = :status"
+            + " and (o.nextAttemptAt is null or o.nextAttemptAt <= :now) order by o.nextAttemptAt asc")
+    List<NotificationOutbox> findBatchForDispatch(@Param("status") OutboxStatus status, @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    /**
+     * Removes delivered outbox rows older than the given cut-off in a single bulk statement.
+     * @param cutoff Rows sent before this instant are deleted.
+     * @return The number of deleted rows.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from NotificationOutbox o where o.status = com.transaction.model.OutboxStatus.SENT and o.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
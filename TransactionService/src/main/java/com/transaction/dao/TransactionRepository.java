@@ -1,13 +1,23 @@
 package com.transaction.dao;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.transaction.model.Transaction;
 import com.transaction.model.TransactionStatus;
 import com.transaction.model.TransactionType;
 
+import jakarta.persistence.QueryHint;
+
 @Repository // Marks this interface as a Spring Data JPA repository component
 public interface TransactionRepository extends JpaRepository<Transaction, String> {
     // JpaRepository provides standard CRUD operations: save, findById, findAll, delete, etc.
@@ -47,5 +57,103 @@ public interface TransactionRepository extends JpaRepository<Transaction, String
      */
     List<Transaction> findByTypeAndStatus(TransactionType type, TransactionStatus status);
 
+    /**
+     * Keyset page of transactions sent from an account, newest first.
+     * Returns rows strictly before the (cursorDate, cursorId) position and on or after fromDate,
+     * so the database walks idx_txn_from_account_date and stops after 'limit' rows.
+     * @param accountId The 'from' account ID.
+     * @param fromDate Inclusive lower bound on transactionDate.
+     * @param cursorDate Exclusive upper bound position: date of the last row of the previous page (or the end of the range).
+     * @param cursorId Transaction ID of the last row of the previous page (empty string for the first page).
+     * @param type Optional type filter (null for all types).
+     * @param status Optional status filter (null for all statuses).
+     * @param limit Maximum number of rows to return.
+     * @return Up to 'limit' transactions ordered by transactionDate and transactionId descending.
+     */
+    @Query("""
+            select t from Transaction t
+            where t.fromAccountId = :accountId
+              and t.transactionDate >= :fromDate
+              and (t.transactionDate < :cursorDate or (t.transactionDate = :cursorDate and t.transactionId < :cursorId))
+              and (:type is null or t.type = :type)
+              and (:status is null or t.status = :status)
+            order by t.transactionDate desc, t.transactionId desc
+            """)
+    List<Transaction> findOutgoingPage(@Param("accountId") String accountId, @Param("fromDate") LocalDateTime fromDate,
+            @Param("cursorDate") LocalDateTime cursorDate, @Param("cursorId") String cursorId,
+            @Param("type") TransactionType type, @Param("status") TransactionStatus status, Limit limit);
+
+    /**
+     * Keyset page of transactions received by an account, newest first.
+     * Same contract as {@link #findOutgoingPage}, but on the 'to' side (idx_txn_to_account_date).
+     */
+    @Query("""
+            select t from Transaction t
+            where t.toAccountId = :accountId
+              and t.transactionDate >= :fromDate
+              and (t.transactionDate < :cursorDate or (t.transactionDate = :cursorDate and t.transactionId < :cursorId))
+              and (:type is null or t.type = :type)
+              and (:status is null or t.status = :status)
+            order by t.transactionDate desc, t.transactionId desc
+            """)
+    List<Transaction> findIncomingPage(@Param("accountId") String accountId, @Param("fromDate") LocalDateTime fromDate,
+            @Param("cursorDate") LocalDateTime cursorDate, @Param("cursorId") String cursorId,
+            @Param("type") TransactionType type, @Param("status") TransactionStatus status, Limit limit);
+
+    /**
+     * Streams the transactions sent from an account in a date range, oldest first, for statement exports.
+     * A range scan on idx_txn_from_account_date, already in (transactionDate, transactionId) order: StatementExportService
+     * merges it with {@link #streamIncomingStatement} instead of running one "from = ? or to = ?" query, which the
+     * database can only answer by scanning the table (or sorting the union of both indexes) before the first row.
+     * Rows are fetched from the database in chunks of the JDBC fetch size instead of being loaded into a list,
+     * and Hibernate does not keep snapshots of them (read-only hint).
+     * The stream must be consumed and closed inside a transaction.
+     * @param accountId The 'from' account ID.
+     * @param fromDate Inclusive lower bound on transactionDate.
+     * @param toDate Exclusive upper bound on transactionDate.
+     * @return A lazily populated stream of transactions.
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select t from Transaction t
+            where t.fromAccountId = :accountId
+              and t.transactionDate >= :fromDate and t.transactionDate < :toDate
+            order by t.transactionDate asc, t.transactionId asc
+            """)
+    Stream<Transaction> streamOutgoingStatement(@Param("accountId") String accountId,
+            @Param("fromDate") LocalDateTime fromDate, @Param("toDate") LocalDateTime toDate);
+
+    /**
+     * Streams the transactions received by an account in a date range, oldest first, for statement exports.
+     * Same contract as {@link #streamOutgoingStatement}, but on the 'to' side (idx_txn_to_account_date).
+     * A row sent from the account to itself is left to the outgoing side, so the merge never writes it twice.
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select t from Transaction t
+            where t.toAccountId = :accountId
+              and t.transactionDate >= :fromDate and t.transactionDate < :toDate
+              and (t.fromAccountId is null or t.fromAccountId <> :accountId)
+            order by t.transactionDate asc, t.transactionId asc
+            """)
+    Stream<Transaction> streamIncomingStatement(@Param("accountId") String accountId,
+            @Param("fromDate") LocalDateTime fromDate, @Param("toDate") LocalDateTime toDate);
+
+    /**
+     * Sets the status of many transactions in a single bulk statement (bulk transfers).
+     * @param transactionIds The IDs of the transactions.
+     * @param status The new status.
+     * @return The number of updated transactions.
+     */
+    @Modifying
+    @Query("update Transaction t set t.status = :status where t.transactionId in :transactionIds")
+    int updateStatus(@Param("transactionIds") Collection<String> transactionIds, @Param("status") TransactionStatus status);
+
     // You can add more custom query methods as needed for your business logic.
 }
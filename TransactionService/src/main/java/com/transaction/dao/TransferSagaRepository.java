@@ -0,0 +1,71 @@
+package com.transaction.dao;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.transaction.model.TransferSaga;
+import com.transaction.model.TransferSagaState;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository // Marks this interface as a Spring Data JPA repository component
+public interface TransferSagaRepository extends JpaRepository<TransferSaga, String> {
+
+    /**
+     * Claims sagas that are due to make progress: in one of the given states, past their retry backoff,
+     * and not leased by a live instance (never leased, or the lease expired, e.g. its owner crashed).
+     * Rows are locked FOR UPDATE SKIP LOCKED (lock timeout -2), so instances resuming sagas at the same
+     * time never claim the same one. Must be called inside a transaction that sets the new lease.
+     * @param states The non-terminal states.
+     * @param now The current time.
+     * @param pageable The batch size (use page 0).
+     * @return Up to pageable.getPageSize() locked sagas, longest waiting first.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select s from TransferSaga s where s.state in :states and s.nextAttemptAt <= :now"
+            + " and (s.leaseExpiresAt is null or s.leaseExpiresAt < :now) order by s.nextAttemptAt asc")
+    List<TransferSaga> findDueForClaim(@Param("states") Collection<TransferSagaState> states,
+            @Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Moves sagas still leased to the given instance to a terminal state, in a single bulk statement (bulk transfers).
+     * The version is incremented, so a worker that took one of them over in the meantime cannot commit another step.
+     * @param sagaIds The saga IDs.
+     * @param state The terminal state.
+     * @param leaseOwner The instance that leased the sagas.
+     * @param now The current time.
+     * @return The number of updated sagas.
+     */
+    @Modifying
+    @Query("update versioned TransferSaga s set s.state = :state, s.leaseOwner = null, s.leaseExpiresAt = null,"
+            + " s.updatedAt = :now where s.sagaId in :sagaIds and s.leaseOwner = :leaseOwner")
+    int finishLeased(@Param("sagaIds") Collection<String> sagaIds, @Param("state") TransferSagaState state,
+            @Param("leaseOwner") String leaseOwner, @Param("now") LocalDateTime now);
+
+    /**
+     * Releases sagas still leased to the given instance, so the resume sweep picks them up from nextAttemptAt on
+     * instead of waiting for the lease to expire.
+     * @param sagaIds The saga IDs.
+     * @param leaseOwner The instance that leased the sagas.
+     * @param nextAttemptAt When the resume sweep may pick them up.
+     * @param now The current time.
+     * @return The number of updated sagas.
+     */
+    @Modifying
+    @Query("update versioned TransferSaga s set s.leaseOwner = null, s.leaseExpiresAt = null, s.nextAttemptAt = :nextAttemptAt,"
+            + " s.updatedAt = :now where s.sagaId in :sagaIds and s.leaseOwner = :leaseOwner")
+    int releaseLeased(@Param("sagaIds") Collection<String> sagaIds, @Param("leaseOwner") String leaseOwner,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("now") LocalDateTime now);
+}
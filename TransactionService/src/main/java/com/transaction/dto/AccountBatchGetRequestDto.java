@@ -0,0 +1,18 @@
+package com.transaction.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for fetching several accounts from the Account Service in one call.
+ * Matches the AccountBatchGetRequest accepted by POST /accounts/batch-get.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBatchGetRequestDto {
+    private List<String> accountIds;
+}
@@ -1,5 +1,7 @@
 package com.transaction.dto;
 
+import com.transaction.model.Money;
+
 import java.time.LocalDateTime;
 
 import lombok.AllArgsConstructor;
@@ -14,7 +16,7 @@ public class AccountDto {
 	    private String userId;
 	    private String accountNumber;
 	    private AccountType accountType; // Changed to enum
-	    private Double balance;
+	    private Money balance;
 	    private AccountStatus status; // Changed to enum
 	    private LocalDateTime createdAt;
 
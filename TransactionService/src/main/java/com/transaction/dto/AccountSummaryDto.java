@@ -0,0 +1,20 @@
+package com.transaction.dto;
+
+import com.transaction.dto.AccountDto.AccountStatus;
+import com.transaction.model.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the summary view of an account returned by POST /accounts/batch-get?view=summary.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSummaryDto {
+    private String accountId;
+    private Money balance;
+    private AccountStatus status;
+}
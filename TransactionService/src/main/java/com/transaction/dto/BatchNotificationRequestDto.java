@@ -0,0 +1,18 @@
+package com.transaction.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for sending several notifications to the Notification Service in one call.
+ * Matches the BatchNotificationRequest accepted by POST /notifications/batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchNotificationRequestDto {
+    private List<NotificationRequestDto> notifications;
+}
@@ -0,0 +1,21 @@
+package com.transaction.dto;
+
+import com.transaction.model.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one posting of a POST /accounts/batch call to the Account Service.
+ * A transfer sets both accounts; its debit and credit are applied together or not at all.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPostingItemDto {
+    private String transactionId; // Reference to the transaction that requested this posting
+    private String fromAccountId; // Account to debit
+    private String toAccountId;   // Account to credit
+    private Money amount;
+}
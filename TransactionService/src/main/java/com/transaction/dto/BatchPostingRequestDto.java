@@ -0,0 +1,18 @@
+package com.transaction.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for applying many postings in one Account Service call.
+ * Matches the BatchPostingRequest accepted by POST /accounts/batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPostingRequestDto {
+    private List<BatchPostingItemDto> items;
+}
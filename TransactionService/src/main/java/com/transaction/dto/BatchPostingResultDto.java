@@ -0,0 +1,23 @@
+package com.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of one posting, as returned by POST /accounts/batch (in request order).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPostingResultDto {
+    private String transactionId;
+    private Status status;
+    private String message; // Why the posting was rejected, null otherwise
+
+    public enum Status {
+        APPLIED,         // Balances changed by this call
+        ALREADY_APPLIED, // Applied by an earlier call with the same transactionId
+        REJECTED         // Not applied (insufficient funds, unknown account, ...)
+    }
+}
@@ -0,0 +1,26 @@
+package com.transaction.dto;
+
+import com.transaction.model.Money;
+import com.transaction.model.TransactionStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the NDJSON response of POST /transactions/batch: the outcome of one transfer instruction.
+ * Lines are written as chunks complete, grouped by source account, so they are not in input order;
+ * 'line' is the instruction's 1-based position in the submitted array or CSV file (header excluded).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferResult {
+    private int line;
+    private String transactionId; // Null if the instruction was invalid and no transaction was recorded
+    private String fromAccountId;
+    private String toAccountId;
+    private Money amount;
+    private TransactionStatus status; // SUCCESS, FAILED, or PENDING (outcome not known yet, see message)
+    private String message;
+}
@@ -1,5 +1,7 @@
 package com.transaction.dto;
 
+import com.transaction.model.Money;
+
 import java.time.LocalDateTime; // For createdAt
 
 import lombok.AllArgsConstructor;
@@ -13,7 +15,7 @@ public class LoanDto {
     private String loanId;
     private String userId;
     private LoanType loanType; // Enum Possible values: HOME, PERSONAL, EDUCATION
-    private Double amount;
+    private Money amount;
     private Integer tenureMonths;
     private Double interestRate;
     private LoanStatus status; // Enum Possible values: APPROVED, PENDING, REJECTED
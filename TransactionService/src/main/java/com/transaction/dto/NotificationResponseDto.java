@@ -0,0 +1,24 @@
+package com.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of one notification, as returned by POST /notifications/batch (in request order).
+ * Only the fields the outbox dispatcher needs; the rest of the Notification Service's response is ignored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationResponseDto {
+    private String notificationId; // Null if the notification was not accepted
+    private Status status;
+    private String message; // Why the notification failed, or a confirmation
+
+    public enum Status {
+        SENT,
+        FAILED,
+        PENDING
+    }
+}
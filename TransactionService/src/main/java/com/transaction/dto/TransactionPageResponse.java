@@ -0,0 +1,23 @@
+package com.transaction.dto;
+
+import java.util.List;
+
+import com.transaction.model.Transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of an account's transaction history, newest first.
+ * Pass nextCursor back as the 'cursor' query parameter to fetch the following page;
+ * it is null when there are no more transactions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPageResponse {
+    private List<Transaction> transactions;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -1,8 +1,9 @@
 package com.transaction.dto;
 
+import com.transaction.model.Money;
+
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -18,6 +19,5 @@ public class TransferRequest {
     private String toAccountId;
 
     @NotNull(message = "Amount cannot be null")
-    @Positive(message = "Amount must be positive")
-    private Double amount;
+    private Money amount; // Must be positive (checked by the service)
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.transaction.dto;
 
+import com.transaction.model.Money;
+
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -12,5 +14,5 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor
 public class WithdrawRequestDto {
 	private String transactionId; // Reference to the transaction that initiated this withdrawal
-	private Double amount; // The amount to be withdrawn
+	private Money amount; // The amount to be withdrawn
 }
\ No newline at end of file
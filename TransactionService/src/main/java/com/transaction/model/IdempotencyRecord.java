@@ -0,0 +1,43 @@
+package com.transaction.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Persistent record of a completed idempotent request.
+ * Maps the client supplied Idempotency-Key (scoped to the caller) to the Transaction it produced,
+ * so replays can still be answered after an instance restart or when the in-memory store has evicted the key.
+ */
+@Entity // Marks this class as a JPA entity
+@Table(name = "idempotency_record")
+@Data // Generates getters, setters, equals, hashCode, and toString methods
+@NoArgsConstructor // Generates a no-argument constructor (required by JPA)
+@AllArgsConstructor // Generates a constructor with all fields
+public class IdempotencyRecord {
+
+    @Id // The scoped key (principal + ":" + Idempotency-Key header) is the primary key
+    @Column(name = "idempotency_key", length = 255, updatable = false, nullable = false)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING) // Stores the enum as a string in the database
+    @Column(name = "transaction_type", nullable = false)
+    private TransactionType type; // Operation the key was first used for
+
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash; // SHA-256 of the original request body, used to detect key reuse
+
+    @Column(name = "transaction_id", nullable = false)
+    private String transactionId; // Transaction created by the original request
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,68 @@
+package com.transaction.model;
+
+import java.time.LocalDateTime;
+
+import com.transaction.dto.NotificationRequestDto;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A notification waiting to be delivered to the Notification Service (transactional outbox).
+ * Rows are written in the same database transaction as the deposit/withdraw/transfer they describe,
+ * so a notification is only ever sent for committed money movements, and the request thread never
+ * waits on the Notification Service.
+ */
+@Entity // Marks this class as a JPA entity
+@Table(name = "notification_outbox", indexes = {
+        @Index(name = "idx_outbox_status_next", columnList = "status, next_attempt_at") // Drain query
+})
+@Data // Generates getters, setters, equals, hashCode, and toString methods
+@NoArgsConstructor // Generates a no-argument constructor (required by JPA)
+@AllArgsConstructor // Generates a constructor with all fields
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "outbox_id", updatable = false, nullable = false)
+    private String outboxId;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId; // Recipient, as known by the User Service
+
+    @Enumerated(EnumType.STRING) // Stores the enum as a string in the database
+    @Column(name = "type", nullable = false)
+    private NotificationRequestDto.NotificationType type;
+
+    @Column(name = "content", length = 2000, nullable = false)
+    private String content;
+
+    @Enumerated(EnumType.STRING) // Stores the enum as a string in the database
+    @Column(name = "status", nullable = false)
+    private OutboxStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts; // Delivery attempts so far
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt; // Not delivered before this instant (retry backoff); null is due at once
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,10 @@
+package com.transaction.model;
+
+/**
+ * Delivery state of a row in the notification outbox.
+ */
+public enum OutboxStatus {
+	PENDING, // Written with the business transaction, not yet delivered
+	SENT,    // Accepted by the Notification Service
+	FAILED   // Gave up after the maximum number of delivery attempts
+}
@@ -8,6 +8,12 @@ import lombok.Data; // Lombok annotation for getters, setters, equals, hashCode,
 import lombok.NoArgsConstructor; // Lombok annotation for no-argument constructor
 
 @Entity // Marks this class as a JPA entity, mapping it to a database table
+// Composite indexes backing the keyset-paginated history: one range scan per side of the account,
+// already in (transaction_date, transaction_id) order, so a page never sorts the whole history.
+@Table(indexes = {
+        @Index(name = "idx_txn_from_account_date", columnList = "from_account_id, transaction_date, transaction_id"),
+        @Index(name = "idx_txn_to_account_date", columnList = "to_account_id, transaction_date, transaction_id")
+})
 @Data // Generates getters, setters, equals, hashCode, and toString methods
 @NoArgsConstructor // Generates a no-argument constructor (required by JPA)
 @AllArgsConstructor // Generates a constructor with all fields
@@ -25,8 +31,8 @@ public class Transaction {
     @Column(name = "to_account_id")
     private String toAccountId; // Foreign key referencing Account Service's Account ID (can be null for DEPOSIT/WITHDRAW)
 
-    @Column(name = "amount", nullable = false)
-    private Double amount;
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2)
+    private Money amount;
 
     
     @Enumerated(EnumType.STRING) // Stores the enum as a string in the database
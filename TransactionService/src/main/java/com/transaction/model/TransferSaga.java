@@ -0,0 +1,76 @@
+package com.transaction.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Persisted state of one transfer, advanced step by step by the TransferSagaOrchestrator.
+ * Every step is committed before the next Account Service call, so a transfer interrupted by a crash or
+ * restart resumes from its last completed step. The lease (owner + expiry) marks the instance currently
+ * driving the saga; once it expires any instance may take the saga over.
+ */
+@Entity // Marks this class as a JPA entity
+@Table(name = "transfer_saga", indexes = {
+        @Index(name = "idx_transfer_saga_state_next", columnList = "state, next_attempt_at") // Resume query
+})
+@Data // Generates getters, setters, equals, hashCode, and toString methods
+@NoArgsConstructor // Generates a no-argument constructor (required by JPA)
+@AllArgsConstructor // Generates a constructor with all fields
+public class TransferSaga {
+
+    @Id // Same ID as the transfer's Transaction; also sent to the Account Service as the posting reference
+    @Column(name = "saga_id", updatable = false, nullable = false)
+    private String sagaId;
+
+    @Column(name = "from_account_id", nullable = false)
+    private String fromAccountId;
+
+    @Column(name = "to_account_id", nullable = false)
+    private String toAccountId;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2)
+    private Money amount;
+
+    @Enumerated(EnumType.STRING) // Stores the enum as a string in the database
+    @Column(name = "state", nullable = false)
+    private TransferSagaState state;
+
+    @Column(name = "debit_sent_at")
+    private LocalDateTime debitSentAt; // When the withdrawal was first sent; null while it certainly hasn't been
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts; // Failed attempts of the current step, drives the retry backoff
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt; // Not resumed before this instant (retry backoff)
+
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner; // Instance currently driving the saga, null when idle
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version // Two instances can never both commit a step of the same saga
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
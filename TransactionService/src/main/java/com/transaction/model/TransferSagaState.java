@@ -0,0 +1,19 @@
+package com.transaction.model;
+
+/**
+ * Steps of the transfer saga (see TransferSagaOrchestrator).
+ * PENDING -> DEBITED -> CREDITED is the normal path; if the credit is rejected the saga goes
+ * DEBITED -> COMPENSATING -> REVERSED, and a transfer whose debit is rejected ends in FAILED.
+ */
+public enum TransferSagaState {
+	PENDING,      // Recorded, source not debited yet
+	DEBITED,      // Source debited, target not credited yet
+	CREDITED,     // Target credited: transfer complete
+	COMPENSATING, // Target rejected the credit, crediting the amount back to the source
+	REVERSED,     // Amount credited back to the source: transfer failed, no money moved
+	FAILED;       // Debit rejected (e.g. insufficient funds): transfer failed, no money moved
+
+	public boolean isTerminal() {
+		return this == CREDITED || this == REVERSED || this == FAILED;
+	}
+}
@@ -0,0 +1,39 @@
+package com.transaction.proxyService;
+
+import java.util.List;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import com.transaction.dto.BatchPostingRequestDto;
+import com.transaction.dto.BatchPostingResultDto;
+import com.transaction.exceptions.TransactionProcessingException;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+
+//Bulk postings of the Account Service ("account-service" in Eureka), in a Feign client of their own:
+//the contextId gives them their own settings (spring.cloud.openfeign.client.config.account-service-batch),
+//so their longer read timeout does not apply to the single-account calls of AccountServiceClient.
+@FeignClient(name = "account-service", contextId = "account-service-batch", path = "/accounts")
+public interface AccountBatchClient {
+
+ /**
+  * Applies many debits, credits and transfers in one Account Service call (one database transaction there).
+  * Corresponds to POST /accounts/batch. Safe to retry: the Account Service applies each posting at most once.
+  * @param requestDto The BatchPostingRequestDto with at most account.batch.max-items postings.
+  * @return One BatchPostingResultDto per posting, in request order.
+  */
+ @PostMapping("/batch")
+ @CircuitBreaker(name = "accountService", fallbackMethod = "applyBatchFallback")
+ @Retry(name = "accountService")
+ List<BatchPostingResultDto> applyBatch(@RequestBody BatchPostingRequestDto requestDto);
+
+ // Fallback method for applyBatch
+ default List<BatchPostingResultDto> applyBatchFallback(BatchPostingRequestDto requestDto, Throwable t) {
+     System.err.println("Fallback triggered for applyBatch of " + requestDto.getItems().size() + " postings: " + t.getMessage());
+     // The postings may or may not have been applied; the caller decides how to find out
+     throw new TransactionProcessingException("Account service is unavailable or failed to process a batch of postings", t);
+ }
+}
@@ -10,13 +10,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import com.transaction.dto.AccountBatchGetRequestDto;
 import com.transaction.dto.AccountDto;
 import com.transaction.dto.AccountDto.AccountStatus;
 import com.transaction.dto.AccountDto.AccountType;
+import com.transaction.dto.AccountSummaryDto;
 import com.transaction.dto.DepositRequestDto;
 import com.transaction.dto.WithdrawRequestDto;
+import com.transaction.exceptions.InsufficientFundsException;
 import com.transaction.exceptions.TransactionProcessingException; // Corrected import for custom exception
 
+import feign.FeignException;
+
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 
@@ -44,6 +49,38 @@ public interface AccountServiceClient {
         throw new TransactionProcessingException("Account service is unavailable or returned an error for account " + accountId, t);
     }
 
+ /**
+  * Retrieves several accounts in one call instead of one GET /accounts/{accountId} per account.
+  * Corresponds to POST /accounts/batch-get
+  * @param requestDto The IDs of the accounts (at most account.batch-get.max-ids).
+  * @return The AccountDto objects of the accounts that exist, in request order.
+  */
+ @PostMapping("/batch-get")
+ @CircuitBreaker(name = "accountService", fallbackMethod = "getAccountsByIdsFallback")
+ @Retry(name = "accountService")
+ List<AccountDto> getAccountsByIds(@RequestBody AccountBatchGetRequestDto requestDto);
+
+ default List<AccountDto> getAccountsByIdsFallback(AccountBatchGetRequestDto requestDto, Throwable t) {
+     System.err.println("Fallback triggered for getAccountsByIds of " + requestDto.getAccountIds().size() + " accounts: " + t.getMessage());
+     throw new TransactionProcessingException("Account service is unavailable or returned an error for a multi-account lookup", t);
+ }
+
+ /**
+  * Retrieves only the ID, balance and status of several accounts in one call.
+  * Corresponds to POST /accounts/batch-get?view=summary
+  * @param requestDto The IDs of the accounts (at most account.batch-get.max-ids).
+  * @return The AccountSummaryDto objects of the accounts that exist, in request order.
+  */
+ @PostMapping(value = "/batch-get", params = "view=summary")
+ @CircuitBreaker(name = "accountService", fallbackMethod = "getAccountSummariesByIdsFallback")
+ @Retry(name = "accountService")
+ List<AccountSummaryDto> getAccountSummariesByIds(@RequestBody AccountBatchGetRequestDto requestDto);
+
+ default List<AccountSummaryDto> getAccountSummariesByIdsFallback(AccountBatchGetRequestDto requestDto, Throwable t) {
+     System.err.println("Fallback triggered for getAccountSummariesByIds of " + requestDto.getAccountIds().size() + " accounts: " + t.getMessage());
+     throw new TransactionProcessingException("Account service is unavailable or returned an error for a multi-account lookup", t);
+ }
+
  /**
   * Retrieves all accounts associated with a specific user ID from the Account Service.
   * Corresponds to GET /accounts/user/{userId}
@@ -93,6 +130,10 @@ public interface AccountServiceClient {
 
  // Fallback method for withdrawFunds
  default AccountDto withdrawFundsFallback(String accountId, WithdrawRequestDto requestDto, Throwable t) {
+     // The Account Service is the authority on balances: its 422 (insufficient funds) is a business outcome, not an outage
+     if (t instanceof FeignException.UnprocessableEntity) {
+         throw new InsufficientFundsException("Insufficient funds in account: " + accountId);
+     }
      System.err.println("Fallback triggered for withdrawFunds from account " + accountId + ": " + t.getMessage());
      // Throw an exception as the withdrawal could not be processed by the real service
      throw new TransactionProcessingException("Account service is unavailable or failed to process withdrawal from account " + accountId, t);
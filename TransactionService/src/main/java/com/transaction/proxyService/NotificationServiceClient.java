@@ -1,11 +1,15 @@
 package com.transaction.proxyService;
 
+import java.util.List;
 
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import com.transaction.dto.BatchNotificationRequestDto;
 import com.transaction.dto.NotificationRequestDto;
+import com.transaction.dto.NotificationResponseDto;
+import com.transaction.exceptions.TransactionProcessingException;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
@@ -38,4 +42,22 @@ public interface NotificationServiceClient {
      */
     @PostMapping("/send-sms")
     void sendSmsNotification(@RequestBody NotificationRequestDto requestDto);
+
+    /**
+     * Sends several notifications in one call via the Notification Service.
+     * Corresponds to POST /notifications/batch. Used by the notification outbox dispatcher.
+     * @param requestDto The BatchNotificationRequestDto containing the notifications to send.
+     * @return One NotificationResponseDto (SENT or FAILED) per notification, in request order;
+     *         the call succeeds (201, or 207 Multi-Status) even if some notifications failed.
+     */
+    @PostMapping("/batch")
+    @Retry(name = "notificationService")
+    @CircuitBreaker(name = "notificationService", fallbackMethod = "sendBatchNotificationsFallback")
+    List<NotificationResponseDto> sendBatchNotifications(@RequestBody BatchNotificationRequestDto requestDto);
+
+    default List<NotificationResponseDto> sendBatchNotificationsFallback(BatchNotificationRequestDto requestDto, Throwable t) {
+        System.err.println("Fallback for sendBatchNotifications: " + t.getMessage());
+        // Unlike single sends, re-throw: the outbox rows must stay pending so the dispatcher retries them.
+        throw new TransactionProcessingException("Notification service is unavailable or failed to accept the batch", t);
+    }
 }
@@ -0,0 +1,91 @@
+package com.transaction.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.transaction.dto.AccountDto;
+import com.transaction.proxyService.AccountServiceClient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Read-through cache of the slowly changing account details (owner, account number, type, status)
+ * used by deposits, withdrawals and transfers, so they do not fetch the account from the Account Service every time.
+ * Balances are never cached: cached entries have a null balance, and the Account Service remains the
+ * only authority on whether a withdrawal can be covered.
+ * Entries are evicted when the Account Service publishes a status change or deletion on the
+ * account-status-events topic, and expire after a short TTL in case an event is missed.
+ * Hit/miss counts are published as the cache.* metrics with tag cache=account-details.
+ */
+@Component
+public class AccountDetailsCache {
+
+    public static final String ACCOUNT_STATUS_TOPIC = "account-status-events";
+    private static final String CACHE_NAME = "account-details";
+
+    private final AccountServiceClient accountServiceClient;
+    private final Cache<String, AccountDto> accounts;
+
+    @Autowired
+    public AccountDetailsCache(AccountServiceClient accountServiceClient, MeterRegistry meterRegistry,
+            @Value("${transaction.account-cache.max-size:50000}") long maxSize,
+            @Value("${transaction.account-cache.ttl:PT5M}") Duration ttl) {
+        this.accountServiceClient = accountServiceClient;
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, accounts, CACHE_NAME);
+    }
+
+    /**
+     * Returns the account's details from the cache, loading them from the Account Service on a miss.
+     * @param accountId The account ID.
+     * @return The account details with a null balance, or null if the Account Service returned no account.
+     */
+    public AccountDto getAccount(String accountId) {
+        // A null result (unknown account) is not cached, so a newly created account is found on the next call
+        return accounts.get(accountId, id -> withoutBalance(accountServiceClient.getAccountById(id)));
+    }
+
+    /**
+     * Removes an account from the cache (e.g. after its status changed).
+     * @param accountId The account ID.
+     */
+    public void evict(String accountId) {
+        accounts.invalidate(accountId);
+    }
+
+    /**
+     * Consumes account status changes and deletions published by the Account Service.
+     * Every instance uses its own consumer group, so each instance's cache sees every event.
+     * @param accountId The record key (the account ID).
+     * @param event The event payload, only logged.
+     */
+    @KafkaListener(topics = ACCOUNT_STATUS_TOPIC,
+            groupId = "${transaction.account-cache.consumer-group:transaction-service-account-cache-${random.uuid}}",
+            autoStartup = "${transaction.account-cache.eviction-listener-enabled:true}")
+    public void onAccountStatusEvent(@Header(KafkaHeaders.RECEIVED_KEY) String accountId, @Payload String event) {
+        evict(accountId);
+        System.out.println("Evicted account " + accountId + " from the account details cache: " + event);
+    }
+
+    private static AccountDto withoutBalance(AccountDto account) {
+        if (account == null) {
+            return null;
+        }
+        return new AccountDto(account.getAccountId(), account.getUserId(), account.getAccountNumber(),
+                account.getAccountType(), null, account.getStatus(), account.getCreatedAt());
+    }
+}
@@ -0,0 +1,327 @@
+package com.transaction.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction.dao.TransactionRepository;
+import com.transaction.dto.BatchPostingItemDto;
+import com.transaction.dto.BatchPostingRequestDto;
+import com.transaction.dto.BatchPostingResultDto;
+import com.transaction.dto.BatchTransferResult;
+import com.transaction.dto.TransferRequest;
+import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.model.Money;
+import com.transaction.model.Transaction;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
+import com.transaction.model.TransferSagaState;
+import com.transaction.proxyService.AccountBatchClient;
+
+/**
+ * Bulk transfers (POST /transactions/batch), e.g. a payroll file with tens of thousands of credits.
+ * Instead of one saga and two Account Service calls per transfer, the instructions are sorted by source account
+ * and cut into chunks; each chunk costs one batch insert of PENDING transactions, one POST /accounts/batch call
+ * (which applies every debit and credit of the chunk in one Account Service database transaction) and two bulk
+ * status updates. Per-transfer results are written as NDJSON lines as soon as their chunk is done.
+ * Because the Account Service applies a transfer's debit and credit atomically, no compensation is ever needed.
+ * Each transfer is recorded together with a leased TransferSaga, closed out by the status update. If a chunk's outcome
+ * is unknown (Account Service outage or timeout, unusable response, or this instance dying before the chunk settles),
+ * its transfers stay PENDING and their sagas finish them through the idempotent single-posting endpoints.
+ * Bulk transfers send no per-transfer notifications (the submitter gets the result stream instead).
+ */
+@Service
+public class BatchTransferService {
+
+    private static final String CSV_HEADER = "fromAccountId,toAccountId,amount";
+
+    private final TransactionRepository transactionRepository;
+    private final AccountBatchClient accountBatchClient;
+    private final TransferSagaOrchestrator transferSagaOrchestrator;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int maxItems;
+    private final int chunkSize;
+
+    @Autowired
+    public BatchTransferService(TransactionRepository transactionRepository, AccountBatchClient accountBatchClient,
+            TransferSagaOrchestrator transferSagaOrchestrator, TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${transaction.batch.max-items:50000}") int maxItems,
+            @Value("${transaction.batch.chunk-size:1000}") int chunkSize) {
+        this.transactionRepository = transactionRepository;
+        this.accountBatchClient = accountBatchClient;
+        this.transferSagaOrchestrator = transferSagaOrchestrator;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.maxItems = maxItems;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Checks the size of a submitted batch before anything is recorded.
+     * @param instructions The transfer instructions.
+     * @throws InvalidTransactionException if the batch is empty or larger than transaction.batch.max-items.
+     */
+    public void checkSize(List<TransferRequest> instructions) {
+        if (instructions == null || instructions.isEmpty()) {
+            throw new InvalidTransactionException("A batch needs at least one transfer.");
+        }
+        if (instructions.size() > maxItems) {
+            throw new InvalidTransactionException("A batch can contain at most " + maxItems + " transfers.");
+        }
+    }
+
+    /**
+     * Reads transfer instructions from a CSV file with the columns fromAccountId,toAccountId,amount.
+     * A header line with these names is optional; blank lines are skipped.
+     * @param in The CSV content (UTF-8).
+     * @return The instructions, in file order.
+     * @throws InvalidTransactionException if a line is malformed or the file has too many lines.
+     */
+    public List<TransferRequest> parseCsv(InputStream in) throws IOException {
+        List<TransferRequest> instructions = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.strip();
+            if (trimmed.isEmpty()
+                    || (lineNumber == 1 && trimmed.replace(" ", "").toLowerCase(Locale.ROOT).equals(CSV_HEADER.toLowerCase(Locale.ROOT)))) {
+                continue;
+            }
+            String[] fields = trimmed.split(",", -1);
+            if (fields.length != 3) {
+                throw new InvalidTransactionException("Line " + lineNumber + ": expected " + CSV_HEADER + ".");
+            }
+            Money amount;
+            try {
+                amount = Money.valueOf(fields[2]);
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw new InvalidTransactionException("Line " + lineNumber + ": invalid amount '" + fields[2].strip() + "'.");
+            }
+            instructions.add(new TransferRequest(emptyToNull(fields[0]), emptyToNull(fields[1]), amount));
+            if (instructions.size() > maxItems) {
+                throw new InvalidTransactionException("A batch can contain at most " + maxItems + " transfers.");
+            }
+        }
+        return instructions;
+    }
+
+    /**
+     * Executes the transfers and writes one BatchTransferResult per instruction as an NDJSON line.
+     * Invalid instructions are reported as FAILED without recording a transaction; the others are processed
+     * chunk by chunk, grouped by source account. The stream is flushed after every chunk but not closed.
+     * @param instructions The transfer instructions, in submission order.
+     * @param out Destination (the HTTP response body).
+     */
+    public void execute(List<TransferRequest> instructions, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        List<Instruction> valid = new ArrayList<>(instructions.size());
+        int failed = 0;
+        for (int i = 0; i < instructions.size(); i++) {
+            TransferRequest request = instructions.get(i);
+            String problem = validate(request);
+            if (problem == null) {
+                valid.add(new Instruction(i + 1, request));
+            } else {
+                failed++;
+                write(writer, new BatchTransferResult(i + 1, null, request == null ? null : request.getFromAccountId(),
+                        request == null ? null : request.getToAccountId(), request == null ? null : request.getAmount(),
+                        TransactionStatus.FAILED, problem));
+            }
+        }
+        writer.flush();
+
+        // Grouping by source account keeps each account's debits in one chunk (one row lock, one funds check pass)
+        valid.sort(Comparator.comparing((Instruction instruction) -> instruction.request().getFromAccountId()));
+        int succeeded = 0;
+        int pending = 0;
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            for (BatchTransferResult result : executeChunk(valid.subList(from, Math.min(valid.size(), from + chunkSize)))) {
+                switch (result.getStatus()) {
+                    case SUCCESS -> succeeded++;
+                    case FAILED -> failed++;
+                    default -> pending++;
+                }
+                write(writer, result);
+            }
+            writer.flush();
+        }
+        System.out.println("Bulk transfer of " + instructions.size() + " instructions: " + succeeded + " succeeded, "
+                + failed + " failed, " + pending + " pending.");
+    }
+
+    /**
+     * Records, applies and settles one chunk of valid instructions.
+     */
+    private List<BatchTransferResult> executeChunk(List<Instruction> chunk) {
+        // 1. Record the transfers as PENDING (one JDBC batch; the UUIDs are generated without a round trip),
+        //    with the sagas that recover them if this chunk never settles
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> transactions = transactionTemplate.execute(status -> {
+            List<Transaction> pendingTransactions = new ArrayList<>(chunk.size());
+            for (Instruction instruction : chunk) {
+                TransferRequest request = instruction.request();
+                pendingTransactions.add(new Transaction(null, request.getFromAccountId(), request.getToAccountId(),
+                        request.getAmount(), TransactionType.TRANSFER, TransactionStatus.PENDING, now));
+            }
+            List<Transaction> saved = transactionRepository.saveAll(pendingTransactions);
+            transferSagaOrchestrator.recordBatched(saved);
+            return saved;
+        });
+        List<String> transactionIds = transactions.stream().map(Transaction::getTransactionId).toList();
+
+        // 2. Apply all postings in one Account Service call
+        List<BatchPostingItemDto> items = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            items.add(new BatchPostingItemDto(transaction.getTransactionId(), transaction.getFromAccountId(),
+                    transaction.getToAccountId(), transaction.getAmount()));
+        }
+        List<BatchPostingResultDto> postingResults;
+        try {
+            postingResults = accountBatchClient.applyBatch(new BatchPostingRequestDto(items));
+        } catch (Exception e) {
+            // The chunk may or may not have been applied: let the saga find out and finish each transfer
+            System.err.println("Bulk transfer chunk of " + transactions.size() + " handed to the transfer saga: " + e.getMessage());
+            return handOver(chunk, transactions,
+                    "Account Service unavailable; the transfer is being retried. Check GET /transactions/{transactionId}.");
+        }
+        if (!matchesChunk(postingResults, transactionIds)) {
+            // Results are matched to transfers by position, so a short or reordered response can't be trusted
+            System.err.println("Bulk transfer chunk of " + transactions.size()
+                    + " handed to the transfer saga: the Account Service returned results for other transfers.");
+            return handOver(chunk, transactions,
+                    "Outcome not confirmed by the Account Service; the transfer is being retried. Check GET /transactions/{transactionId}.");
+        }
+
+        // 3. Settle the transactions and close their sagas with bulk updates
+        List<String> succeededIds = new ArrayList<>();
+        List<String> failedIds = new ArrayList<>();
+        for (BatchPostingResultDto postingResult : postingResults) {
+            (postingResult.getStatus() == BatchPostingResultDto.Status.REJECTED ? failedIds : succeededIds)
+                    .add(postingResult.getTransactionId());
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!succeededIds.isEmpty()) {
+                transactionRepository.updateStatus(succeededIds, TransactionStatus.SUCCESS);
+            }
+            if (!failedIds.isEmpty()) {
+                transactionRepository.updateStatus(failedIds, TransactionStatus.FAILED);
+            }
+            transferSagaOrchestrator.finishBatched(succeededIds, TransferSagaState.CREDITED);
+            transferSagaOrchestrator.finishBatched(failedIds, TransferSagaState.FAILED);
+        });
+        return results(chunk, transactions, postingResults, null);
+    }
+
+    /**
+     * Leaves the chunk's transfers PENDING and releases their sagas to the resume sweep.
+     */
+    private List<BatchTransferResult> handOver(List<Instruction> chunk, List<Transaction> transactions, String message) {
+        try {
+            transferSagaOrchestrator.releaseBatched(transactions.stream().map(Transaction::getTransactionId).toList());
+        } catch (Exception e) {
+            // Still recovered, once the sagas' lease has expired
+            System.err.println("Failed to release the transfer sagas of a bulk transfer chunk: " + e.getMessage());
+        }
+        return results(chunk, transactions, null, message);
+    }
+
+    /**
+     * True if there is exactly one posting result per transfer, in the order of the request.
+     */
+    private static boolean matchesChunk(List<BatchPostingResultDto> postingResults, List<String> transactionIds) {
+        if (postingResults == null || postingResults.size() != transactionIds.size()) {
+            return false;
+        }
+        for (int i = 0; i < transactionIds.size(); i++) {
+            if (postingResults.get(i) == null || !transactionIds.get(i).equals(postingResults.get(i).getTransactionId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds the result lines of a chunk. Without posting results (outcome unknown) every transfer is PENDING.
+     */
+    private static List<BatchTransferResult> results(List<Instruction> chunk, List<Transaction> transactions,
+            List<BatchPostingResultDto> postingResults, String pendingMessage) {
+        List<BatchTransferResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            TransactionStatus status = TransactionStatus.PENDING;
+            String message = pendingMessage;
+            if (postingResults != null) {
+                BatchPostingResultDto postingResult = postingResults.get(i); // Same order as the request
+                status = postingResult.getStatus() == BatchPostingResultDto.Status.REJECTED
+                        ? TransactionStatus.FAILED : TransactionStatus.SUCCESS;
+                message = postingResult.getMessage();
+            }
+            results.add(new BatchTransferResult(chunk.get(i).line(), transaction.getTransactionId(),
+                    transaction.getFromAccountId(), transaction.getToAccountId(), transaction.getAmount(), status, message));
+        }
+        return results;
+    }
+
+    /**
+     * Applies the same rules as a single transfer.
+     * @return Why the instruction is invalid, or null if it is valid.
+     */
+    private static String validate(TransferRequest request) {
+        if (request == null) {
+            return "Missing transfer instruction.";
+        }
+        if (request.getFromAccountId() == null || request.getFromAccountId().isBlank()) {
+            return "From Account ID cannot be empty";
+        }
+        if (request.getToAccountId() == null || request.getToAccountId().isBlank()) {
+            return "To Account ID cannot be empty";
+        }
+        if (request.getAmount() == null) {
+            return "Amount cannot be null";
+        }
+        if (!request.getAmount().isPositive()) {
+            return "Transfer amount must be positive.";
+        }
+        if (request.getFromAccountId().equals(request.getToAccountId())) {
+            return "Cannot transfer funds to the same account.";
+        }
+        return null;
+    }
+
+    private void write(Writer writer, BatchTransferResult result) throws IOException {
+        writer.write(objectMapper.writeValueAsString(result));
+        writer.write('\n');
+    }
+
+    private static String emptyToNull(String field) {
+        String value = field.strip();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * A valid instruction and its 1-based position in the submission.
+     */
+    private record Instruction(int line, TransferRequest request) {
+    }
+}
@@ -0,0 +1,227 @@
+package com.transaction.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.transaction.dao.IdempotencyRecordRepository;
+import com.transaction.dao.TransactionRepository;
+import com.transaction.exceptions.IdempotencyKeyConflictException;
+import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.exceptions.TransactionProcessingException;
+import com.transaction.model.IdempotencyRecord;
+import com.transaction.model.Transaction;
+import com.transaction.model.TransactionType;
+
+/**
+ * Implements the Idempotency-Key contract for money-moving endpoints.
+ * A completed request is remembered in a bounded in-memory store (TTL eviction) and in the
+ * idempotency_record table. A replay with the same key and the same request body returns the
+ * original Transaction without calling the Account Service again; the same key with a different
+ * body is rejected with 409 Conflict. Bodies are compared by a hash of their canonical JSON
+ * (properties sorted, nulls left out), so reordering DTO fields or adding optional ones does not
+ * turn replays into conflicts. Concurrent duplicates on this instance wait for the first
+ * request instead of executing a second time. Failed requests are not remembered, so the client
+ * can safely retry them with the same key.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionRepository transactionRepository; // Only used on a miss in the in-memory store
+    private final ObjectMapper canonicalMapper; // Writes request bodies in one stable form for hashing
+    private final Duration retention;
+    private final Cache<String, CompletedRequest> completedRequests;
+    private final ConcurrentMap<String, CompletableFuture<Transaction>> inFlightRequests = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+            TransactionRepository transactionRepository, ObjectMapper objectMapper,
+            @Value("${transaction.idempotency.cache-size:10000}") long cacheSize,
+            @Value("${transaction.idempotency.ttl:PT24H}") Duration retention) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionRepository = transactionRepository;
+        ObjectMapper canonical = objectMapper.copy();
+        canonical.setConfig(canonical.getSerializationConfig()
+                .with(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+                .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS));
+        canonical.setDefaultPropertyInclusion(
+                JsonInclude.Value.construct(JsonInclude.Include.NON_NULL, JsonInclude.Include.NON_NULL));
+        this.canonicalMapper = canonical;
+        this.retention = retention;
+        this.completedRequests = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    /**
+     * Runs the given operation at most once per Idempotency-Key.
+     * @param idempotencyKey The value of the Idempotency-Key header, or null when the client did not send one.
+     * @param type The operation being performed.
+     * @param request The request body, used to detect the same key being reused for a different request.
+     * @param operation The actual deposit/withdraw/transfer call.
+     * @return The Transaction created by the first successful request with this key.
+     * @throws IdempotencyKeyConflictException if the key was already used for a different request.
+     */
+    public Transaction execute(String idempotencyKey, TransactionType type, Object request,
+            Supplier<Transaction> operation) {
+        if (idempotencyKey == null) {
+            return operation.get(); // No key, no idempotency guarantees (legacy clients)
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidTransactionException(
+                    IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+        }
+
+        String scopedKey = currentPrincipal() + ":" + idempotencyKey;
+        String requestHash = hash(type + ":" + canonicalJson(request));
+
+        // 1. Fast path: answered from memory, no database or Account Service round trip
+        CompletedRequest completed = completedRequests.getIfPresent(scopedKey);
+        if (completed != null) {
+            return replay(completed, type, requestHash, request, idempotencyKey);
+        }
+
+        // 2. Collapse concurrent duplicates: only the first request for a key does the work
+        CompletableFuture<Transaction> ownFuture = new CompletableFuture<>();
+        CompletableFuture<Transaction> existingFuture = inFlightRequests.putIfAbsent(scopedKey, ownFuture);
+        if (existingFuture != null) {
+            Transaction transaction = awaitInFlight(existingFuture);
+            CompletedRequest finished = completedRequests.getIfPresent(scopedKey);
+            return finished != null ? replay(finished, type, requestHash, request, idempotencyKey) : transaction;
+        }
+
+        try {
+            // 3. Persistent fallback for keys evicted from memory or completed before a restart
+            Optional<CompletedRequest> stored = loadStoredRequest(scopedKey);
+            if (stored.isPresent()) {
+                completedRequests.put(scopedKey, stored.get());
+                Transaction transaction = replay(stored.get(), type, requestHash, request, idempotencyKey);
+                ownFuture.complete(transaction);
+                return transaction;
+            }
+
+            // 4. First time we see this key: execute and remember the outcome
+            Transaction transaction = operation.get();
+            remember(scopedKey, new CompletedRequest(type, requestHash, transaction));
+            ownFuture.complete(transaction);
+            return transaction;
+        } catch (RuntimeException e) {
+            ownFuture.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRequests.remove(scopedKey, ownFuture);
+        }
+    }
+
+    /**
+     * Periodically removes persisted idempotency records that are past the retention window.
+     */
+    @Scheduled(fixedDelayString = "${transaction.idempotency.purge-interval:PT1H}")
+    public void purgeExpiredRecords() {
+        int deleted = idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            System.out.println("Purged " + deleted + " expired idempotency records.");
+        }
+    }
+
+    private Transaction replay(CompletedRequest completed, TransactionType type, String requestHash, Object request,
+            String idempotencyKey) {
+        // Records stored before the hash was canonical hold a hash of the DTO's toString(); accepted until they expire
+        boolean sameRequest = completed.requestHash().equals(requestHash)
+                || completed.requestHash().equals(hash(type + ":" + request));
+        if (completed.type() != type || !sameRequest) {
+            throw new IdempotencyKeyConflictException("Idempotency-Key '" + idempotencyKey
+                    + "' has already been used for a different request.");
+        }
+        System.out.println("Replaying transaction " + completed.transaction().getTransactionId()
+                + " for Idempotency-Key " + idempotencyKey);
+        return completed.transaction();
+    }
+
+    private Optional<CompletedRequest> loadStoredRequest(String scopedKey) {
+        return idempotencyRecordRepository.findById(scopedKey)
+                .filter(record -> record.getCreatedAt().isAfter(LocalDateTime.now().minus(retention)))
+                .flatMap(record -> transactionRepository.findById(record.getTransactionId())
+                        .map(transaction -> new CompletedRequest(record.getType(), record.getRequestHash(),
+                                transaction)));
+    }
+
+    private void remember(String scopedKey, CompletedRequest completed) {
+        completedRequests.put(scopedKey, completed);
+        try {
+            idempotencyRecordRepository.save(new IdempotencyRecord(scopedKey, completed.type(),
+                    completed.requestHash(), completed.transaction().getTransactionId(), LocalDateTime.now()));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance completed the same key concurrently; its record is equally valid.
+            System.err.println("Idempotency record for key " + scopedKey + " already exists: " + e.getMessage());
+        }
+    }
+
+    private Transaction awaitInFlight(CompletableFuture<Transaction> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause; // Surface the same error the original request received
+            }
+            throw new TransactionProcessingException("Original request failed: " + e.getMessage(), e);
+        }
+    }
+
+    private String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonymous";
+    }
+
+    private String canonicalJson(Object request) {
+        try {
+            return canonicalMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body cannot be written as JSON: " + e.getMessage(), e);
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Outcome of a completed idempotent request held in memory.
+     */
+    private record CompletedRequest(TransactionType type, String requestHash, Transaction transaction) {
+    }
+}
@@ -0,0 +1,240 @@
+package com.transaction.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.transaction.dao.NotificationOutboxRepository;
+import com.transaction.dto.BatchNotificationRequestDto;
+import com.transaction.dto.NotificationRequestDto;
+import com.transaction.dto.NotificationResponseDto;
+import com.transaction.model.NotificationOutbox;
+import com.transaction.model.OutboxStatus;
+import com.transaction.proxyService.NotificationServiceClient;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Writes notifications to the outbox and delivers them to the Notification Service in batches.
+ * Delivery is triggered right after the business transaction commits (so a transfer's two
+ * notifications go out in one call) and by a periodic sweep that picks up anything left behind,
+ * e.g. after a Notification Service outage or an instance restart.
+ * Outside of a user request the Feign calls authenticate with the service's own client credentials
+ * (see FeignClientConfiguration).
+ */
+@Component
+public class NotificationOutboxDispatcher {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationServiceClient notificationServiceClient;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration sentRetention;
+
+    // Single worker for after-commit dispatches; the flag collapses bursts of commits into one drain.
+    private final ExecutorService dispatchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-outbox-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean dispatchRequested = new AtomicBoolean(false);
+
+    @Autowired
+    public NotificationOutboxDispatcher(NotificationOutboxRepository outboxRepository,
+            NotificationServiceClient notificationServiceClient, TransactionTemplate transactionTemplate,
+            @Value("${transaction.notification-outbox.batch-size:100}") int batchSize,
+            @Value("${transaction.notification-outbox.max-attempts:10}") int maxAttempts,
+            @Value("${transaction.notification-outbox.initial-backoff:PT5S}") Duration initialBackoff,
+            @Value("${transaction.notification-outbox.max-backoff:PT10M}") Duration maxBackoff,
+            @Value("${transaction.notification-outbox.sent-retention:P7D}") Duration sentRetention) {
+        this.outboxRepository = outboxRepository;
+        this.notificationServiceClient = notificationServiceClient;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.sentRetention = sentRetention;
+    }
+
+    /**
+     * Adds a notification to the outbox as part of the caller's database transaction and
+     * arranges for the outbox to be drained once that transaction commits.
+     * @param userId The recipient.
+     * @param type The notification channel.
+     * @param content The message to send.
+     */
+    public void enqueue(String userId, NotificationRequestDto.NotificationType type, String content) {
+        NotificationOutbox outbox = new NotificationOutbox();
+        outbox.setUserId(userId);
+        outbox.setType(type);
+        outbox.setContent(content);
+        outbox.setStatus(OutboxStatus.PENDING);
+        outbox.setAttempts(0);
+        LocalDateTime now = LocalDateTime.now();
+        outbox.setCreatedAt(now);
+        outbox.setNextAttemptAt(now);
+        outboxRepository.save(outbox);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestDispatch();
+                }
+            });
+        } else {
+            requestDispatch();
+        }
+    }
+
+    /**
+     * Periodic sweep: delivers whatever is still pending (failed deliveries, rows from before a restart).
+     */
+    @Scheduled(fixedDelayString = "${transaction.notification-outbox.poll-interval:PT5S}")
+    public void sweep() {
+        drain();
+    }
+
+    /**
+     * Periodically deletes delivered rows that are past the retention window.
+     */
+    @Scheduled(fixedDelayString = "${transaction.notification-outbox.purge-interval:PT1H}")
+    public void purgeSent() {
+        int deleted = outboxRepository.deleteSentBefore(LocalDateTime.now().minus(sentRetention));
+        if (deleted > 0) {
+            System.out.println("Purged " + deleted + " delivered notification outbox rows.");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatchExecutor.shutdown();
+    }
+
+    private void requestDispatch() {
+        // Several commits in quick succession result in a single drain
+        if (dispatchRequested.compareAndSet(false, true)) {
+            dispatchExecutor.execute(() -> {
+                dispatchRequested.set(false);
+                drain();
+            });
+        }
+    }
+
+    /**
+     * Delivers pending rows batch by batch until the outbox is empty or a batch fails.
+     */
+    private void drain() {
+        try {
+            boolean delivered;
+            do {
+                delivered = Boolean.TRUE.equals(transactionTemplate.execute(status -> dispatchBatch()));
+            } while (delivered);
+        } catch (Exception e) {
+            System.err.println("Notification outbox drain failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Claims one batch of pending rows (skipping rows locked by another instance), sends it in a single call
+     * and records the outcome. Runs inside a transaction so the row locks are held until the outcome is saved.
+     * Only the notifications the Notification Service reports as SENT are marked SENT. Those it rejects as invalid
+     * (FAILED) would be rejected again, so they become FAILED at once. The others (call failed, or not confirmed)
+     * stay PENDING until their retry backoff has elapsed, or become FAILED after
+     * transaction.notification-outbox.max-attempts.
+     * @return true if a full batch was dispatched and more rows may be waiting.
+     */
+    private boolean dispatchBatch() {
+        List<NotificationOutbox> batch = outboxRepository.findBatchForDispatch(OutboxStatus.PENDING,
+                LocalDateTime.now(), PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return false;
+        }
+
+        List<NotificationRequestDto> notifications = batch.stream()
+                .map(outbox -> new NotificationRequestDto(outbox.getUserId(), outbox.getType(), outbox.getContent()))
+                .toList();
+        List<NotificationResponseDto> responses;
+        try {
+            responses = notificationServiceClient.sendBatchNotifications(new BatchNotificationRequestDto(notifications));
+        } catch (Exception e) {
+            String error = e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+            batch.forEach(outbox -> recordFailure(outbox, error));
+            outboxRepository.saveAll(batch);
+            System.err.println("Failed to deliver " + batch.size() + " outbox notifications: " + error);
+            return false;
+        }
+
+        // Responses are in request order; a missing one means the notification was not confirmed
+        LocalDateTime now = LocalDateTime.now();
+        int rejected = 0;
+        int unconfirmed = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            NotificationOutbox outbox = batch.get(i);
+            NotificationResponseDto response = responses != null && i < responses.size() ? responses.get(i) : null;
+            if (response != null && response.getStatus() == NotificationResponseDto.Status.SENT) {
+                outbox.setStatus(OutboxStatus.SENT);
+                outbox.setAttempts(outbox.getAttempts() + 1);
+                outbox.setSentAt(now);
+                outbox.setLastError(null);
+            } else if (response != null && response.getStatus() == NotificationResponseDto.Status.FAILED) {
+                outbox.setAttempts(outbox.getAttempts() + 1);
+                outbox.setLastError(truncate(response.getMessage() == null ? "Rejected by the Notification Service"
+                        : response.getMessage()));
+                outbox.setStatus(OutboxStatus.FAILED); // Invalid: sending it again would be rejected again
+                rejected++;
+            } else {
+                recordFailure(outbox, response == null || response.getMessage() == null
+                        ? "Not confirmed by the Notification Service" : response.getMessage());
+                unconfirmed++;
+            }
+        }
+        outboxRepository.saveAll(batch);
+        if (rejected > 0) {
+            System.err.println(rejected + " of " + batch.size() + " outbox notifications were rejected as invalid.");
+        }
+        if (unconfirmed > 0) {
+            System.err.println(unconfirmed + " of " + batch.size() + " outbox notifications were not confirmed; they will be retried.");
+        }
+        return batch.size() == batchSize; // Retried rows are not due again before their backoff
+    }
+
+    /**
+     * Counts a failed delivery attempt and schedules the next one after an exponential backoff;
+     * after maxAttempts the row is marked FAILED and no longer retried.
+     */
+    private void recordFailure(NotificationOutbox outbox, String error) {
+        outbox.setAttempts(outbox.getAttempts() + 1);
+        outbox.setLastError(truncate(error));
+        outbox.setNextAttemptAt(LocalDateTime.now().plus(backoff(outbox.getAttempts())));
+        if (outbox.getAttempts() >= maxAttempts) {
+            outbox.setStatus(OutboxStatus.FAILED); // Stop retrying; left in the table for inspection
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        // initialBackoff * 2^(attempts - 1), capped at maxBackoff
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static String truncate(String error) {
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
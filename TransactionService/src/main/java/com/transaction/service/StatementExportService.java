@@ -0,0 +1,164 @@
+package com.transaction.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction.dao.TransactionRepository;
+import com.transaction.model.Transaction;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Writes account statements (CSV or NDJSON) straight to an output stream.
+ * Transactions are read from two database cursors, one per side of the account (each a range scan of its index,
+ * already in date order), merged as they are read and written one by one, so memory use stays constant however
+ * long the account's history is and the first rows are sent before the last ones are read.
+ */
+@Service
+public class StatementExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String fileExtension;
+
+        Format(String contentType, String fileExtension) {
+            this.contentType = contentType;
+            this.fileExtension = fileExtension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getFileExtension() {
+            return fileExtension;
+        }
+    }
+
+    private static final String CSV_HEADER = "transactionId,transactionDate,type,status,fromAccountId,toAccountId,amount";
+    private static final Comparator<Transaction> STATEMENT_ORDER = Comparator
+            .comparing(Transaction::getTransactionDate)
+            .thenComparing(Transaction::getTransactionId);
+
+    private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    public StatementExportService(TransactionRepository transactionRepository, EntityManager entityManager,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        // The export runs on the MVC async thread, outside of any @Transactional method,
+        // so the cursor is kept open with an explicit read-only transaction.
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Writes the account's transactions in [from, to), oldest first, to the given stream.
+     * The stream is flushed but not closed.
+     * @param accountId The account ID.
+     * @param from Inclusive lower bound on the transaction date.
+     * @param to Exclusive upper bound on the transaction date.
+     * @param format CSV or NDJSON.
+     * @param out Destination (e.g. the HTTP response body, possibly gzip-wrapped).
+     * @return The number of transactions written.
+     */
+    public long writeStatement(String accountId, LocalDateTime from, LocalDateTime to, Format format,
+            OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try {
+            Long written = readOnlyTransaction.execute(status -> {
+                long count = 0;
+                try (Stream<Transaction> outgoing = transactionRepository.streamOutgoingStatement(accountId, from, to);
+                        Stream<Transaction> incoming = transactionRepository.streamIncomingStatement(accountId, from, to)) {
+                    Iterator<Transaction> sent = outgoing.iterator();
+                    Iterator<Transaction> received = incoming.iterator();
+                    Transaction nextSent = sent.hasNext() ? sent.next() : null;
+                    Transaction nextReceived = received.hasNext() ? received.next() : null;
+                    while (nextSent != null || nextReceived != null) {
+                        Transaction transaction;
+                        if (nextReceived == null
+                                || (nextSent != null && STATEMENT_ORDER.compare(nextSent, nextReceived) <= 0)) {
+                            transaction = nextSent;
+                            nextSent = sent.hasNext() ? sent.next() : null;
+                        } else {
+                            transaction = nextReceived;
+                            nextReceived = received.hasNext() ? received.next() : null;
+                        }
+                        writeRow(writer, transaction, format);
+                        entityManager.detach(transaction); // Keep the persistence context from growing with the export
+                        count++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+            writer.flush();
+            return written == null ? 0 : written;
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // Usually the client went away; nothing else to clean up
+        }
+    }
+
+    private void writeRow(Writer writer, Transaction transaction, Format format) throws IOException {
+        if (format == Format.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(transaction));
+        } else {
+            writer.write(csv(transaction.getTransactionId()));
+            writer.write(',');
+            writer.write(csv(transaction.getTransactionDate()));
+            writer.write(',');
+            writer.write(csv(transaction.getType()));
+            writer.write(',');
+            writer.write(csv(transaction.getStatus()));
+            writer.write(',');
+            writer.write(csv(transaction.getFromAccountId()));
+            writer.write(',');
+            writer.write(csv(transaction.getToAccountId()));
+            writer.write(',');
+            writer.write(transaction.getAmount() == null ? "" : transaction.getAmount().toString());
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Formats one CSV field, quoting it (RFC 4180) if it contains a separator, quote or line break.
+     */
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
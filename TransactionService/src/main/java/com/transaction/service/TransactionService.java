@@ -1,9 +1,11 @@
 package com.transaction.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import com.transaction.dto.DepositRequest;
+import com.transaction.dto.TransactionPageResponse;
 import com.transaction.dto.TransferRequest;
 import com.transaction.dto.WithdrawRequest;
 import com.transaction.exceptions.AccountNotFoundException;
@@ -11,6 +13,8 @@ import com.transaction.exceptions.InsufficientFundsException;
 import com.transaction.exceptions.InvalidTransactionException;
 import com.transaction.exceptions.TransactionProcessingException;
 import com.transaction.model.Transaction;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
 
 public interface TransactionService {
 
@@ -34,13 +38,11 @@ public interface TransactionService {
     Transaction withdraw(WithdrawRequest request);
 
     /**
-     * Processes a fund transfer transaction between two accounts.
+     * Starts a fund transfer between two accounts. The transfer is carried out in the background by a saga;
+     * unknown accounts and insufficient funds show up as a FAILED transaction rather than as an exception.
      * @param request The TransferRequest containing fromAccountId, toAccountId, and amount.
-     * @return The created Transaction entity.
-     * @throws AccountNotFoundException if source or target account does not exist.
-     * @throws InsufficientFundsException if the source account has insufficient funds.
-     * @throws InvalidTransactionException if attempting to transfer to the same account.
-     * @throws TransactionProcessingException if the transfer fails due to other reasons.
+     * @return The created Transaction entity, still PENDING.
+     * @throws InvalidTransactionException if the amount is not positive or attempting to transfer to the same account.
      */
     Transaction transfer(TransferRequest request);
 
@@ -57,4 +59,21 @@ public interface TransactionService {
      * @return A list of transactions related to the account.
      */
     List<Transaction> getTransactionsByAccountId(String accountId);
+
+    /**
+     * Retrieves one page of an account's transaction history (sent or received), newest first.
+     * Uses keyset pagination on (transactionDate, transactionId), so the cost of a page does not
+     * grow with the size of the history or with how deep the caller has paged.
+     * @param accountId The account ID.
+     * @param limit Maximum number of transactions to return.
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param from Optional inclusive lower bound on transactionDate.
+     * @param to Optional exclusive upper bound on transactionDate.
+     * @param type Optional transaction type filter.
+     * @param status Optional transaction status filter.
+     * @return The page and the cursor for the next one.
+     * @throws InvalidTransactionException if the cursor or the date range is invalid.
+     */
+    TransactionPageResponse getTransactionHistory(String accountId, int limit, String cursor,
+            LocalDateTime from, LocalDateTime to, TransactionType type, TransactionStatus status);
 }
@@ -1,10 +1,16 @@
 package com.transaction.service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.HttpClientErrorException;
@@ -14,6 +20,7 @@ import com.transaction.dto.AccountDto;
 import com.transaction.dto.DepositRequest;
 import com.transaction.dto.DepositRequestDto;
 import com.transaction.dto.NotificationRequestDto;
+import com.transaction.dto.TransactionPageResponse;
 import com.transaction.dto.TransferRequest;
 import com.transaction.dto.WithdrawRequest;
 import com.transaction.dto.WithdrawRequestDto;
@@ -21,32 +28,47 @@ import com.transaction.exceptions.AccountNotFoundException;
 import com.transaction.exceptions.InsufficientFundsException;
 import com.transaction.exceptions.InvalidTransactionException;
 import com.transaction.exceptions.TransactionProcessingException;
+import com.transaction.model.Money;
 import com.transaction.model.Transaction;
 import com.transaction.model.TransactionStatus;
 import com.transaction.model.TransactionType;
 import com.transaction.proxyService.AccountServiceClient;
-import com.transaction.proxyService.NotificationServiceClient;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 
 @Service
 public class TransactionServiceImpl implements TransactionService {
 
+	// Open ends of the history range when the caller gives no from/to (kept inside what Oracle's DATE/TIMESTAMP accepts)
+	private static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+	private static final LocalDateTime HISTORY_END = LocalDateTime.of(9999, 12, 31, 0, 0);
+	// Newest first, ties broken by ID: the same order as the keyset queries and the cursor
+	private static final Comparator<Transaction> HISTORY_ORDER = Comparator
+			.comparing(Transaction::getTransactionDate)
+			.thenComparing(Transaction::getTransactionId)
+			.reversed();
+
 	private final TransactionRepository transactionRepository;
 	private final AccountServiceClient accountServiceClient;
-	private final NotificationServiceClient notificationServiceClient;
+	private final AccountDetailsCache accountDetailsCache; // Owner/number/status of accounts; never balances
+	private final NotificationOutboxDispatcher notificationOutboxDispatcher; // Delivers notifications after commit
+	private final TransferSagaOrchestrator transferSagaOrchestrator; // Runs transfers in the background
 
 	@Autowired
 	public TransactionServiceImpl(TransactionRepository transactionRepository,
-			AccountServiceClient accountServiceClient, NotificationServiceClient notificationServiceClient) {
+			AccountServiceClient accountServiceClient, AccountDetailsCache accountDetailsCache,
+			NotificationOutboxDispatcher notificationOutboxDispatcher, TransferSagaOrchestrator transferSagaOrchestrator) {
 		this.transactionRepository = transactionRepository;
 		this.accountServiceClient = accountServiceClient;
-		this.notificationServiceClient = notificationServiceClient;
+		this.accountDetailsCache = accountDetailsCache;
+		this.notificationOutboxDispatcher = notificationOutboxDispatcher;
+		this.transferSagaOrchestrator = transferSagaOrchestrator;
 	}
 
 	@Transactional
 	@CircuitBreaker(name = "transactionProcessing", fallbackMethod = "processTransactionFallback") // Example for a very broad circuit breaker
 	public Transaction deposit(DepositRequest request) {
+		requirePositiveAmount(request.getAmount(), "Deposit");
 		Transaction transaction = new Transaction();
 		transaction.setFromAccountId(null);
 		transaction.setToAccountId(request.getAccountId());
@@ -58,7 +80,7 @@ public class TransactionServiceImpl implements TransactionService {
 
 		try {
 			// Verify Account existence and perform deposit via Feign Client
-			AccountDto targetAccount = accountServiceClient.getAccountById(request.getAccountId());
+			AccountDto targetAccount = accountDetailsCache.getAccount(request.getAccountId());
 			if (targetAccount == null) {
 				throw new AccountNotFoundException("Target account not found with ID: " + request.getAccountId());
 			}
@@ -72,7 +94,7 @@ public class TransactionServiceImpl implements TransactionService {
 			transaction.setStatus(TransactionStatus.SUCCESS);
 			transaction = transactionRepository.save(transaction); // Update transaction status
 
-			// Send Notification (asynchronously, best effort)
+			// Queue Notification (delivered asynchronously after commit)
 			sendNotification(targetAccount.getUserId(), "Deposit Alert",
 					"A deposit of " + request.getAmount() + " has been made to your account "
 							+ targetAccount.getAccountNumber() + ". Transaction ID: " + transaction.getTransactionId(),
@@ -107,6 +129,7 @@ public class TransactionServiceImpl implements TransactionService {
 	 
 	@Transactional
 	public Transaction withdraw(WithdrawRequest request) {
+		requirePositiveAmount(request.getAmount(), "Withdrawal");
 		Transaction transaction = new Transaction();
 		transaction.setFromAccountId(request.getAccountId());
 		transaction.setToAccountId(null);
@@ -118,18 +141,13 @@ public class TransactionServiceImpl implements TransactionService {
 
 		try {
 			// Verify Account existence and perform withdrawal via Feign Client
-			AccountDto sourceAccount = accountServiceClient.getAccountById(request.getAccountId());
+			AccountDto sourceAccount = accountDetailsCache.getAccount(request.getAccountId());
 			if (sourceAccount == null) {
 				throw new AccountNotFoundException("Source account not found with ID: " + request.getAccountId());
 			}
-			// Note: Balance check here is optimistic. The Account Service should be the
-			// ultimate authority.
-			// If the Account Service's withdraw endpoint handles insufficient funds, this
-			// check might be redundant
-			// or serve as an early validation.
-			if (sourceAccount.getBalance() < request.getAmount()) {
-				throw new InsufficientFundsException("Insufficient funds in account: " + request.getAccountId());
-			}
+			// No local balance check: the cached account has no balance, and the Account Service is the
+			// ultimate authority anyway. It rejects an uncovered withdrawal, which AccountServiceClient
+			// turns into an InsufficientFundsException.
 
 			// Call Account Service to withdraw funds
 			WithdrawRequestDto withdrawRequestDto = new WithdrawRequestDto(transaction.getTransactionId(),
@@ -140,7 +158,7 @@ public class TransactionServiceImpl implements TransactionService {
 			transaction.setStatus(TransactionStatus.SUCCESS);
 			transaction = transactionRepository.save(transaction);
 
-			// Send Notification (asynchronously, best effort)
+			// Queue Notification (delivered asynchronously after commit)
 			sendNotification(sourceAccount.getUserId(), "Withdrawal Alert",
 					"A withdrawal of " + request.getAmount() + " has been made from your account "
 							+ sourceAccount.getAccountNumber() + ". Transaction ID: " + transaction.getTransactionId(),
@@ -164,105 +182,105 @@ public class TransactionServiceImpl implements TransactionService {
 		return transaction;
 	}
 
-	@Transactional
+	/**
+	 * Records the transfer and returns at once; the TransferSagaOrchestrator moves the money in the background.
+	 */
 	public Transaction transfer(TransferRequest request) {
-		Transaction transaction = new Transaction();
-		transaction.setFromAccountId(request.getFromAccountId());
-		transaction.setToAccountId(request.getToAccountId());
-		transaction.setAmount(request.getAmount());
-		transaction.setType(TransactionType.TRANSFER);
-		transaction.setStatus(TransactionStatus.PENDING);
-		transaction.setTransactionDate(LocalDateTime.now());
-		transaction = transactionRepository.save(transaction);
-
-		try {
-			// Verify both accounts exist and source has sufficient funds
-			AccountDto sourceAccount = accountServiceClient.getAccountById(request.getFromAccountId());
-			AccountDto targetAccount = accountServiceClient.getAccountById(request.getToAccountId());
-
-			if (sourceAccount == null) {
-				throw new AccountNotFoundException("Source account not found with ID: " + request.getFromAccountId());
-			}
-			if (targetAccount == null) {
-				throw new AccountNotFoundException("Target account not found with ID: " + request.getToAccountId());
-			}
-			if (sourceAccount.getBalance() < request.getAmount()) {
-				throw new InsufficientFundsException(
-						"Insufficient funds in source account: " + request.getFromAccountId());
-			}
-
-			if (request.getFromAccountId().equals(request.getToAccountId())) {
-				throw new InvalidTransactionException("Cannot transfer funds to the same account.");
-			}
+		return transferSagaOrchestrator.start(request);
+	}
 
-			// Perform withdrawal from source and deposit to target via Feign Clients
-			// Note: In a real-world scenario, for distributed transactions, you'd consider
-			// Sagas or a 2PC (Two-Phase Commit) pattern if strict atomicity across services
-			// is required.
-			// For simplicity, here we assume the Account Service's deposit/withdraw
-			// operations are atomic.
-			WithdrawRequestDto withdrawRequestDto = new WithdrawRequestDto(transaction.getTransactionId(),
-					request.getAmount());
-			accountServiceClient.withdrawFunds(request.getFromAccountId(), withdrawRequestDto);
+	public Optional<Transaction> getTransactionById(String transactionId) {
+		return transactionRepository.findById(transactionId);
+	}
 
-			DepositRequestDto depositRequestDto = new DepositRequestDto(transaction.getTransactionId(),
-					request.getAmount());
-			accountServiceClient.depositFunds(request.getToAccountId(), depositRequestDto);
+	public List<Transaction> getTransactionsByAccountId(String accountId) {
+		return transactionRepository.findByFromAccountIdOrToAccountId(accountId, accountId);
+	}
 
-			// Update Transaction status to SUCCESS
-			transaction.setStatus(TransactionStatus.SUCCESS);
-			transaction = transactionRepository.save(transaction);
+	/**
+	 * Reads one page from each side of the account (sent and received) using the composite indexes,
+	 * and merges them. Each side returns at most limit + 1 rows, so the page is exact and we know
+	 * whether there is more without counting.
+	 */
+	@Transactional(readOnly = true)
+	public TransactionPageResponse getTransactionHistory(String accountId, int limit, String cursor,
+			LocalDateTime from, LocalDateTime to, TransactionType type, TransactionStatus status) {
+		if (limit <= 0) {
+			throw new InvalidTransactionException("Page size must be positive.");
+		}
+		LocalDateTime fromDate = from != null ? from : HISTORY_START;
+		LocalDateTime cursorDate = to != null ? to : HISTORY_END;
+		String cursorId = ""; // Sorts before every UUID, so 'transactionDate = to' rows are excluded on the first page
+		if (!fromDate.isBefore(cursorDate)) {
+			throw new InvalidTransactionException("'from' must be before 'to'.");
+		}
 
-			// Send Notifications (asynchronously, best effort)
-			sendNotification(sourceAccount.getUserId(), "Fund Transfer Alert",
-					"A transfer of " + request.getAmount() + " has been made from your account "
-							+ sourceAccount.getAccountNumber() + " to " + targetAccount.getAccountNumber()
-							+ ". Transaction ID: " + transaction.getTransactionId(),
-					NotificationRequestDto.NotificationType.EMAIL);
+		if (cursor != null && !cursor.isBlank()) {
+			Transaction position = decodeCursor(cursor);
+			// Never page past the requested upper bound, even with a cursor from a wider query
+			if (position.getTransactionDate().isBefore(cursorDate)) {
+				cursorDate = position.getTransactionDate();
+				cursorId = position.getTransactionId();
+			}
+		}
 
-			sendNotification(targetAccount.getUserId(), "Fund Received Alert",
-					"You have received " + request.getAmount() + " in your account " + targetAccount.getAccountNumber()
-							+ " from " + sourceAccount.getAccountNumber() + ". Transaction ID: "
-							+ transaction.getTransactionId(),
-					NotificationRequestDto.NotificationType.EMAIL);
+		Limit sideLimit = Limit.of(limit + 1);
+		List<Transaction> merged = new ArrayList<>(
+				transactionRepository.findOutgoingPage(accountId, fromDate, cursorDate, cursorId, type, status, sideLimit));
+		merged.addAll(
+				transactionRepository.findIncomingPage(accountId, fromDate, cursorDate, cursorId, type, status, sideLimit));
+		merged.sort(HISTORY_ORDER);
+
+		boolean hasMore = merged.size() > limit;
+		List<Transaction> page = hasMore ? List.copyOf(merged.subList(0, limit)) : merged;
+		String nextCursor = hasMore ? encodeCursor(page.get(page.size() - 1)) : null;
+		return new TransactionPageResponse(page, nextCursor, hasMore);
+	}
 
-		} catch (HttpClientErrorException e) {
-			transaction.setStatus(TransactionStatus.FAILED);
-			transactionRepository.save(transaction);
-			throw new TransactionProcessingException(
-					"Transfer failed due to Account Service error: " + e.getResponseBodyAsString(), e);
-		} catch (AccountNotFoundException | InsufficientFundsException | InvalidTransactionException e) {
-			transaction.setStatus(TransactionStatus.FAILED);
-			transactionRepository.save(transaction);
-			throw e;
-		} catch (Exception e) {
-			transaction.setStatus(TransactionStatus.FAILED);
-			transactionRepository.save(transaction);
-			throw new TransactionProcessingException("Transfer failed unexpectedly: " + e.getMessage(), e);
+	/**
+	 * Rejects zero and negative amounts before any transaction is recorded.
+	 */
+	private void requirePositiveAmount(Money amount, String operation) {
+		if (!amount.isPositive()) {
+			throw new InvalidTransactionException(operation + " amount must be positive.");
 		}
-		return transaction;
 	}
 
-	public Optional<Transaction> getTransactionById(String transactionId) {
-		return transactionRepository.findById(transactionId);
+	/**
+	 * The cursor is the (transactionDate, transactionId) of the last row of a page, URL-safe Base64 encoded.
+	 */
+	private String encodeCursor(Transaction last) {
+		String position = last.getTransactionDate() + "|" + last.getTransactionId();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
 	}
 
-	public List<Transaction> getTransactionsByAccountId(String accountId) {
-		return transactionRepository.findByFromAccountIdOrToAccountId(accountId, accountId);
+	private Transaction decodeCursor(String cursor) {
+		try {
+			String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int separator = position.indexOf('|');
+			if (separator <= 0 || separator == position.length() - 1) {
+				throw new InvalidTransactionException("Invalid history cursor.");
+			}
+			Transaction last = new Transaction();
+			last.setTransactionDate(LocalDateTime.parse(position.substring(0, separator)));
+			last.setTransactionId(position.substring(separator + 1));
+			return last;
+		} catch (IllegalArgumentException | DateTimeParseException e) {
+			throw new InvalidTransactionException("Invalid history cursor.");
+		}
 	}
 
+	/**
+	 * Queues a notification in the outbox as part of the current database transaction.
+	 * The NotificationOutboxDispatcher delivers it after commit, batched with any other
+	 * notifications of the same transaction, so this never waits on the Notification Service.
+	 */
 	private void sendNotification(String userId, String subject, String message,
 			NotificationRequestDto.NotificationType type) {
 		try {
-			NotificationRequestDto notificationRequest = new NotificationRequestDto(userId, type,
-					subject + ": " + message);
-			if (type == NotificationRequestDto.NotificationType.EMAIL) {
-				notificationServiceClient.sendEmailNotification(notificationRequest);
-			} else if (type == NotificationRequestDto.NotificationType.SMS) {
-				notificationServiceClient.sendSmsNotification(notificationRequest);
-			}
+			notificationOutboxDispatcher.enqueue(userId, type, subject + ": " + message);
 		} catch (Exception e) {
-			System.err.println("Failed to send notification for user " + userId + ": " + e.getMessage());
+			System.err.println("Failed to queue notification for user " + userId + ": " + e.getMessage());
 		}
 	}
 }
@@ -0,0 +1,532 @@
+package com.transaction.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.transaction.dao.TransactionRepository;
+import com.transaction.dao.TransferSagaRepository;
+import com.transaction.dto.AccountDto;
+import com.transaction.dto.DepositRequestDto;
+import com.transaction.dto.NotificationRequestDto;
+import com.transaction.dto.TransferRequest;
+import com.transaction.dto.WithdrawRequestDto;
+import com.transaction.exceptions.InsufficientFundsException;
+import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.model.Transaction;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
+import com.transaction.model.TransferSaga;
+import com.transaction.model.TransferSagaState;
+import com.transaction.proxyService.AccountServiceClient;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs transfers as a persisted saga instead of two Feign calls inside one long database transaction.
+ * POST /transactions/transfer only records the transfer (Transaction PENDING + TransferSaga PENDING) and
+ * returns; a background worker pool then drives each saga:
+ * <ol>
+ *   <li>PENDING: check both accounts, debit the source. A rejected debit (insufficient funds, unknown account) ends in FAILED.
+ *       The accounts are only checked before the withdrawal is first sent: once it may have been applied, the withdrawal
+ *       is simply sent again, and an unknown target is then handled by the credit step (compensation).</li>
+ *   <li>DEBITED: credit the target. Done: CREDITED and the Transaction is SUCCESS. A rejected credit (e.g. target closed)
+ *       moves to COMPENSATING.</li>
+ *   <li>COMPENSATING: credit the amount back to the source, then REVERSED and the Transaction is FAILED.</li>
+ * </ol>
+ * Each step is committed in its own short transaction. No database transaction is held while waiting on the Account Service.
+ * Every Account Service call carries the saga ID as its transactionId, and the Account Service applies each
+ * (operation, account, transactionId) posting at most once. Repeating a step after a crash, a timeout or a lost response
+ * is therefore safe. Only a definite rejection (HTTP 4xx) changes the outcome. Outages and 5xx are retried with
+ * exponential backoff for as long as it takes, because compensating after an ambiguous failure could pay the
+ * transfer twice.
+ * Sagas interrupted by a restart are picked up by the periodic resume sweep once their lease has expired.
+ * The worker threads have no user request, so their Feign calls use the service's client-credentials token
+ * (see FeignClientConfiguration).
+ */
+@Service
+public class TransferSagaOrchestrator {
+
+    private static final Set<TransferSagaState> ACTIVE_STATES =
+            EnumSet.of(TransferSagaState.PENDING, TransferSagaState.DEBITED, TransferSagaState.COMPENSATING);
+
+    private final TransferSagaRepository sagaRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountServiceClient accountServiceClient;
+    private final AccountDetailsCache accountDetailsCache;
+    private final NotificationOutboxDispatcher notificationOutboxDispatcher;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor sagaExecutor; // Background workers driving the sagas
+    private final Executor accountLookupExecutor; // Runs the source and target account lookups concurrently
+    private final MeterRegistry meterRegistry; // Records per-leg latency of transfers
+    private final String instanceId = "transaction-service-" + UUID.randomUUID(); // Lease owner name of this instance
+    private final Duration lease;
+    private final int batchSize;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    @Autowired
+    public TransferSagaOrchestrator(TransferSagaRepository sagaRepository, TransactionRepository transactionRepository,
+            AccountServiceClient accountServiceClient, AccountDetailsCache accountDetailsCache,
+            NotificationOutboxDispatcher notificationOutboxDispatcher, TransactionTemplate transactionTemplate,
+            @Qualifier("transferSagaExecutor") Executor sagaExecutor,
+            @Qualifier("accountLookupExecutor") Executor accountLookupExecutor, MeterRegistry meterRegistry,
+            @Value("${transaction.transfer-saga.lease:PT1M}") Duration lease,
+            @Value("${transaction.transfer-saga.batch-size:50}") int batchSize,
+            @Value("${transaction.transfer-saga.initial-backoff:PT1S}") Duration initialBackoff,
+            @Value("${transaction.transfer-saga.max-backoff:PT5M}") Duration maxBackoff) {
+        this.sagaRepository = sagaRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountServiceClient = accountServiceClient;
+        this.accountDetailsCache = accountDetailsCache;
+        this.notificationOutboxDispatcher = notificationOutboxDispatcher;
+        this.transactionTemplate = transactionTemplate;
+        this.sagaExecutor = sagaExecutor;
+        this.accountLookupExecutor = accountLookupExecutor;
+        this.meterRegistry = meterRegistry;
+        this.lease = lease;
+        this.batchSize = batchSize;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Records a transfer and hands it to the worker pool once the records are committed.
+     * @param request The transfer request.
+     * @return The Transaction, still PENDING. Its status becomes SUCCESS or FAILED when the saga finishes.
+     * @throws InvalidTransactionException if the amount is not positive or both accounts are the same.
+     */
+    @Transactional
+    public Transaction start(TransferRequest request) {
+        if (!request.getAmount().isPositive()) {
+            throw new InvalidTransactionException("Transfer amount must be positive.");
+        }
+        if (request.getFromAccountId().equals(request.getToAccountId())) {
+            throw new InvalidTransactionException("Cannot transfer funds to the same account.");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Transaction transaction = new Transaction();
+        transaction.setFromAccountId(request.getFromAccountId());
+        transaction.setToAccountId(request.getToAccountId());
+        transaction.setAmount(request.getAmount());
+        transaction.setType(TransactionType.TRANSFER);
+        transaction.setStatus(TransactionStatus.PENDING);
+        transaction.setTransactionDate(now);
+        transaction = transactionRepository.save(transaction);
+
+        TransferSaga saga = new TransferSaga();
+        saga.setSagaId(transaction.getTransactionId());
+        saga.setFromAccountId(request.getFromAccountId());
+        saga.setToAccountId(request.getToAccountId());
+        saga.setAmount(request.getAmount());
+        saga.setState(TransferSagaState.PENDING);
+        saga.setNextAttemptAt(now);
+        // Leased to this instance from the start, so the resume sweep of another instance doesn't race the worker
+        saga.setLeaseOwner(instanceId);
+        saga.setLeaseExpiresAt(now.plus(lease));
+        saga.setCreatedAt(now);
+        saga.setUpdatedAt(now);
+        sagaRepository.save(saga);
+
+        String sagaId = saga.getSagaId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(sagaId);
+            }
+        });
+        return transaction;
+    }
+
+    /**
+     * Records a saga for each transfer of a bulk transfer chunk, in the caller's database transaction (the one that
+     * records the PENDING transactions), before the chunk is sent to POST /accounts/batch. The sagas are leased to
+     * this instance and not driven: the chunk settles them with {@link #finishBatched}, or hands them over with
+     * {@link #releaseBatched} when its outcome is unknown. If this instance dies in between, the resume sweep takes
+     * them over once the lease has expired. The sagas use the transactions' IDs, so a posting the batch did apply is
+     * recognised by the Account Service and not repeated, and they count as debit sent, so they never end in FAILED
+     * on an account check alone.
+     * @param transactions The PENDING TRANSFER transactions of the chunk.
+     */
+    @Transactional
+    public void recordBatched(List<Transaction> transactions) {
+        LocalDateTime now = LocalDateTime.now();
+        List<TransferSaga> sagas = transactions.stream().map(transaction -> {
+            TransferSaga saga = new TransferSaga();
+            saga.setSagaId(transaction.getTransactionId());
+            saga.setFromAccountId(transaction.getFromAccountId());
+            saga.setToAccountId(transaction.getToAccountId());
+            saga.setAmount(transaction.getAmount());
+            saga.setState(TransferSagaState.PENDING);
+            saga.setDebitSentAt(now); // The batch may apply the withdrawal
+            saga.setNextAttemptAt(now);
+            saga.setLeaseOwner(instanceId);
+            saga.setLeaseExpiresAt(now.plus(lease));
+            saga.setCreatedAt(now);
+            saga.setUpdatedAt(now);
+            return saga;
+        }).toList();
+        sagaRepository.saveAll(sagas);
+    }
+
+    /**
+     * Closes the sagas of transfers the Account Service applied (CREDITED) or rejected (FAILED) in a batch.
+     * Meant to run in the same database transaction as the transactions' status update.
+     * @param sagaIds The saga (transaction) IDs.
+     * @param state CREDITED or FAILED.
+     */
+    @Transactional
+    public void finishBatched(List<String> sagaIds, TransferSagaState state) {
+        if (!sagaIds.isEmpty()) {
+            sagaRepository.finishLeased(sagaIds, state, instanceId, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Hands the sagas of a batch whose outcome is unknown to the resume sweep once the initial backoff has elapsed,
+     * e.g. after a POST /accounts/batch call that failed after it may have reached the Account Service.
+     * @param sagaIds The saga (transaction) IDs.
+     */
+    @Transactional
+    public void releaseBatched(List<String> sagaIds) {
+        LocalDateTime now = LocalDateTime.now();
+        sagaRepository.releaseLeased(sagaIds, instanceId, now.plus(initialBackoff), now);
+    }
+
+    /**
+     * Periodic sweep: claims sagas that are due (retry backoff elapsed, or left behind by a crashed or restarted
+     * instance) and hands them to the worker pool.
+     */
+    @Scheduled(fixedDelayString = "${transaction.transfer-saga.poll-interval:PT5S}")
+    public void resumeDueSagas() {
+        try {
+            List<String> claimed = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<TransferSaga> due = sagaRepository.findDueForClaim(ACTIVE_STATES, now, PageRequest.of(0, batchSize));
+                due.forEach(saga -> {
+                    saga.setLeaseOwner(instanceId);
+                    saga.setLeaseExpiresAt(now.plus(lease));
+                });
+                sagaRepository.saveAll(due);
+                return due.stream().map(TransferSaga::getSagaId).toList();
+            });
+            claimed.forEach(this::submit);
+        } catch (Exception e) {
+            System.err.println("Transfer saga resume sweep failed: " + e.getMessage());
+        }
+    }
+
+    private void submit(String sagaId) {
+        try {
+            sagaExecutor.execute(() -> run(sagaId));
+        } catch (RejectedExecutionException e) {
+            // Workers saturated: the lease expires and the resume sweep picks the saga up later
+            System.err.println("Transfer saga " + sagaId + " queued for the resume sweep: worker pool is full.");
+        }
+    }
+
+    /**
+     * Drives one saga through as many steps as it can take now. Stops when the saga is finished, is waiting
+     * for a retry, or is no longer leased to this instance.
+     */
+    void run(String sagaId) {
+        try {
+            TransferSaga saga = loadOwned(sagaId);
+            while (saga != null && !saga.getState().isTerminal()) {
+                saga = switch (saga.getState()) {
+                    case PENDING -> debit(saga);
+                    case DEBITED -> credit(saga);
+                    case COMPENSATING -> compensate(saga);
+                    default -> null;
+                };
+            }
+        } catch (ObjectOptimisticLockingFailureException e) {
+            System.err.println("Transfer saga " + sagaId + " was taken over by another instance.");
+        } catch (Exception e) {
+            // Not recorded: the lease expires and the resume sweep retries the step
+            System.err.println("Transfer saga " + sagaId + " stopped unexpectedly: " + e.getMessage());
+        }
+    }
+
+    private TransferSaga debit(TransferSaga saga) {
+        try {
+            if (saga.getDebitSentAt() == null) {
+                // Both accounts must exist before any money moves, so an unknown target never needs compensation.
+                // The two lookups are independent, so they run concurrently and cost one round trip instead of two.
+                CompletableFuture<AccountDto> sourceLookup = lookupAccountAsync(saga.getFromAccountId(), "source-lookup");
+                CompletableFuture<AccountDto> targetLookup = lookupAccountAsync(saga.getToAccountId(), "target-lookup");
+                AccountDto sourceAccount = awaitLookup(sourceLookup);
+                AccountDto targetAccount = awaitLookup(targetLookup);
+                if (sourceAccount == null || targetAccount == null) {
+                    String missing = sourceAccount == null ? "Source account not found with ID: " + saga.getFromAccountId()
+                            : "Target account not found with ID: " + saga.getToAccountId();
+                    return finish(saga, TransferSagaState.FAILED, missing);
+                }
+                saga = markDebitSent(saga);
+            }
+            // From here on the withdrawal may have been applied (crash, timeout or lost response), so a retry only
+            // sends it again: the Account Service recognises the saga ID and answers as before, and a rejection
+            // means it was not applied. A target that has gone meanwhile is refunded by the compensation step.
+            WithdrawRequestDto withdrawRequestDto = new WithdrawRequestDto(saga.getSagaId(), saga.getAmount());
+            String sourceAccountId = saga.getFromAccountId();
+            timeLeg("withdraw", () -> accountServiceClient.withdrawFunds(sourceAccountId, withdrawRequestDto));
+        } catch (InsufficientFundsException e) {
+            return finish(saga, TransferSagaState.FAILED, e.getMessage());
+        } catch (Exception e) {
+            return isRejected(e) ? finish(saga, TransferSagaState.FAILED, describe(e)) : retryLater(saga, e);
+        }
+        return advance(saga, TransferSagaState.DEBITED);
+    }
+
+    private TransferSaga credit(TransferSaga saga) {
+        try {
+            DepositRequestDto depositRequestDto = new DepositRequestDto(saga.getSagaId(), saga.getAmount());
+            timeLeg("deposit", () -> accountServiceClient.depositFunds(saga.getToAccountId(), depositRequestDto));
+        } catch (Exception e) {
+            if (!isRejected(e)) {
+                return retryLater(saga, e);
+            }
+            System.err.println("Transfer saga " + saga.getSagaId() + ": credit rejected, compensating. " + describe(e));
+            saga.setLastError(truncate(describe(e)));
+            return advance(saga, TransferSagaState.COMPENSATING);
+        }
+        return finish(saga, TransferSagaState.CREDITED, null);
+    }
+
+    private TransferSaga compensate(TransferSaga saga) {
+        try {
+            // A deposit to the source under the saga's ID: a different posting from the withdrawal, applied at most once
+            DepositRequestDto refund = new DepositRequestDto(saga.getSagaId(), saga.getAmount());
+            timeLeg("compensate", () -> accountServiceClient.depositFunds(saga.getFromAccountId(), refund));
+        } catch (Exception e) {
+            // The money has left the source: keep trying until it is back, whatever the error
+            return retryLater(saga, e);
+        }
+        return finish(saga, TransferSagaState.REVERSED, saga.getLastError());
+    }
+
+    /**
+     * Commits that the withdrawal is about to be sent, before it is, so no later attempt relies on the account checks.
+     */
+    private TransferSaga markDebitSent(TransferSaga saga) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            saga.setDebitSentAt(now);
+            saga.setUpdatedAt(now);
+            saga.setLeaseExpiresAt(now.plus(lease));
+            return sagaRepository.save(saga);
+        });
+    }
+
+    /**
+     * Commits a step and keeps the lease for the next one.
+     */
+    private TransferSaga advance(TransferSaga saga, TransferSagaState state) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            saga.setState(state);
+            saga.setAttempts(0);
+            saga.setUpdatedAt(now);
+            saga.setLeaseExpiresAt(now.plus(lease));
+            return sagaRepository.save(saga);
+        });
+    }
+
+    /**
+     * Commits a terminal state together with the Transaction's final status and its notifications.
+     * The account details for the notifications are looked up first, so the database transaction never
+     * waits on an Account Service call.
+     */
+    private TransferSaga finish(TransferSaga saga, TransferSagaState state, String error) {
+        Parties parties = state == TransferSagaState.FAILED ? null : lookupParties(saga); // No money moved if FAILED
+        return transactionTemplate.execute(status -> {
+            saga.setState(state);
+            saga.setLastError(truncate(error));
+            saga.setUpdatedAt(LocalDateTime.now());
+            saga.setLeaseOwner(null);
+            saga.setLeaseExpiresAt(null);
+            TransferSaga saved = sagaRepository.save(saga);
+
+            transactionRepository.findById(saga.getSagaId()).ifPresent(transaction -> {
+                transaction.setStatus(state == TransferSagaState.CREDITED ? TransactionStatus.SUCCESS : TransactionStatus.FAILED);
+                transactionRepository.save(transaction);
+            });
+            if (parties != null) {
+                queueNotifications(saved, parties);
+            }
+            System.out.println("Transfer saga " + saga.getSagaId() + " finished: " + state
+                    + (error == null ? "" : " (" + error + ")"));
+            return saved;
+        });
+    }
+
+    /**
+     * Releases the saga until its backoff has elapsed; the resume sweep picks it up again.
+     * @return null, so the worker stops driving this saga for now.
+     */
+    private TransferSaga retryLater(TransferSaga saga, Exception e) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            saga.setAttempts(saga.getAttempts() + 1);
+            saga.setLastError(truncate(describe(e)));
+            saga.setNextAttemptAt(now.plus(backoff(saga.getAttempts())));
+            saga.setUpdatedAt(now);
+            saga.setLeaseOwner(null);
+            saga.setLeaseExpiresAt(null);
+            sagaRepository.save(saga);
+        });
+        System.err.println("Transfer saga " + saga.getSagaId() + " (" + saga.getState() + ") will be retried, attempt "
+                + saga.getAttempts() + ": " + saga.getLastError());
+        return null;
+    }
+
+    /**
+     * Reloads the saga, or returns null if this instance no longer holds a live lease on it.
+     */
+    private TransferSaga loadOwned(String sagaId) {
+        return sagaRepository.findById(sagaId)
+                .filter(saga -> instanceId.equals(saga.getLeaseOwner()))
+                .filter(saga -> saga.getLeaseExpiresAt() != null && saga.getLeaseExpiresAt().isAfter(LocalDateTime.now()))
+                .orElse(null);
+    }
+
+    private Duration backoff(int attempts) {
+        // initialBackoff * 2^(attempts - 1), capped at maxBackoff
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    /**
+     * True if the Account Service definitely refused the call (HTTP 4xx other than auth and throttling problems),
+     * as opposed to an outage, a timeout or a 5xx, after which the call may or may not have been applied.
+     */
+    private static boolean isRejected(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof FeignException feignException) {
+                int status = feignException.status();
+                return status >= 400 && status < 500 && status != 401 && status != 403 && status != 408 && status != 429;
+            }
+        }
+        return false;
+    }
+
+    private static String describe(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof FeignException feignException && feignException.status() > 0) {
+                return "Account Service returned " + feignException.status() + ": " + feignException.contentUTF8();
+            }
+        }
+        return e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= 500 ? error : error.substring(0, 500);
+    }
+
+    /**
+     * Loads the source and target account details for the outcome notifications, outside any database transaction.
+     * Goes through the AccountDetailsCache; returns null (the notifications are skipped) if they can't be loaded.
+     */
+    private Parties lookupParties(TransferSaga saga) {
+        try {
+            AccountDto sourceAccount = accountDetailsCache.getAccount(saga.getFromAccountId());
+            AccountDto targetAccount = accountDetailsCache.getAccount(saga.getToAccountId());
+            return sourceAccount == null || targetAccount == null ? null : new Parties(sourceAccount, targetAccount);
+        } catch (Exception e) {
+            System.err.println("Failed to load account details for the notifications of transfer " + saga.getSagaId()
+                    + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Queues the outcome notifications in the same database transaction as the final state.
+     */
+    private void queueNotifications(TransferSaga saga, Parties parties) {
+        AccountDto sourceAccount = parties.source();
+        AccountDto targetAccount = parties.target();
+        if (saga.getState() == TransferSagaState.REVERSED) {
+            notificationOutboxDispatcher.enqueue(sourceAccount.getUserId(), NotificationRequestDto.NotificationType.EMAIL,
+                    "Fund Transfer Reversed: Your transfer of " + saga.getAmount() + " to " + targetAccount.getAccountNumber()
+                            + " could not be completed and the amount has been returned to your account "
+                            + sourceAccount.getAccountNumber() + ". Transaction ID: " + saga.getSagaId());
+            return;
+        }
+        notificationOutboxDispatcher.enqueue(sourceAccount.getUserId(), NotificationRequestDto.NotificationType.EMAIL,
+                "Fund Transfer Alert: A transfer of " + saga.getAmount() + " has been made from your account "
+                        + sourceAccount.getAccountNumber() + " to " + targetAccount.getAccountNumber()
+                        + ". Transaction ID: " + saga.getSagaId());
+        notificationOutboxDispatcher.enqueue(targetAccount.getUserId(), NotificationRequestDto.NotificationType.EMAIL,
+                "Fund Received Alert: You have received " + saga.getAmount() + " in your account "
+                        + targetAccount.getAccountNumber() + " from " + sourceAccount.getAccountNumber()
+                        + ". Transaction ID: " + saga.getSagaId());
+    }
+
+    /**
+     * Looks up an account on the dedicated lookup executor.
+     * Goes through the AccountDetailsCache, so only a cache miss costs an Account Service call.
+     */
+    private CompletableFuture<AccountDto> lookupAccountAsync(String accountId, String leg) {
+        return CompletableFuture.supplyAsync(() -> timeLeg(leg, () -> accountDetailsCache.getAccount(accountId)),
+                accountLookupExecutor);
+    }
+
+    /**
+     * Waits for an asynchronous lookup and rethrows its original exception.
+     */
+    private AccountDto awaitLookup(CompletableFuture<AccountDto> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs one leg of a transfer and records its latency in the "transaction.transfer.leg" timer.
+     */
+    private <T> T timeLeg(String leg, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("transaction.transfer.leg")
+                    .description("Latency of each Account Service call made by a transfer")
+                    .tag("leg", leg)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private record Parties(AccountDto source, AccountDto target) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.transaction.config;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.exactly;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.transaction.proxyService.AccountServiceClient;
+
+/**
+ * Checks that Account Service lookups run on accountLookupExecutor forward the caller's JWT from the worker thread,
+ * and that the worker does not keep it for the next task, which falls back to the service's own token.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:lookup;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "eureka.client.enabled=false",
+        "spring.cloud.discovery.client.simple.instances.account-service[0].uri=http://localhost:${wiremock.server.port}",
+        "spring.security.oauth2.client.provider.keycloak.token-uri=http://localhost:${wiremock.server.port}/token",
+        "transaction.account-lookup.core-pool-size=1", // One worker, so the second task reuses the first one's thread
+        "transaction.account-lookup.max-pool-size=1",
+        "transaction.account-cache.eviction-listener-enabled=false",
+        "transaction.transfer-saga.poll-interval=PT1H",
+        "management.tracing.enabled=false",
+        "logging.level.root=WARN"
+})
+@AutoConfigureWireMock(port = 0)
+class AccountLookupExecutorTest {
+
+    @Autowired
+    private AccountServiceClient accountServiceClient;
+
+    @Autowired
+    @Qualifier("accountLookupExecutor")
+    private Executor accountLookupExecutor;
+
+    private String accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountId = "acc-" + UUID.randomUUID();
+        stubFor(post(urlEqualTo("/token")).willReturn(okJson(
+                "{\"access_token\":\"service-token\",\"token_type\":\"Bearer\",\"expires_in\":300}")));
+        stubFor(get(urlEqualTo("/accounts/" + accountId)).willReturn(okJson(
+                "{\"accountId\":\"" + accountId + "\",\"userId\":\"user-1\",\"accountNumber\":\"1001\","
+                        + "\"accountType\":\"SAVINGS\",\"status\":\"ACTIVE\",\"createdAt\":\"2024-01-01T10:00:00\"}")));
+    }
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void callersJwtIsForwardedFromTheWorkerThreadAndNotKept() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer user-jwt");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        String worker = CompletableFuture.supplyAsync(() -> {
+            accountServiceClient.getAccountById(accountId);
+            return Thread.currentThread().getName();
+        }, accountLookupExecutor).join();
+
+        assertTrue(worker.startsWith("account-lookup-"), "Lookup ran on " + worker);
+        verify(exactly(1), getRequestedFor(urlEqualTo("/accounts/" + accountId))
+                .withHeader("Authorization", equalTo("Bearer user-jwt")));
+
+        // A task submitted outside of any request (e.g. by a saga worker) runs on the same thread without the JWT
+        RequestContextHolder.resetRequestAttributes();
+        Object leftOver = CompletableFuture.supplyAsync(() -> {
+            accountServiceClient.getAccountById(accountId);
+            return RequestContextHolder.getRequestAttributes();
+        }, accountLookupExecutor).join();
+
+        assertNull(leftOver);
+        verify(exactly(1), getRequestedFor(urlEqualTo("/accounts/" + accountId))
+                .withHeader("Authorization", equalTo("Bearer service-token")));
+    }
+}
@@ -0,0 +1,29 @@
+package com.transaction.controller;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks how the statement export reads Accept-Encoding q-values.
+ */
+class TransactionControllerTest {
+
+    @Test
+    void gzipIsUsedOnlyWhenAcceptedWithANonZeroWeight() {
+        assertTrue(TransactionController.acceptsGzip("gzip"));
+        assertTrue(TransactionController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(TransactionController.acceptsGzip("br;q=1.0, *;q=0.1"));
+        assertTrue(TransactionController.acceptsGzip("x-gzip"));
+
+        assertFalse(TransactionController.acceptsGzip(null));
+        assertFalse(TransactionController.acceptsGzip("identity"));
+        assertFalse(TransactionController.acceptsGzip("gzip;q=0"));
+        assertFalse(TransactionController.acceptsGzip("gzip; q=0.000, deflate"));
+        assertFalse(TransactionController.acceptsGzip("*, gzip;q=0")); // Explicitly refused despite the wildcard
+        assertFalse(TransactionController.acceptsGzip("*;q=0"));
+        assertFalse(TransactionController.acceptsGzip("gzip;q=abc"));
+        assertFalse(TransactionController.acceptsGzip("gzipped"));
+    }
+}
@@ -0,0 +1,125 @@
+package com.transaction.proxyService;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.exactly;
+import static com.github.tomakehurst.wiremock.client.WireMock.findAll;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.transaction.dto.BatchPostingRequestDto;
+import com.transaction.dto.WithdrawRequestDto;
+import com.transaction.exceptions.InsufficientFundsException;
+import com.transaction.exceptions.TransactionProcessingException;
+import com.transaction.model.Money;
+
+/**
+ * Checks, against a WireMock stand-in for the Account Service, that Feign timeouts and 503s are retried by
+ * Resilience4j before the fallback runs, that a 422 is reported as insufficient funds without a retry,
+ * and that batch postings are not held to the per-call read timeout.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:retry;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "eureka.client.enabled=false",
+        "spring.cloud.discovery.client.simple.instances.account-service[0].uri=http://localhost:${wiremock.server.port}",
+        "spring.security.oauth2.client.provider.keycloak.token-uri=http://localhost:${wiremock.server.port}/token",
+        "spring.cloud.openfeign.client.config.default.read-timeout=300",
+        "spring.cloud.openfeign.client.config.account-service-batch.read-timeout=2000",
+        "resilience4j.retry.configs.default.wait-duration=10ms",
+        "transaction.account-cache.eviction-listener-enabled=false",
+        "transaction.transfer-saga.poll-interval=PT1H",
+        "management.tracing.enabled=false",
+        "logging.level.root=WARN"
+})
+@AutoConfigureWireMock(port = 0)
+class AccountServiceClientRetryTest {
+
+    @Autowired
+    private AccountServiceClient accountServiceClient;
+
+    @Autowired
+    private AccountBatchClient accountBatchClient;
+
+    private String accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountId = "acc-" + UUID.randomUUID();
+        stubFor(post(urlEqualTo("/token")).willReturn(okJson(
+                "{\"access_token\":\"service-token\",\"token_type\":\"Bearer\",\"expires_in\":300}")));
+    }
+
+    @Test
+    void readTimeoutsAreRetriedBeforeTheFallback() {
+        stubFor(get(urlEqualTo("/accounts/" + accountId)).willReturn(okJson(account(accountId)).withFixedDelay(1000)));
+
+        assertThrows(TransactionProcessingException.class, () -> accountServiceClient.getAccountById(accountId));
+        awaitRequests(3); // WireMock logs a delayed request once it has answered it
+        verify(exactly(3), getRequestedFor(urlEqualTo("/accounts/" + accountId)));
+    }
+
+    @Test
+    void serviceUnavailableIsRetried() {
+        stubFor(get(urlEqualTo("/accounts/" + accountId)).inScenario("restart")
+                .whenScenarioStateIs(Scenario.STARTED).willReturn(aResponse().withStatus(503))
+                .willSetStateTo("up"));
+        stubFor(get(urlEqualTo("/accounts/" + accountId)).inScenario("restart")
+                .whenScenarioStateIs("up").willReturn(okJson(account(accountId))));
+
+        assertEquals(accountId, accountServiceClient.getAccountById(accountId).getAccountId());
+        verify(exactly(2), getRequestedFor(urlEqualTo("/accounts/" + accountId)));
+    }
+
+    @Test
+    void insufficientFundsIsRecognisedByStatusAndNotRetried() {
+        stubFor(post(urlEqualTo("/accounts/" + accountId + "/withdraw")).willReturn(aResponse().withStatus(422)
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"status\":422,\"message\":\"Balance too low\"}")));
+
+        assertThrows(InsufficientFundsException.class,
+                () -> accountServiceClient.withdrawFunds(accountId, new WithdrawRequestDto("tx-1", Money.of(10.0))));
+        verify(exactly(1), postRequestedFor(urlEqualTo("/accounts/" + accountId + "/withdraw")));
+    }
+
+    @Test
+    void batchPostingsHaveTheirOwnReadTimeout() {
+        stubFor(post(urlEqualTo("/accounts/batch")).willReturn(okJson("[]").withFixedDelay(600)));
+
+        assertEquals(List.of(), accountBatchClient.applyBatch(new BatchPostingRequestDto(List.of())));
+    }
+
+    private void awaitRequests(int count) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (findAll(getRequestedFor(urlEqualTo("/accounts/" + accountId))).size() < count
+                && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static String account(String accountId) {
+        return "{\"accountId\":\"" + accountId + "\",\"userId\":\"user-1\",\"accountNumber\":\"1001\","
+                + "\"accountType\":\"SAVINGS\",\"status\":\"ACTIVE\",\"createdAt\":\"2024-01-01T10:00:00\"}";
+    }
+}
@@ -0,0 +1,163 @@
+package com.transaction.proxyService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.transaction.dto.AccountDto;
+
+import feign.Client;
+import feign.Feign;
+import feign.Request;
+import feign.Retryer;
+import feign.hc5.ApacheHttp5Client;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Throughput of AccountServiceClient.getAccountById from 16 concurrent callers (like the account lookup executor)
+ * against a local stub of the Account Service on embedded Tomcat, per Feign transport:
+ * HttpURLConnection: Feign's default client, which keeps at most 5 idle connections per host (http.maxConnections),
+ * so most calls under this concurrency open and close a connection of their own.
+ * ApacheHttp5: the pooled Apache HttpClient 5 configured in application.yaml (200 connections, 64 per route, LIFO).
+ * Prints the calls and connections the stub saw: the pool should need no more connections than callers.
+ * Not run by the test suite; run main() from the IDE, or build the test classpath and invoke it directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 5) // Client and stub share the JVM; both need to be compiled
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(16)
+public class AccountServiceClientThroughputBenchmark {
+
+    @Param({ "HttpURLConnection", "ApacheHttp5" })
+    public String client;
+
+    private Tomcat accountService;
+    private final LongAdder requests = new LongAdder();
+    private final Set<Integer> connections = ConcurrentHashMap.newKeySet(); // By client port
+    private CloseableHttpClient httpClient;
+    private AccountServiceClient accountServiceClient;
+
+    @Setup
+    public void setUp() throws IOException, LifecycleException {
+        // The Account Service runs on Tomcat, configured as in its application.yaml
+        accountService = new Tomcat();
+        accountService.setBaseDir(Files.createTempDirectory("account-service").toString());
+        accountService.setPort(0);
+        Context context = accountService.addContext("", null);
+        Tomcat.addServlet(context, "accounts", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                requests.increment();
+                connections.add(request.getRemotePort());
+                String path = request.getRequestURI();
+                String accountId = path.substring(path.lastIndexOf('/') + 1);
+                byte[] body = ("{\"accountId\":\"" + accountId + "\",\"userId\":\"u1\",\"accountNumber\":\"ACC" + accountId
+                        + "\",\"accountType\":\"SAVINGS\",\"status\":\"ACTIVE\",\"createdAt\":\"2024-01-01T10:00:00\"}")
+                        .getBytes(StandardCharsets.UTF_8);
+                response.setContentType("application/json");
+                response.setContentLength(body.length);
+                response.getOutputStream().write(body);
+            }
+        });
+        context.addServletMappingDecoded("/accounts/*", "accounts");
+        accountService.getConnector().setProperty("maxKeepAliveRequests", "10000"); // server.tomcat.max-keep-alive-requests
+        accountService.start();
+        int port = accountService.getConnector().getLocalPort();
+
+        Client transport;
+        if ("ApacheHttp5".equals(client)) {
+            httpClient = HttpClients.custom()
+                    .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                            .setMaxConnTotal(200)
+                            .setMaxConnPerRoute(64)
+                            .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                            .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                            .build())
+                    .evictExpiredConnections()
+                    .evictIdleConnections(TimeValue.ofSeconds(15))
+                    .build();
+            transport = new ApacheHttp5Client(httpClient);
+        } else {
+            transport = new Client.Default(null, null);
+        }
+
+        HttpMessageConverters messageConverters = new HttpMessageConverters(false,
+                List.of(new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build())));
+        ObjectFactory<HttpMessageConverters> converters = () -> messageConverters;
+        accountServiceClient = Feign.builder()
+                .client(transport)
+                .contract(new SpringMvcContract())
+                .encoder(new SpringEncoder(converters))
+                .decoder(new ResponseEntityDecoder(new SpringDecoder(converters)))
+                .options(new Request.Options(1, TimeUnit.SECONDS, 3, TimeUnit.SECONDS, true))
+                .retryer(Retryer.NEVER_RETRY) // As in Spring Cloud OpenFeign; retries are Resilience4j's job
+                .target(AccountServiceClient.class, "http://localhost:" + port + "/accounts");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, LifecycleException {
+        System.out.println(client + ": " + requests.sum() + " calls over " + connections.size() + " connections");
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        accountService.stop();
+        accountService.destroy();
+    }
+
+    @Benchmark
+    public AccountDto getAccountById() {
+        return accountServiceClient.getAccountById(String.valueOf(ThreadLocalRandom.current().nextInt(1, 10_000)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AccountServiceClientThroughputBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,79 @@
+package com.transaction.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.transaction.dto.AccountDto;
+import com.transaction.dto.AccountDto.AccountStatus;
+import com.transaction.dto.AccountDto.AccountType;
+import com.transaction.model.Money;
+import com.transaction.proxyService.AccountServiceClient;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Checks that account details are served from the cache without their balance, evicted on a status event,
+ * and that hits and misses are published as the cache.gets metric.
+ */
+class AccountDetailsCacheTest {
+
+    private final AccountServiceClient accountServiceClient = mock(AccountServiceClient.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AccountDetailsCache cache = new AccountDetailsCache(accountServiceClient, meterRegistry,
+            100, Duration.ofMinutes(5));
+
+    @Test
+    void repeatedLookupsAreServedFromTheCacheWithoutBalance() {
+        when(accountServiceClient.getAccountById("acc-1")).thenReturn(account("acc-1", AccountStatus.ACTIVE));
+
+        assertEquals(AccountStatus.ACTIVE, cache.getAccount("acc-1").getStatus());
+        assertNull(cache.getAccount("acc-1").getBalance());
+        assertNull(cache.getAccount("acc-1").getBalance());
+
+        verify(accountServiceClient, times(1)).getAccountById("acc-1");
+        assertEquals(2.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+    }
+
+    @Test
+    void statusEventEvictsTheAccount() {
+        when(accountServiceClient.getAccountById("acc-1"))
+                .thenReturn(account("acc-1", AccountStatus.ACTIVE), account("acc-1", AccountStatus.CLOSED));
+        cache.getAccount("acc-1");
+
+        cache.onAccountStatusEvent("acc-1", "{\"type\":\"STATUS_CHANGED\",\"status\":\"CLOSED\"}");
+
+        assertEquals(AccountStatus.CLOSED, cache.getAccount("acc-1").getStatus());
+        verify(accountServiceClient, times(2)).getAccountById("acc-1");
+        assertEquals(2.0, gets("miss"));
+    }
+
+    @Test
+    void unknownAccountIsNotCached() {
+        when(accountServiceClient.getAccountById("acc-new")).thenReturn(null, account("acc-new", AccountStatus.ACTIVE));
+
+        assertNull(cache.getAccount("acc-new"));
+        assertEquals("acc-new", cache.getAccount("acc-new").getAccountId()); // Created since the first call
+
+        verify(accountServiceClient, times(2)).getAccountById("acc-new");
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "account-details").tag("result", result)
+                .functionCounter().count();
+    }
+
+    private static AccountDto account(String accountId, AccountStatus status) {
+        return new AccountDto(accountId, "user-1", "1001", AccountType.SAVINGS, Money.of(250.0), status,
+                LocalDateTime.of(2024, 1, 1, 10, 0));
+    }
+}
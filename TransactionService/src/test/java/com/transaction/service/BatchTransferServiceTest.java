@@ -0,0 +1,223 @@
+package com.transaction.service;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.exactly;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction.dao.TransactionRepository;
+import com.transaction.dao.TransferSagaRepository;
+import com.transaction.dto.BatchTransferResult;
+import com.transaction.dto.TransferRequest;
+import com.transaction.model.Money;
+import com.transaction.model.Transaction;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransferSaga;
+import com.transaction.model.TransferSagaState;
+
+/**
+ * Runs bulk transfers against a WireMock stand-in for POST /accounts/batch and checks the streamed results,
+ * the recorded transaction statuses and their sagas, which recover the transfers when a chunk's outcome is unknown.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batch;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "eureka.client.enabled=false",
+        "spring.cloud.discovery.client.simple.instances.account-service[0].uri=http://localhost:${wiremock.server.port}",
+        "spring.cloud.discovery.client.simple.instances.notification-service[0].uri=http://localhost:${wiremock.server.port}",
+        "spring.security.oauth2.client.provider.keycloak.token-uri=http://localhost:${wiremock.server.port}/token",
+        "transaction.account-cache.eviction-listener-enabled=false",
+        "transaction.transfer-saga.poll-interval=PT1H", // Handed-over sagas are only checked, not driven
+        "management.tracing.enabled=false",
+        "logging.level.root=WARN"
+})
+@AutoConfigureWireMock(port = 0)
+class BatchTransferServiceTest {
+
+    @Autowired
+    private BatchTransferService batchTransferService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransferSagaRepository sagaRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String employerA;
+    private String employerB;
+
+    @BeforeEach
+    void setUp() {
+        // The sort by source account puts employerA's transfer first
+        String suffix = UUID.randomUUID().toString();
+        employerA = "a-" + suffix;
+        employerB = "b-" + suffix;
+        stubFor(post(urlEqualTo("/token")).willReturn(okJson(
+                "{\"access_token\":\"service-token\",\"token_type\":\"Bearer\",\"expires_in\":300}")));
+    }
+
+    @Test
+    void csvBatchIsAppliedInOneCallAndResultsAreStreamed() throws Exception {
+        stubFor(post(urlEqualTo("/accounts/batch")).willReturn(okJson("""
+                [{"transactionId":"{{jsonPath request.body '$.items[0].transactionId'}}","status":"APPLIED"},
+                 {"transactionId":"{{jsonPath request.body '$.items[1].transactionId'}}","status":"REJECTED",
+                  "message":"Insufficient funds in account ID: %s"}]
+                """.formatted(employerB)).withTransformers("response-template")));
+
+        String csv = "fromAccountId,toAccountId,amount\n"
+                + employerB + ",emp-2,2500.50\n"
+                + employerA + ",emp-1,1000\n"
+                + employerA + ",emp-3,-5\n";
+        List<TransferRequest> instructions = batchTransferService.parseCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        List<BatchTransferResult> results = execute(instructions);
+
+        assertEquals(3, results.size());
+        BatchTransferResult invalid = results.get(0); // Reported before any chunk runs, nothing recorded
+        assertEquals(3, invalid.getLine());
+        assertEquals(TransactionStatus.FAILED, invalid.getStatus());
+        assertNull(invalid.getTransactionId());
+
+        BatchTransferResult applied = results.get(1);
+        assertEquals(2, applied.getLine());
+        assertEquals(TransactionStatus.SUCCESS, applied.getStatus());
+        assertEquals(TransactionStatus.SUCCESS, statusOf(applied));
+
+        BatchTransferResult rejected = results.get(2);
+        assertEquals(1, rejected.getLine());
+        assertEquals(Money.of(2500.50), rejected.getAmount());
+        assertEquals(TransactionStatus.FAILED, rejected.getStatus());
+        assertEquals(TransactionStatus.FAILED, statusOf(rejected));
+        assertEquals("Insufficient funds in account ID: " + employerB, rejected.getMessage());
+        assertEquals(TransferSagaState.CREDITED, sagaOf(applied).getState()); // Closed out, nothing left to recover
+        assertEquals(TransferSagaState.FAILED, sagaOf(rejected).getState());
+        assertNull(sagaOf(applied).getLeaseOwner());
+
+        verify(exactly(1), postRequestedFor(urlEqualTo("/accounts/batch")));
+    }
+
+    @Test
+    void chunkWithUnknownOutcomeIsHandedToTransferSaga() throws Exception {
+        stubFor(post(urlEqualTo("/accounts/batch")).willReturn(aResponse().withStatus(503)));
+
+        List<BatchTransferResult> results = execute(List.of(
+                new TransferRequest(employerA, "emp-1", Money.of(10.0)),
+                new TransferRequest(employerB, "emp-2", Money.of(20.0))));
+
+        assertEquals(2, results.size());
+        assertHandedOver(results);
+    }
+
+    @Test
+    void chunkWhoseResultsDoNotMatchItsTransfersIsHandedToTransferSaga() throws Exception {
+        // One result for two transfers: matching them by position would settle the wrong transfer
+        stubFor(post(urlEqualTo("/accounts/batch")).willReturn(okJson("""
+                [{"transactionId":"{{jsonPath request.body '$.items[1].transactionId'}}","status":"APPLIED"}]
+                """).withTransformers("response-template")));
+
+        List<BatchTransferResult> results = execute(List.of(
+                new TransferRequest(employerA, "emp-1", Money.of(10.0)),
+                new TransferRequest(employerB, "emp-2", Money.of(20.0))));
+
+        assertHandedOver(results);
+    }
+
+    @Test
+    void transfersAreRecoverableWhileTheirChunkIsInFlight() throws Exception {
+        stubFor(post(urlEqualTo("/accounts/batch")).willReturn(okJson("""
+                [{"transactionId":"{{jsonPath request.body '$.items[0].transactionId'}}","status":"APPLIED"}]
+                """).withTransformers("response-template").withFixedDelay(1_000)));
+
+        CompletableFuture<List<BatchTransferResult>> running = CompletableFuture.supplyAsync(() -> {
+            try {
+                return execute(List.of(new TransferRequest(employerA, "emp-1", Money.of(10.0))));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Had this instance died now, the saga would take the transfer over once its lease expired
+        Transaction inFlight = awaitRecorded(employerA);
+        TransferSaga saga = sagaRepository.findById(inFlight.getTransactionId()).orElseThrow();
+        assertEquals(TransactionStatus.PENDING, inFlight.getStatus());
+        assertEquals(TransferSagaState.PENDING, saga.getState());
+        assertNotNull(saga.getLeaseExpiresAt());
+        assertNotNull(saga.getDebitSentAt());
+
+        BatchTransferResult result = running.get(30, TimeUnit.SECONDS).get(0);
+        assertEquals(TransactionStatus.SUCCESS, statusOf(result));
+        assertEquals(TransferSagaState.CREDITED, sagaOf(result).getState());
+    }
+
+    private void assertHandedOver(List<BatchTransferResult> results) {
+        assertEquals(2, results.size());
+        for (BatchTransferResult result : results) {
+            assertEquals(TransactionStatus.PENDING, result.getStatus());
+            assertEquals(TransactionStatus.PENDING, statusOf(result));
+            TransferSaga saga = sagaOf(result);
+            assertEquals(TransferSagaState.PENDING, saga.getState());
+            assertNull(saga.getLeaseOwner()); // Released to the resume sweep
+        }
+    }
+
+    private Transaction awaitRecorded(String fromAccountId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            List<Transaction> recorded = transactionRepository.findByFromAccountIdOrToAccountId(fromAccountId, fromAccountId);
+            if (!recorded.isEmpty()) {
+                return recorded.get(0);
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("No transfer from " + fromAccountId + " was recorded");
+    }
+
+    private TransferSaga sagaOf(BatchTransferResult result) {
+        return sagaRepository.findById(result.getTransactionId()).orElseThrow();
+    }
+
+    private List<BatchTransferResult> execute(List<TransferRequest> instructions) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batchTransferService.execute(instructions, out);
+        List<BatchTransferResult> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            assertTrue(!line.isBlank(), "Empty NDJSON line");
+            results.add(objectMapper.readValue(line, BatchTransferResult.class));
+        }
+        return results;
+    }
+
+    private TransactionStatus statusOf(BatchTransferResult result) {
+        return transactionRepository.findById(result.getTransactionId()).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,163 @@
+package com.transaction.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction.dao.IdempotencyRecordRepository;
+import com.transaction.dao.TransactionRepository;
+import com.transaction.dto.DepositRequest;
+import com.transaction.exceptions.IdempotencyKeyConflictException;
+import com.transaction.model.IdempotencyRecord;
+import com.transaction.model.Money;
+import com.transaction.model.Transaction;
+import com.transaction.model.TransactionType;
+
+/**
+ * Checks the Idempotency-Key contract: a replay returns the original transaction without running the operation
+ * again (from memory, or from idempotency_record after a restart), and the same key with a different body is a 409.
+ * Bodies are told apart by their content, not by the shape of the DTO that carries them.
+ */
+class IdempotencyServiceTest {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository = mock(IdempotencyRecordRepository.class);
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final IdempotencyService idempotencyService = new IdempotencyService(idempotencyRecordRepository,
+            transactionRepository, new ObjectMapper(), 100, Duration.ofHours(24));
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void replayReturnsTheOriginalTransactionWithoutExecutingAgain() {
+        DepositRequest request = new DepositRequest("acc-1", Money.of(50.0));
+
+        Transaction first = idempotencyService.execute("key-1", TransactionType.DEPOSIT, request, deposit("txn-1"));
+        Transaction replayed = idempotencyService.execute("key-1", TransactionType.DEPOSIT,
+                new DepositRequest("acc-1", Money.of(50.0)), deposit("txn-2"));
+
+        assertSame(first, replayed);
+        assertEquals(1, executions.get());
+        verify(idempotencyRecordRepository).save(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void sameKeyWithADifferentBodyIsAConflict() {
+        idempotencyService.execute("key-1", TransactionType.DEPOSIT, new DepositRequest("acc-1", Money.of(50.0)),
+                deposit("txn-1"));
+
+        assertThrows(IdempotencyKeyConflictException.class, () -> idempotencyService.execute("key-1",
+                TransactionType.DEPOSIT, new DepositRequest("acc-1", Money.of(60.0)), deposit("txn-2")));
+        assertThrows(IdempotencyKeyConflictException.class, () -> idempotencyService.execute("key-1",
+                TransactionType.WITHDRAW, new DepositRequest("acc-1", Money.of(50.0)), deposit("txn-3")));
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CONFLICT,
+                IdempotencyKeyConflictException.class.getAnnotation(ResponseStatus.class).value());
+    }
+
+    @Test
+    void keyCompletedBeforeARestartIsReplayedFromTheDatabase() {
+        DepositRequest request = new DepositRequest("acc-1", Money.of(50.0));
+        idempotencyService.execute("key-1", TransactionType.DEPOSIT, request, deposit("txn-1"));
+        ArgumentCaptor<IdempotencyRecord> record = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).save(record.capture());
+
+        // A new instance: nothing in memory, the record and the transaction are in the database
+        IdempotencyService restarted = new IdempotencyService(idempotencyRecordRepository, transactionRepository,
+                new ObjectMapper(), 100, Duration.ofHours(24));
+        Transaction stored = transaction("txn-1");
+        when(idempotencyRecordRepository.findById(record.getValue().getIdempotencyKey()))
+                .thenReturn(Optional.of(record.getValue()));
+        when(transactionRepository.findById("txn-1")).thenReturn(Optional.of(stored));
+
+        assertSame(stored, restarted.execute("key-1", TransactionType.DEPOSIT, request, deposit("txn-2")));
+        assertThrows(IdempotencyKeyConflictException.class, () -> restarted.execute("key-1",
+                TransactionType.DEPOSIT, new DepositRequest("acc-1", Money.of(60.0)), deposit("txn-3")));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void fieldOrderAndNewOptionalFieldsDoNotChangeTheRequest() {
+        Transaction first = idempotencyService.execute("key-1", TransactionType.DEPOSIT,
+                new DepositRequest("acc-1", Money.of(50.0)), deposit("txn-1"));
+        // The same body as a later version of the DTO might carry it: other field order, a new optional field
+        Map<String, Object> laterVersion = new LinkedHashMap<>();
+        laterVersion.put("reference", null);
+        laterVersion.put("amount", Money.of(50.0));
+        laterVersion.put("accountId", "acc-1");
+
+        assertSame(first, idempotencyService.execute("key-1", TransactionType.DEPOSIT, laterVersion, deposit("txn-2")));
+        laterVersion.put("reference", "payroll");
+        assertThrows(IdempotencyKeyConflictException.class, () -> idempotencyService.execute("key-1",
+                TransactionType.DEPOSIT, laterVersion, deposit("txn-3")));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void recordsHashedBeforeTheCanonicalFormAreStillReplayed() {
+        DepositRequest request = new DepositRequest("acc-1", Money.of(50.0));
+        IdempotencyRecord legacy = new IdempotencyRecord("anonymous:key-1", TransactionType.DEPOSIT,
+                sha256("DEPOSIT:" + request), "txn-1", LocalDateTime.now().minusHours(1));
+        Transaction stored = transaction("txn-1");
+        when(idempotencyRecordRepository.findById("anonymous:key-1")).thenReturn(Optional.of(legacy));
+        when(transactionRepository.findById("txn-1")).thenReturn(Optional.of(stored));
+
+        assertSame(stored, idempotencyService.execute("key-1", TransactionType.DEPOSIT, request, deposit("txn-2")));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void recordsPastTheRetentionAreNotReplayed() {
+        DepositRequest request = new DepositRequest("acc-1", Money.of(50.0));
+        IdempotencyRecord expired = new IdempotencyRecord("anonymous:key-1", TransactionType.DEPOSIT, "hash", "txn-1",
+                LocalDateTime.now().minusHours(25));
+        when(idempotencyRecordRepository.findById("anonymous:key-1")).thenReturn(Optional.of(expired));
+
+        assertEquals("txn-2", idempotencyService.execute("key-1", TransactionType.DEPOSIT, request, deposit("txn-2"))
+                .getTransactionId());
+        verify(transactionRepository, never()).findById(any());
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Supplier<Transaction> deposit(String transactionId) {
+        return () -> {
+            executions.incrementAndGet();
+            return transaction(transactionId);
+        };
+    }
+
+    private static Transaction transaction(String transactionId) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionId);
+        transaction.setType(TransactionType.DEPOSIT);
+        return transaction;
+    }
+}
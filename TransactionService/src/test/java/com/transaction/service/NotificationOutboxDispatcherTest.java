@@ -0,0 +1,176 @@
+package com.transaction.service;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.exactly;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.resetAllRequests;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.transaction.dao.NotificationOutboxRepository;
+import com.transaction.dto.NotificationRequestDto.NotificationType;
+import com.transaction.model.NotificationOutbox;
+import com.transaction.model.OutboxStatus;
+
+/**
+ * Checks that notifications are written to the outbox with the caller's transaction, delivered after it commits,
+ * that only those the Notification Service reports as SENT are marked SENT, that invalid ones fail at once and that
+ * unconfirmed ones are retried only after their backoff (against WireMock).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "eureka.client.enabled=false",
+        "spring.cloud.discovery.client.simple.instances.notification-service[0].uri=http://localhost:${wiremock.server.port}",
+        "spring.security.oauth2.client.provider.keycloak.token-uri=http://localhost:${wiremock.server.port}/token",
+        "transaction.account-cache.eviction-listener-enabled=false",
+        "transaction.transfer-saga.poll-interval=PT1H",
+        "transaction.notification-outbox.poll-interval=PT1H", // The test runs the sweep itself
+        "transaction.notification-outbox.initial-backoff=PT1H", // Retries only become due when the test says so
+        "transaction.notification-outbox.max-backoff=PT1H",
+        "management.tracing.enabled=false",
+        "logging.level.root=WARN"
+})
+@AutoConfigureWireMock(port = 0)
+class NotificationOutboxDispatcherTest {
+
+    private static final String SENT = "{\"notificationId\":\"n-1\",\"status\":\"SENT\",\"message\":\"Notification sent successfully.\"}";
+    private static final String FAILED = "{\"status\":\"FAILED\",\"message\":\"Invalid notification: content: must not be blank\"}";
+
+    @Autowired
+    private NotificationOutboxDispatcher dispatcher;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+        resetAllRequests(); // Request counts are kept across tests
+        stubFor(post(urlEqualTo("/token")).willReturn(okJson(
+                "{\"access_token\":\"service-token\",\"token_type\":\"Bearer\",\"expires_in\":300}")));
+    }
+
+    @Test
+    void notificationsAreWrittenWithTheTransactionAndSentAfterItCommits() throws Exception {
+        stubFor(post(urlEqualTo("/notifications/batch")).willReturn(okJson("[" + SENT + "," + SENT + "]")));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            dispatcher.enqueue("user-1", NotificationType.EMAIL, "Rolled back");
+            status.setRollbackOnly();
+        });
+        assertEquals(0, outboxRepository.count());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            dispatcher.enqueue("user-1", NotificationType.EMAIL, "Transfer sent");
+            dispatcher.enqueue("user-2", NotificationType.EMAIL, "Transfer received");
+        });
+
+        awaitStatuses(List.of(OutboxStatus.SENT, OutboxStatus.SENT));
+        verify(exactly(1), postRequestedFor(urlEqualTo("/notifications/batch"))
+                .withRequestBody(matchingJsonPath("$.notifications[?(@.content == 'Transfer sent')]"))
+                .withRequestBody(matchingJsonPath("$.notifications[?(@.content == 'Transfer received')]")));
+    }
+
+    @Test
+    void notificationsRejectedAsInvalidFailAtOnce() throws Exception {
+        stubFor(post(urlEqualTo("/notifications/batch")).willReturn(aResponse().withStatus(207)
+                .withHeader("Content-Type", "application/json").withBody("[" + SENT + "," + FAILED + "]")));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            dispatcher.enqueue("user-1", NotificationType.EMAIL, "First");
+            dispatcher.enqueue("user-2", NotificationType.EMAIL, "Second");
+        });
+
+        awaitStatuses(List.of(OutboxStatus.SENT, OutboxStatus.FAILED));
+        NotificationOutbox rejected = withStatus(OutboxStatus.FAILED);
+        assertEquals(1, rejected.getAttempts());
+        assertEquals("Invalid notification: content: must not be blank", rejected.getLastError());
+
+        dispatcher.sweep();
+
+        verify(exactly(1), postRequestedFor(urlEqualTo("/notifications/batch"))); // Never sent again
+    }
+
+    @Test
+    void unconfirmedNotificationsAreRetriedOnlyAfterTheirBackoff() throws Exception {
+        stubFor(post(urlEqualTo("/notifications/batch")).willReturn(okJson("[" + SENT + "]"))); // Confirms the first only
+
+        transactionTemplate.executeWithoutResult(status -> {
+            dispatcher.enqueue("user-1", NotificationType.EMAIL, "First");
+            dispatcher.enqueue("user-2", NotificationType.EMAIL, "Second");
+        });
+
+        awaitStatuses(List.of(OutboxStatus.PENDING, OutboxStatus.SENT));
+        NotificationOutbox pending = withStatus(OutboxStatus.PENDING);
+        assertEquals(1, pending.getAttempts());
+        assertEquals("Not confirmed by the Notification Service", pending.getLastError());
+        assertTrue(pending.getNextAttemptAt().isAfter(LocalDateTime.now().plusMinutes(59)), pending.toString());
+
+        // Another commit drains the outbox at once, and a sweep runs: neither resends a row still in its backoff
+        transactionTemplate.executeWithoutResult(status -> dispatcher.enqueue("user-3", NotificationType.EMAIL, "Third"));
+        awaitStatuses(List.of(OutboxStatus.PENDING, OutboxStatus.SENT, OutboxStatus.SENT));
+        dispatcher.sweep();
+        verify(exactly(1), postRequestedFor(urlEqualTo("/notifications/batch"))
+                .withRequestBody(matchingJsonPath("$.notifications[?(@.content == 'Second')]")));
+
+        pending.setNextAttemptAt(LocalDateTime.now().minusSeconds(1)); // Backoff elapsed
+        outboxRepository.save(pending);
+        dispatcher.sweep();
+
+        assertEquals(List.of(OutboxStatus.SENT, OutboxStatus.SENT, OutboxStatus.SENT), statuses());
+        verify(exactly(1), postRequestedFor(urlEqualTo("/notifications/batch")) // Only the unconfirmed one is sent again
+                .withRequestBody(matchingJsonPath("$.notifications.size()", equalTo("1")))
+                .withRequestBody(matchingJsonPath("$.notifications[0].content", equalTo("Second"))));
+    }
+
+    private NotificationOutbox withStatus(OutboxStatus status) {
+        return outboxRepository.findAll().stream().filter(outbox -> outbox.getStatus() == status).findFirst().orElseThrow();
+    }
+
+    private List<OutboxStatus> statuses() {
+        return outboxRepository.findAll().stream().map(NotificationOutbox::getStatus).sorted().toList();
+    }
+
+    /**
+     * Waits for the after-commit drain (it runs on the dispatcher's own thread).
+     */
+    private void awaitStatuses(List<OutboxStatus> expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        List<OutboxStatus> statuses = List.of();
+        while (System.nanoTime() < deadline) {
+            statuses = statuses();
+            if (statuses.equals(expected)) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        fail("Outbox statuses are " + statuses + ", expected " + expected);
+    }
+}
@@ -0,0 +1,149 @@
+package com.transaction.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.transaction.dao.TransactionRepository;
+import com.transaction.model.Money;
+import com.transaction.model.Transaction;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that statements are written while the two index-ordered legs (sent and received) are still being read,
+ * and that the merged output is complete and in date order, in both formats.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true", // Counts the rows read so far
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(StatementExportService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // The export opens its own read-only transaction
+class StatementExportServiceTest {
+
+    private static final String ACCOUNT = "acc-1";
+    private static final int ROWS_PER_SIDE = 2_000;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    private StatementExportService statementExportService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < ROWS_PER_SIDE; i++) {
+            // Sent and received rows interleave in time, so the output only comes out ordered if the legs are merged
+            transactions.add(transaction(ACCOUNT, "acc-2", START.plusMinutes(2L * i)));
+            transactions.add(transaction("acc-3", ACCOUNT, START.plusMinutes(2L * i + 1)));
+        }
+        transactions.add(transaction("acc-3", "acc-4", START.plusMinutes(5))); // Another account's transfer
+        transactionRepository.saveAll(transactions);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void csvIsWrittenWhileTheRowsAreStillBeingRead() throws Exception {
+        RecordingOutputStream out = new RecordingOutputStream();
+
+        long written = statementExportService.writeStatement(ACCOUNT, START, START.plusYears(1),
+                StatementExportService.Format.CSV, out);
+
+        assertEquals(2L * ROWS_PER_SIDE, written);
+        assertEquals(written, statistics.getEntityLoadCount());
+        assertTrue(out.rowsReadAtFirstWrite < written / 10,
+                "First bytes were written after " + out.rowsReadAtFirstWrite + " of " + written + " rows were read");
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2 * ROWS_PER_SIDE + 1, lines.length); // Header + rows
+        assertInDateOrder(lines, 1, 1);
+    }
+
+    @Test
+    void ndjsonIsWrittenWhileTheRowsAreStillBeingRead() throws Exception {
+        RecordingOutputStream out = new RecordingOutputStream();
+
+        long written = statementExportService.writeStatement(ACCOUNT, START, START.plusYears(1),
+                StatementExportService.Format.NDJSON, out);
+
+        assertEquals(2L * ROWS_PER_SIDE, written);
+        assertEquals(written, statistics.getEntityLoadCount());
+        assertTrue(out.rowsReadAtFirstWrite < written / 10,
+                "First bytes were written after " + out.rowsReadAtFirstWrite + " of " + written + " rows were read");
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2 * ROWS_PER_SIDE, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"fromAccountId\":\"acc-1\""), lines[0]);
+    }
+
+    private void assertInDateOrder(String[] csvLines, int firstRow, int dateColumn) {
+        for (int i = firstRow + 1; i < csvLines.length; i++) {
+            String previous = csvLines[i - 1].split(",")[dateColumn];
+            String current = csvLines[i].split(",")[dateColumn];
+            assertTrue(LocalDateTime.parse(previous).isBefore(LocalDateTime.parse(current)),
+                    "Row " + i + " is out of order: " + previous + " then " + current);
+        }
+    }
+
+    private static Transaction transaction(String from, String to, LocalDateTime date) {
+        return new Transaction(null, from, to, Money.of(10.0), TransactionType.TRANSFER, TransactionStatus.SUCCESS, date);
+    }
+
+    /**
+     * Keeps what is written and how many rows had been read when the first bytes arrived.
+     */
+    private class RecordingOutputStream extends ByteArrayOutputStream {
+
+        private long rowsReadAtFirstWrite = -1;
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            if (rowsReadAtFirstWrite < 0) {
+                rowsReadAtFirstWrite = statistics.getEntityLoadCount(); // Transactions loaded from the cursors
+            }
+            super.write(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.transaction.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.transaction.dao.TransactionRepository;
+import com.transaction.dto.TransactionPageResponse;
+import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.model.Money;
+import com.transaction.model.Transaction;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
+import com.transaction.proxyService.AccountServiceClient;
+
+/**
+ * Checks the keyset-paginated history: walking the cursors returns every row once, newest first, even when a page
+ * ends in the middle of rows sharing the same transactionDate, and the cursor is the URL-safe "date|id" of the last row.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:history;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Every page is read in its own transaction, as in production
+class TransactionHistoryPagingTest {
+
+    private static final String ACCOUNT = "acc-1";
+    // Fractional seconds, so the cursor has to carry them for the tie on the next page to be found
+    private static final LocalDateTime TIE = LocalDateTime.of(2024, 3, 1, 10, 0, 0, 123_456_000);
+    private static final Comparator<Transaction> NEWEST_FIRST = Comparator
+            .comparing(Transaction::getTransactionDate)
+            .thenComparing(Transaction::getTransactionId)
+            .reversed();
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private TransactionServiceImpl transactionService;
+
+    private List<Transaction> history;
+
+    @BeforeEach
+    void setUp() {
+        transactionService = new TransactionServiceImpl(transactionRepository, mock(AccountServiceClient.class),
+                mock(AccountDetailsCache.class), mock(NotificationOutboxDispatcher.class),
+                mock(TransferSagaOrchestrator.class));
+
+        List<Transaction> transactions = new ArrayList<>();
+        transactions.add(transaction(ACCOUNT, "acc-2", TIE.plusMinutes(1)));
+        for (int i = 0; i < 4; i++) {
+            // Sent and received rows at the same instant, so page boundaries fall inside the tie on both sides
+            transactions.add(transaction(ACCOUNT, "acc-2", TIE));
+            transactions.add(transaction("acc-3", ACCOUNT, TIE));
+        }
+        transactions.add(transaction("acc-3", ACCOUNT, TIE.minusNanos(1_000)));
+        transactions.add(transaction(null, ACCOUNT, TIE.minusDays(1)));
+        transactions.add(transaction("acc-3", "acc-4", TIE)); // Another account's transfer
+        history = new ArrayList<>(transactionRepository.saveAll(transactions).stream()
+                .filter(t -> ACCOUNT.equals(t.getFromAccountId()) || ACCOUNT.equals(t.getToAccountId()))
+                .toList());
+        history.sort(NEWEST_FIRST);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void everyRowIsReturnedOnceInOrderAcrossPageBoundariesInsideATie() {
+        for (int limit = 1; limit <= history.size() + 1; limit++) {
+            List<Transaction> walked = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                TransactionPageResponse page = transactionService.getTransactionHistory(ACCOUNT, limit, cursor,
+                        null, null, null, null);
+                assertTrue(page.getTransactions().size() <= limit);
+                assertEquals(page.isHasMore(), page.getNextCursor() != null);
+                walked.addAll(page.getTransactions());
+                cursor = page.getNextCursor();
+                assertTrue(++pages <= history.size() + 1, "Paging does not end with limit " + limit);
+            } while (cursor != null);
+
+            assertEquals(ids(history), ids(walked), "Pages with limit " + limit);
+            assertEquals(walked.size(), new HashSet<>(ids(walked)).size(), "Duplicates with limit " + limit);
+        }
+    }
+
+    @Test
+    void cursorIsTheUrlSafeDateAndIdOfTheLastRow() {
+        TransactionPageResponse first = transactionService.getTransactionHistory(ACCOUNT, 3, null, null, null, null, null);
+
+        Transaction last = first.getTransactions().get(2);
+        assertEquals(TIE, last.getTransactionDate()); // The page ends inside the tie
+        String cursor = first.getNextCursor();
+        assertFalse(cursor.contains("=") || cursor.contains("+") || cursor.contains("/"), cursor);
+        assertEquals(last.getTransactionDate() + "|" + last.getTransactionId(),
+                new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+
+        TransactionPageResponse second = transactionService.getTransactionHistory(ACCOUNT, 3, cursor, null, null, null, null);
+        assertEquals(ids(history.subList(3, 6)), ids(second.getTransactions()));
+    }
+
+    @Test
+    void upperBoundIsExclusiveAndWinsOverAWiderCursor() {
+        String wideCursor = encode(TIE.plusDays(1), "ffffffff");
+
+        TransactionPageResponse page = transactionService.getTransactionHistory(ACCOUNT, 50, wideCursor, null, TIE,
+                null, null);
+
+        // Only the rows strictly before 'to': not the eight at TIE, nor the one after it
+        assertEquals(ids(history.subList(9, 11)), ids(page.getTransactions()));
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        for (String cursor : List.of("not base64!", encode("2024-03-01T10:00", ""), encode("yesterday", "txn-1"),
+                Base64.getUrlEncoder().encodeToString("no-separator".getBytes(StandardCharsets.UTF_8)))) {
+            assertThrows(InvalidTransactionException.class,
+                    () -> transactionService.getTransactionHistory(ACCOUNT, 10, cursor, null, null, null, null), cursor);
+        }
+    }
+
+    private static String encode(Object date, String id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((date + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getTransactionId).toList();
+    }
+
+    private static Transaction transaction(String from, String to, LocalDateTime date) {
+        return new Transaction(null, from, to, Money.of(10.0), TransactionType.TRANSFER, TransactionStatus.SUCCESS, date);
+    }
+}
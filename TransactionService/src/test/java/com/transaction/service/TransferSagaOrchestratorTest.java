@@ -0,0 +1,248 @@
+package com.transaction.service;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.exactly;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.transaction.dao.TransactionRepository;
+import com.transaction.dao.TransferSagaRepository;
+import com.transaction.dto.TransferRequest;
+import com.transaction.model.Money;
+import com.transaction.model.Transaction;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
+import com.transaction.model.TransferSaga;
+import com.transaction.model.TransferSagaState;
+
+/**
+ * Runs transfer sagas end to end against WireMock stand-ins for the Account Service, the Notification
+ * Service and the Keycloak token endpoint (the saga workers authenticate with client credentials).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:saga;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "eureka.client.enabled=false",
+        "spring.cloud.discovery.client.simple.instances.account-service[0].uri=http://localhost:${wiremock.server.port}",
+        "spring.cloud.discovery.client.simple.instances.notification-service[0].uri=http://localhost:${wiremock.server.port}",
+        "spring.security.oauth2.client.provider.keycloak.token-uri=http://localhost:${wiremock.server.port}/token",
+        "transaction.account-cache.eviction-listener-enabled=false",
+        "transaction.transfer-saga.poll-interval=PT1H", // The test drives the resume sweep itself
+        "transaction.transfer-saga.initial-backoff=PT0.05S",
+        "management.tracing.enabled=false",
+        "logging.level.root=WARN"
+})
+@AutoConfigureWireMock(port = 0)
+class TransferSagaOrchestratorTest {
+
+    @Autowired
+    private TransferSagaOrchestrator orchestrator;
+
+    @Autowired
+    private TransferSagaRepository sagaRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @MockitoSpyBean
+    private AccountDetailsCache accountDetailsCache;
+
+    private String source;
+    private String target;
+
+    @BeforeEach
+    void setUp() {
+        // Fresh account IDs per test, so nothing is answered from the account details cache of an earlier test
+        source = "src-" + UUID.randomUUID();
+        target = "tgt-" + UUID.randomUUID();
+        stubFor(post(urlEqualTo("/token")).willReturn(okJson(
+                "{\"access_token\":\"service-token\",\"token_type\":\"Bearer\",\"expires_in\":300}")));
+        stubFor(post(urlPathMatching("/notifications/.*")).willReturn(okJson("{}")));
+        stubAccount(source, "user-1", "1001");
+        stubAccount(target, "user-2", "1002");
+    }
+
+    @Test
+    void transferDebitsSourceCreditsTargetAndSucceeds() throws Exception {
+        stubFor(post(urlEqualTo("/accounts/" + source + "/withdraw")).willReturn(okJson(account(source, "user-1", "1001"))));
+        stubFor(post(urlEqualTo("/accounts/" + target + "/deposit")).willReturn(okJson(account(target, "user-2", "1002"))));
+
+        List<Boolean> lookupsInTransaction = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            lookupsInTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return invocation.callRealMethod();
+        }).when(accountDetailsCache).getAccount(anyString());
+
+        Transaction transaction = orchestrator.start(new TransferRequest(source, target, Money.of(250.0)));
+        assertEquals(TransactionStatus.PENDING, transaction.getStatus()); // Returned before any money moves
+
+        TransferSaga saga = awaitFinished(transaction.getTransactionId());
+        assertEquals(TransferSagaState.CREDITED, saga.getState());
+        // Checks and notifications look the accounts up, but never while a database transaction is open
+        assertFalse(lookupsInTransaction.isEmpty());
+        assertFalse(lookupsInTransaction.contains(true));
+        assertEquals(TransactionStatus.SUCCESS, statusOf(transaction));
+        verify(postRequestedFor(urlEqualTo("/accounts/" + source + "/withdraw"))
+                .withHeader("Authorization", equalTo("Bearer service-token"))
+                .withRequestBody(matchingJsonPath("$.transactionId", equalTo(transaction.getTransactionId())))
+                .withRequestBody(matchingJsonPath("$[?(@.amount == 250)]")));
+    }
+
+    @Test
+    void rejectedCreditIsCompensatedBySource() throws Exception {
+        stubFor(post(urlEqualTo("/accounts/" + source + "/withdraw")).willReturn(okJson(account(source, "user-1", "1001"))));
+        stubFor(post(urlEqualTo("/accounts/" + target + "/deposit")).willReturn(aResponse().withStatus(404)));
+        stubFor(post(urlEqualTo("/accounts/" + source + "/deposit")).willReturn(okJson(account(source, "user-1", "1001"))));
+
+        Transaction transaction = orchestrator.start(new TransferRequest(source, target, Money.of(80.0)));
+
+        TransferSaga saga = awaitFinished(transaction.getTransactionId());
+        assertEquals(TransferSagaState.REVERSED, saga.getState());
+        assertEquals(TransactionStatus.FAILED, statusOf(transaction));
+        verify(exactly(1), postRequestedFor(urlEqualTo("/accounts/" + source + "/deposit"))
+                .withRequestBody(matchingJsonPath("$.transactionId", equalTo(transaction.getTransactionId()))));
+    }
+
+    @Test
+    void rejectedDebitFailsWithoutTouchingTarget() throws Exception {
+        stubFor(post(urlEqualTo("/accounts/" + source + "/withdraw")).willReturn(aResponse().withStatus(422)
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"message\":\"Insufficient funds in account ID: " + source + "\"}")));
+
+        Transaction transaction = orchestrator.start(new TransferRequest(source, target, Money.of(1_000_000.0)));
+
+        assertEquals(TransferSagaState.FAILED, awaitFinished(transaction.getTransactionId()).getState());
+        assertEquals(TransactionStatus.FAILED, statusOf(transaction));
+        verify(exactly(0), postRequestedFor(urlEqualTo("/accounts/" + target + "/deposit")));
+    }
+
+    @Test
+    void creditIsRetriedThroughAccountServiceOutage() throws Exception {
+        stubFor(post(urlEqualTo("/accounts/" + source + "/withdraw")).willReturn(okJson(account(source, "user-1", "1001"))));
+        stubFor(post(urlEqualTo("/accounts/" + target + "/deposit")).inScenario("outage")
+                .whenScenarioStateIs(Scenario.STARTED).willReturn(aResponse().withStatus(503))
+                .willSetStateTo("still down"));
+        stubFor(post(urlEqualTo("/accounts/" + target + "/deposit")).inScenario("outage")
+                .whenScenarioStateIs("still down").willReturn(aResponse().withStatus(503))
+                .willSetStateTo("recovered"));
+        stubFor(post(urlEqualTo("/accounts/" + target + "/deposit")).inScenario("outage")
+                .whenScenarioStateIs("recovered").willReturn(okJson(account(target, "user-2", "1002"))));
+
+        Transaction transaction = orchestrator.start(new TransferRequest(source, target, Money.of(10.0)));
+
+        // A 5xx may or may not have been applied, so the saga keeps retrying the (idempotent) credit, never compensates
+        assertEquals(TransferSagaState.CREDITED, awaitFinished(transaction.getTransactionId()).getState());
+        verify(exactly(3), postRequestedFor(urlEqualTo("/accounts/" + target + "/deposit")));
+        verify(exactly(0), postRequestedFor(urlEqualTo("/accounts/" + source + "/deposit")));
+    }
+
+    @Test
+    void sagaLeftBehindByCrashedInstanceIsResumed() throws Exception {
+        stubFor(post(urlEqualTo("/accounts/" + target + "/deposit")).willReturn(okJson(account(target, "user-2", "1002"))));
+
+        // Another instance debited the source and died before crediting the target
+        LocalDateTime then = LocalDateTime.now().minusMinutes(5);
+        Transaction transaction = transactionRepository.save(new Transaction(null, source, target, Money.of(42.0),
+                TransactionType.TRANSFER, TransactionStatus.PENDING, then));
+        sagaRepository.save(new TransferSaga(transaction.getTransactionId(), source, target, Money.of(42.0),
+                TransferSagaState.DEBITED, then, 0, null, then, "crashed-instance", then.plusMinutes(1), then, then, null));
+
+        orchestrator.resumeDueSagas();
+
+        assertEquals(TransferSagaState.CREDITED, awaitFinished(transaction.getTransactionId()).getState());
+        assertEquals(TransactionStatus.SUCCESS, statusOf(transaction));
+        verify(exactly(0), postRequestedFor(urlEqualTo("/accounts/" + source + "/withdraw"))); // Not debited twice
+    }
+
+    @Test
+    void retriedDebitWhoseTargetHasGoneIsCompensatedNotFailed() throws Exception {
+        // An earlier attempt sent the withdrawal and died before committing DEBITED; the target was closed since
+        stubFor(get(urlEqualTo("/accounts/" + target)).willReturn(aResponse().withStatus(404)));
+        stubFor(post(urlEqualTo("/accounts/" + source + "/withdraw")).willReturn(okJson(account(source, "user-1", "1001"))));
+        stubFor(post(urlEqualTo("/accounts/" + target + "/deposit")).willReturn(aResponse().withStatus(404)));
+        stubFor(post(urlEqualTo("/accounts/" + source + "/deposit")).willReturn(okJson(account(source, "user-1", "1001"))));
+        LocalDateTime then = LocalDateTime.now().minusMinutes(5);
+        Transaction crashed = transactionRepository.save(new Transaction(null, source, target, Money.of(30.0),
+                TransactionType.TRANSFER, TransactionStatus.PENDING, then));
+        sagaRepository.save(new TransferSaga(crashed.getTransactionId(), source, target, Money.of(30.0),
+                TransferSagaState.PENDING, then, 0, null, then, "crashed-instance", then.plusMinutes(1), then, then, null));
+        // A bulk transfer chunk whose POST /accounts/batch outcome is unknown
+        Transaction adopted = transactionRepository.save(new Transaction(null, source, target, Money.of(20.0),
+                TransactionType.TRANSFER, TransactionStatus.PENDING, then));
+        orchestrator.recordBatched(List.of(adopted));
+        orchestrator.releaseBatched(List.of(adopted.getTransactionId()));
+
+        orchestrator.resumeDueSagas();
+
+        for (Transaction transaction : List.of(crashed, adopted)) {
+            assertEquals(TransferSagaState.REVERSED, awaitFinished(transaction.getTransactionId()).getState());
+            assertEquals(TransactionStatus.FAILED, statusOf(transaction));
+            // The withdrawal is sent again (and recognised), then the amount is refunded under the deposit posting key
+            verify(exactly(1), postRequestedFor(urlEqualTo("/accounts/" + source + "/withdraw"))
+                    .withRequestBody(matchingJsonPath("$.transactionId", equalTo(transaction.getTransactionId()))));
+            verify(exactly(1), postRequestedFor(urlEqualTo("/accounts/" + source + "/deposit"))
+                    .withRequestBody(matchingJsonPath("$.transactionId", equalTo(transaction.getTransactionId()))));
+        }
+    }
+
+    /**
+     * Waits for the saga to reach a terminal state, running the resume sweep so retries whose backoff elapsed are picked up.
+     */
+    private TransferSaga awaitFinished(String sagaId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            TransferSaga saga = sagaRepository.findById(sagaId).orElseThrow();
+            if (saga.getState().isTerminal()) {
+                return saga;
+            }
+            orchestrator.resumeDueSagas();
+            Thread.sleep(50);
+        }
+        return fail("Saga " + sagaId + " did not finish: " + sagaRepository.findById(sagaId).orElseThrow());
+    }
+
+    private TransactionStatus statusOf(Transaction transaction) {
+        return transactionRepository.findById(transaction.getTransactionId()).orElseThrow().getStatus();
+    }
+
+    private static void stubAccount(String accountId, String userId, String accountNumber) {
+        stubFor(get(urlEqualTo("/accounts/" + accountId)).willReturn(okJson(account(accountId, userId, accountNumber))));
+    }
+
+    private static String account(String accountId, String userId, String accountNumber) {
+        return "{\"accountId\":\"" + accountId + "\",\"userId\":\"" + userId + "\",\"accountNumber\":\"" + accountNumber
+                + "\",\"accountType\":\"SAVINGS\",\"balance\":500.00,\"status\":\"ACTIVE\"}";
+    }
+}
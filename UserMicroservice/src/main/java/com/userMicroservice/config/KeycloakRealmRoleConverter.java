@@ -1,31 +1,41 @@
 package com.userMicroservice.config;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 
+/**
+ * Maps Keycloak realm roles (the nested claim realm_access.roles) to ROLE_ authorities.
+ * JwtGrantedAuthoritiesConverter cannot do this: it reads a top-level claim literally named "realm_access.roles",
+ * which Keycloak never sends, so every token ended up with no roles.
+ * The roles are read again on every request: remembering them per token saved under 10% of the conversion
+ * (JwtAuthenticationBenchmark in the Account Service), not enough to pay for the cache's memory and expiry.
+ */
 public class KeycloakRealmRoleConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
 
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    /**
+     * @return An immutable list of ROLE_ authorities; empty if the token has no realm roles.
+     */
     @Override
     public Collection<GrantedAuthority> convert(Jwt jwt) {
-        Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
-
-        if (realmAccess == null || !realmAccess.containsKey("roles")) {
-            return Collections.emptyList();
+        Object realmAccess = jwt.getClaims().get("realm_access");
+        if (!(realmAccess instanceof Map<?, ?> realmAccessMap) || !(realmAccessMap.get("roles") instanceof Collection<?> roles)) {
+            return List.of();
         }
-
-        List<String> roles = (List<String>) realmAccess.get("roles");
-
-        return roles.stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                .collect(Collectors.toList());
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (Object role : roles) {
+            if (role != null) {
+                authorities.add(new SimpleGrantedAuthority(ROLE_PREFIX + role));
+            }
+        }
+        return List.copyOf(authorities);
     }
 }
-
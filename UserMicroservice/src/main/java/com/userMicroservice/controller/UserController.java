@@ -1,9 +1,15 @@
 package com.userMicroservice.controller;
 
-import java.util.List;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize; // For method-level security
@@ -15,12 +21,18 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.userMicroservice.dto.UserCreationRequest;
+import com.userMicroservice.dto.UserPageResponse;
 import com.userMicroservice.dto.UserResponse;
+import com.userMicroservice.dto.UserSearchFilter;
 import com.userMicroservice.dto.UserUpdateRequest;
+import com.userMicroservice.exceptions.InvalidUserQueryException;
 import com.userMicroservice.exceptions.UserNotFoundException;
+import com.userMicroservice.model.KycStatus;
+import com.userMicroservice.model.UserRole;
 import com.userMicroservice.service.UserService;
 
 import jakarta.validation.Valid; // For input validation
@@ -114,6 +126,7 @@ public class UserController {
      * Handles GET /auth/profile requests.
      * Retrieves the profile of the currently authenticated user.
      * The userId is extracted directly from the JWT.
+     * The frontend polls this, so the answer may be cached privately (per caller) for 30 seconds, e.g. by the gateway.
      *
      * @param authentication Spring Security's Authentication object containing JWT details.
      * @return ResponseEntity with the UserResponse DTO and HTTP status 200 (OK).
@@ -125,26 +138,34 @@ public class UserController {
         // The 'sub' (subject) claim in the JWT is typically the userId from Keycloak
         String userId = authentication.getName(); // Corrected to use authentication.getName()
         Optional<UserResponse> user = userService.getUserProfileById(userId);
-        return user.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+        return user.map(value -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.maxAge(Duration.ofSeconds(30)).cachePrivate())
+                        .body(value))
                    .orElseThrow(() -> new UserNotFoundException("User profile not found for authenticated ID: " + userId));
     }
     
-    @GetMapping("/users")
-    @PreAuthorize("hasRole('ADMIN')") // Only ADMINs can view all users
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        List<UserResponse> users = userService.getAllUserProfiles();
-        if (users.isEmpty()) {
-            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
-        }
-        return new ResponseEntity<>(users, HttpStatus.OK);
-    }
-
     /**
      * Handles GET /auth/users requests.
-     * Retrieves all user profiles. This endpoint is typically for administrative purposes.
+     * Retrieves user profiles one page at a time, in their slim form. This endpoint is typically for administrative purposes.
+     * Example: /auth/users?role=CUSTOMER&kycStatus=PENDING&createdFrom=2025-01-01T00:00:00&page=0&size=50&sort=createdAt,desc
      *
-     * @return ResponseEntity with a list of all UserResponse DTOs and HTTP status 200 (OK).
+     * @param role Only users with this role (optional).
+     * @param kycStatus Only users with this KYC status (optional).
+     * @param createdFrom Only users created at or after this time (ISO date-time, optional).
+     * @param createdTo Only users created before this time (ISO date-time, optional).
+     * @param pageable Page (0-based), size (default 50, at most 200) and sort (default createdAt,desc).
+     * @return ResponseEntity with the page of UserSummaryResponse DTOs and HTTP status 200 (OK).
+     * @throws InvalidUserQueryException if a sort property is not supported or the date range is empty.
      */
-    
-    
-}
\ No newline at end of file
+    @GetMapping("/users")
+    @PreAuthorize("hasRole('ADMIN')") // Only ADMINs can view all users
+    public ResponseEntity<UserPageResponse> getAllUsers(@RequestParam(required = false) UserRole role,
+            @RequestParam(required = false) KycStatus kycStatus,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @PageableDefault(size = 50, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        UserPageResponse users = userService.searchUserProfiles(
+                new UserSearchFilter(role, kycStatus, createdFrom, createdTo), pageable);
+        return new ResponseEntity<>(users, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,84 @@
+package com.userMicroservice.dao;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells which column of user_table a violated unique constraint covers (user_id, username or email).
+ * The constraints are not named by the entity: on databases where ddl-auto created them long ago they carry
+ * system names (Oracle's SYS_C..., H2's CONSTRAINT_...), and a name cannot be given to an existing constraint
+ * from the mapping. So the name reported with the violation is looked up among the table's unique indexes,
+ * read from the JDBC metadata: Oracle names the index of a constraint after it, and H2 reports the index itself.
+ * The lookup is read once, on the first violation, and again when a name is not found (the schema changed).
+ */
+@Component
+public class UserKeyColumns {
+
+    private static final String TABLE = "user_table";
+
+    private final DataSource dataSource;
+    private volatile Map<String, String> columnsByIndex = Map.of();
+
+    @Autowired
+    public UserKeyColumns(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @param constraintName The constraint or index name reported by the database, with or without its schema.
+     * @return The lower-case column name, or null if the name is not a single-column unique index of user_table.
+     */
+    public String columnOf(String constraintName) {
+        if (constraintName == null) {
+            return null;
+        }
+        String name = constraintName.substring(constraintName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        String column = columnsByIndex.get(name);
+        if (column == null) {
+            columnsByIndex = readUniqueIndexes();
+            column = columnsByIndex.get(name);
+        }
+        return column;
+    }
+
+    private Map<String, String> readUniqueIndexes() {
+        Map<String, String> columns = new HashMap<>();
+        Map<String, Integer> columnCounts = new HashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? TABLE.toUpperCase(Locale.ROOT) : TABLE;
+            // approximate = true: Oracle's driver would otherwise ANALYZE the table to report exact statistics
+            try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, true, true)) {
+                while (indexes.next()) {
+                    String index = indexes.getString("INDEX_NAME");
+                    String column = indexes.getString("COLUMN_NAME");
+                    if (index == null || column == null) {
+                        continue; // Table statistics row
+                    }
+                    index = index.toLowerCase(Locale.ROOT);
+                    columns.put(index, column.toLowerCase(Locale.ROOT));
+                    columnCounts.merge(index, 1, Integer::sum);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Could not read the unique indexes of " + TABLE + ": " + e.getMessage());
+            return columnsByIndex;
+        }
+        columnCounts.forEach((index, count) -> {
+            if (count > 1) {
+                columns.remove(index); // Composite key: not one of the user keys
+            }
+        });
+        return Map.copyOf(columns);
+    }
+}
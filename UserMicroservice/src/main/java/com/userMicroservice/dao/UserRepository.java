@@ -2,8 +2,11 @@ package com.userMicroservice.dao;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.userMicroservice.model.KycStatus;
@@ -11,9 +14,10 @@ import com.userMicroservice.model.User;
 import com.userMicroservice.model.UserRole;
 
 @Repository // Marks this interface as a Spring Data JPA repository component
-public interface UserRepository extends JpaRepository<User, String> {
+public interface UserRepository extends JpaRepository<User, String>, UserRepositoryCustom {
     // JpaRepository provides standard CRUD operations: save, findById, findAll, delete, etc.
     // The 'String' parameter specifies the type of the primary key (userId is String)
+    // UserRepositoryCustom adds the paginated, filtered listing (searchUserSummaries)
 
     /**
      * Finds a user by their unique username.
@@ -50,6 +54,35 @@ public interface UserRepository extends JpaRepository<User, String> {
      */
     Optional<User> findByPhoneNumber(String phoneNumber);
 
+    /**
+     * Finds the users that already hold any of the given keys, in a single query.
+     * Only the three key columns are selected. A null argument matches nothing.
+     * @param userId A user ID to check (or null).
+     * @param username A username to check (or null).
+     * @param email An email address to check (or null).
+     * @return The keys of the colliding users (at most three rows).
+     */
+    @Query("select u.userId as userId, u.username as username, u.email as email from User u "
+            + "where u.userId = :userId or u.username = :username or u.email = :email")
+    List<UserKeyView> findKeyCollisions(@Param("userId") String userId, @Param("username") String username,
+            @Param("email") String email);
+
+    /**
+     * Streams the keys of all users (used to warm the UserKeyBloomFilter). Must be consumed inside a transaction.
+     * @return The keys of every user.
+     */
+    @Query("select u.userId as userId, u.username as username, u.email as email from User u")
+    Stream<UserKeyView> streamAllKeys();
+
+    /**
+     * The unique keys of a user.
+     */
+    interface UserKeyView {
+        String getUserId();
+        String getUsername();
+        String getEmail();
+    }
+
     // You can add more custom query methods as needed for your User Microservice's logic.
 }
 
@@ -0,0 +1,30 @@
+package com.userMicroservice.dao;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.userMicroservice.dto.UserSearchFilter;
+import com.userMicroservice.dto.UserSummaryResponse;
+import com.userMicroservice.model.User;
+
+/**
+ * Queries of UserRepository that are built at runtime (implemented in UserRepositoryCustomImpl).
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Finds one page of users matching the filter, selecting only the columns of UserSummaryResponse.
+     * @param filter The filters; null fields are ignored.
+     * @param pageable Page number, size and sort (sort properties must be UserSummaryResponse fields).
+     * @return The page, with the total number of matching users.
+     */
+    Page<UserSummaryResponse> searchUserSummaries(UserSearchFilter filter, Pageable pageable);
+
+    /**
+     * Inserts a new user and flushes, so that a unique constraint violation surfaces here.
+     * Unlike save(), which merges an entity with an assigned ID, this never selects the row first.
+     * @param user The new user (its userId must be set).
+     * @return The persisted user.
+     */
+    User insert(User user);
+}
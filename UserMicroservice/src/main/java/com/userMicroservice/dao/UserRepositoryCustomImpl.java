@@ -0,0 +1,100 @@
+package com.userMicroservice.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.userMicroservice.dto.UserSearchFilter;
+import com.userMicroservice.dto.UserSummaryResponse;
+import com.userMicroservice.model.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Criteria API implementation of the user listing.
+ * Only the filters that are actually set become predicates, so the database sees e.g.
+ * "role = ? and created_at >= ?" rather than "(? is null or role = ?) and ...", and can use the composite indexes.
+ * The select list is a constructor expression: rarely used columns such as address are never read.
+ * Also holds insert(), a plain persist for new users.
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<UserSummaryResponse> searchUserSummaries(UserSearchFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<UserSummaryResponse> query = cb.createQuery(UserSummaryResponse.class);
+        Root<User> user = query.from(User.class);
+        query.select(cb.construct(UserSummaryResponse.class,
+                user.get("userId"), user.get("username"), user.get("email"), user.get("role"),
+                user.get("kycStatus"), user.get("createdAt"), user.get("firstName"), user.get("lastName")))
+             .where(predicates(cb, user, filter))
+             .orderBy(orders(cb, user, pageable.getSort()));
+        List<UserSummaryResponse> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        // The count is skipped when the first page is not full (PageImpl then knows the total already)
+        if (pageable.getOffset() == 0 && content.size() < pageable.getPageSize()) {
+            return new PageImpl<>(content, pageable, content.size());
+        }
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<User> countRoot = countQuery.from(User.class);
+        countQuery.select(cb.count(countRoot)).where(predicates(cb, countRoot, filter));
+        return new PageImpl<>(content, pageable, entityManager.createQuery(countQuery).getSingleResult());
+    }
+
+    @Override
+    @Transactional
+    public User insert(User user) {
+        entityManager.persist(user);
+        entityManager.flush();
+        return user;
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<User> user, UserSearchFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getRole() != null) {
+            predicates.add(cb.equal(user.get("role"), filter.getRole()));
+        }
+        if (filter.getKycStatus() != null) {
+            predicates.add(cb.equal(user.get("kycStatus"), filter.getKycStatus()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(user.get("createdAt"), filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            predicates.add(cb.lessThan(user.get("createdAt"), filter.getCreatedTo()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    /**
+     * Translates the requested sort and appends userId, so that rows with equal sort keys keep a stable order across pages.
+     */
+    private static List<Order> orders(CriteriaBuilder cb, Root<User> user, Sort sort) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            orders.add(order.isAscending() ? cb.asc(user.get(order.getProperty())) : cb.desc(user.get(order.getProperty())));
+        }
+        if (sort.getOrderFor("userId") == null) {
+            orders.add(cb.asc(user.get("userId")));
+        }
+        return orders;
+    }
+}
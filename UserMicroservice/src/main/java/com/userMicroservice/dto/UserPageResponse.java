@@ -0,0 +1,21 @@
+package com.userMicroservice.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of the user listing (GET /auth/users).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageResponse {
+    private List<UserSummaryResponse> content;
+    private int page; // 0-based page number
+    private int size; // Requested page size
+    private long totalElements; // Users matching the filters
+    private int totalPages;
+}
@@ -0,0 +1,23 @@
+package com.userMicroservice.dto;
+
+import java.time.LocalDateTime;
+
+import com.userMicroservice.model.KycStatus;
+import com.userMicroservice.model.UserRole;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filters of the user listing. Every field is optional; null means "no filter".
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchFilter {
+    private UserRole role;
+    private KycStatus kycStatus;
+    private LocalDateTime createdFrom; // Inclusive
+    private LocalDateTime createdTo; // Exclusive
+}
@@ -0,0 +1,29 @@
+package com.userMicroservice.dto;
+
+import java.time.LocalDateTime;
+
+import com.userMicroservice.model.KycStatus;
+import com.userMicroservice.model.UserRole;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Slim view of a user profile for listings (GET /auth/users).
+ * Only these columns are selected; address, date of birth and phone number are left out
+ * and can be fetched per user with GET /auth/user/{userId}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryResponse {
+    private String userId;
+    private String username;
+    private String email;
+    private UserRole role;
+    private KycStatus kycStatus;
+    private LocalDateTime createdAt;
+    private String firstName;
+    private String lastName;
+}
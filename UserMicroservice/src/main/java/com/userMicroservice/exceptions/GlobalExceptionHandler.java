@@ -49,6 +49,23 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles InvalidUserQueryException.
+     * Returns HTTP 400 Bad Request.
+     */
+    @ExceptionHandler(InvalidUserQueryException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidUserQueryException(
+            InvalidUserQueryException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.BAD_REQUEST.value(),
+                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handles UserProfileUpdateException.
      * Returns HTTP 400 Bad Request.
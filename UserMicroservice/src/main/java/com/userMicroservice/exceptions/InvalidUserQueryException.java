@@ -0,0 +1,20 @@
+package com.userMicroservice.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception for invalid listing parameters (e.g., unknown sort property, empty date range).
+ * Maps to HTTP 400 Bad Request.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidUserQueryException extends RuntimeException {
+    /**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public InvalidUserQueryException(String message) {
+        super(message);
+    }
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -17,7 +18,13 @@ import lombok.NoArgsConstructor;
 @Data // Lombok: Generates getters, setters, equals, hashCode, and toString methods
 @NoArgsConstructor // Lombok: Generates a no-argument constructor (required by JPA)
 @AllArgsConstructor // Lombok: Generates a constructor with all fields
-@Table(name = "user_table")
+// Indexes backing the admin listing (GET /auth/users): each filter combination is a range scan in created_at order.
+// username and email are already indexed by their unique constraints.
+@Table(name = "user_table", indexes = {
+        @Index(name = "idx_user_created", columnList = "created_at, user_id"),
+        @Index(name = "idx_user_role_created", columnList = "role, created_at"),
+        @Index(name = "idx_user_kyc_created", columnList = "kyc_status, created_at")
+})
 public class User {
 
     @Id // Designates 'userId' as the primary key
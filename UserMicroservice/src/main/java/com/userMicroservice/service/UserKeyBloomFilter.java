@@ -0,0 +1,155 @@
+package com.userMicroservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.userMicroservice.dao.UserRepository;
+import com.userMicroservice.dao.UserRepository.UserKeyView;
+
+/**
+ * In-memory Bloom filter over the unique keys (user ID, username, email) of all users.
+ * If the filter says a key was never seen, it is definitely not taken and registration can skip the
+ * uniqueness query; if it says "maybe", the database is asked. The filter can only err towards "maybe",
+ * so a false positive costs one query and never rejects a valid registration.
+ * It is warmed from the users table once the application is ready; until then every key is a "maybe".
+ * Keys inserted by other instances after the warm-up are unknown here: the unique constraints catch those,
+ * and UserServiceImpl reports the violation like a failed check.
+ * Deleted users stay in the filter (Bloom filters cannot remove), which only adds false positives.
+ * Sized by user.bloom-filter.expected-users and user.bloom-filter.false-positive-rate; each user adds
+ * KEYS_PER_USER keys, so the filter holds three times as many keys as users.
+ */
+@Component
+public class UserKeyBloomFilter {
+
+    static final int KEYS_PER_USER = 3; // User ID, username and email
+
+    private final UserRepository userRepository;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private volatile boolean warm;
+
+    @Autowired
+    public UserKeyBloomFilter(UserRepository userRepository,
+            @Value("${user.bloom-filter.expected-users:1000000}") long expectedUsers,
+            @Value("${user.bloom-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (expectedUsers < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("user.bloom-filter needs expected-users >= 1 and 0 < false-positive-rate < 1");
+        }
+        this.userRepository = userRepository;
+        long expectedKeys = expectedUsers * KEYS_PER_USER;
+        // Optimal size m = -n ln p / (ln 2)^2 bits and k = m/n ln 2 hash functions
+        long bitsNeeded = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE - 8, (bitsNeeded + 63) / 64));
+        this.bitCount = (long) bits.length() * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedKeys * Math.log(2)));
+    }
+
+    /**
+     * Loads the keys of every existing user. Runs once, when the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        long users = 0;
+        try (Stream<UserKeyView> keys = userRepository.streamAllKeys()) {
+            for (UserKeyView key : (Iterable<UserKeyView>) keys::iterator) {
+                add(key.getUserId(), key.getUsername(), key.getEmail());
+                users++;
+            }
+        }
+        warm = true;
+        System.out.println("User key Bloom filter warmed with " + users + " users (" + bitCount / 8 / 1024 + " KiB, "
+                + hashCount + " hash functions).");
+    }
+
+    /**
+     * Records the keys of a new or updated user. Null keys are skipped.
+     */
+    public void add(String userId, String username, String email) {
+        put(KeyType.USER_ID, userId);
+        put(KeyType.USERNAME, username);
+        put(KeyType.EMAIL, email);
+    }
+
+    /**
+     * Tells whether any of the given keys may already be taken. Null keys are ignored.
+     * @return false only if none of the keys has ever been recorded (and the filter is warm).
+     */
+    public boolean mightContainAny(String userId, String username, String email) {
+        if (!warm) {
+            return true;
+        }
+        return mightContain(KeyType.USER_ID, userId) || mightContain(KeyType.USERNAME, username)
+                || mightContain(KeyType.EMAIL, email);
+    }
+
+    private void put(KeyType type, String key) {
+        if (key == null) {
+            return;
+        }
+        long hash1 = hash(type, key);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1; // Odd step, so the probes do not collapse
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                // Another thread changed the word; retry with its value
+            }
+        }
+    }
+
+    private boolean mightContain(KeyType type, String key) {
+        if (key == null) {
+            return false;
+        }
+        long hash1 = hash(type, key);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 64-bit FNV-1a over the key's UTF-8 bytes, seeded per key type (so a username never matches an equal email),
+     * followed by a final mix to spread the bits.
+     */
+    private static long hash(KeyType type, String key) {
+        long hash = 0xCBF29CE484222325L ^ type.ordinal();
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * The finalizer of MurmurHash3 (fmix64).
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private enum KeyType {
+        USER_ID, USERNAME, EMAIL
+    }
+}
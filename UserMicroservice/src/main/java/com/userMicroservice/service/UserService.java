@@ -1,11 +1,15 @@
 package com.userMicroservice.service;
 
-import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+
 import com.userMicroservice.dto.UserCreationRequest;
+import com.userMicroservice.dto.UserPageResponse;
 import com.userMicroservice.dto.UserResponse;
+import com.userMicroservice.dto.UserSearchFilter;
 import com.userMicroservice.dto.UserUpdateRequest;
+import com.userMicroservice.exceptions.InvalidUserQueryException;
 import com.userMicroservice.exceptions.UserCreationException;
 import com.userMicroservice.exceptions.UserNotFoundException;
 import com.userMicroservice.exceptions.UserProcessingException;
@@ -66,8 +70,11 @@ public interface UserService {
     void deleteUserProfile(String userId);
 
     /**
-     * Retrieves all user profiles.
-     * @return A list of all UserResponse DTOs.
+     * Retrieves one page of user profiles in their slim form, optionally filtered.
+     * @param filter Role, KYC status and creation date range filters (null fields are ignored).
+     * @param pageable Page number, size and sort.
+     * @return The page of UserSummaryResponse DTOs and the total number of matching users.
+     * @throws InvalidUserQueryException if a sort property is not supported or the date range is empty.
      */
-    List<UserResponse> getAllUserProfiles();
+    UserPageResponse searchUserProfiles(UserSearchFilter filter, Pageable pageable);
 }
\ No newline at end of file
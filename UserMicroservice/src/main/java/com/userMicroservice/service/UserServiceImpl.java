@@ -1,20 +1,29 @@
 package com.userMicroservice.service;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.userMicroservice.dao.UserKeyColumns;
 import com.userMicroservice.dao.UserRepository;
+import com.userMicroservice.dao.UserRepository.UserKeyView;
 import com.userMicroservice.dto.UserCreationRequest;
+import com.userMicroservice.dto.UserPageResponse;
 import com.userMicroservice.dto.UserResponse;
+import com.userMicroservice.dto.UserSearchFilter;
+import com.userMicroservice.dto.UserSummaryResponse;
 import com.userMicroservice.dto.UserUpdateRequest;
+import com.userMicroservice.exceptions.InvalidUserQueryException;
 import com.userMicroservice.exceptions.UserCreationException;
 import com.userMicroservice.exceptions.UserNotFoundException;
 import com.userMicroservice.exceptions.UserProcessingException;
@@ -24,15 +33,30 @@ import com.userMicroservice.model.User;
 @Service
 public class UserServiceImpl implements UserService {
 
+    // Unique keys, named after their columns (as UserKeyColumns reports them)
+    private static final String USER_ID = "user_id";
+    private static final String USERNAME = "username";
+    private static final String EMAIL = "email";
+
+    // Sortable listing columns; other columns are either not selected or not indexed
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("createdAt", "username", "email", "lastName", "role", "kycStatus", "userId");
+
     private final UserRepository userRepository;
+    private final UserKeyBloomFilter userKeyBloomFilter; // Lets most new usernames/emails skip the uniqueness query
+    private final UserKeyColumns userKeyColumns; // Which key a violated unique constraint is on
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, UserKeyBloomFilter userKeyBloomFilter, UserKeyColumns userKeyColumns) {
         this.userRepository = userRepository;
+        this.userKeyBloomFilter = userKeyBloomFilter;
+        this.userKeyColumns = userKeyColumns;
     }
 
     /**
      * Creates a new user profile.
+     * Usually a single round trip: if the Bloom filter has never seen the ID, username and email, the row is inserted
+     * straight away; otherwise one query finds which keys are taken. Either way the unique constraints have the last
+     * word, and a violation (e.g. a concurrent registration) is reported like a failed check.
      * @param request The UserCreationRequest DTO.
      * @return The created UserResponse DTO.
      * @throws UserCreationException if user creation fails (e.g., duplicate username/email).
@@ -40,17 +64,6 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public UserResponse createUserProfile(UserCreationRequest request) {
-        // Basic validation for uniqueness before saving
-        if (userRepository.findByUsername(request.getUsername()).isPresent()) {
-            throw new UserCreationException("User with username '" + request.getUsername() + "' already exists.");
-        }
-        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-            throw new UserCreationException("User with email '" + request.getEmail() + "' already exists.");
-        }
-        if (request.getUserId() != null && userRepository.findById(request.getUserId()).isPresent()) {
-             throw new UserCreationException("User with ID '" + request.getUserId() + "' already exists.");
-        }
-
         User user = new User();
         // If userId is not provided in request, you might generate it here (e.g., UUID)
         // or ensure it's always provided by the caller (e.g., Keycloak sync process).
@@ -67,11 +80,22 @@ public class UserServiceImpl implements UserService {
         user.setPhoneNumber(request.getPhoneNumber());
         user.setKycStatus(request.getKycStatus());
 
+        // Basic validation for uniqueness before saving (skipped when the keys are definitely new)
+        if (userKeyBloomFilter.mightContainAny(request.getUserId(), request.getUsername(), request.getEmail())) {
+            String conflict = findConflict(null, request.getUserId(), request.getUsername(), request.getEmail());
+            if (conflict != null) {
+                throw new UserCreationException(creationConflictMessage(conflict, user));
+            }
+        }
+
         try {
-            user = userRepository.save(user);
+            user = userRepository.insert(user); // Plain INSERT: save() would first select the row by its assigned ID
+            userKeyBloomFilter.add(user.getUserId(), user.getUsername(), user.getEmail());
             return mapToUserResponse(user);
         } catch (DataIntegrityViolationException e) {
-            throw new UserCreationException("Failed to create user profile due to data integrity violation (e.g., duplicate entry).", e);
+            String conflict = violatedKey(e);
+            throw new UserCreationException(conflict != null ? creationConflictMessage(conflict, user)
+                    : "Failed to create user profile due to data integrity violation (e.g., duplicate entry).", e);
         } catch (Exception e) {
             throw new UserProcessingException("Failed to create user profile unexpectedly: " + e.getMessage(), e);
         }
@@ -124,19 +148,21 @@ public class UserServiceImpl implements UserService {
         User existingUser = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User profile not found with ID: " + userId));
 
-        // Apply updates only if fields are provided in the request
-        Optional.ofNullable(request.getUsername()).ifPresent(username -> {
-            if (userRepository.findByUsername(username).isPresent() && !existingUser.getUsername().equals(username)) {
-                throw new UserProfileUpdateException("Username '" + username + "' is already taken.");
+        // Only a changed username/email needs a uniqueness check; both are checked with one query
+        String newUsername = request.getUsername() != null && !request.getUsername().equals(existingUser.getUsername())
+                ? request.getUsername() : null;
+        String newEmail = request.getEmail() != null && !request.getEmail().equals(existingUser.getEmail())
+                ? request.getEmail() : null;
+        if ((newUsername != null || newEmail != null) && userKeyBloomFilter.mightContainAny(null, newUsername, newEmail)) {
+            String conflict = findConflict(userId, null, newUsername, newEmail);
+            if (conflict != null) {
+                throw new UserProfileUpdateException(updateConflictMessage(conflict, newUsername, newEmail));
             }
-            existingUser.setUsername(username);
-        });
-        Optional.ofNullable(request.getEmail()).ifPresent(email -> {
-            if (userRepository.findByEmail(email).isPresent() && !existingUser.getEmail().equals(email)) {
-                throw new UserProfileUpdateException("Email '" + email + "' is already in use.");
-            }
-            existingUser.setEmail(email);
-        });
+        }
+
+        // Apply updates only if fields are provided in the request
+        Optional.ofNullable(request.getUsername()).ifPresent(existingUser::setUsername);
+        Optional.ofNullable(request.getEmail()).ifPresent(existingUser::setEmail);
         Optional.ofNullable(request.getRole()).ifPresent(existingUser::setRole);
         Optional.ofNullable(request.getFirstName()).ifPresent(existingUser::setFirstName);
         Optional.ofNullable(request.getLastName()).ifPresent(existingUser::setLastName);
@@ -146,10 +172,13 @@ public class UserServiceImpl implements UserService {
         Optional.ofNullable(request.getKycStatus()).ifPresent(existingUser::setKycStatus);
 
         try {
-            User updatedUser = userRepository.save(existingUser);
+            User updatedUser = userRepository.saveAndFlush(existingUser); // Flush so a constraint violation is reported here
+            userKeyBloomFilter.add(null, newUsername, newEmail);
             return mapToUserResponse(updatedUser);
         } catch (DataIntegrityViolationException e) {
-            throw new UserProfileUpdateException("Failed to update user profile due to data integrity violation.", e);
+            String conflict = violatedKey(e);
+            throw new UserProfileUpdateException(conflict != null ? updateConflictMessage(conflict, newUsername, newEmail)
+                    : "Failed to update user profile due to data integrity violation.", e);
         } catch (Exception e) {
             throw new UserProcessingException("Failed to update user profile unexpectedly: " + e.getMessage(), e);
         }
@@ -174,15 +203,86 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * Retrieves all user profiles.
-     * @return A list of all UserResponse DTOs.
+     * Retrieves one page of user profiles in their slim form, optionally filtered.
+     * Only the page is read from the database (plus a count query when there is more than one page).
+     * @param filter Role, KYC status and creation date range filters (null fields are ignored).
+     * @param pageable Page number, size and sort.
+     * @return The page of UserSummaryResponse DTOs and the total number of matching users.
+     * @throws InvalidUserQueryException if a sort property is not supported or the date range is empty.
      */
     @Override
-    public List<UserResponse> getAllUserProfiles() {
-        return userRepository.findAll()
-                             .stream()
-                             .map(this::mapToUserResponse)
-                             .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public UserPageResponse searchUserProfiles(UserSearchFilter filter, Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new InvalidUserQueryException("Cannot sort by '" + order.getProperty() + "'. Supported: " + SORTABLE_PROPERTIES + ".");
+            }
+        }
+        if (filter.getCreatedFrom() != null && filter.getCreatedTo() != null
+                && !filter.getCreatedFrom().isBefore(filter.getCreatedTo())) {
+            throw new InvalidUserQueryException("createdFrom must be before createdTo.");
+        }
+        Page<UserSummaryResponse> page = userRepository.searchUserSummaries(filter, pageable);
+        return new UserPageResponse(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages());
+    }
+
+    /**
+     * Runs the single uniqueness query and tells which key is taken (username first, then email, then ID).
+     * @param ownUserId The user being updated, whose own row is not a conflict (null on creation).
+     * @return USERNAME, EMAIL, USER_ID, or null if none of the keys is taken.
+     */
+    private String findConflict(String ownUserId, String userId, String username, String email) {
+        String conflict = null;
+        for (UserKeyView taken : userRepository.findKeyCollisions(userId, username, email)) {
+            if (taken.getUserId().equals(ownUserId)) {
+                continue;
+            }
+            if (username != null && username.equals(taken.getUsername())) {
+                return USERNAME;
+            }
+            if (email != null && email.equals(taken.getEmail())) {
+                conflict = EMAIL;
+            } else if (conflict == null) {
+                conflict = USER_ID;
+            }
+        }
+        return conflict;
+    }
+
+    /**
+     * Tells which unique key a failed insert/update violated, from the column of the violated constraint.
+     * @return USERNAME, EMAIL, USER_ID (the primary key, or a constraint whose column cannot be told),
+     * or null if the violation is not a duplicate key.
+     */
+    private String violatedKey(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                if (violation.getKind() != ConstraintViolationException.ConstraintKind.UNIQUE) {
+                    return null;
+                }
+                String column = userKeyColumns.columnOf(violation.getConstraintName());
+                return USERNAME.equals(column) || EMAIL.equals(column) ? column : USER_ID;
+            }
+        }
+        return null;
+    }
+
+    private static String creationConflictMessage(String key, User user) {
+        if (USERNAME.equals(key)) {
+            return "User with username '" + user.getUsername() + "' already exists.";
+        }
+        if (EMAIL.equals(key)) {
+            return "User with email '" + user.getEmail() + "' already exists.";
+        }
+        return "User with ID '" + user.getUserId() + "' already exists.";
+    }
+
+    private static String updateConflictMessage(String key, String username, String email) {
+        if (USERNAME.equals(key)) {
+            return "Username '" + username + "' is already taken.";
+        }
+        return "Email '" + email + "' is already in use.";
     }
 
     /**
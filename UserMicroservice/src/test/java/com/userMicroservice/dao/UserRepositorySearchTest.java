@@ -0,0 +1,78 @@
+package com.userMicroservice.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.userMicroservice.dto.UserSearchFilter;
+import com.userMicroservice.dto.UserSummaryResponse;
+import com.userMicroservice.model.KycStatus;
+import com.userMicroservice.model.User;
+import com.userMicroservice.model.UserRole;
+
+/**
+ * Checks the filters, sort and paging of the user listing query.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:users;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserRepositorySearchTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        // user-0 .. user-9, one day apart; even ones VERIFIED, every third one an ADMIN
+        for (int i = 0; i < 10; i++) {
+            userRepository.save(new User("user-" + i, "name" + i, "user" + i + "@example.com",
+                    i % 3 == 0 ? UserRole.ADMIN : UserRole.CUSTOMER, START.plusDays(i), "First" + i, "Last" + i,
+                    null, "Street " + i, null, i % 2 == 0 ? KycStatus.VERIFIED : KycStatus.PENDING));
+        }
+    }
+
+    @Test
+    void filtersCombineAndPagesAreCounted() {
+        UserSearchFilter filter = new UserSearchFilter(UserRole.CUSTOMER, null, START.plusDays(1), START.plusDays(9));
+
+        Page<UserSummaryResponse> first = userRepository.searchUserSummaries(filter,
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        // Customers created on days 1..8: 1, 2, 4, 5, 7, 8
+        assertEquals(6, first.getTotalElements());
+        assertEquals(3, first.getTotalPages());
+        assertEquals(List.of("user-8", "user-7"), first.map(UserSummaryResponse::getUserId).getContent());
+
+        Page<UserSummaryResponse> last = userRepository.searchUserSummaries(filter,
+                PageRequest.of(2, 2, Sort.by(Sort.Direction.DESC, "createdAt")));
+        assertEquals(List.of("user-2", "user-1"), last.map(UserSummaryResponse::getUserId).getContent());
+    }
+
+    @Test
+    void equalSortKeysKeepAStableOrder() {
+        Page<UserSummaryResponse> page = userRepository.searchUserSummaries(
+                new UserSearchFilter(null, KycStatus.VERIFIED, null, null), PageRequest.of(0, 10, Sort.by("kycStatus")));
+
+        assertEquals(List.of("user-0", "user-2", "user-4", "user-6", "user-8"),
+                page.map(UserSummaryResponse::getUserId).getContent());
+    }
+}
@@ -0,0 +1,156 @@
+package com.userMicroservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.userMicroservice.dao.UserKeyColumns;
+import com.userMicroservice.dao.UserRepository;
+import com.userMicroservice.dto.UserCreationRequest;
+import com.userMicroservice.dto.UserUpdateRequest;
+import com.userMicroservice.exceptions.UserCreationException;
+import com.userMicroservice.exceptions.UserProfileUpdateException;
+import com.userMicroservice.model.KycStatus;
+import com.userMicroservice.model.User;
+import com.userMicroservice.model.UserRole;
+
+/**
+ * Checks duplicate detection on registration and profile update, both through the uniqueness query and
+ * through the unique constraints when the Bloom filter has not seen a key, and the filter's error rate.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:uniqueness;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "user.bloom-filter.expected-users=10000",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ UserServiceImpl.class, UserKeyBloomFilter.class, UserKeyColumns.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Each call commits (or fails) on its own, as in production
+class UserUniquenessCheckTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserKeyBloomFilter userKeyBloomFilter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        userKeyBloomFilter.warmUp(); // No ApplicationReadyEvent in a slice test
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void takenUsernameIsFoundByTheUniquenessQuery() {
+        userService.createUserProfile(request("alice", "alice@example.com"));
+        String bobId = userService.createUserProfile(request("bob", "bob@example.com")).getUserId();
+
+        UserCreationException duplicate = assertThrows(UserCreationException.class,
+                () -> userService.createUserProfile(request("alice", "other@example.com")));
+        assertEquals("User with username 'alice' already exists.", duplicate.getMessage());
+
+        UserProfileUpdateException taken = assertThrows(UserProfileUpdateException.class,
+                () -> userService.updateUserProfile(bobId, update(null, "alice@example.com")));
+        assertEquals("Email 'alice@example.com' is already in use.", taken.getMessage());
+
+        // Keeping one's own username is not a conflict
+        assertEquals("bob", userService.updateUserProfile(bobId, update("bob", "bob2@example.com")).getUsername());
+    }
+
+    @Test
+    void keyUnknownToTheFilterIsCaughtByTheConstraint() {
+        // Registered through another instance: this instance's filter has never seen these keys
+        userRepository.insert(new User("elsewhere-1", "carol", "carol@example.com", UserRole.CUSTOMER,
+                LocalDateTime.now(), "Carol", "Smith", LocalDate.of(1990, 1, 1), "Street 1", "555-0100", KycStatus.PENDING));
+        assertTrue(!userKeyBloomFilter.mightContainAny(null, null, "carol@example.com"));
+
+        UserCreationException duplicate = assertThrows(UserCreationException.class,
+                () -> userService.createUserProfile(request("caroline", "carol@example.com")));
+        assertEquals("User with email 'carol@example.com' already exists.", duplicate.getMessage());
+    }
+
+    @Test
+    void constraintsWithSystemNamesAreToldApartByColumn() {
+        // As on a database whose constraints ddl-auto created long ago: unnamed, so the database names them
+        for (String constraint : jdbcTemplate.queryForList("SELECT constraint_name FROM information_schema.table_constraints"
+                + " WHERE table_name = 'USER_TABLE' AND constraint_type = 'UNIQUE'", String.class)) {
+            jdbcTemplate.execute("ALTER TABLE user_table DROP CONSTRAINT " + constraint);
+        }
+        jdbcTemplate.execute("ALTER TABLE user_table ADD UNIQUE (username)");
+        jdbcTemplate.execute("ALTER TABLE user_table ADD UNIQUE (email)");
+
+        userRepository.insert(new User("elsewhere-2", "dave", "dave@example.com", UserRole.CUSTOMER,
+                LocalDateTime.now(), "Dave", "Jones", LocalDate.of(1990, 1, 1), "Street 2", "555-0101", KycStatus.PENDING));
+
+        assertEquals("User with username 'dave' already exists.", assertThrows(UserCreationException.class,
+                () -> userService.createUserProfile(request("dave", "dave2@example.com"))).getMessage());
+        assertEquals("User with email 'dave@example.com' already exists.", assertThrows(UserCreationException.class,
+                () -> userService.createUserProfile(request("david", "dave@example.com"))).getMessage());
+        assertEquals("User with ID 'elsewhere-2' already exists.", assertThrows(UserCreationException.class,
+                () -> userService.createUserProfile(new UserCreationRequest("elsewhere-2", "davey", "davey@example.com",
+                        UserRole.CUSTOMER, "First", "Last", LocalDate.of(1990, 1, 1), "Street 1", "555-0100",
+                        KycStatus.PENDING))).getMessage());
+    }
+
+    @Test
+    void filterHasNoFalseNegativesAndFewFalsePositives() {
+        UserKeyBloomFilter filter = new UserKeyBloomFilter(userRepository, 10_000, 0.01);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> filter.warmUp()); // Not a proxy
+        for (int i = 0; i < 10_000; i++) { // A full filter: three keys per user
+            filter.add("id" + i, "user" + i, "user" + i + "@example.com");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContainAny(null, "user" + i, null));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContainAny(null, "new-user" + i, null)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "False positive rate too high: " + falsePositives + " in 100000");
+    }
+
+    private static UserCreationRequest request(String username, String email) {
+        return new UserCreationRequest(null, username, email, UserRole.CUSTOMER, "First", "Last",
+                LocalDate.of(1990, 1, 1), "Street 1", "555-0100", KycStatus.PENDING);
+    }
+
+    private static UserUpdateRequest update(String username, String email) {
+        return new UserUpdateRequest(username, email, null, null, null, null, null, null, null);
+    }
+}
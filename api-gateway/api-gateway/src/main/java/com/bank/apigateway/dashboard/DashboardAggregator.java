@@ -0,0 +1,188 @@
+package com.bank.apigateway.dashboard;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Builds the customer dashboard by calling user-service, account-service, credit-card-service and loan-service
+ * in parallel, then transaction-service for the newest transactions of the accounts found.
+ * Services are reached through Eureka (the same service IDs as the gateway routes), with the caller's
+ * Authorization header, so each service still validates the token and applies its own access rules.
+ * Every call ("leg") has its own timeout (gateway.dashboard.leg-timeout); a leg that times out or fails
+ * is left out of the response and named in its errors, instead of failing the whole dashboard.
+ * Legs are counted in gateway.dashboard.leg, tagged with the leg and the result (ok, timeout or error).
+ */
+@Service
+public class DashboardAggregator {
+
+    static final String PROFILE = "profile";
+    static final String ACCOUNTS = "accounts";
+    static final String CARDS = "cards";
+    static final String LOANS = "loans";
+    static final String RECENT_TRANSACTIONS = "recentTransactions";
+
+    private static final int MAX_ACCOUNTS = 10; // Recent transactions are read from at most this many accounts
+
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+    private final Duration legTimeout;
+    private final int recentTransactions;
+
+    @Autowired
+    public DashboardAggregator(WebClient.Builder webClientBuilder, ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.dashboard.leg-timeout:PT2S}") Duration legTimeout,
+            @Value("${gateway.dashboard.recent-transactions:5}") int recentTransactions) {
+        this(webClientBuilder.clone().filter(loadBalancer).build(), meterRegistry, legTimeout, recentTransactions);
+    }
+
+    DashboardAggregator(WebClient webClient, MeterRegistry meterRegistry, Duration legTimeout, int recentTransactions) {
+        this.webClient = webClient;
+        this.meterRegistry = meterRegistry;
+        this.legTimeout = legTimeout;
+        this.recentTransactions = recentTransactions;
+    }
+
+    /**
+     * Fetches the dashboard of a user.
+     * @param authorization The caller's Authorization header, passed on to every service.
+     * @param userId The caller's user ID (the JWT subject).
+     * @return 200 with every section that could be fetched, 401 if a service rejected the token,
+     *         or 502 if no section could be fetched.
+     */
+    public Mono<ResponseEntity<DashboardResponse>> getDashboard(String authorization, String userId) {
+        Mono<Leg> profile = fetch(PROFILE, authorization, "http://user-service/auth/profile");
+        Mono<Leg> accounts = fetch(ACCOUNTS, authorization, "http://account-service/accounts/user/{userId}", userId)
+                .cache(); // Also needed for the recent transactions
+        Mono<Leg> cards = fetch(CARDS, authorization, "http://credit-card-service/cards/user/{userId}", userId);
+        Mono<Leg> loans = fetch(LOANS, authorization, "http://loan-service/loans/user/{userId}", userId);
+        Mono<Leg> transactions = accounts.flatMap(leg -> fetchRecentTransactions(leg, authorization));
+
+        return Mono.zip(profile, accounts, cards, loans, transactions)
+                .map(legs -> toResponse(List.of(legs.getT1(), legs.getT2(), legs.getT3(), legs.getT4(), legs.getT5())));
+    }
+
+    /**
+     * One GET to a service. Never fails: errors and timeouts become a failed Leg.
+     */
+    private Mono<Leg> fetch(String name, String authorization, String uriTemplate, Object... uriVariables) {
+        return webClient.get()
+                .uri(uriTemplate, uriVariables) // Variables are encoded, so a crafted subject cannot change the path
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchangeToMono(response -> {
+                    if (response.statusCode().value() == HttpStatus.NO_CONTENT.value()) {
+                        // The services answer 204 when the user has no accounts, loans, ...
+                        return response.releaseBody().thenReturn(new Leg(name, JsonNodeFactory.instance.arrayNode(), null, null));
+                    }
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        return response.releaseBody().thenReturn(
+                                new Leg(name, null, "status " + response.statusCode().value(), response.statusCode()));
+                    }
+                    return response.bodyToMono(JsonNode.class)
+                            .map(body -> new Leg(name, body, null, null))
+                            .defaultIfEmpty(new Leg(name, JsonNodeFactory.instance.arrayNode(), null, null));
+                })
+                .timeout(legTimeout)
+                .onErrorResume(TimeoutException.class, e -> Mono.just(new Leg(name, null, "timeout", null)))
+                .onErrorResume(e -> {
+                    System.err.println("Dashboard " + name + " call failed: " + e);
+                    return Mono.just(new Leg(name, null, "unavailable", null));
+                })
+                .doOnNext(leg -> meterRegistry.counter("gateway.dashboard.leg", "leg", name,
+                        "result", leg.error() == null ? "ok" : "timeout".equals(leg.error()) ? "timeout" : "error").increment());
+    }
+
+    /**
+     * Reads the newest transactions of each account in parallel and keeps the newest overall.
+     */
+    private Mono<Leg> fetchRecentTransactions(Leg accounts, String authorization) {
+        if (accounts.body() == null) {
+            return Mono.just(new Leg(RECENT_TRANSACTIONS, null, "accounts unavailable", null));
+        }
+        List<String> accountIds = new ArrayList<>();
+        for (JsonNode account : accounts.body()) {
+            String accountId = account.path("accountId").asText("");
+            if (!accountId.isEmpty() && accountIds.size() < MAX_ACCOUNTS) {
+                accountIds.add(accountId);
+            }
+        }
+        return Flux.fromIterable(accountIds)
+                .flatMap(accountId -> fetch(RECENT_TRANSACTIONS, authorization,
+                        "http://transaction-service/transactions/account/{accountId}/history?limit={limit}",
+                        accountId, recentTransactions))
+                .collectList()
+                .map(this::newestTransactions);
+    }
+
+    private Leg newestTransactions(List<Leg> perAccount) {
+        List<JsonNode> transactions = new ArrayList<>();
+        Leg failure = null;
+        for (Leg leg : perAccount) {
+            if (leg.body() == null) {
+                failure = leg;
+            } else {
+                leg.body().path("transactions").forEach(transactions::add);
+            }
+        }
+        if (failure != null && transactions.isEmpty()) {
+            return failure;
+        }
+        // ISO-8601 local date-times sort chronologically as text
+        transactions.sort(Comparator.comparing((JsonNode transaction) -> transaction.path("transactionDate").asText()).reversed());
+        ArrayNode newest = JsonNodeFactory.instance.arrayNode();
+        transactions.stream().limit(recentTransactions).forEach(newest::add);
+        return new Leg(RECENT_TRANSACTIONS, newest, failure == null ? null : "incomplete: " + failure.error(), null);
+    }
+
+    private ResponseEntity<DashboardResponse> toResponse(List<Leg> legs) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        boolean anyFetched = false;
+        for (Leg leg : legs) {
+            if (leg.status() != null && leg.status().value() == HttpStatus.UNAUTHORIZED.value()) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build(); // The token was rejected: log in again
+            }
+            if (leg.error() != null) {
+                errors.put(leg.name(), leg.error());
+            }
+            anyFetched |= leg.body() != null;
+        }
+        DashboardResponse dashboard = new DashboardResponse(legs.get(0).body(), legs.get(1).body(), legs.get(2).body(),
+                legs.get(3).body(), legs.get(4).body(), errors);
+        return ResponseEntity.status(anyFetched ? HttpStatus.OK : HttpStatus.BAD_GATEWAY)
+                .cacheControl(CacheControl.noStore()) // Balances: never kept by browsers or proxies
+                .body(dashboard);
+    }
+
+    /**
+     * The outcome of one call: a body, or an error (both when only part of the data could be fetched).
+     * @param status The service's status when it answered with an error, otherwise null.
+     */
+    record Leg(String name, JsonNode body, String error, HttpStatusCode status) {
+    }
+}
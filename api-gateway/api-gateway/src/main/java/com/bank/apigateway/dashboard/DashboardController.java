@@ -0,0 +1,79 @@
+package com.bank.apigateway.dashboard;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bank.apigateway.filter.CallerVerifier;
+import com.bank.apigateway.ratelimit.LocalRateLimiter;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Backend-for-frontend endpoint of the gateway: the customer dashboard in one call instead of one per service.
+ * It is a controller, not a route, so the routes' RequestRateLimiter filter does not apply: the same per-user
+ * token bucket (LocalRateLimiter) is checked here, before the calls to the services are made.
+ */
+@RestController
+@RequestMapping("/dashboard")
+public class DashboardController {
+
+    static final String RATE_LIMIT_ID = "dashboard";
+
+    private final DashboardAggregator dashboardAggregator;
+    private final CallerVerifier callerVerifier;
+    private final LocalRateLimiter rateLimiter;
+    private final LocalRateLimiter.Config rateLimit;
+
+    @Autowired
+    public DashboardController(DashboardAggregator dashboardAggregator, CallerVerifier callerVerifier,
+            LocalRateLimiter rateLimiter,
+            @Value("${gateway.dashboard.rate-limit.replenish-rate:1}") int replenishRate,
+            @Value("${gateway.dashboard.rate-limit.burst-capacity:5}") int burstCapacity) {
+        this.dashboardAggregator = dashboardAggregator;
+        this.callerVerifier = callerVerifier;
+        this.rateLimiter = rateLimiter;
+        this.rateLimit = new LocalRateLimiter.Config().setReplenishRate(replenishRate).setBurstCapacity(burstCapacity);
+    }
+
+    /**
+     * Handles GET /dashboard requests.
+     * Returns the caller's profile, accounts, credit cards, loans and most recent transactions.
+     * The user ID is the subject of the caller's JWT, once its signature is checked; each service it is passed to
+     * validates the token again.
+     * Sections that could not be fetched in time are missing and listed in "errors".
+     *
+     * @param request The incoming request, with the caller's bearer token.
+     * @return ResponseEntity with the DashboardResponse and HTTP status 200 (OK), even if some sections are missing;
+     *         401 (Unauthorized) without a valid bearer JWT or if a service rejected it;
+     *         429 (Too Many Requests) with Retry-After over the caller's limit (gateway.dashboard.rate-limit);
+     *         503 (Service Unavailable) if the token cannot be checked; 502 (Bad Gateway) if every call failed.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<DashboardResponse>> getDashboard(ServerHttpRequest request) {
+        return callerVerifier.verifiedSubject(request)
+                .flatMap(userId -> rateLimiter.isAllowed(RATE_LIMIT_ID, "user:" + userId, rateLimit)
+                        .flatMap(allowed -> {
+                            if (!allowed.isAllowed()) {
+                                HttpHeaders headers = new HttpHeaders();
+                                allowed.getHeaders().forEach(headers::add);
+                                return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                        .headers(headers).<DashboardResponse>build());
+                            }
+                            return dashboardAggregator.getDashboard(
+                                    request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION), userId);
+                        }))
+                .switchIfEmpty(Mono.fromSupplier(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).build()))
+                .onErrorResume(JwtException.class, e -> {
+                    System.err.println("Could not verify caller token for the dashboard: " + e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+                });
+    }
+}
@@ -0,0 +1,30 @@
+package com.bank.apigateway.dashboard;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Everything the customer dashboard shows after login, in one response.
+ * Each section is passed through as the owning service returned it, so the gateway does not need to know its fields.
+ * A section whose call failed or timed out is left out and named in errors instead, with the reason
+ * (e.g. "loans": "timeout"); the other sections are still returned.
+ *
+ * @param profile The caller's profile (user-service GET /auth/profile).
+ * @param accounts The caller's accounts (account-service GET /accounts/user/{userId}).
+ * @param cards The caller's credit cards (credit-card-service GET /cards/user/{userId}).
+ * @param loans The caller's loans (loan-service GET /loans/user/{userId}).
+ * @param recentTransactions The newest transactions across the caller's accounts, newest first
+ *        (transaction-service GET /transactions/account/{accountId}/history).
+ * @param errors Section name to the reason it is missing or incomplete; omitted when everything was fetched.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DashboardResponse(
+        JsonNode profile,
+        JsonNode accounts,
+        JsonNode cards,
+        JsonNode loans,
+        JsonNode recentTransactions,
+        @JsonInclude(JsonInclude.Include.NON_EMPTY) Map<String, String> errors) {
+}
@@ -0,0 +1,118 @@
+package com.bank.apigateway.filter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.jwk.source.OutageTolerantJWKSetSource;
+import com.nimbusds.jose.jwk.source.RefreshAheadCachingJWKSetSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Validates JWTs against Keycloak's public keys (the JWKS at jwk-set-uri) with the same key caching as the
+ * resource servers' CachingJwksJwtDecoder, so a slow or unavailable Keycloak does not stall the gateway:
+ * - the keys are fetched at startup and then refreshed in the background shortly before they expire (refresh-ahead);
+ * - if a fetch fails, the last keys are kept in use for up to outage-tolerance (stale-while-revalidate);
+ * - a token signed with an unknown key ID (Keycloak rotated its keys) triggers an immediate refetch,
+ *   at most once per min-refresh-interval so that forged key IDs cannot flood Keycloak.
+ * Nimbus' key source is blocking, so decoding runs on the bounded elastic scheduler rather than on a Netty thread:
+ * a refetch can then wait for Keycloak without holding up other requests.
+ */
+public class CachingJwksReactiveJwtDecoder implements ReactiveJwtDecoder, AutoCloseable {
+
+    private final JWKSource<SecurityContext> jwkSource;
+    private final NimbusJwtDecoder delegate;
+
+    /**
+     * @param jwkSetUri Keycloak's JWKS endpoint.
+     * @param ttl How long fetched keys are considered fresh.
+     * @param refreshAhead How long before the end of ttl the background refresh starts.
+     * @param outageTolerance How long the last keys stay in use while the endpoint cannot be reached.
+     * @param minRefreshInterval The minimum time between two fetches.
+     * @param timeout The connect and read timeout of a fetch.
+     */
+    public CachingJwksReactiveJwtDecoder(String jwkSetUri, Duration ttl, Duration refreshAhead, Duration outageTolerance,
+            Duration minRefreshInterval, Duration timeout) {
+        DefaultResourceRetriever retriever = new DefaultResourceRetriever((int) timeout.toMillis(), (int) timeout.toMillis(),
+                JWKSourceBuilder.DEFAULT_HTTP_SIZE_LIMIT);
+        try {
+            this.jwkSource = JWKSourceBuilder.<SecurityContext>create(URI.create(jwkSetUri).toURL(), retriever)
+                    .cache(ttl.toMillis(), timeout.toMillis())
+                    .refreshAheadCache(refreshAhead.toMillis(), true, event -> {
+                        if (event instanceof RefreshAheadCachingJWKSetSource.ScheduledRefreshFailed<?> failed) {
+                            System.err.println("Background JWKS refresh from " + jwkSetUri + " failed: "
+                                    + failed.getException().getMessage());
+                        }
+                    })
+                    .outageTolerant(outageTolerance.toMillis(), event -> {
+                        if (event instanceof OutageTolerantJWKSetSource.OutageEvent<?> outage) {
+                            System.err.println("JWKS endpoint " + jwkSetUri + " unreachable (" + outage.getException().getMessage()
+                                    + "); using the cached keys for up to " + outage.getRemainingTime() + " ms more.");
+                        }
+                    })
+                    .rateLimited(minRefreshInterval.toMillis())
+                    .retrying(true)
+                    .build();
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid jwk-set-uri: " + jwkSetUri, e);
+        }
+
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+            // Claims (exp, nbf) are checked by the Spring validators of NimbusJwtDecoder
+        });
+        this.delegate = new NimbusJwtDecoder(jwtProcessor);
+
+        warmUp(jwkSetUri);
+    }
+
+    /**
+     * @return The validated token; a BadJwtException if it is invalid, a JwtException if the keys could not be fetched.
+     */
+    @Override
+    public Mono<Jwt> decode(String token) {
+        return Mono.fromCallable(() -> delegate.decode(token)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Stops the background refresh.
+     */
+    @Override
+    public void close() throws IOException {
+        if (jwkSource instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Fetches the keys now, so the first requests do not wait for Keycloak.
+     * A failure is not fatal: the gateway can start before Keycloak, and the keys are then fetched on the first request.
+     */
+    private void warmUp(String jwkSetUri) {
+        try {
+            int keys = jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null).size();
+            System.out.println("Loaded " + keys + " signing keys from " + jwkSetUri);
+        } catch (KeySourceException e) {
+            System.err.println("Could not load the signing keys from " + jwkSetUri + " at startup: " + e.getMessage());
+        }
+    }
+}
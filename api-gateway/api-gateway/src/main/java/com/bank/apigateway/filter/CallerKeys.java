@@ -0,0 +1,43 @@
+package com.bank.apigateway.filter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+/**
+ * Identifies the caller of a request for the gateway's per-caller filters.
+ * The gateway does not validate JWTs (the services do), so the token's claims cannot be trusted here:
+ * anyone can send a token with someone else's subject. Anything that hands out data per caller is therefore keyed
+ * by the token itself, which the service accepted when the data was produced.
+ * Where a user ID is needed (rate limiting, the dashboard), CallerVerifier checks the token's signature first.
+ */
+public final class CallerKeys {
+
+    /**
+     * The key of requests without an Authorization header.
+     */
+    public static final String ANONYMOUS = "anonymous";
+
+    private CallerKeys() {
+    }
+
+    /**
+     * @return A SHA-256 digest of the Authorization header (Base64), or ANONYMOUS if there is none.
+     */
+    public static String tokenFingerprint(ServerHttpRequest request) {
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || authorization.isEmpty()) {
+            return ANONYMOUS;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(authorization.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // Every JVM must provide it
+        }
+    }
+}
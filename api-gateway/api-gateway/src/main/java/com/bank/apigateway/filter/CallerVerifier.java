@@ -0,0 +1,93 @@
+package com.bank.apigateway.filter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Verifies the caller's bearer JWT against Keycloak's public keys (spring.security.oauth2.resourceserver.jwt.jwk-set-uri),
+ * for gateway features that are keyed by user: rate limiting and the dashboard.
+ * The keys are cached and refreshed like in the resource servers (see CachingJwksReactiveJwtDecoder, security.jwt.jwks.*).
+ * The gateway does not reject requests with a bad token (the services do); this only decides whose request it is.
+ * A verified token is remembered, by its SHA-256 digest, until it expires, so only a user's first request
+ * with a new token pays for the signature check. At most gateway.caller-verification.max-tokens are kept.
+ */
+@Component
+public class CallerVerifier implements AutoCloseable {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final ReactiveJwtDecoder jwtDecoder;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    @Autowired
+    public CallerVerifier(@Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+            @Value("${security.jwt.jwks.ttl:PT5M}") Duration ttl,
+            @Value("${security.jwt.jwks.refresh-ahead:PT30S}") Duration refreshAhead,
+            @Value("${security.jwt.jwks.outage-tolerance:PT12H}") Duration outageTolerance,
+            @Value("${security.jwt.jwks.min-refresh-interval:PT10S}") Duration minRefreshInterval,
+            @Value("${security.jwt.jwks.timeout:PT2S}") Duration timeout,
+            @Value("${gateway.caller-verification.max-tokens:100000}") long maxTokens) {
+        this(new CachingJwksReactiveJwtDecoder(jwkSetUri, ttl, refreshAhead, outageTolerance, minRefreshInterval, timeout),
+                maxTokens);
+    }
+
+    CallerVerifier(ReactiveJwtDecoder jwtDecoder, long maxTokens) {
+        this.jwtDecoder = jwtDecoder;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxTokens)
+                .expireAfterWrite(Duration.ofHours(1)) // Keycloak access tokens live minutes; expiry is checked on every hit
+                .build();
+    }
+
+    /**
+     * @return The sub claim (the Keycloak user ID) of the request's bearer JWT once its signature and expiry are checked;
+     *         empty if the request has no bearer token or the token is invalid (forged, expired, not a JWT);
+     *         an error if the token could not be checked, e.g. because Keycloak's keys cannot be fetched.
+     */
+    public Mono<String> verifiedSubject(ServerHttpRequest request) {
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return Mono.empty();
+        }
+        String fingerprint = CallerKeys.tokenFingerprint(request);
+        VerifiedToken known = verifiedTokens.getIfPresent(fingerprint);
+        if (known != null) {
+            return known.expiresAt().isAfter(Instant.now()) ? Mono.just(known.subject()) : Mono.empty();
+        }
+        return jwtDecoder.decode(authorization.substring(BEARER_PREFIX.length()).trim())
+                .filter(jwt -> jwt.getSubject() != null && !jwt.getSubject().isEmpty())
+                .map(jwt -> {
+                    verifiedTokens.put(fingerprint, new VerifiedToken(jwt.getSubject(),
+                            jwt.getExpiresAt() != null ? jwt.getExpiresAt() : Instant.now().plus(Duration.ofMinutes(5))));
+                    return jwt.getSubject();
+                })
+                .onErrorResume(BadJwtException.class, e -> Mono.empty()); // Invalid token, as opposed to keys unavailable
+    }
+
+    /**
+     * Stops the background refresh of the keys. Called by Spring when the context closes.
+     */
+    @Override
+    public void close() throws IOException {
+        if (jwtDecoder instanceof CachingJwksReactiveJwtDecoder caching) {
+            caching.close();
+        }
+    }
+
+    private record VerifiedToken(String subject, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,260 @@
+package com.bank.apigateway.filter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Route filter "ResponseCache" that keeps GET responses in memory, per caller, so that polling clients
+ * (e.g. the frontend refreshing /auth/profile) are answered by the gateway.
+ * Usage in a route: - ResponseCache=30s (the longest time a response is kept).
+ *
+ * A response is only cached if the service allows it: status 200, Cache-Control with max-age > 0 and without
+ * no-store/no-cache, and no Set-Cookie. It is then kept for max-age, at most the route's ttl.
+ * Spring Security sends "no-store" by default, so a service opts an endpoint in by setting Cache-Control explicitly.
+ * Responses are keyed by route, caller (see CallerKeys) and path + query, so one caller never sees another's data.
+ * A cached response is served with an Age header; if it has an ETag that the client sends in If-None-Match,
+ * the answer is 304 Not Modified.
+ * Requests with other methods are never cached; once they complete, the caller's cached responses on that route
+ * are dropped so that the caller sees their own change.
+ * Requests carrying Cache-Control: no-cache skip the lookup (the fresh response is still stored).
+ * Every request is counted in gateway.response.cache, tagged with the route and result (hit, miss or bypass).
+ * The cache holds at most gateway.response-cache.max-size of bodies (each entry also counts ENTRY_OVERHEAD_BYTES
+ * for its key and headers). A body over gateway.response-cache.max-body-size is not cached: it is streamed through
+ * once that much of it has been read, instead of being buffered whole.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    private static final String METRIC_NAME = "gateway.response.cache";
+    private static final int ENTRY_OVERHEAD_BYTES = 1024;
+
+    private final Cache<ResponseKey, CachedResponse> responses;
+    private final MeterRegistry meterRegistry;
+    private final long maxBodyBytes;
+
+    @Autowired
+    public ResponseCacheGatewayFilterFactory(MeterRegistry meterRegistry,
+            @Value("${gateway.response-cache.max-size:64MB}") DataSize maxSize,
+            @Value("${gateway.response-cache.max-body-size:256KB}") DataSize maxBodySize) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.maxBodyBytes = maxBodySize.toBytes();
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((ResponseKey key, CachedResponse response) -> response.body().length + ENTRY_OVERHEAD_BYTES)
+                .expireAfter(new UntilStale())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "gateway-responses");
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "unknown";
+            String caller = CallerKeys.tokenFingerprint(request);
+
+            if (request.getMethod() != HttpMethod.GET) {
+                count(routeId, "bypass");
+                return chain.filter(exchange).doFinally(signal -> evictCaller(routeId, caller));
+            }
+
+            ResponseKey key = new ResponseKey(routeId, caller, request.getURI().getRawPath(), request.getURI().getRawQuery());
+            if (!hasDirective(request.getHeaders().getCacheControl(), "no-cache")) {
+                CachedResponse cached = responses.getIfPresent(key);
+                if (cached != null) {
+                    count(routeId, "hit");
+                    return writeCached(exchange, cached);
+                }
+            }
+            count(routeId, "miss");
+            return chain.filter(exchange.mutate().response(new StoringResponse(exchange.getResponse(), key, config.getTtl())).build());
+        };
+    }
+
+    /**
+     * Drops every cached response of a caller on a route. Walks the whole cache, which is fine at its size
+     * and at the rate of mutations.
+     */
+    private void evictCaller(String routeId, String caller) {
+        responses.asMap().keySet().removeIf(key -> key.routeId().equals(routeId) && key.caller().equals(caller));
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().set(HttpHeaders.AGE, Long.toString(cached.ageSeconds()));
+
+        String etag = cached.headers().getETag();
+        if (etag != null && exchange.getRequest().getHeaders().getIfNoneMatch().stream().anyMatch(tag -> sameEtag(tag, etag))) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * How long a response may be cached, or null if it must not be.
+     */
+    private static Duration freshnessLifetime(HttpStatusCode status, HttpHeaders headers, Duration routeTtl) {
+        if (status == null || status.value() != HttpStatus.OK.value() || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return null;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null || hasDirective(cacheControl, "no-store") || hasDirective(cacheControl, "no-cache")) {
+            return null;
+        }
+        for (String directive : cacheControl.split(",")) {
+            String trimmed = directive.trim().toLowerCase(Locale.ROOT);
+            if (trimmed.startsWith("max-age=")) {
+                try {
+                    long maxAge = Long.parseLong(trimmed.substring("max-age=".length()));
+                    return maxAge > 0 ? Duration.ofSeconds(Math.min(maxAge, routeTtl.toSeconds())) : null;
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasDirective(String cacheControl, String directive) {
+        if (cacheControl == null) {
+            return false;
+        }
+        for (String part : cacheControl.split(",")) {
+            if (part.trim().equalsIgnoreCase(directive)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Weak comparison (RFC 9110): W/"x" matches "x".
+     */
+    private static boolean sameEtag(String requested, String stored) {
+        return requested.equals("*") || stripWeak(requested).equals(stripWeak(stored));
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private void count(String routeId, String result) {
+        meterRegistry.counter(METRIC_NAME, "route", routeId, "result", result).increment();
+    }
+
+    /**
+     * Passes the service's response through and stores a copy when it may be cached.
+     */
+    private class StoringResponse extends ServerHttpResponseDecorator {
+
+        private final ResponseKey key;
+        private final Duration routeTtl;
+
+        StoringResponse(ServerHttpResponse delegate, ResponseKey key, Duration routeTtl) {
+            super(delegate);
+            this.key = key;
+            this.routeTtl = routeTtl;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            Duration ttl = freshnessLifetime(getStatusCode(), getHeaders(), routeTtl);
+            if (ttl == null) {
+                return super.writeWith(body);
+            }
+            return super.writeWith(ResponseCopies.copyIfAtMost(body, maxBodyBytes, bufferFactory(),
+                    bytes -> responses.put(key, new CachedResponse(ResponseCopies.copyHeaders(getHeaders(), false), bytes,
+                            System.nanoTime(), ttl)),
+                    () -> { })); // Too large: not cached
+        }
+    }
+
+    /**
+     * Route filter arguments.
+     */
+    public static class Config {
+
+        /**
+         * The longest time a response is kept, whatever its max-age.
+         */
+        private Duration ttl = Duration.ofSeconds(30);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    private record ResponseKey(String routeId, String caller, String path, String query) {
+    }
+
+    private record CachedResponse(HttpHeaders headers, byte[] body, long storedAtNanos, Duration ttl) {
+
+        long ageSeconds() {
+            return Duration.ofNanos(System.nanoTime() - storedAtNanos).toSeconds();
+        }
+    }
+
+    /**
+     * Keeps each response for its own freshness lifetime.
+     */
+    private static final class UntilStale implements Expiry<ResponseKey, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(ResponseKey key, CachedResponse value, long currentTime) {
+            return value.ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(ResponseKey key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(ResponseKey key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
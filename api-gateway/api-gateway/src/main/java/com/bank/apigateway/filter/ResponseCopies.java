@@ -0,0 +1,94 @@
+package com.bank.apigateway.filter;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Helpers for filters that keep a copy of a service's response to send it again (cache, single-flight).
+ */
+final class ResponseCopies {
+
+    /**
+     * Headers that describe the connection rather than the response; they are not copied.
+     */
+    private static final Set<String> CONNECTION_HEADERS = Set.of(HttpHeaders.CONNECTION, "Keep-Alive",
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONTENT_LENGTH, HttpHeaders.DATE);
+
+    private ResponseCopies() {
+    }
+
+    /**
+     * @return A read-only copy of the headers without the connection headers (and without Set-Cookie if asked).
+     */
+    static HttpHeaders copyHeaders(HttpHeaders headers, boolean includeCookies) {
+        HttpHeaders copy = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            boolean skipped = CONNECTION_HEADERS.stream().anyMatch(name::equalsIgnoreCase)
+                    || (!includeCookies && name.equalsIgnoreCase(HttpHeaders.SET_COOKIE));
+            if (!skipped) {
+                copy.put(name, List.copyOf(values));
+            }
+        });
+        return HttpHeaders.readOnlyHttpHeaders(copy);
+    }
+
+    /**
+     * Passes a response body through and hands a copy of it to whole if it is no larger than maxBytes.
+     * At most maxBytes (plus one buffer) are held in memory: a larger body is not copied, overflow is called as soon
+     * as the limit is passed, and the buffers held so far are sent on followed by the rest of the body as it arrives.
+     */
+    static Flux<DataBuffer> copyIfAtMost(Publisher<? extends DataBuffer> body, long maxBytes, DataBufferFactory bufferFactory,
+            Consumer<byte[]> whole, Runnable overflow) {
+        AtomicLong bytesRead = new AtomicLong();
+        return Flux.<DataBuffer>from(body)
+                // One list up to the buffer that passes the limit (or the whole body), then a list per buffer
+                .bufferUntil(buffer -> bytesRead.addAndGet(buffer.readableByteCount()) > maxBytes)
+                .switchOnFirst((first, lists) -> {
+                    if (bytesRead.get() > maxBytes) {
+                        overflow.run();
+                        return lists.flatMapIterable(Function.identity());
+                    }
+                    // Within the limit, the only list is emitted when the body is complete
+                    return lists.map(list -> {
+                        byte[] bytes = readAndRelease(list);
+                        whole.accept(bytes);
+                        return bufferFactory.wrap(bytes);
+                    }).switchIfEmpty(Mono.fromRunnable(() -> whole.accept(new byte[0])));
+                })
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    /**
+     * Copies the content of buffers into one array and releases them.
+     */
+    static byte[] readAndRelease(List<DataBuffer> buffers) {
+        int length = 0;
+        for (DataBuffer buffer : buffers) {
+            length += buffer.readableByteCount();
+        }
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        try {
+            for (DataBuffer buffer : buffers) {
+                int count = buffer.readableByteCount();
+                buffer.read(bytes, offset, count);
+                offset += count;
+            }
+            return bytes;
+        } finally {
+            buffers.forEach(DataBufferUtils::release);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.bank.apigateway.filter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Route filter "SingleFlight" that collapses identical concurrent GETs into one call to the service.
+ * Usage in a route: - SingleFlight=2s (how long a collapsed request waits for the shared response).
+ *
+ * Requests are identical when they have the same route, caller (see CallerKeys), path and query.
+ * The first one (the leader) goes to the service; the ones arriving while it is in flight (followers) wait for it
+ * and get a copy of its response (status, headers and body). A follower that waits longer than the route's
+ * maxWait, or whose leader fails or has a body over gateway.single-flight.max-body-size, makes its own call.
+ * The leader's body is only held in memory up to that size; a larger body is streamed through to the leader's caller.
+ * Only in-flight calls are shared: once the leader's response is written, the next request is a new leader.
+ * Other methods are never collapsed.
+ * Every GET is counted in gateway.single.flight, tagged with the route and result (leader, collapsed or timeout).
+ */
+@Component
+public class SingleFlightGatewayFilterFactory extends AbstractGatewayFilterFactory<SingleFlightGatewayFilterFactory.Config> {
+
+    private static final String METRIC_NAME = "gateway.single.flight";
+
+    private final ConcurrentHashMap<FlightKey, Flight> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final long maxBodyBytes;
+
+    @Autowired
+    public SingleFlightGatewayFilterFactory(MeterRegistry meterRegistry,
+            @Value("${gateway.single-flight.max-body-size:1MB}") DataSize maxBodySize) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.maxBodyBytes = maxBodySize.toBytes();
+        meterRegistry.gaugeMapSize("gateway.single.flight.in.flight", List.of(), inFlight);
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("maxWait");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "unknown";
+            FlightKey key = new FlightKey(routeId, CallerKeys.tokenFingerprint(request), request.getURI().getRawPath(),
+                    request.getURI().getRawQuery());
+
+            Flight flight = new Flight();
+            Flight leader = inFlight.putIfAbsent(key, flight);
+            if (leader == null) {
+                count(routeId, "leader");
+                return chain.filter(exchange.mutate().response(new SharingResponse(exchange.getResponse(), flight)).build())
+                        .doFinally(signal -> {
+                            inFlight.remove(key, flight);
+                            flight.response().tryEmitEmpty(); // No-op if the response was shared
+                        });
+            }
+            return follow(exchange, chain, routeId, leader, config.getMaxWait());
+        };
+    }
+
+    /**
+     * Waits for the leader's response and sends a copy, or makes its own call if there is none in time.
+     */
+    private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain, String routeId, Flight leader,
+            Duration maxWait) {
+        return leader.response().asMono()
+                .timeout(maxWait)
+                .map(Optional::of)
+                .onErrorResume(TimeoutException.class, e -> Mono.just(Optional.empty()))
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(shared -> {
+                    if (shared.isEmpty()) {
+                        count(routeId, "timeout");
+                        return chain.filter(exchange);
+                    }
+                    count(routeId, "collapsed");
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.setStatusCode(shared.get().status());
+                    response.getHeaders().putAll(shared.get().headers());
+                    return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.get().body())));
+                });
+    }
+
+    private void count(String routeId, String result) {
+        meterRegistry.counter(METRIC_NAME, "route", routeId, "result", result).increment();
+    }
+
+    /**
+     * Passes the leader's response through and hands a copy to the followers.
+     */
+    private class SharingResponse extends ServerHttpResponseDecorator {
+
+        private final Flight flight;
+
+        SharingResponse(ServerHttpResponse delegate, Flight flight) {
+            super(delegate);
+            this.flight = flight;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(ResponseCopies.copyIfAtMost(body, maxBodyBytes, bufferFactory(), bytes -> {
+                if (getStatusCode() != null) {
+                    flight.response().tryEmitValue(new SharedResponse(getStatusCode(),
+                            ResponseCopies.copyHeaders(getHeaders(), true), bytes));
+                }
+            }, () -> flight.response().tryEmitEmpty())); // Too large to share: followers make their own calls now
+        }
+    }
+
+    /**
+     * Route filter arguments.
+     */
+    public static class Config {
+
+        /**
+         * How long a follower waits for the leader before making its own call.
+         */
+        private Duration maxWait = Duration.ofSeconds(2);
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+
+    private record FlightKey(String routeId, String caller, String path, String query) {
+    }
+
+    /**
+     * A call in progress; its response is published once to every follower.
+     */
+    private record Flight(Sinks.One<SharedResponse> response) {
+
+        Flight() {
+            this(Sinks.one());
+        }
+    }
+
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.bank.apigateway.ratelimit;
+
+import java.net.InetSocketAddress;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.bank.apigateway.filter.CallerKeys;
+import com.bank.apigateway.filter.CallerVerifier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Rate limiting key of a request: "user:" + the subject of the caller's verified JWT (the Keycloak user ID),
+ * so that all of a user's sessions share one budget, or "ip:" + the client address for requests without a valid token.
+ * The subject is only trusted once CallerVerifier has checked the token's signature: a forged token
+ * neither gets a fresh budget nor spends someone else's, it is counted against the client address.
+ * If the token cannot be checked (Keycloak's keys unavailable), the key is the token's digest plus the client address.
+ */
+@Component
+public class CallerKeyResolver implements KeyResolver {
+
+    private final CallerVerifier callerVerifier;
+
+    @Autowired
+    public CallerKeyResolver(CallerVerifier callerVerifier) {
+        this.callerVerifier = callerVerifier;
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        return callerVerifier.verifiedSubject(request)
+                .map(subject -> "user:" + subject)
+                .switchIfEmpty(Mono.fromSupplier(() -> "ip:" + clientAddress(request)))
+                .onErrorResume(e -> {
+                    System.err.println("Could not verify caller token for rate limiting: " + e.getMessage());
+                    return Mono.just("token:" + CallerKeys.tokenFingerprint(request) + "@" + clientAddress(request));
+                });
+    }
+
+    private static String clientAddress(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return "unknown";
+        }
+        return remoteAddress.getAddress().getHostAddress();
+    }
+}
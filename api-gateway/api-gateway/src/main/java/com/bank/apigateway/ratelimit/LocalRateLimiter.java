@@ -0,0 +1,118 @@
+package com.bank.apigateway.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory rate limiter for the gateway's RequestRateLimiter filter: one TokenBucket per route and caller
+ * (the caller comes from CallerKeyResolver), with no Redis or other shared store.
+ * Limits are per gateway instance, so with N instances a caller may get up to N times the configured rate.
+ * Configured per route in application.yaml, next to the filter:
+ *   - name: RequestRateLimiter
+ *     args:
+ *       local-rate-limiter.replenish-rate: 20 # Sustained requests per second
+ *       local-rate-limiter.burst-capacity: 40 # Requests allowed at once after being idle
+ * A refused request gets 429 Too Many Requests with Retry-After (seconds); every answer has X-RateLimit-Remaining.
+ * Refusals are counted in gateway.rate.limit.denied, tagged with the route.
+ * Buckets idle for gateway.rate-limit.idle-timeout are dropped (they would be full again anyway);
+ * at most gateway.rate-limit.max-keys are kept.
+ */
+@Component
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final Config defaultConfig = new Config();
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public LocalRateLimiter(ConfigurationService configurationService, MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limit.max-keys:1000000}") long maxKeys,
+            @Value("${gateway.rate-limit.idle-timeout:PT10M}") Duration idleTimeout) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        return isAllowed(routeId, id, getConfig().getOrDefault(routeId, defaultConfig));
+    }
+
+    /**
+     * Takes a token from the caller's bucket for something that is not a gateway route (e.g. GET /dashboard).
+     * @param routeId Stands in for a route ID: the buckets' namespace and the route tag of gateway.rate.limit.denied.
+     * @param id The caller's key (CallerKeyResolver).
+     * @param config The limits.
+     */
+    public Mono<Response> isAllowed(String routeId, String id, Config config) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, config.getReplenishRate());
+        long capacityNanos = intervalNanos * Math.max(1, config.getBurstCapacity());
+        long now = System.nanoTime();
+
+        TokenBucket bucket = buckets.get(routeId + ' ' + id, key -> new TokenBucket(now));
+        long waitNanos = bucket.tryAcquire(now, intervalNanos, capacityNanos);
+        if (waitNanos == 0) {
+            return Mono.just(new Response(true,
+                    Map.of(REMAINING_HEADER, Long.toString(bucket.remaining(now, intervalNanos, capacityNanos)))));
+        }
+        meterRegistry.counter("gateway.rate.limit.denied", "route", routeId).increment();
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        return Mono.just(new Response(false,
+                Map.of(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds), REMAINING_HEADER, "0")));
+    }
+
+    /**
+     * Per-route limits.
+     */
+    public static class Config {
+
+        /**
+         * Sustained requests per second per caller.
+         */
+        private int replenishRate = 10;
+
+        /**
+         * Requests a caller may send at once after being idle.
+         */
+        private int burstCapacity = 20;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+    }
+}
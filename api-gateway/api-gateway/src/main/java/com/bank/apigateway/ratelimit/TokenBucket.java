@@ -0,0 +1,51 @@
+package com.bank.apigateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, stored as the single number GCRA (the generic cell rate algorithm) uses:
+ * the time at which the bucket will be full again. Taking a token moves that time one refill interval forward;
+ * a request is refused when the time would end up more than a full bucket (burst) ahead of now.
+ * This behaves exactly like a bucket of burstCapacity tokens refilled at one token per interval, without a
+ * refill thread or a lock: a request is one read and one compare-and-set.
+ * Times are System.nanoTime() values; the rates are passed on every call so that a changed route config
+ * applies to existing buckets.
+ */
+final class TokenBucket {
+
+    private final AtomicLong fullAt;
+
+    TokenBucket(long now) {
+        this.fullAt = new AtomicLong(now); // Starts full
+    }
+
+    /**
+     * Takes one token if there is one.
+     * @param now The current System.nanoTime().
+     * @param intervalNanos The time to refill one token.
+     * @param capacityNanos The time to refill the whole bucket (burst capacity * interval).
+     * @return 0 if a token was taken, otherwise the nanoseconds until one is available.
+     */
+    long tryAcquire(long now, long intervalNanos, long capacityNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - now > 0 ? current : now) + intervalNanos; // An idle bucket does not go above full
+            long wait = next - capacityNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+            // Another request took a token at the same time; retry with its value
+        }
+    }
+
+    /**
+     * @return The whole tokens left at the given time.
+     */
+    long remaining(long now, long intervalNanos, long capacityNanos) {
+        long untilFull = Math.max(0, fullAt.get() - now);
+        return (capacityNanos - untilFull) / intervalNanos;
+    }
+}
@@ -0,0 +1,101 @@
+package com.bank.apigateway.dashboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Checks the dashboard against stubbed services: the sections and merged recent transactions,
+ * and that a slow or failing service only costs its own section.
+ */
+class DashboardAggregatorTest {
+
+    private static final Duration LEG_TIMEOUT = Duration.ofMillis(300);
+
+    /**
+     * Stubbed answers by host and path; a missing path is answered after 10 seconds.
+     */
+    private final Map<String, ClientResponse> answers = new ConcurrentHashMap<>();
+    private final Map<String, String> authorizations = new ConcurrentHashMap<>();
+
+    private final DashboardAggregator aggregator = new DashboardAggregator(
+            WebClient.builder().exchangeFunction(request -> {
+                String path = request.url().getHost() + request.url().getPath();
+                authorizations.put(path, String.valueOf(request.headers().getFirst(HttpHeaders.AUTHORIZATION)));
+                ClientResponse answer = answers.get(path);
+                return answer != null ? Mono.just(answer) : Mono.delay(Duration.ofSeconds(10)).then(Mono.empty());
+            }).build(),
+            new SimpleMeterRegistry(), LEG_TIMEOUT, 3);
+
+    @Test
+    void combinesEverySectionAndTheNewestTransactionsOfAllAccounts() {
+        answer("user-service/auth/profile", "{\"userId\":\"u1\",\"firstName\":\"Asha\"}");
+        answer("account-service/accounts/user/u1", "[{\"accountId\":\"a1\",\"balance\":10},{\"accountId\":\"a2\",\"balance\":5}]");
+        answer("credit-card-service/cards/user/u1", "[]");
+        answers.put("loan-service/loans/user/u1", ClientResponse.create(HttpStatus.NO_CONTENT).build());
+        answer("transaction-service/transactions/account/a1/history", "{\"transactions\":["
+                + "{\"transactionId\":\"t4\",\"transactionDate\":\"2025-03-04T10:00:00\"},"
+                + "{\"transactionId\":\"t1\",\"transactionDate\":\"2025-03-01T10:00:00\"}],\"hasMore\":false}");
+        answer("transaction-service/transactions/account/a2/history", "{\"transactions\":["
+                + "{\"transactionId\":\"t3\",\"transactionDate\":\"2025-03-03T10:00:00\"},"
+                + "{\"transactionId\":\"t2\",\"transactionDate\":\"2025-03-02T10:00:00\"}],\"hasMore\":true}");
+
+        ResponseEntity<DashboardResponse> response = aggregator.getDashboard("Bearer token", "u1").block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        DashboardResponse dashboard = response.getBody();
+        assertEquals("Asha", dashboard.profile().path("firstName").asText());
+        assertEquals(2, dashboard.accounts().size());
+        assertEquals(0, dashboard.cards().size());
+        assertEquals(0, dashboard.loans().size()); // 204: no loans
+        assertEquals("t4", dashboard.recentTransactions().get(0).path("transactionId").asText());
+        assertEquals("t3", dashboard.recentTransactions().get(1).path("transactionId").asText());
+        assertEquals("t2", dashboard.recentTransactions().get(2).path("transactionId").asText());
+        assertEquals(3, dashboard.recentTransactions().size());
+        assertTrue(dashboard.errors().isEmpty());
+        assertEquals("Bearer token", authorizations.get("account-service/accounts/user/u1"));
+    }
+
+    @Test
+    void aSlowOrFailingServiceOnlyCostsItsOwnSection() {
+        answer("user-service/auth/profile", "{\"userId\":\"u1\"}");
+        answer("account-service/accounts/user/u1", "[]");
+        answers.put("credit-card-service/cards/user/u1", ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+        // No answer from loan-service: the leg times out
+
+        long start = System.nanoTime();
+        ResponseEntity<DashboardResponse> response = aggregator.getDashboard("Bearer token", "u1").block();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        DashboardResponse dashboard = response.getBody();
+        assertEquals("u1", dashboard.profile().path("userId").asText());
+        assertNull(dashboard.cards());
+        assertNull(dashboard.loans());
+        assertEquals(0, dashboard.recentTransactions().size());
+        assertEquals(Map.of("cards", "status 503", "loans", "timeout"), dashboard.errors());
+        assertTrue(elapsed.compareTo(LEG_TIMEOUT.multipliedBy(3)) < 0, "took " + elapsed);
+    }
+
+    private void answer(String path, String json) {
+        answers.put(path, ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(json)
+                .build());
+    }
+}
@@ -0,0 +1,68 @@
+package com.bank.apigateway.dashboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.bank.apigateway.filter.TestJwts;
+import com.bank.apigateway.ratelimit.LocalRateLimiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Checks that the dashboard only fans out for a verified caller within the caller's rate limit.
+ */
+class DashboardControllerTest {
+
+    private final AtomicInteger serviceCalls = new AtomicInteger();
+
+    private final DashboardController controller = new DashboardController(
+            new DashboardAggregator(WebClient.builder().exchangeFunction(request -> {
+                serviceCalls.incrementAndGet();
+                return Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).body("[]").build());
+            }).build(), new SimpleMeterRegistry(), Duration.ofSeconds(1), 5),
+            TestJwts.callerVerifier(),
+            new LocalRateLimiter(null, new SimpleMeterRegistry(), 1_000, Duration.ofMinutes(10)),
+            1, 2);
+
+    @Test
+    void aForgedTokenIsRejectedWithoutCallingAnyService() {
+        assertEquals(HttpStatus.UNAUTHORIZED, get(TestJwts.forgedJwt("alice")).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, get(null).getStatusCode());
+        assertEquals(0, serviceCalls.get());
+    }
+
+    @Test
+    void overTheLimitIsAnsweredWith429WithoutCallingAnyService() {
+        assertEquals(HttpStatus.OK, get(TestJwts.jwt("alice")).getStatusCode());
+        assertEquals(HttpStatus.OK, get(TestJwts.jwt("alice")).getStatusCode());
+        int callsForTwoDashboards = serviceCalls.get();
+
+        ResponseEntity<DashboardResponse> refused = get(TestJwts.jwt("alice"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, refused.getStatusCode());
+        assertEquals("1", refused.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(callsForTwoDashboards, serviceCalls.get());
+
+        assertEquals(HttpStatus.OK, get(TestJwts.jwt("bob")).getStatusCode()); // Separate budget
+    }
+
+    private ResponseEntity<DashboardResponse> get(String token) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/dashboard");
+        if (token != null) {
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        return controller.getDashboard(request.build()).block();
+    }
+}
@@ -0,0 +1,118 @@
+package com.bank.apigateway.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+
+import reactor.test.StepVerifier;
+
+/**
+ * Runs the gateway's decoder against a local stub of Keycloak's JWKS endpoint: tokens keep validating while the stub
+ * is down, a rotated key is picked up on first use, and a forged token is a BadJwtException (not a key failure).
+ */
+class CachingJwksReactiveJwtDecoderTest {
+
+    private final AtomicReference<JWKSet> servedKeys = new AtomicReference<>();
+    private final AtomicInteger fetches = new AtomicInteger();
+    private HttpServer jwksServer;
+    private CachingJwksReactiveJwtDecoder decoder;
+    private RSAKey firstKey;
+    private RSAKey secondKey;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        firstKey = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        secondKey = new RSAKeyGenerator(2048).keyID("key-2").generate(); // Generated up front: it is slow
+        servedKeys.set(new JWKSet(firstKey));
+
+        jwksServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        jwksServer.createContext("/certs", exchange -> {
+            fetches.incrementAndGet();
+            byte[] body = servedKeys.get().toString(true).getBytes(StandardCharsets.UTF_8); // Public keys only
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        jwksServer.start();
+
+        decoder = new CachingJwksReactiveJwtDecoder("http://localhost:" + jwksServer.getAddress().getPort() + "/certs",
+                Duration.ofSeconds(1), Duration.ofMillis(300), Duration.ofHours(1), Duration.ofMillis(50),
+                Duration.ofMillis(500));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        decoder.close();
+        jwksServer.stop(0);
+    }
+
+    @Test
+    void keepsValidatingWhileTheJwksServerIsDown() throws Exception {
+        String token = token(firstKey, "alice");
+        assertEquals("alice", decoder.decode(token).block().getSubject());
+
+        jwksServer.stop(0);
+        Thread.sleep(1_500); // Past the TTL: the refresh fails and the last keys stay in use
+
+        assertEquals("alice", decoder.decode(token).block().getSubject());
+    }
+
+    @Test
+    void rotatedKeyIsFetchedOnFirstUse() throws Exception {
+        assertEquals("alice", decoder.decode(token(firstKey, "alice")).block().getSubject());
+        int fetchesBeforeRotation = fetches.get();
+
+        servedKeys.set(new JWKSet(List.of(secondKey, firstKey)));
+        Thread.sleep(100); // Past the minimum refresh interval
+
+        assertEquals("bob", decoder.decode(token(secondKey, "bob")).block().getSubject());
+        assertEquals(fetchesBeforeRotation + 1, fetches.get());
+    }
+
+    @Test
+    void forgedTokenIsABadJwt() throws Exception {
+        RSAKey forger = new RSAKeyGenerator(2048).keyID("key-1").generate(); // Claims the realm's key ID
+
+        StepVerifier.create(decoder.decode(token(forger, "mallory")))
+                .expectError(BadJwtException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private static String token(RSAKey key, String subject) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(subject)
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
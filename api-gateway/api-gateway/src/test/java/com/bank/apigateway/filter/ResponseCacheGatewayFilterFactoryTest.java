@@ -0,0 +1,137 @@
+package com.bank.apigateway.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Checks which responses the gateway caches, for whom, and how cached responses are served.
+ */
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private final AtomicInteger downstreamCalls = new AtomicInteger();
+    private MeterRegistry meterRegistry;
+    private GatewayFilter filter;
+    private String downstreamCacheControl;
+    private int downstreamBodyKilobytes; // 0: a short text body
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ResponseCacheGatewayFilterFactory factory = new ResponseCacheGatewayFilterFactory(meterRegistry, DataSize.ofMegabytes(1),
+                DataSize.ofKilobytes(256));
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setTtl(Duration.ofSeconds(30));
+        filter = factory.apply(config);
+        downstreamCacheControl = "private, max-age=60";
+    }
+
+    @Test
+    void optedInGetIsCachedPerCaller() {
+        MockServerWebExchange first = send(get("/loans/loan-1/emi", "token-a"));
+        MockServerWebExchange second = send(get("/loans/loan-1/emi", "token-a"));
+        MockServerWebExchange otherCaller = send(get("/loans/loan-1/emi", "token-b"));
+
+        assertEquals(2, downstreamCalls.get());
+        assertEquals("response 1", first.getResponse().getBodyAsString().block());
+        assertEquals("response 1", second.getResponse().getBodyAsString().block());
+        assertNotNull(second.getResponse().getHeaders().getFirst(HttpHeaders.AGE));
+        assertEquals("response 2", otherCaller.getResponse().getBodyAsString().block());
+        assertEquals(1.0, meterRegistry.counter("gateway.response.cache", "route", "loan_service", "result", "hit").count());
+        assertEquals(2.0, meterRegistry.counter("gateway.response.cache", "route", "loan_service", "result", "miss").count());
+    }
+
+    @Test
+    void noStoreResponsesAreNotCachedAndMutationsEvict() {
+        downstreamCacheControl = "no-cache, no-store, max-age=0, must-revalidate"; // Spring Security's default
+        send(get("/loans/loan-1", "token-a"));
+        send(get("/loans/loan-1", "token-a"));
+        assertEquals(2, downstreamCalls.get());
+
+        downstreamCacheControl = "private, max-age=60";
+        send(get("/loans/loan-1/emi", "token-a"));
+        send(MockServerHttpRequest.post("/loans/apply").header(HttpHeaders.AUTHORIZATION, "Bearer token-a").build());
+        send(get("/loans/loan-1/emi", "token-a"));
+        assertEquals(5, downstreamCalls.get()); // The POST dropped the cached EMI
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnsweredWithNotModified() {
+        send(get("/cards/user/user-1", "token-a"));
+
+        MockServerWebExchange revalidation = send(MockServerHttpRequest.get("/cards/user/user-1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token-a")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"v1\"")
+                .build());
+
+        assertEquals(1, downstreamCalls.get());
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidation.getResponse().getStatusCode());
+    }
+
+    @Test
+    void bodiesOverTheLimitStreamThroughUncached() {
+        downstreamBodyKilobytes = 300;
+        MockServerWebExchange first = send(get("/loans/user/user-1", "token-a"));
+        send(get("/loans/user/user-1", "token-a"));
+        assertEquals(2, downstreamCalls.get());
+        assertEquals(300 * 1024, first.getResponse().getBodyAsString().block().length());
+
+        downstreamBodyKilobytes = 200; // Several buffers, under the limit
+        MockServerWebExchange stored = send(get("/loans/user/user-2", "token-a"));
+        MockServerWebExchange cached = send(get("/loans/user/user-2", "token-a"));
+        assertEquals(3, downstreamCalls.get());
+        assertEquals(stored.getResponse().getBodyAsString().block(), cached.getResponse().getBodyAsString().block());
+        assertEquals(200 * 1024, cached.getResponse().getBodyAsString().block().length());
+    }
+
+    private MockServerWebExchange send(MockServerHttpRequest request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        String routeId = request.getPath().value().startsWith("/cards") ? "credit-card-service" : "loan_service";
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+                Route.async().id(routeId).uri("http://localhost").predicate(e -> true).build());
+        filter.filter(exchange, downstream()).block();
+        return exchange;
+    }
+
+    private GatewayFilterChain downstream() {
+        return exchange -> {
+            int call = downstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setCacheControl(downstreamCacheControl);
+            exchange.getResponse().getHeaders().setETag("\"v1\"");
+            if (downstreamBodyKilobytes > 0) {
+                byte[] kilobyte = new byte[1024];
+                Arrays.fill(kilobyte, (byte) ('0' + call % 10));
+                return exchange.getResponse().writeWith(Flux.range(0, downstreamBodyKilobytes)
+                        .map(i -> exchange.getResponse().bufferFactory().wrap(kilobyte.clone())));
+            }
+            byte[] body = ("response " + call).getBytes(StandardCharsets.UTF_8);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+        };
+    }
+
+    private static MockServerHttpRequest get(String path, String token) {
+        return MockServerHttpRequest.get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + token).build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.bank.apigateway.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Checks that concurrent identical GETs share one call to the service, and that a follower
+ * whose leader takes too long or has a body too large to share makes its own call.
+ */
+class SingleFlightGatewayFilterFactoryTest {
+
+    private final AtomicInteger downstreamCalls = new AtomicInteger();
+    private final Sinks.Empty<Void> releaseFirstCall = Sinks.empty();
+    private MeterRegistry meterRegistry;
+    private SingleFlightGatewayFilterFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        factory = new SingleFlightGatewayFilterFactory(meterRegistry, DataSize.ofMegabytes(1));
+    }
+
+    @Test
+    void concurrentIdenticalGetsShareOneCall() {
+        GatewayFilter filter = filter(Duration.ofSeconds(5));
+        List<MockServerWebExchange> exchanges = new ArrayList<>();
+        List<Mono<Void>> requests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            MockServerWebExchange exchange = exchange("token-a");
+            exchanges.add(exchange);
+            requests.add(filter.filter(exchange, downstream()).cache());
+        }
+        requests.forEach(Mono::subscribe); // All in flight: the first one waits for releaseFirstCall
+        MockServerWebExchange otherCaller = exchange("token-b");
+        filter.filter(otherCaller, downstream()).block();
+
+        releaseFirstCall.tryEmitEmpty();
+        requests.forEach(Mono::block);
+
+        assertEquals(2, downstreamCalls.get());
+        for (MockServerWebExchange exchange : exchanges) {
+            assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+            assertEquals("response 1", exchange.getResponse().getBodyAsString().block());
+        }
+        assertEquals("response 2", otherCaller.getResponse().getBodyAsString().block());
+        assertEquals(9.0, meterRegistry.counter("gateway.single.flight", "route", "account_service", "result", "collapsed").count());
+    }
+
+    @Test
+    void followerMakesItsOwnCallAfterMaxWait() {
+        GatewayFilter filter = filter(Duration.ofMillis(50));
+        filter.filter(exchange("token-a"), downstream()).subscribe(); // Never answered
+
+        MockServerWebExchange follower = exchange("token-a");
+        filter.filter(follower, downstream()).block(Duration.ofSeconds(5));
+
+        assertEquals(2, downstreamCalls.get());
+        assertEquals("response 2", follower.getResponse().getBodyAsString().block());
+        assertEquals(1.0, meterRegistry.counter("gateway.single.flight", "route", "account_service", "result", "timeout").count());
+    }
+
+    @Test
+    void followerDoesNotWaitForABodyTooLargeToShare() {
+        factory = new SingleFlightGatewayFilterFactory(meterRegistry, DataSize.ofBytes(8));
+        GatewayFilter filter = filter(Duration.ofSeconds(5));
+        MockServerWebExchange leader = exchange("token-a");
+        Mono<Void> leaderCall = filter.filter(leader, exchange -> {
+            downstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            return exchange.getResponse().writeWith(Flux.concat(Mono.just(buffer(exchange, "response 1, part 1")),
+                    releaseFirstCall.asMono().then(Mono.fromSupplier(() -> buffer(exchange, ", part 2")))));
+        }).cache();
+        leaderCall.subscribe(); // Its first buffer is over the limit; the rest waits for releaseFirstCall
+
+        MockServerWebExchange follower = exchange("token-a");
+        filter.filter(follower, downstream()).block(Duration.ofSeconds(1));
+        assertEquals("response 2", follower.getResponse().getBodyAsString().block());
+
+        releaseFirstCall.tryEmitEmpty();
+        leaderCall.block();
+        assertEquals("response 1, part 1, part 2", leader.getResponse().getBodyAsString().block());
+    }
+
+    private static DataBuffer buffer(ServerWebExchange exchange, String text) {
+        return exchange.getResponse().bufferFactory().wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private GatewayFilter filter(Duration maxWait) {
+        SingleFlightGatewayFilterFactory.Config config = new SingleFlightGatewayFilterFactory.Config();
+        config.setMaxWait(maxWait);
+        return factory.apply(config);
+    }
+
+    private GatewayFilterChain downstream() {
+        return exchange -> Mono.defer(() -> {
+            int call = downstreamCalls.incrementAndGet();
+            Mono<Void> delay = call == 1 ? releaseFirstCall.asMono() : Mono.empty();
+            return delay.then(Mono.defer(() -> {
+                exchange.getResponse().setStatusCode(HttpStatus.OK);
+                byte[] body = ("response " + call).getBytes(StandardCharsets.UTF_8);
+                return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+            }));
+        });
+    }
+
+    private static MockServerWebExchange exchange(String token) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/accounts/user/user-1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token).build());
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+                Route.async().id("account_service").uri("http://localhost").predicate(e -> true).build());
+        return exchange;
+    }
+}
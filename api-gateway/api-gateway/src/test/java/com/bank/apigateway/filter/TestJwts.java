@@ -0,0 +1,87 @@
+package com.bank.apigateway.filter;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+/**
+ * Keycloak-like access tokens for tests, signed with a key pair of their own instead of the realm's,
+ * and a CallerVerifier that trusts that key pair.
+ */
+public final class TestJwts {
+
+    private static final KeyPair REALM_KEYS = generateKeyPair();
+    private static final KeyPair OTHER_KEYS = generateKeyPair();
+
+    private TestJwts() {
+    }
+
+    /**
+     * @return A token for the subject, valid for an hour.
+     */
+    public static String jwt(String subject) {
+        return sign(subject, REALM_KEYS.getPrivate());
+    }
+
+    /**
+     * @return A token for the subject that looks valid but is signed with the wrong key.
+     */
+    public static String forgedJwt(String subject) {
+        return sign(subject, OTHER_KEYS.getPrivate());
+    }
+
+    public static CallerVerifier callerVerifier() {
+        return callerVerifier(NimbusReactiveJwtDecoder.withPublicKey((RSAPublicKey) REALM_KEYS.getPublic()).build());
+    }
+
+    public static CallerVerifier callerVerifier(ReactiveJwtDecoder jwtDecoder) {
+        return new CallerVerifier(jwtDecoder, 10_000);
+    }
+
+    private static String sign(String subject, PrivateKey key) {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(subject)
+                .issuer("http://localhost:8080/realms/bank-realm")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(3600)))
+                .jwtID(UUID.randomUUID().toString())
+                .claim("preferred_username", subject)
+                .claim("realm_access", Map.of("roles", List.of("CUSTOMER")))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claims);
+        try {
+            jwt.sign(new RSASSASigner(key));
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+        return jwt.serialize();
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.bank.apigateway.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.RequestRateLimiterGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import com.bank.apigateway.filter.TestJwts;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Checks the token bucket arithmetic, that concurrent requests never get more than the burst,
+ * the 429 answer through the gateway's RequestRateLimiter filter, and that only a verified subject becomes a user key.
+ */
+class LocalRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void bucketAllowsTheBurstThenTheSustainedRate() {
+        long start = 1_000 * SECOND;
+        TokenBucket bucket = new TokenBucket(start);
+        long interval = SECOND / 2; // 2 requests per second
+        long capacity = interval * 3; // Burst of 3
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(start, interval, capacity));
+        }
+        assertEquals(interval, bucket.tryAcquire(start, interval, capacity));
+
+        assertEquals(0, bucket.tryAcquire(start + interval, interval, capacity));
+        assertTrue(bucket.tryAcquire(start + interval, interval, capacity) > 0);
+        assertEquals(3, bucket.remaining(start + 10 * SECOND, interval, capacity)); // Idle: full again, not more
+    }
+
+    @Test
+    void concurrentRequestsNeverExceedTheBurst() throws Exception {
+        long now = System.nanoTime();
+        TokenBucket bucket = new TokenBucket(now);
+        long interval = SECOND; // Nothing refills during the test
+        AtomicInteger allowed = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(executor.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    if (bucket.tryAcquire(now, interval, interval * 100) == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(100, allowed.get());
+    }
+
+    @Test
+    void overTheLimitIsAnsweredWith429AndRetryAfterPerUser() {
+        LocalRateLimiter limiter = new LocalRateLimiter(null, new SimpleMeterRegistry(), 1_000, Duration.ofMinutes(10));
+        limiter.getConfig().put("transaction_service", new LocalRateLimiter.Config().setReplenishRate(1).setBurstCapacity(2));
+        GatewayFilter filter = new RequestRateLimiterGatewayFilterFactory(limiter, new CallerKeyResolver(TestJwts.callerVerifier()))
+                .apply(new RequestRateLimiterGatewayFilterFactory.Config());
+
+        assertEquals(HttpStatus.OK, send(filter, "alice").getResponse().getStatusCode());
+        assertEquals(HttpStatus.OK, send(filter, "alice").getResponse().getStatusCode());
+        MockServerWebExchange refused = send(filter, "alice");
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, refused.getResponse().getStatusCode());
+        assertEquals("1", refused.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        assertEquals(HttpStatus.OK, send(filter, "bob").getResponse().getStatusCode()); // Separate budget
+    }
+
+    @Test
+    void keyIsTheVerifiedSubjectOrTheClientAddress() {
+        CallerKeyResolver resolver = new CallerKeyResolver(TestJwts.callerVerifier());
+        assertEquals("user:alice", resolveKey(resolver, "Bearer " + TestJwts.jwt("alice")));
+        assertEquals("ip:10.0.0.7", resolveKey(resolver, null));
+        assertEquals("ip:10.0.0.7", resolveKey(resolver, "Bearer not-a-jwt"));
+        // A forged subject neither gets a bucket of its own nor spends alice's
+        assertEquals("ip:10.0.0.7", resolveKey(resolver, "Bearer " + TestJwts.forgedJwt("alice")));
+        assertEquals("ip:10.0.0.7", resolveKey(resolver, "Bearer " + TestJwts.forgedJwt("mallory-" + System.nanoTime())));
+    }
+
+    @Test
+    void tokensThatCannotBeCheckedAreKeyedByTokenAndAddress() {
+        CallerKeyResolver resolver = new CallerKeyResolver(TestJwts.callerVerifier(
+                token -> Mono.error(new JwtException("Couldn't retrieve remote JWK set"))));
+        String key = resolveKey(resolver, "Bearer " + TestJwts.jwt("alice"));
+        assertTrue(key.startsWith("token:") && key.endsWith("@10.0.0.7"), key);
+        assertFalse(key.contains("alice"), key);
+    }
+
+    private static String resolveKey(CallerKeyResolver resolver, String authorization) {
+        return resolver.resolve(MockServerWebExchange.from(request(authorization))).block();
+    }
+
+    private static MockServerWebExchange send(GatewayFilter filter, String subject) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request("Bearer " + TestJwts.jwt(subject)));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+                Route.async().id("transaction_service").uri("http://localhost").predicate(e -> true).build());
+        filter.filter(exchange, ex -> {
+            ex.getResponse().setStatusCode(HttpStatus.OK);
+            return Mono.empty();
+        }).block();
+        return exchange;
+    }
+
+    private static MockServerHttpRequest request(String authorization) {
+        MockServerHttpRequest.BaseBuilder<?> builder = MockServerHttpRequest.post("/transactions/transfer")
+                .remoteAddress(new InetSocketAddress("10.0.0.7", 50000));
+        if (authorization != null) {
+            builder.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return builder.build();
+    }
+}
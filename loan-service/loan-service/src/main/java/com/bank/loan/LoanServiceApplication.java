@@ -3,12 +3,16 @@ package com.bank.loan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 
+import com.bank.loan.config.PeakEwmaLoadBalancerConfiguration;
+
 @SpringBootApplication
 @EnableFeignClients
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class) // Feign calls go to the least loaded, fastest instances
 @EntityScan("com.bank.loan.entity") // Scans for JPA entities
 @EnableJpaRepositories("com.bank.loan.repository") // IMPORTANT: Scans for your NotificationRepository
 @EnableMethodSecurity(prePostEnabled = true)
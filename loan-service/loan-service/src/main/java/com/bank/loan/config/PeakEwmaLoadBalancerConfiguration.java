@@ -0,0 +1,31 @@
+package com.bank.loan.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load balancer configuration of every Feign client's target service, registered with
+ * {@code @LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)}.
+ * Deliberately not a @Configuration: its beans belong in each service's own load balancer context,
+ * not in the application context (where one balancer would be shared by all services).
+ * Settings:
+ * - loadbalancer.peak-ewma.decay-time (default 10s): how quickly faster responses pull an instance's average down.
+ * - loadbalancer.peak-ewma.failure-penalty (default 1s): the response time a failed call counts as, at least.
+ */
+public class PeakEwmaLoadBalancerConfiguration {
+
+    @Bean
+    public PeakEwmaLoadBalancer peakEwmaLoadBalancer(Environment environment,
+            LoadBalancerClientFactory loadBalancerClientFactory) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        Duration decayTime = DurationStyle.detectAndParse(environment.getProperty("loadbalancer.peak-ewma.decay-time", "10s"));
+        Duration failurePenalty = DurationStyle.detectAndParse(environment.getProperty("loadbalancer.peak-ewma.failure-penalty", "1s"));
+        return new PeakEwmaLoadBalancer(loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId, decayTime.toNanos(), failurePenalty.toNanos());
+    }
+}
@@ -1,8 +1,10 @@
 package com.bank.loan.controller;
 
+import java.time.Duration;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired; // Added for @Autowired
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus; // Added for specific HTTP status codes
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize; // For method-level security
@@ -120,6 +122,7 @@ public class LoanController {
 	/**
 	 * Handles GET /loans/{loanId}/emi requests.
 	 * Calculates the EMI for a specific loan.
+	 * The frontend polls this, so the answer may be cached privately (per caller) for a minute, e.g. by the gateway.
 	 * @param loanId The ID of the loan.
 	 * @return ResponseEntity with the calculated EMI and HTTP status 200 (OK).
 	 */
@@ -127,7 +130,9 @@ public class LoanController {
 //	@PreAuthorize("isAuthenticated() and (hasRole('ADMIN') or @loanService.getLoanById(#loanId).get().getUserId() == authentication.principal.subject)")
 	// ADMINs can calculate EMI for any loan; CUSTOMERs can calculate EMI for their own loans.
 	public ResponseEntity<Double> calculateEmi(@PathVariable String loanId) {
-		return ResponseEntity.ok(loanService.calculateEmi(loanId));
+		return ResponseEntity.ok()
+				.cacheControl(CacheControl.maxAge(Duration.ofMinutes(1)).cachePrivate())
+				.body(loanService.calculateEmi(loanId));
 	}
 }
 
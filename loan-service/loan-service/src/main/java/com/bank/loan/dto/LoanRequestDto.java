@@ -5,7 +5,9 @@ import lombok.Data;
 
 import java.math.BigDecimal;
 
+import com.bank.loan.entity.Money;
 import com.bank.loan.enums.LoanType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Data
 public class LoanRequestDto {
@@ -13,9 +15,10 @@ public class LoanRequestDto {
 	@NotBlank(message = "User ID is required")
 	private String userId;
 
+	private static final Money MIN_LOAN_AMOUNT = Money.of(new BigDecimal("1000.00"));
+
 	@NotNull(message = "Loan amount is required")
-	@DecimalMin(value = "1000.00", message = "Loan amount must be at least 1000")
-	private BigDecimal amount;
+	private Money amount;
 
 	@NotNull(message = "Tenure is required")
 	@Min(value = 1, message = "Minimum tenure is 1 month")
@@ -28,4 +31,10 @@ public class LoanRequestDto {
 	@NotNull(message = "Loan type is required")
 	private LoanType loanType;
 
+	// @DecimalMin does not apply to Money, so the minimum is checked here (reported as "amountAtLeastMinimum")
+	@JsonIgnore
+	@AssertTrue(message = "Loan amount must be at least 1000")
+	public boolean isAmountAtLeastMinimum() {
+		return amount == null || amount.isGreaterThanOrEqualTo(MIN_LOAN_AMOUNT);
+	}
 }
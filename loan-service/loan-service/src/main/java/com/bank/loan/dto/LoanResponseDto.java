@@ -2,9 +2,9 @@ package com.bank.loan.dto;
 
 import lombok.Data;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import com.bank.loan.entity.Money;
 import com.bank.loan.enums.LoanType;
 
 @Data
@@ -12,7 +12,7 @@ public class LoanResponseDto {
 	private String loanId;
 	private String userId;
 	private LoanType loanType;
-	private BigDecimal amount;
+	private Money amount;
 	private Integer tenureInMonths;
 	private Double interestRate;
 	private String status;
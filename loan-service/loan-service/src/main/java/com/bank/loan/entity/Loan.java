@@ -3,7 +3,6 @@ package com.bank.loan.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
 import com.bank.loan.enums.LoanType;
@@ -24,8 +23,8 @@ public class Loan {
 	@Column(name = "loan_type")
     private LoanType loanType;
 
-	@Column(name = "amount", nullable = false)
-	private BigDecimal amount;
+	@Column(name = "amount", nullable = false, precision = 19, scale = 2)
+	private Money amount;
 
 	@Column(name = "tenure_in_months", nullable = false)
 	private Integer tenureInMonths;
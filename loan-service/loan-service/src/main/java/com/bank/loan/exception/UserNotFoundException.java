@@ -0,0 +1,10 @@
+package com.bank.loan.exception;
+
+/**
+ * Thrown when a loan is requested for a user that the User Service does not know.
+ */
+public class UserNotFoundException extends RuntimeException {
+	public UserNotFoundException(String message) {
+		super(message);
+	}
+}
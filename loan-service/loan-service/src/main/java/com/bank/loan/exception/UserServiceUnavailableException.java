@@ -0,0 +1,11 @@
+package com.bank.loan.exception;
+
+/**
+ * Thrown when the User Service cannot be asked whether a user exists (outage, open circuit breaker).
+ * The user is then neither accepted nor rejected; the client can retry later.
+ */
+public class UserServiceUnavailableException extends RuntimeException {
+	public UserServiceUnavailableException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -9,6 +9,7 @@ import com.bank.loan.dto.LoanRequestDto;
 import com.bank.loan.dto.LoanResponseDto;
 import com.bank.loan.entity.Loan;
 import com.bank.loan.exception.LoanNotFoundException;
+import com.bank.loan.exception.UserNotFoundException;
 import com.bank.loan.mapper.LoanMapper;
 import com.bank.loan.repository.LoanRepository;
 
@@ -17,13 +18,18 @@ import jakarta.persistence.EntityNotFoundException;
 @Service
 public class LoanServiceImpl implements LoanService {
 	private final LoanRepository loanRepository;
+	private final UserValidationCache userValidationCache; // Cached user existence checks against the User Service
 
-	public LoanServiceImpl(LoanRepository loanRepository) {
+	public LoanServiceImpl(LoanRepository loanRepository, UserValidationCache userValidationCache) {
 		this.loanRepository = loanRepository;
+		this.userValidationCache = userValidationCache;
 	}
 
 	@Override
 	public LoanResponseDto applyForLoan(LoanRequestDto requestDto) {
+		// Unknown users are rejected; if the User Service is down, UserServiceUnavailableException is thrown (503)
+		userValidationCache.findUser(requestDto.getUserId())
+				.orElseThrow(() -> new UserNotFoundException("User not found with ID: " + requestDto.getUserId()));
 		Loan loan = LoanMapper.toEntity(requestDto);
 		Loan savedLoan = loanRepository.save(loan);
 		return LoanMapper.toDto(savedLoan);
@@ -66,7 +72,7 @@ public class LoanServiceImpl implements LoanService {
 		Loan loan = loanRepository.findById(loanId)
 				.orElseThrow(() -> new LoanNotFoundException("Loan not found with id: " + loanId));
 
-		double principal = loan.getAmount().doubleValue();
+		double principal = loan.getAmount().toBigDecimal().doubleValue();
 		double annualRate = loan.getInterestRate();
 		int months = loan.getTenureInMonths();
 
@@ -0,0 +1,106 @@
+package com.bank.loan.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bank.loan.client.UserClient;
+import com.bank.loan.dto.UserDto;
+import com.bank.loan.exception.UserServiceUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caches the answer to "does this user exist?" so that loan applications of the same user
+ * (e.g. a bulk import) cost one User Service call per user instead of one per application.
+ * Known users are kept for loan.user-cache.ttl. Unknown users (404 from the User Service) are cached too,
+ * for the shorter loan.user-cache.negative-ttl, so a user who registers right after a rejected attempt
+ * is accepted soon after.
+ * An unavailable User Service is never cached and never treated as a valid user: the lookup fails instead.
+ * Concurrent lookups of the same user wait for a single User Service call.
+ * Hit/miss counts are published as the cache.* metrics with tag cache=user-validation.
+ */
+@Component
+public class UserValidationCache {
+
+    private static final String CACHE_NAME = "user-validation";
+
+    private final UserClient userClient;
+    private final Cache<String, Optional<UserDto>> users;
+
+    @Autowired
+    public UserValidationCache(UserClient userClient, ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${loan.user-cache.max-size:100000}") long maxSize,
+            @Value("${loan.user-cache.ttl:PT10M}") Duration ttl,
+            @Value("${loan.user-cache.negative-ttl:PT30S}") Duration negativeTtl) {
+        this.userClient = userClient;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new KnownOrUnknownExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                .build();
+        // No registry in tests without actuator auto-configuration
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, users, CACHE_NAME));
+    }
+
+    /**
+     * Looks the user up in the cache, asking the User Service on a miss.
+     * @param userId The ID of the user.
+     * @return The user, or empty if the User Service does not know the user.
+     * @throws UserServiceUnavailableException if the User Service could not be asked (the result is not cached).
+     */
+    public Optional<UserDto> findUser(String userId) {
+        return users.get(userId, this::loadUser);
+    }
+
+    /**
+     * Removes a user from the cache (e.g. after the user was deleted).
+     * @param userId The ID of the user.
+     */
+    public void evict(String userId) {
+        users.invalidate(userId);
+    }
+
+    private Optional<UserDto> loadUser(String userId) {
+        try {
+            // The Feign fallback returns null only for a 404 and throws for every other failure
+            return Optional.ofNullable(userClient.getUserById(userId));
+        } catch (FeignException.NotFound e) {
+            return Optional.empty(); // Reached when the call is not wrapped by the circuit breaker
+        } catch (UserServiceUnavailableException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new UserServiceUnavailableException("Failed to validate user due to User Service error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Expires known users after the TTL and unknown users after the (shorter) negative TTL, counted from the lookup.
+     */
+    private record KnownOrUnknownExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<String, Optional<UserDto>> {
+
+        @Override
+        public long expireAfterCreate(String userId, Optional<UserDto> user, long currentTime) {
+            return user.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String userId, Optional<UserDto> user, long currentTime, long currentDuration) {
+            return expireAfterCreate(userId, user, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String userId, Optional<UserDto> user, long currentTime, long currentDuration) {
+            return currentDuration; // Reads do not extend the lifetime
+        }
+    }
+}